@@ -9,6 +9,7 @@ import ua.com.mangostore.entity.enums.DeliveryType;
 import ua.com.mangostore.entity.enums.EmployeePosition;
 import ua.com.mangostore.entity.enums.OnMain;
 import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
 import ua.com.mangostore.service.*;
 
 import javax.annotation.Resource;
@@ -77,8 +78,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
         /**
          * Добавляем продукцию
          */
-        Product product1 = new Product("iPhone 7 Plus 32GB ", "Смартфоны", "Apple", 35_000, 17_999);
+        Product product1 = new Product("iPhone 7 Plus 32GB ", "Смартфоны", "Apple", Money.ofHryvnias(35_000), Money.ofHryvnias(17_999));
         product1.setImageURL("http://localhost:8080/resources/img/apple_iphone-7_400x480.jpg");
+        product1.setQuantity(50);
         product1.setOnMain(OnMain.ON_MAIN);
         product1.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Новое поколение легенды</h3>" +
@@ -112,8 +114,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "5.5", "1920 x 1080", "158.2 x 77.9 x 7.3 мм", "188 г",
                 "двойная камера 12 Мп с широкоугольным и телеобъективом", "7 Мп");
 
-        Product product2 = new Product("Samsung A710F Galaxy A7", "Смартфоны", "Samsung", 11_199, 7_999);
+        Product product2 = new Product("Samsung A710F Galaxy A7", "Смартфоны", "Samsung", Money.ofHryvnias(11_199), Money.ofHryvnias(7_999));
         product2.setImageURL("http://localhost:8080/resources/img/samsung_a710f_galaxy_a7_400x480.jpg");
+        product2.setQuantity(50);
         product2.setOnMain(OnMain.ON_MAIN);
         product2.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Великолепное сочетание металла и стекла</h3>" +
@@ -136,8 +139,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "Android v5.1 Lollipop", "8-ядерный процессор с частотой 1.6 ГГц",
                 "5.5", "1920 x 1080", "151.5 x 74.1 x 7.3 мм", "172 г", "13 Мп", "5 Мп");
 
-        Product product3 = new Product("Meizu MX6", "Смартфоны", "Meizu", 7_099, 5_299);
+        Product product3 = new Product("Meizu MX6", "Смартфоны", "Meizu", Money.ofHryvnias(7_099), Money.ofHryvnias(5_299));
         product3.setImageURL("http://localhost:8080/resources/img/meizu_mx6_400x480.jpg");
+        product3.setQuantity(50);
         product3.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Камерофон</h3>" +
                         "<p align=\"justify\">" +
@@ -169,8 +173,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "Android", "Десятиядерный MediaTek Helio X20 (MT6797) (4 x 1.5 ГГц + 4 x 1.9 ГГц + 2 x 2.3 ГГц)",
                 "5.5", "1920 x 1080", "153.6 x 75.2 x 7.25 мм", "155 г", "(Sony IMX 386) 12 Мп", "5 Мп");
 
-        Product product4 = new Product("iPad Air 2 16GB", "Планшеты", "Apple", 12_000, 10_999);
+        Product product4 = new Product("iPad Air 2 16GB", "Планшеты", "Apple", Money.ofHryvnias(12_000), Money.ofHryvnias(10_999));
         product4.setImageURL("http://localhost:8080/resources/img/apple_ipad_air-2_400x480.jpg");
+        product4.setQuantity(50);
         product4.setOnMain(OnMain.ON_MAIN);
         product4.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Вы не захотите выпускать его из рук</h3>" +
@@ -229,8 +234,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "iOS 8", "Процессор A8X с 64-битной архитектурой", "9.7", "2048 x 1536",
                 "240 х 169.5 х 6.1 мм", "444 г", "8 Мп ", "1.2 Мп");
 
-        Product product5 = new Product("Xiaomi MiPad 2 16Gb", "Планшеты", "Xiaomi", 4_700, 3_999);
+        Product product5 = new Product("Xiaomi MiPad 2 16Gb", "Планшеты", "Xiaomi", Money.ofHryvnias(4_700), Money.ofHryvnias(3_999));
         product5.setImageURL("http://localhost:8080/resources/img/xiaomi_mipad_2_16gb_400x480.jpg");
+        product5.setQuantity(50);
         product5.setOnMain(OnMain.ON_MAIN);
         product5.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Цельнометаллический корпус</h3>" +
@@ -255,8 +261,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "Android 5.1 + MIUI V7", "4-ядерный Intel Atom X5-Z8500 с тактовой частотой 2.2 ГГц", "7.9", "2048x1536",
                 "200.4 х 132.6 х 6.95 мм", "322 г", "8 Мп ", "5 Мп");
 
-        Product product6 = new Product("Samsung Galaxy Tab S2 8\"", "Планшеты", "Samsung", 10_000, 7_999);
+        Product product6 = new Product("Samsung Galaxy Tab S2 8\"", "Планшеты", "Samsung", Money.ofHryvnias(10_000), Money.ofHryvnias(7_999));
         product6.setImageURL("http://localhost:8080/resources/img/samsung_galaxy_tab_s2_400x480.jpg");
+        product6.setQuantity(50);
         product6.setOnMain(OnMain.ON_MAIN);
         product6.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Исключительно легкий и тонкий</h3>" +
@@ -286,8 +293,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "Android 5.0 (Lollipop)", "Samsung Exynos 5433 (1.9 ГГц + 1.3 ГГц)", "8\"", "2048x1536",
                 "134.8 x 198.6 x 5.6 мм", "265 г", "8 Мп ", "2.1 Мп");
 
-        Product product7 = new Product("Meizu M3s", "Смартфоны", "Meizu", 5_000, 3_999);
+        Product product7 = new Product("Meizu M3s", "Смартфоны", "Meizu", Money.ofHryvnias(5_000), Money.ofHryvnias(3_999));
         product7.setImageURL("http://localhost:8080/resources/img/meizu_m3s_400x480.jpg");
+        product7.setQuantity(50);
         product7.setOnMain(OnMain.ON_MAIN);
         product7.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Металлическое совершенство</h3>" +
@@ -315,8 +323,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "Android", "Восьмиядерный MediaTek MT6750 (4 x 1.5 ГГц + 4 x 1 ГГц)", "5", "1280 x 720",
                 "141.9 x 69.9 x 8.3 мм", "138 г", "13 Мп ", "5 Мп");
 
-        Product product8 = new Product("Meizu M3 Note 16GB Grey", "Смартфоны", "Meizu", 3_000, 3_000);
+        Product product8 = new Product("Meizu M3 Note 16GB Grey", "Смартфоны", "Meizu", Money.ofHryvnias(3_000), Money.ofHryvnias(3_000));
         product8.setImageURL("http://localhost:8080/resources/img/meizu_m3s_400x480.jpg");
+        product8.setQuantity(50);
         product8.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Металлическое совершенство</h3>" +
                         "<p align=\"justify\">" +
@@ -348,8 +357,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "Android", "Восьмиядерный MediaTek Helio P10 (4 x 1.8 ГГц + 4 x 1 ГГц)", "5.5", "1920 x 1080",
                 "153.6 х 75.5 х 8.2 мм", "163 г", "13 Мп ", "5 Мп");
 
-        Product product9 = new Product("iPhone 5s 16GB", "Смартфоны", "Apple", 7_000, 7_000);
+        Product product9 = new Product("iPhone 5s 16GB", "Смартфоны", "Apple", Money.ofHryvnias(7_000), Money.ofHryvnias(7_000));
         product9.setImageURL("http://localhost:8080/resources/img/iphone_5s_white_400x480.jpg");
+        product9.setQuantity(50);
         product9.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Незаменим с момента создания</h3>" +
                         "<p align=\"justify\">" +
@@ -413,8 +423,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "iOS 7", "Процессор A7 с 64-битной архитектурой", "4", "1136 x 640",
                 "123.8 x 58.6 x 7.6 мм", "112 г", "8 Мп ", "1.2 Мп");
 
-        Product product10 = new Product("iPhone 6s Plus 16GB", "Смартфоны", "Apple", 20_000, 20_000);
+        Product product10 = new Product("iPhone 6s Plus 16GB", "Смартфоны", "Apple", Money.ofHryvnias(20_000), Money.ofHryvnias(20_000));
         product10.setImageURL("http://localhost:8080/resources/img/apple_iphone_6s_Plus_16gb_400x480.jpg");
+        product10.setQuantity(50);
         product10.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Всё по-новому</h3>" +
                         "<p align=\"justify\">" +
@@ -469,8 +480,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "iOS 9", "Процессор A9 с 64-битной архитектурой", "5.5", "1920x1080",
                 "158.2 x 77.9 x 7.3 мм", "192 г", "12 Мп ", "5 Мп");
 
-        Product product11 = new Product("iPhone 6 Plus", "Смартфоны", "Apple", 19_000, 19_000);
+        Product product11 = new Product("iPhone 6 Plus", "Смартфоны", "Apple", Money.ofHryvnias(19_000), Money.ofHryvnias(19_000));
         product11.setImageURL("http://localhost:8080/resources/img/apple_iphone_6_plus_400x480.jpg");
+        product11.setQuantity(50);
         product11.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Больше. Во всех проявлениях.</h3>" +
                         "<p align=\"justify\">" +
@@ -518,8 +530,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "iOS 8", "Процессор A8 с 64-разрядной архитектурой", "5.5", "1920x1080",
                 "158,1 x 77,8 x 7,1 мм", "172 г", "8 Мп", "1.2 Мп");
 
-        Product product12 = new Product("iPhone SE 16Gb", "Смартфоны", "Apple", 12_000, 12_000);
+        Product product12 = new Product("iPhone SE 16Gb", "Смартфоны", "Apple", Money.ofHryvnias(12_000), Money.ofHryvnias(12_000));
         product12.setImageURL("http://localhost:8080/resources/img/iphone_se_16gb.jpg");
+        product12.setQuantity(50);
         product12.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Малая форма в своей лучшей форме</h3>" +
                         "<p align=\"justify\">" +
@@ -581,8 +594,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "iOS 9", "Процессор A9 с 64-битной архитектурой", "4", "1136 x 640",
                 "123.8 x 58.6 x 7.6 мм", "113 г", "12 Мп ", "1.2 Мп");
 
-        Product product13 = new Product("iPad Air 16GB", "Планшеты", "Apple", 8_000, 7_000);
+        Product product13 = new Product("iPad Air 16GB", "Планшеты", "Apple", Money.ofHryvnias(8_000), Money.ofHryvnias(7_000));
         product13.setImageURL("http://localhost:8080/resources/img/ipad_air_400x480.jpg");
+        product13.setQuantity(50);
         product13.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Мощь легче лёгкого</h3>" +
                         "<p align=\"justify\">" +
@@ -658,8 +672,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "iOS 7", "Процессор A7 с 64-битной архитектурой", "9.7", "2048 x 1536",
                 "240 х 169.5 х 7.5 мм", "469 г", "5 Мп ", "1.2 Мп");
 
-        Product product14 = new Product("iPad Pro 9.7 32GB", "Планшеты", "Apple", 17_000, 17_000);
+        Product product14 = new Product("iPad Pro 9.7 32GB", "Планшеты", "Apple", Money.ofHryvnias(17_000), Money.ofHryvnias(17_000));
         product14.setImageURL("http://localhost:8080/resources/img/apple_ipad_pro_9.7_400x480.jpg");
+        product14.setQuantity(50);
         product14.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">iPad Pro — это не просто следующее поколение iPad</h3>" +
                         "<p align=\"justify\">" +
@@ -729,8 +744,9 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "240 х 169,5 х 6,1 мм", "437 г", "12 Мп ", "5 Мп");
 
 
-        Product product15 = new Product("iMac with Retina 5K 27\"", "MacBook и iMac", "Apple", 70_000, 64_000);
+        Product product15 = new Product("iMac with Retina 5K 27\"", "MacBook и iMac", "Apple", Money.ofHryvnias(70_000), Money.ofHryvnias(64_000));
         product15.setImageURL("http://localhost:8080/resources/img/imac_with_retina_5k_display_27_400x480.jpg");
+        product15.setQuantity(50);
         product15.setDescription(
                 "<h3 style=\"margin-top: 10px; margin-bottom: -5px\">Внушительный или колоссальный</h3>" +
                         "<p align=\"justify\">" +
@@ -782,7 +798,7 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
                 "Стереодинамики");
         product15.setOnMain(OnMain.ON_MAIN);
 
-        //        Product product16 = new Product("", "Смартфоны", "Apple", 20_000, 20_000);
+        //        Product product16 = new Product("", "Смартфоны", "Apple", Money.ofHryvnias(20_000), Money.ofHryvnias(20_000));
 //        product12.setImageURL("http://localhost:8080/resources/img/");
 //        product12.setDescription(
 //                "<h3 style=\"margin-top: 10px; margin-bottom: -5px\"> </h3>" +
@@ -824,13 +840,13 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
         /**
          * Создаем торговые позиции
          */
-        double sumAllSalePositions = 0;
+        Money sumAllSalePositions = Money.ZERO;
         SalePosition salePosition1 = new SalePosition(product1, 1);
         SalePosition salePosition2 = new SalePosition(product3, 1);
         SalePosition salePosition3 = new SalePosition(product5, 3);
 
-        sumAllSalePositions = salePosition1.getPrice() + salePosition2.getPrice() + salePosition3.getPrice();
-        sumAllSalePositions = 0;
+        sumAllSalePositions = salePosition1.getPrice().plus(salePosition2.getPrice()).plus(salePosition3.getPrice());
+        sumAllSalePositions = Money.ZERO;
 
         /**
          * Создаём заказ
@@ -842,6 +858,7 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
         order1.addSalePosition(salePosition2);
         order1.addSalePosition(salePosition3);
         order1.setCustomer(customer);
+        order1.setRecipient(Recipient.of(customer));
 
         /**
          * Создаем доставку
@@ -870,11 +887,11 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
         /**
          * Создаем торговые позиции
          */
-        sumAllSalePositions = 0;
+        sumAllSalePositions = Money.ZERO;
         SalePosition salePosition4 = new SalePosition(product11, 1);
         SalePosition salePosition5 = new SalePosition(product7, 1);
         SalePosition salePosition6 = new SalePosition(product8, 3);
-        sumAllSalePositions = salePosition1.getPrice() + salePosition2.getPrice() + salePosition3.getPrice();
+        sumAllSalePositions = salePosition1.getPrice().plus(salePosition2.getPrice()).plus(salePosition3.getPrice());
 
         /**
          * Создаём заказ
@@ -886,6 +903,7 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
         order2.addSalePosition(salePosition5);
         order2.addSalePosition(salePosition6);
         order2.setCustomer(customer2);
+        order2.setRecipient(Recipient.of(customer2));
         order2.setStatus(Status.WORK);
 
         customer2.addOrder(order2);
@@ -916,10 +934,10 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
         /**
          * Создаем торговые позиции
          */
-        sumAllSalePositions = 0;
+        sumAllSalePositions = Money.ZERO;
         SalePosition salePosition7 = new SalePosition(product10, 1);
         SalePosition salePosition8 = new SalePosition(product6, 1);
-        sumAllSalePositions = salePosition1.getPrice() + salePosition2.getPrice() + salePosition3.getPrice();
+        sumAllSalePositions = salePosition1.getPrice().plus(salePosition2.getPrice()).plus(salePosition3.getPrice());
 
         /**
          * Создаём заказ
@@ -930,6 +948,7 @@ public class InitDatabase implements ApplicationListener<ContextRefreshedEvent>
         order3.addSalePosition(salePosition7);
         order3.addSalePosition(salePosition8);
         order3.setCustomer(customer3);
+        order3.setRecipient(Recipient.of(customer3));
         order3.setStatus(Status.WORK);
 
         /**
@@ -13,6 +13,7 @@ import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+import ua.com.mangostore.entity.generator.PooledSequenceGenerator;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
@@ -102,6 +103,23 @@ public class RootConfig extends WebMvcConfigurerAdapter {
      */
     private static final String PROPERTY_NAME_HIBERNATE_HBM2DDL_AUTO = "create";
 
+    /**
+     * Размер пакета JDBC: столько однотипных INSERT/UPDATE отправляется в базу данных за одно обращение.
+     */
+    private static final String PROPERTY_NAME_HIBERNATE_JDBC_BATCH_SIZE = "50";
+
+    /**
+     * Размер блока ключей, выделяемого из последовательности сущности за одно обращение.
+     */
+    private static final String PROPERTY_NAME_ID_ALLOCATION_SIZE = "50";
+
+    /**
+     * Размер пакетной выборки ленивых связей: при первом обращении к ленивой связи Hibernate
+     * выбирает ее сразу для стольких загруженных объектов. Страховка от N+1 запросов там,
+     * где запрос представления не выбрал связь join fetch.
+     */
+    private static final String PROPERTY_NAME_HIBERNATE_BATCH_FETCH_SIZE = "50";
+
     /**
      * Создает фабрику EntityManager, может быть передана в JPA с помощью инъекции зависимостей.
      *
@@ -122,6 +140,11 @@ public class RootConfig extends WebMvcConfigurerAdapter {
         properties.put("hibernate.dialect", PROPERTY_NAME_HIBERNATE_DIALECT);
         properties.put("hibernate.show_sql", PROPERTY_NAME_HIBERNATE_SHOW_SQL);
         properties.put("hibernate.hbm2ddl.auto", PROPERTY_NAME_HIBERNATE_HBM2DDL_AUTO);
+        properties.put("hibernate.jdbc.batch_size", PROPERTY_NAME_HIBERNATE_JDBC_BATCH_SIZE);
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.order_updates", "true");
+        properties.put(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, PROPERTY_NAME_ID_ALLOCATION_SIZE);
+        properties.put("hibernate.default_batch_fetch_size", PROPERTY_NAME_HIBERNATE_BATCH_FETCH_SIZE);
         return properties;
     }
 
@@ -6,11 +6,13 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 import org.springframework.web.servlet.view.JstlView;
 import org.springframework.web.servlet.view.UrlBasedViewResolver;
+import ua.com.mangostore.interceptor.CartInterceptor;
 import ua.com.mangostore.service.impl.UserDetailsServiceImpl;
 
 /**
@@ -24,6 +26,7 @@ import ua.com.mangostore.service.impl.UserDetailsServiceImpl;
  * @author Diukarev Sergii
  * @see WebInitializer
  * @see RootConfig
+ * @see CartInterceptor
  */
 @Configuration
 @EnableWebMvc
@@ -54,4 +57,26 @@ public class WebConfig extends WebMvcConfigurerAdapter {
     public void addResourceHandlers(final ResourceHandlerRegistry resource) {
         resource.addResourceHandler("/resources/" + "**").addResourceLocations("/resources/");
     }
+
+    /**
+     * Возвращает перехватчик, который добавляет в модель состояние корзины для шапки сайта.
+     *
+     * @return Объект класса {@link CartInterceptor}.
+     */
+    @Bean
+    public CartInterceptor cartInterceptor() {
+        return new CartInterceptor();
+    }
+
+    /**
+     * Регистрирует перехватчики запросов. Состояние корзины нужно только страницам покупателя,
+     * поэтому страницы сотрудников и ресурсы исключены.
+     *
+     * @param registry Объект класса InterceptorRegistry для регистрации перехватчиков.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(cartInterceptor())
+                .excludePathPatterns("/admin/**", "/managers/**", "/courier/**", "/resources/**");
+    }
 }
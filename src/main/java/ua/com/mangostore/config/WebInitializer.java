@@ -46,6 +46,8 @@ public class WebInitializer implements WebApplicationInitializer {
         ServletRegistration.Dynamic servlet = servletContext.addServlet("dispatcher", new DispatcherServlet(appContext));
         servlet.addMapping("/");
         servlet.setLoadOnStartup(1);
+        // асинхронная обработка нужна ленте заказов (server-sent events)
+        servlet.setAsyncSupported(true);
 
         /**
          * Настройка параметров
@@ -53,6 +55,7 @@ public class WebInitializer implements WebApplicationInitializer {
         FilterRegistration.Dynamic encodingFilter = servletContext.addFilter("encodingFilter", new CharacterEncodingFilter());
         encodingFilter.setInitParameter("encoding", "UTF-8");
         encodingFilter.setInitParameter("forceEncoding", "true");
+        encodingFilter.setAsyncSupported(true);
         encodingFilter.addMappingForUrlPatterns(null, true, "/*");
     }
 }
\ No newline at end of file
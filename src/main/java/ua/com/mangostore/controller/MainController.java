@@ -7,16 +7,23 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 import ua.com.mangostore.config.InitDatabase;
 import ua.com.mangostore.entity.*;
-import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.exception.OutOfStockException;
+import ua.com.mangostore.model.CheckoutResult;
+import ua.com.mangostore.model.OrderTracking;
+import ua.com.mangostore.model.RecentlyViewed;
 import ua.com.mangostore.service.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -36,9 +43,14 @@ import java.util.stream.Collectors;
  * @see ProductService
  * @see OrderService
  * @see ShoppingCartService
+ * @see RecentlyViewed
  */
 @Controller
 public class MainController {
+    /**
+     * Максимальная длина ключа идемпотентности оформления заказа.
+     */
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
 
     /**
      * Объект сервиса для работы с заказами.
@@ -65,22 +77,52 @@ public class MainController {
      */
     private DeliveryService deliveryService;
 
+    /**
+     * Недавно просмотренные товары текущей сессии.
+     */
+    private RecentlyViewed recentlyViewed;
+
+    /**
+     * Объект сервиса для оформления заказов.
+     */
+    private CheckoutService checkoutService;
+
+    /**
+     * Объект сервиса для работы с остатками товаров на складе.
+     */
+    private StockService stockService;
+
+    /**
+     * Объект сервиса для отслеживания заказов покупателями.
+     */
+    private OrderTrackingService orderTrackingService;
+
     /**
      * Конструктор для инициализации основных переменных контроллера главных страниц сайта.
      * Помечен аннотацией @Autowired, которая позволит Spring автоматически инициализировать объекты.
      *
-     * @param productService      Объект сервиса для работы с товарами.
-     * @param orderService        Объект сервиса для работы с заказами.
-     * @param shoppingCartService Объект сервиса для работы с торговой корзиной.
+     * @param productService       Объект сервиса для работы с товарами.
+     * @param orderService         Объект сервиса для работы с заказами.
+     * @param shoppingCartService  Объект сервиса для работы с торговой корзиной.
+     * @param recentlyViewed       Недавно просмотренные товары текущей сессии.
+     * @param checkoutService      Объект сервиса для оформления заказов.
+     * @param stockService         Объект сервиса для работы с остатками товаров на складе.
+     * @param orderTrackingService Объект сервиса для отслеживания заказов покупателями.
      */
     @Autowired
     public MainController(OrderService orderService, ProductService productService, ShoppingCartService shoppingCartService,
-                          CustomerService customerService, DeliveryService deliveryService) {
+                          CustomerService customerService, DeliveryService deliveryService,
+                          RecentlyViewed recentlyViewed, CheckoutService checkoutService,
+                          StockService stockService, OrderTrackingService orderTrackingService) {
         this.orderService = orderService;
         this.productService = productService;
         this.shoppingCartService = shoppingCartService;
         this.customerService = customerService;
         this.deliveryService = deliveryService;
+        this.recentlyViewed = recentlyViewed;
+        this.checkoutService = checkoutService;
+        this.stockService = stockService;
+        this.orderTrackingService = orderTrackingService;
     }
 
     /**
@@ -93,7 +135,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/"}, method = RequestMethod.GET)
     public ModelAndView home(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Лидеры продаж");
         modelAndView.addObject("url", "/");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -133,7 +174,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/samsung"}, method = RequestMethod.GET)
     public ModelAndView samsung(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Samsung");
         modelAndView.addObject("url", "/samsung");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -199,7 +239,6 @@ public class MainController {
     }
 
     private ModelAndView getModelAndView(ModelAndView modelAndView, String type, String url) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", type + " от фирмы Samsung");
         modelAndView.addObject("url", url);
         List<Product> groupOfProducts = new ArrayList<>();
@@ -220,7 +259,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/apple"}, method = RequestMethod.GET)
     public ModelAndView apple(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Apple");
         modelAndView.addObject("url", "/apple");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -240,7 +278,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/apple/iphone"}, method = RequestMethod.GET)
     public ModelAndView iphone(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "iPhone");
         modelAndView.addObject("url", "/apple/iphone");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -260,7 +297,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/apple/ipad"}, method = RequestMethod.GET)
     public ModelAndView ipad(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "iPad");
         modelAndView.addObject("url", "/apple/ipad");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -280,7 +316,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/apple/mac"}, method = RequestMethod.GET)
     public ModelAndView mac(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "MacBook и iMac");
         modelAndView.addObject("url", "/apple/mac");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -300,7 +335,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/apple/accessories"}, method = RequestMethod.GET)
     public ModelAndView appleAccessories(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Акссесуары для Apple");
         modelAndView.addObject("url", "/apple/accessories");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -338,7 +372,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/xiaomi"}, method = RequestMethod.GET)
     public ModelAndView xiaomi(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Xiaomi");
         modelAndView.addObject("url", "/xiaomi");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -358,7 +391,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/meizu"}, method = RequestMethod.GET)
     public ModelAndView lg(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Meizu");
         modelAndView.addObject("url", "/meizu");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -394,7 +426,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/tablet-pc"}, method = RequestMethod.GET)
     public ModelAndView tablet(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Планшеты");
         modelAndView.addObject("url", "/tablet-pc");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -414,7 +445,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/tablet-pc/accessories"}, method = RequestMethod.GET)
     public ModelAndView tabletAccessories(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Акссесуары для планшетов");
         modelAndView.addObject("url", "/tablet-pc/accessories");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -434,7 +464,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/smartphones"}, method = RequestMethod.GET)
     public ModelAndView smartphone(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Смартфоны");
         modelAndView.addObject("url", "/smartphones");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -454,7 +483,6 @@ public class MainController {
      */
     @RequestMapping(value = {"/smartphones/accessories"}, method = RequestMethod.GET)
     public ModelAndView smartphoneAccessories(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Акссесуары для смартфонов");
         modelAndView.addObject("url", "/smartphones/accessories");
         List<Product> groupOfProducts = new ArrayList<>();
@@ -497,6 +525,8 @@ public class MainController {
      * Возвращает страницу "customer/product" с 1-м товаром с уникальним URL, который
      * совпадает с входящим параметром url. URL запроса "/product-{id}", метод GET.
      * В запросе в параметре id передается артикль товара.
+     * Товар запоминается в списке недавно просмотренных.
+     * Наличие товара берется из счетчика остатков в памяти.
      *
      * @param id           id товара, который нужно вернуть на страницу.
      * @param modelAndView Объект класса {@link ModelAndView}.
@@ -504,15 +534,38 @@ public class MainController {
      */
     @RequestMapping(value = "/product-{id}", method = RequestMethod.GET)
     public ModelAndView viewProduct(@PathVariable("id") long id, ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         Product product = productService.getById(id);
         modelAndView.addObject("title", product.getProductTitle());
         modelAndView.addObject("url", "product-" + id);
         modelAndView.addObject("product", product);
+        modelAndView.addObject("available", stockService.getAvailable(id));
+        modelAndView.addObject("recentlyViewed", getRecentlyViewed(id));
+        recentlyViewed.add(id);
         modelAndView.setViewName("customer/product");
         return modelAndView;
     }
 
+    /**
+     * Возвращает недавно просмотренные товары текущей сессии, начиная с последнего просмотра.
+     * Товары берутся из кеша каталога, запросов к базе данных не выполняется.
+     *
+     * @param excludeId Код товара, который не нужно включать в список (текущий товар).
+     * @return Объект типа {@link List} - список недавно просмотренных товаров.
+     */
+    private List<Product> getRecentlyViewed(long excludeId) {
+        long[] ids = recentlyViewed.getProductIds();
+        List<Product> products = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            if (id != excludeId) {
+                Product product = productService.getById(id);
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+        }
+        return products;
+    }
+
     /**
      * Возвращает страницу "customer/about" - страница описания компании.
      * URL запроса "/about", метод GET.
@@ -522,7 +575,6 @@ public class MainController {
      */
     @RequestMapping(value = "/about", method = RequestMethod.GET)
     public ModelAndView onAbout(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.setViewName("customer/about");
         return modelAndView;
     }
@@ -536,7 +588,6 @@ public class MainController {
      */
     @RequestMapping(value = "/stores-addresses", method = RequestMethod.GET)
     public ModelAndView onAddresses(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.setViewName("customer/stores-addresses");
         return modelAndView;
     }
@@ -550,13 +601,12 @@ public class MainController {
      */
     @RequestMapping(value = "/sales", method = RequestMethod.GET)
     public ModelAndView onSales(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.addObject("title", "Акции компании МАНГО");
         modelAndView.addObject("url", "/sales");
         List<Product> groupOfProducts = new ArrayList<>();
         //Use Java 7
 //        for (Product product : productService.getAll()) {
-//            if (product.getFullPrice() != product.getSalePrice()) {
+//            if (!product.getFullPrice().equals(product.getSalePrice())) {
 //                groupOfProducts.add(product);
 //            }
 //        }
@@ -564,7 +614,7 @@ public class MainController {
         //Use Java 8
         groupOfProducts.addAll(
                 productService.getAll().stream()
-                        .filter(product -> product.getFullPrice() != product.getSalePrice())
+                        .filter(product -> !product.getFullPrice().equals(product.getSalePrice()))
                         .collect(Collectors.toList())
         );
 
@@ -582,7 +632,6 @@ public class MainController {
      */
     @RequestMapping(value = "/payment", method = RequestMethod.GET)
     public ModelAndView onPayment(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.setViewName("customer/payment");
         return modelAndView;
     }
@@ -596,7 +645,6 @@ public class MainController {
      */
     @RequestMapping(value = "/delivery", method = RequestMethod.GET)
     public ModelAndView onDelivery(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.setViewName("customer/delivery");
         return modelAndView;
     }
@@ -610,7 +658,6 @@ public class MainController {
      */
     @RequestMapping(value = "/service-center", method = RequestMethod.GET)
     public ModelAndView onService(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.setViewName("customer/service-center");
         return modelAndView;
     }
@@ -624,7 +671,6 @@ public class MainController {
      */
     @RequestMapping(value = "/support", method = RequestMethod.GET)
     public ModelAndView onSupport(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.setViewName("customer/support");
         return modelAndView;
     }
@@ -638,7 +684,6 @@ public class MainController {
      */
     @RequestMapping(value = "/firmware", method = RequestMethod.GET)
     public ModelAndView onFirmware(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.setViewName("customer/firmware");
         return modelAndView;
     }
@@ -652,7 +697,6 @@ public class MainController {
      */
     @RequestMapping(value = "/news", method = RequestMethod.GET)
     public ModelAndView onNews(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.setViewName("customer/news");
         return modelAndView;
     }
@@ -666,7 +710,6 @@ public class MainController {
      */
     @RequestMapping(value = "/review", method = RequestMethod.GET)
     public ModelAndView onReview(ModelAndView modelAndView) {
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
         modelAndView.setViewName("customer/review");
         return modelAndView;
     }
@@ -681,10 +724,10 @@ public class MainController {
     @RequestMapping(value = "/cart", method = RequestMethod.GET)
     public ModelAndView viewCart(ModelAndView modelAndView) {
         modelAndView.addObject("title", "Моя корзина");
-        modelAndView.addObject("cart_size", shoppingCartService.getSize());
-        modelAndView.addObject("cart_format_price", shoppingCartService.getFormatPrice());
         modelAndView.addObject("productsInCart", shoppingCartService.getSalePositions());
         modelAndView.addObject("priceOfCart", shoppingCartService.getPrice());
+        modelAndView.addObject("recentlyViewed", getRecentlyViewed(0));
+        modelAndView.addObject("checkout_token", UUID.randomUUID().toString());
         modelAndView.addObject("url", "/cart");
         modelAndView.setViewName("customer/cart");
         return modelAndView;
@@ -732,16 +775,27 @@ public class MainController {
 
     /**
      * Полное оформление и сохранение заказа клиента, возвращает страницу "customer/checkout".
-     * Если корзина пуста, то перенаправляет на главную страницу.
+     * Заказ сохраняется одной транзакцией через {@link CheckoutService}.
+     * Если какого-то товара на складе недостаточно, заказ не сохраняется и возвращается
+     * страница корзины с сообщением.
+     * Запрос может содержать ключ идемпотентности (скрытое поле формы "token" или заголовок
+     * "Idempotency-Key"): повторный запрос с тем же ключом из той же сессии (двойное нажатие,
+     * повтор прокси) возвращает страницу уже оформленного заказа, новый заказ не создается.
+     * Ключ действует только в пределах сессии, поэтому чужой ключ не открывает чужой заказ.
+     * Корзина очищается, только если заказ создан этим запросом.
+     * Если корзина пуста и заказа с таким ключом нет, то перенаправляет на главную страницу.
      * URL запроса "/checkout", метод POST.
      *
-     * @param name         Имя клиента, сжелавшего заказ.
-     * @param surname      Фамилия клиента, сжелавшего заказ.
-     * @param email        Электронная почта клиента.
-     * @param phone        Номер телефона клиента.
-     * @param city         Город клиента.
-     * @param address      Адресс клиента.
-     * @param modelAndView Объект класса {@link ModelAndView}.
+     * @param name           Имя клиента, сжелавшего заказ.
+     * @param surname        Фамилия клиента, сжелавшего заказ.
+     * @param email          Электронная почта клиента.
+     * @param phone          Номер телефона клиента.
+     * @param city           Город клиента.
+     * @param address        Адресс клиента.
+     * @param token          Ключ идемпотентности из формы оформления заказа.
+     * @param idempotencyKey Ключ идемпотентности из заголовка запроса.
+     * @param session        Сессия покупателя - область ключа идемпотентности.
+     * @param modelAndView   Объект класса {@link ModelAndView}.
      * @return Объект класса {@link ModelAndView}.
      */
     @RequestMapping(value = "/checkout", method = RequestMethod.POST)
@@ -752,7 +806,12 @@ public class MainController {
                                      @RequestParam(value = "city") String city,
                                      @RequestParam(value = "address") String address,
                                      @RequestParam(value = "delivery") String deliveryType,
+                                     @RequestParam(value = "token", required = false) String token,
+                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                     HttpSession session,
                                      ModelAndView modelAndView) {
+        String key = getIdempotencyKey(idempotencyKey != null ? idempotencyKey : token);
+        Order order;
         if (shoppingCartService.getSize() > 0) {
             Customer customer = new Customer();
             customer.setName(name);
@@ -762,40 +821,76 @@ public class MainController {
             customer.setCity(city);
             customer.setAddress(address);
 
-            Order order = new Order();
-            order.setOrderPrice(shoppingCartService.getPrice());
-            order.addSalePositions(shoppingCartService.getSalePositions());
-            order.setCustomer(customer);
-
-            Delivery delivery = new Delivery();
-            if (deliveryType.equals(DeliveryType.PICKUP.name())) {
-                delivery.setDeliveryType(DeliveryType.PICKUP.name());
-            } else if (deliveryType.equals(DeliveryType.COURIER.name())) {
-                delivery.setDeliveryType(DeliveryType.COURIER.name());
-            } else {
-                delivery.setDeliveryType(DeliveryType.UNMANNED_AIRCRAFT.name());
+            CheckoutResult result;
+            try {
+                result = checkoutService.checkout(customer, shoppingCartService.getSalePositions(), deliveryType,
+                        session.getId(), key);
+            } catch (OutOfStockException ex) {
+                modelAndView.addObject("stock_error", ex.getMessage());
+                return viewCart(modelAndView);
+            }
+            order = result.getOrder();
+            if (result.isCreated()) {
+                shoppingCartService.clear();
             }
-            delivery.setOrder(order);
-            deliveryService.addDelivery(delivery);
-
-            order.setDelivery(delivery);
-            orderService.addOrder(order);
-
-            modelAndView.addObject("name", name);
-            modelAndView.addObject("order", order);
-            modelAndView.addObject("cart_size", 0);
-            modelAndView.addObject("productsInCart", order.getSalePositions());
-            modelAndView.addObject("cart_format_price", shoppingCartService.getFormatPrice());
-            modelAndView.addObject("priceOfCart", shoppingCartService.getPrice());
-            modelAndView.setViewName("customer/checkout");
-
-            shoppingCartService.clear();
         } else {
-            modelAndView.setViewName("redirect:/");
+            order = key != null ? checkoutService.getByIdempotencyKey(session.getId(), key) : null;
+            if (order == null) {
+                modelAndView.setViewName("redirect:/");
+                return modelAndView;
+            }
         }
+        modelAndView.addObject("name", name);
+        modelAndView.addObject("order", order);
+        modelAndView.addObject("productsInCart", order.getSalePositions());
+        modelAndView.addObject("cart_format_price", order.getOrderPrice().format());
+        modelAndView.addObject("priceOfCart", order.getOrderPrice());
+        modelAndView.setViewName("customer/checkout");
         return modelAndView;
     }
 
+    /**
+     * Возвращает страницу "customer/track" - отслеживание заказа покупателем по номеру заказа и телефону.
+     * Без параметров показывает форму поиска, с параметрами - состояние найденного заказа
+     * или сообщение, что заказ не найден.
+     * URL запроса "/track", метод GET.
+     *
+     * @param number       Номер заказа.
+     * @param phone        Телефон, указанный при оформлении заказа.
+     * @param request      Объект интерфейса {@link HttpServletRequest} - адрес клиента.
+     * @param modelAndView Объект класса {@link ModelAndView}.
+     * @return Объект класса {@link ModelAndView}.
+     */
+    @RequestMapping(value = "/track", method = RequestMethod.GET)
+    public ModelAndView trackOrder(@RequestParam(value = "number", required = false) String number,
+                                   @RequestParam(value = "phone", required = false) String phone,
+                                   HttpServletRequest request,
+                                   ModelAndView modelAndView) {
+        if (number != null && phone != null) {
+            OrderTracking tracking = orderTrackingService.track(number, phone, request.getRemoteAddr());
+            modelAndView.addObject("tracking", tracking);
+            modelAndView.addObject("not_found", tracking == null);
+        }
+        modelAndView.addObject("number", number);
+        modelAndView.addObject("phone", phone);
+        modelAndView.setViewName("customer/track");
+        return modelAndView;
+    }
+
+    /**
+     * Проверяет ключ идемпотентности: пустой или слишком длинный ключ не используется.
+     *
+     * @param key Ключ идемпотентности из запроса.
+     * @return Значение типа {@link String} - ключ идемпотентности или null.
+     */
+    private static String getIdempotencyKey(String key) {
+        if (key == null) {
+            return null;
+        }
+        key = key.trim();
+        return key.isEmpty() || key.length() > MAX_IDEMPOTENCY_KEY_LENGTH ? null : key;
+    }
+
     /**
      * Возвращает страницу "employee/unauthorized", если у пользователя не хватает прав доступа
      * URL запроса "/unauthorized"
@@ -13,9 +13,11 @@ import ua.com.mangostore.config.InitDatabase;
 import ua.com.mangostore.entity.Employee;
 import ua.com.mangostore.entity.Product;
 import ua.com.mangostore.entity.enums.OnMain;
+import ua.com.mangostore.model.Money;
 import ua.com.mangostore.service.EmployeeService;
 import ua.com.mangostore.service.OrderService;
 import ua.com.mangostore.service.ProductService;
+import ua.com.mangostore.service.StockService;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -53,6 +55,12 @@ public class AdminProductController {
     @Autowired
     private ProductService productService;
 
+    /**
+     * Объект сервиса для работы с остатками товаров на складе.
+     */
+    @Autowired
+    private StockService stockService;
+
     @RequestMapping(value = "/main", method = RequestMethod.GET)
     public ModelAndView onMainProduct(ModelAndView modelAndView) {
         getUserTypeBrand(modelAndView);
@@ -172,6 +180,7 @@ public class AdminProductController {
         Product product = productService.getById(id);
         modelAndView.addObject("title", product.getProductTitle());
         modelAndView.addObject("product", product);
+        modelAndView.addObject("available", stockService.getAvailable(id));
         modelAndView.setViewName("employee/admin/products/admin-update-product");
         return modelAndView;
     }
@@ -210,6 +219,7 @@ public class AdminProductController {
      * @param salePrice     Цена товара cо скидкой.
      * @param specification Характеристики товара.
      * @param description   Описание товара.
+     * @param arrival       Количество поступившего на склад товара.
      * @param modelAndView  Объект класса {@link ModelAndView}.
      * @return Объект класса {@link ModelAndView}.
      */
@@ -219,15 +229,16 @@ public class AdminProductController {
                                       @RequestParam String type,
                                       @RequestParam String brand,
                                       @RequestParam String imageURL,
-                                      @RequestParam double fullPrice,
-                                      @RequestParam double salePrice,
+                                      @RequestParam Money fullPrice,
+                                      @RequestParam Money salePrice,
                                       @RequestParam String onMain,
                                       @RequestParam String specification,
                                       @RequestParam String description,
+                                      @RequestParam(defaultValue = "0") int arrival,
                                       ModelAndView modelAndView) {
         getUserTypeBrand(modelAndView);
 
-        Product product = productService.getById(id);
+        Product product = productService.getForUpdate(id);
         product.setProductTitle(productTitle);
         product.setType(type);
         product.setBrand(brand);
@@ -240,6 +251,9 @@ public class AdminProductController {
         product.setDescription(description);
 
         productService.editProduct(product);
+        if (arrival > 0) {
+            stockService.restock(id, arrival);
+        }
         modelAndView.addObject("title", "товары");
         modelAndView.addObject("message", "обновили продукт " + product.getProductTitle());
         modelAndView.setViewName("employee/admin/success");
@@ -273,6 +287,7 @@ public class AdminProductController {
      * @param salePrice     Цена товара cо скидкой.
      * @param specification Характеристики товара.
      * @param description   Описание товара.
+     * @param quantity      Количество товара на складе.
      * @param modelAndView  Объект класса {@link ModelAndView}.
      * @return Объект класса {@link ModelAndView}.
      */
@@ -281,11 +296,12 @@ public class AdminProductController {
                                    @RequestParam String type,
                                    @RequestParam String brand,
                                    @RequestParam String imageURL,
-                                   @RequestParam double fullPrice,
-                                   @RequestParam double salePrice,
+                                   @RequestParam Money fullPrice,
+                                   @RequestParam Money salePrice,
                                    @RequestParam String onMain,
                                    @RequestParam String specification,
                                    @RequestParam String description,
+                                   @RequestParam(defaultValue = "0") int quantity,
                                    ModelAndView modelAndView) {
         getUserTypeBrand(modelAndView);
 
@@ -300,6 +316,7 @@ public class AdminProductController {
         product.setOnMain(statusOnMain);
         product.setSpecification(specification);
         product.setDescription(description);
+        product.setQuantity(quantity);
 
         productService.addProduct(product);
         modelAndView.addObject("title", "товары");
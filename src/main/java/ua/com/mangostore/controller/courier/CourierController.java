@@ -2,6 +2,7 @@ package ua.com.mangostore.controller.courier;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,13 +16,17 @@ import ua.com.mangostore.entity.Order;
 import ua.com.mangostore.entity.Product;
 import ua.com.mangostore.entity.enums.DeliveryType;
 import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.OrderRow;
 import ua.com.mangostore.service.DeliveryService;
 import ua.com.mangostore.service.EmployeeService;
 import ua.com.mangostore.service.OrderService;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Класс-контроллер курьерских страниц страниц. К даному контроллеру и соответствующим
@@ -42,6 +47,11 @@ import java.util.stream.Collectors;
 @Controller
 @RequestMapping("/courier")
 public class CourierController {
+    /**
+     * Типы доставки, которые выполняют курьеры (все, кроме самовывоза).
+     */
+    private static final Set<DeliveryType> COURIER_DELIVERY_TYPES =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(DeliveryType.PICKUP)));
 
     /**
      * Объект сервиса для работы с сотрудниками.
@@ -65,23 +75,7 @@ public class CourierController {
     public ModelAndView onMainCouriers(ModelAndView modelAndView) {
         getUser(modelAndView);
 
-        List<Order> newOrders = new ArrayList<>();
-
-        //Use Java 7
-//        for (Order order : orderService.getAll()) {
-//            if (order.getStatus().name().equals(Status.WORK.name())
-//                    && !order.getDelivery().getDeliveryType().name().equals(DeliveryType.PICKUP.name())) {
-//                newOrders.add(order);
-//            }
-//        }
-
-        //Use Java 8
-        newOrders.addAll(
-                orderService.getAll().stream()
-                        .filter(order -> order.getStatus().name().equals(Status.WORK.name())
-                                && !order.getDelivery().getDeliveryType().name().equals(DeliveryType.PICKUP.name()))
-                        .collect(Collectors.toList())
-        );
+        List<OrderRow> newOrders = orderService.getRowsByStatusAndDeliveryTypes(Status.WORK, COURIER_DELIVERY_TYPES);
 
         modelAndView.addObject("orders", newOrders);
         modelAndView.setViewName("employee/courier/main");
@@ -90,17 +84,15 @@ public class CourierController {
 
 
     @RequestMapping(value = "/deliveries", method = RequestMethod.GET)
-    public ModelAndView onDeliveries(ModelAndView modelAndView) {
+    public ModelAndView onDeliveries(@RequestParam(value = "date", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                     ModelAndView modelAndView) {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         Employee employee = employeeService.getByEmail(user.getUsername());
         modelAndView.addObject("user", employee);
 
-        List<Delivery> deliveries = deliveryService.getByEmployeeId(employee.getEmployeeId());
-        if (deliveries != null) {
-            modelAndView.addObject("deliveries", deliveries);
-        } else {
-            modelAndView.addObject("deliveries", new ArrayList<>());
-        }
+        modelAndView.addObject("deliveries", orderService.getRowsByCourier(employee.getEmployeeId(), date));
+        modelAndView.addObject("date", date);
         modelAndView.setViewName("employee/courier/deliveries");
         return modelAndView;
     }
@@ -128,6 +120,19 @@ public class CourierController {
                                         @RequestParam String status,
                                         ModelAndView modelAndView) {
         Order order = orderService.getById(orderId);
+        Delivery delivery = deliveryService.getById(deliveryId);
+        if (!deliveryDate.isEmpty() && !deliveryTime.isEmpty()) {
+            try {
+                delivery.setDeliveryAt(deliveryDate, deliveryTime);
+            } catch (DateTimeParseException ex) {
+                getUser(modelAndView);
+                modelAndView.addObject("order", order);
+                modelAndView.addObject("delivery", delivery);
+                modelAndView.addObject("message", "Дата или время доставки введены неверно. Попробуйте ещё раз");
+                modelAndView.setViewName("employee/courier/update");
+                return modelAndView;
+            }
+        }
         if (order.getStatus().name().equals("WORK")) {
             order.setStatus(Status.DELIVERY);
         } else {
@@ -139,13 +144,7 @@ public class CourierController {
         }
         orderService.editOrder(order);
 
-        Delivery delivery = deliveryService.getById(deliveryId);
         delivery.setDeliveryType(deliveryType);
-
-        if (!deliveryDate.isEmpty() && !deliveryTime.isEmpty()) {
-            delivery.setDeliveryDate(deliveryDate);
-            delivery.setDeliveryTime(deliveryTime);
-        }
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         Employee employee = employeeService.getByEmail(user.getUsername());
         delivery.setEmployee(employee);
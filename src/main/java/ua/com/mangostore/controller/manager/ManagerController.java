@@ -2,24 +2,43 @@ package ua.com.mangostore.controller.manager;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ua.com.mangostore.entity.*;
+import ua.com.mangostore.entity.enums.DeliveryType;
 import ua.com.mangostore.entity.enums.EmployeePosition;
 import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.event.OrderFeedHub;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.OrderFilter;
+import ua.com.mangostore.model.OrderSort;
+import ua.com.mangostore.model.SalesRow;
 import ua.com.mangostore.service.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Controller
 @RequestMapping("/managers")
 public class ManagerController {
+    /**
+     * Количество заказов на странице консоли заказов.
+     */
+    private static final int PAGE_SIZE = 50;
+
     @Autowired
     private EmployeeService employeeService;
     @Autowired
@@ -27,19 +46,65 @@ public class ManagerController {
     @Autowired
     private DeliveryService deliveryService;
     @Autowired
-    private CustomerService customerService;
-    @Autowired
     private ProductService productService;
+    @Autowired
+    private CounterService counterService;
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private OrderFeedHub orderFeedHub;
 
     @RequestMapping(value = "/main", method = RequestMethod.GET)
-    public ModelAndView onMainManagers(ModelAndView modelAndView) {
+    public ModelAndView onMainManagers(@RequestParam(value = "status", required = false) Status status,
+                                       @RequestParam(value = "from", required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam(value = "to", required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                       @RequestParam(value = "delivery", required = false) DeliveryType deliveryType,
+                                       @RequestParam(value = "customer", required = false) String customer,
+                                       @RequestParam(value = "sort", required = false) OrderSort sort,
+                                       @RequestParam(value = "after", required = false) String after,
+                                       ModelAndView modelAndView) {
         getUser(modelAndView);
 
-        modelAndView.addObject("orders", orderService.getAll());
+        OrderFilter filter = new OrderFilter();
+        filter.setStatus(status);
+        filter.setFrom(from);
+        filter.setTo(to);
+        filter.setDeliveryType(deliveryType);
+        filter.setCustomer(customer);
+        filter.setSort(sort);
+        if (filter.isPriceSortPeriodTooLong()) {
+            filter.setSort(OrderSort.NEWEST);
+            modelAndView.addObject("message", "Сортировка по стоимости доступна для периода не длиннее "
+                    + OrderFilter.MAX_PRICE_SORT_DAYS + " дней, заказы показаны в порядке \"" + OrderSort.NEWEST + "\"");
+        }
+        filter.setCursor(after);
+
+        modelAndView.addObject("page", orderService.getPage(filter, PAGE_SIZE));
+        modelAndView.addObject("filter", filter);
+        modelAndView.addObject("statuses", Status.values());
+        modelAndView.addObject("orderCount", counterService.getOrderCount());
+        modelAndView.addObject("orderCounts", counterService.getOrderCounts());
+        modelAndView.addObject("courierCount", counterService.getEmployeeCount(EmployeePosition.COURIER));
+        modelAndView.addObject("deliveryTypes", DeliveryType.values());
+        modelAndView.addObject("sorts", OrderSort.values());
         modelAndView.setViewName("employee/managers/main");
         return modelAndView;
     }
 
+    /**
+     * Подключает страницу заказов к ленте новых заказов и смены статусов (server-sent events).
+     * URL запроса "/managers/orders/feed", метод GET.
+     *
+     * @param lastEventId Номер последнего полученного события, браузер передает его при переподключении.
+     * @return Объект класса {@link SseEmitter}.
+     */
+    @RequestMapping(value = "/orders/feed", method = RequestMethod.GET)
+    public SseEmitter onOrderFeed(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return orderFeedHub.subscribe(lastEventId);
+    }
+
     @RequestMapping(value = "/couriers", method = RequestMethod.GET)
     public ModelAndView onCouriers(ModelAndView modelAndView) {
         getUser(modelAndView);
@@ -61,10 +126,10 @@ public class ManagerController {
         getUser(modelAndView);
 
         Order order = orderService.getById(id);
-        Customer customer = order.getCustomer();
+        Recipient recipient = order.getRecipient() != null ? order.getRecipient() : Recipient.of(order.getCustomer());
 
         modelAndView.addObject("order", order);
-        modelAndView.addObject("customer", customer);
+        modelAndView.addObject("recipient", recipient);
 
         Employee courier = order.getDelivery().getEmployee();
         if (courier != null) {
@@ -88,6 +153,31 @@ public class ManagerController {
         return modelAndView;
     }
 
+    /**
+     * Переводит отмеченные на странице заказов заказы в новый статус и возвращает страницу
+     * "employee/managers/success" с количеством переведенных заказов.
+     * URL запроса "/managers/orders/status", метод POST.
+     *
+     * @param ids          Коды отмеченных заказов.
+     * @param status       Новый статус.
+     * @param modelAndView Объект класса {@link ModelAndView}.
+     * @return Объект класса {@link ModelAndView}.
+     */
+    @RequestMapping(value = "/orders/status", method = RequestMethod.POST)
+    public ModelAndView onOrdersStatus(@RequestParam(value = "ids", required = false) Set<Long> ids,
+                                       @RequestParam Status status,
+                                       ModelAndView modelAndView) {
+        getUser(modelAndView);
+
+        int selected = ids != null ? ids.size() : 0;
+        int moved = selected > 0 ? orderService.editStatuses(ids, status) : 0;
+
+        modelAndView.addObject("title", "Заказы");
+        modelAndView.addObject("message", "перевели в статус \"" + status + "\" заказов: " + moved + " из " + selected);
+        modelAndView.setViewName("employee/managers/success");
+        return modelAndView;
+    }
+
     /**
      * Возвращает страницу "employee/managers/update-order"  и обновляет товар по входящим параметрам.
      * URL запроса "/managers/update-order", метод POST.
@@ -107,7 +197,7 @@ public class ManagerController {
                                       @RequestParam String address,
                                       @RequestParam String status,
                                       @RequestParam String deliveryType,
-                                      @RequestParam double orderPrice,
+                                      @RequestParam Money orderPrice,
                                       @RequestParam String idProductForRemove,
 
                                       ModelAndView modelAndView) {
@@ -137,16 +227,14 @@ public class ManagerController {
         deliveryService.editDelivery(delivery);
         order.setDelivery(delivery);
 
-        Customer customer = customerService.getByEmail(order.getCustomer().getEmail());
-        customer.setName(name);
-        customer.setSurname(surname);
-        customer.setEmail(email);
-        customer.setCity(city);
-        customer.setAddress(address);
-        customer.setPhone(phone);
-        customerService.editCustomer(customer);
-
-        order.setCustomer(customer);
+        Recipient recipient = order.getRecipient() != null ? order.getRecipient() : new Recipient();
+        recipient.setName(name);
+        recipient.setSurname(surname);
+        recipient.setEmail(email);
+        recipient.setCity(city);
+        recipient.setAddress(address);
+        recipient.setPhone(phone);
+        order.setRecipient(recipient);
 
         //TODO
 
@@ -204,6 +292,114 @@ public class ManagerController {
         return modelAndView;
     }
 
+    /**
+     * Возвращает страницу отчета о продажах по производителям или товарам за период.
+     * По-умолчанию период - с начала текущего квартала по сегодня.
+     * URL запроса "/managers/sales", метод GET.
+     *
+     * @param from         Начало периода.
+     * @param to           Конец периода (включительно).
+     * @param group        Группировка: "brand" - по производителям, "product" - по товарам.
+     * @param modelAndView Объект класса {@link ModelAndView}.
+     * @return Объект класса {@link ModelAndView}.
+     */
+    @RequestMapping(value = "/sales", method = RequestMethod.GET)
+    public ModelAndView onSales(@RequestParam(value = "from", required = false)
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                @RequestParam(value = "to", required = false)
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                @RequestParam(value = "group", defaultValue = "brand") String group,
+                                ModelAndView modelAndView) {
+        getUser(modelAndView);
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : getQuarterStart(end);
+        List<SalesRow> rows = getSales(start, end, group);
+        long units = 0;
+        Money revenue = Money.ZERO;
+        for (SalesRow row : rows) {
+            units += row.getUnits();
+            revenue = revenue.plus(row.getRevenue());
+        }
+        modelAndView.addObject("rows", rows);
+        modelAndView.addObject("from", start);
+        modelAndView.addObject("to", end);
+        modelAndView.addObject("group", "product".equals(group) ? "product" : "brand");
+        modelAndView.addObject("totalUnits", units);
+        modelAndView.addObject("totalRevenue", revenue);
+        modelAndView.addObject("rebuild", salesRollupService.getRebuildProgress());
+        modelAndView.setViewName("employee/managers/sales");
+        return modelAndView;
+    }
+
+    /**
+     * Запускает пересчет сводных таблиц продаж в фоновом потоке и возвращает на страницу продаж,
+     * где отображается ход пересчета.
+     * URL запроса "/managers/sales/rebuild", метод POST.
+     *
+     * @param modelAndView Объект класса {@link ModelAndView}.
+     * @return Объект класса {@link ModelAndView}.
+     */
+    @RequestMapping(value = "/sales/rebuild", method = RequestMethod.POST)
+    public ModelAndView onSalesRebuild(ModelAndView modelAndView) {
+        salesRollupService.startRebuild();
+        modelAndView.setViewName("redirect:/managers/sales");
+        return modelAndView;
+    }
+
+    /**
+     * Выгружает отчет о продажах в формате CSV (разделитель ";", кодировка UTF-8).
+     * URL запроса "/managers/sales.csv", метод GET.
+     *
+     * @param from     Начало периода.
+     * @param to       Конец периода (включительно).
+     * @param group    Группировка: "brand" - по производителям, "product" - по товарам.
+     * @param response Ответ, в который записывается отчет.
+     * @throws IOException Если ответ не удалось записать.
+     */
+    @RequestMapping(value = "/sales.csv", method = RequestMethod.GET)
+    public void onSalesCsv(@RequestParam(value = "from", required = false)
+                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                           @RequestParam(value = "to", required = false)
+                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                           @RequestParam(value = "group", defaultValue = "brand") String group,
+                           HttpServletResponse response) throws IOException {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : getQuarterStart(end);
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"sales-"
+                + ("product".equals(group) ? "product" : "brand") + "-" + start + "-" + end + ".csv\"");
+        PrintWriter writer = response.getWriter();
+        writer.print("product".equals(group) ? "product;brand;units;revenue\r\n" : "brand;units;revenue\r\n");
+        for (SalesRow row : getSales(start, end, group)) {
+            if ("product".equals(group)) {
+                writer.print(toCsv(row.getTitle()) + ";");
+            }
+            writer.print(toCsv(row.getBrand()) + ";" + row.getUnits() + ";" + row.getRevenue() + "\r\n");
+        }
+        writer.flush();
+    }
+
+    private List<SalesRow> getSales(LocalDate from, LocalDate to, String group) {
+        return "product".equals(group)
+                ? salesRollupService.getByProduct(from, to)
+                : salesRollupService.getByBrand(from, to);
+    }
+
+    private static LocalDate getQuarterStart(LocalDate date) {
+        return date.with(date.getMonth().firstMonthOfQuarter()).withDayOfMonth(1);
+    }
+
+    private static String toCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(';') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
     private void getUser(ModelAndView modelAndView) {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         Employee admin = employeeService.getByEmail(user.getUsername());
@@ -0,0 +1,183 @@
+package ua.com.mangostore.entity;
+
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс описывает сущность "Архивный заказ" - выполненный или удаленный заказ,
+ * перенесенный из таблицы "Orders" в таблицу "Archived_Orders".
+ * В архиве заказ и его доставка хранятся одной строкой, код заказа сохраняется,
+ * поэтому заказ можно найти по тому же коду и восстановить методом {@link #toOrder()}.
+ * Аннотация @Entity говорит о том что объекты этого класса будет обрабатываться Hibernate.
+ * Аннотация @Table(name = "Archived_Orders") указывает на таблицу "Archived_Orders", в которой будут храниться объекты.
+ *
+ * @author Diukarev Sergii
+ * @see Order
+ * @see ArchivedSalePosition
+ */
+@Entity
+@Table(name = "Archived_Orders")
+public class ArchivedOrder {
+    /**
+     * Код заказа из таблицы "Orders". Значение поля сохраняется в колонке "ORDER_ID".
+     */
+    @Id
+    @Column(name = "ORDER_ID")
+    private long orderId;
+
+    @Column(name = "NUMBER", nullable = false, unique = true, length = 16)
+    private String number;
+
+    @Column(name = "STATUS", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(name = "ORDER_PRICE", nullable = false)
+    private Money orderPrice;
+
+    @Column(name = "CREATED_AT", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Дата и время переноса заказа в архив.
+     */
+    @Column(name = "ARCHIVED_AT", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "CUSTOMER_ID")
+    private Customer customer;
+
+    /**
+     * Получатель заказа, указанный при оформлении.
+     */
+    @Embedded
+    private Recipient recipient;
+
+    /**
+     * Менеджер, обработавший заказ.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "EMPLOYEE_ID")
+    private Employee employee;
+
+    @Column(name = "DELIVERY_TYPE", length = 32)
+    @Enumerated(EnumType.STRING)
+    private DeliveryType deliveryType;
+
+    @Column(name = "DELIVERY_COST")
+    private Money deliveryCost;
+
+    @Column(name = "DELIVERY_AT")
+    private LocalDateTime deliveryAt;
+
+    /**
+     * Курьер, выполнивший доставку.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "COURIER_ID")
+    private Employee courier;
+
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "order", cascade = CascadeType.ALL)
+    private List<ArchivedSalePosition> salePositions = new ArrayList<>();
+
+    /**
+     * Конструктр без параметров.
+     */
+    public ArchivedOrder() {
+    }
+
+    /**
+     * Создает архивную копию заказа вместе с доставкой и торговыми позициями.
+     *
+     * @param order      Заказ из таблицы "Orders".
+     * @param archivedAt Дата и время переноса в архив.
+     * @return Объект класса {@link ArchivedOrder} - архивный заказ.
+     */
+    public static ArchivedOrder of(Order order, LocalDateTime archivedAt) {
+        ArchivedOrder archived = new ArchivedOrder();
+        archived.orderId = order.getOrderId();
+        archived.number = order.getNumber();
+        archived.status = order.getStatus();
+        archived.orderPrice = order.getOrderPrice();
+        archived.createdAt = order.getCreatedAt();
+        archived.archivedAt = archivedAt;
+        archived.customer = order.getCustomer();
+        archived.recipient = order.getRecipient() != null ? order.getRecipient().copy() : null;
+        archived.employee = order.getEmployee();
+        Delivery delivery = order.getDelivery();
+        if (delivery != null) {
+            archived.deliveryType = delivery.getDeliveryType();
+            archived.deliveryCost = delivery.getCost();
+            archived.deliveryAt = delivery.getDeliveryAt();
+            archived.courier = delivery.getEmployee();
+        }
+        for (SalePosition salePosition : order.getSalePositions()) {
+            archived.salePositions.add(new ArchivedSalePosition(archived, salePosition));
+        }
+        return archived;
+    }
+
+    /**
+     * Восстанавливает заказ из архива. Возвращаемый заказ не связан с базой данных
+     * и помечен как архивный (см. {@link Order#isArchived()}).
+     *
+     * @return Объект класса {@link Order} - заказ только для чтения.
+     */
+    public Order toOrder() {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setNumber(number);
+        order.setStatus(status);
+        order.setOrderPrice(orderPrice);
+        order.setCreatedAt(createdAt);
+        order.setCustomer(customer);
+        order.setRecipient(recipient != null ? recipient.copy() : null);
+        order.setEmployee(employee);
+        if (deliveryType != null) {
+            Delivery delivery = new Delivery();
+            delivery.setDeliveryType(deliveryType);
+            delivery.setCost(deliveryCost);
+            delivery.setDeliveryAt(deliveryAt);
+            delivery.setEmployee(courier);
+            delivery.setOrder(order);
+            order.setDelivery(delivery);
+        }
+        List<SalePosition> positions = new ArrayList<>(salePositions.size());
+        for (ArchivedSalePosition archivedPosition : salePositions) {
+            SalePosition salePosition = new SalePosition(archivedPosition.getProduct(), archivedPosition.getNumber());
+            salePosition.setSalePositionId(archivedPosition.getSalePositionId());
+            salePosition.setOrder(order);
+            positions.add(salePosition);
+        }
+        order.setSalePositions(positions);
+        order.markArchived();
+        return order;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public List<ArchivedSalePosition> getSalePositions() {
+        return salePositions;
+    }
+}
@@ -0,0 +1,70 @@
+package ua.com.mangostore.entity;
+
+import javax.persistence.*;
+
+/**
+ * Класс описывает сущность "Архивная торговая позиция" - торговую позицию архивного заказа,
+ * перенесенную из таблицы "SalePosition" в таблицу "Archived_Sale_Positions".
+ * Аннотация @Entity говорит о том что объекты этого класса будет обрабатываться Hibernate.
+ *
+ * @author Diukarev Sergii
+ * @see ArchivedOrder
+ * @see SalePosition
+ */
+@Entity
+@Table(name = "Archived_Sale_Positions",
+        indexes = @Index(name = "IX_ARCHIVED_SALE_POSITIONS_ORDER_ID", columnList = "ORDER_ID"))
+public class ArchivedSalePosition {
+    /**
+     * Код торговой позиции из таблицы "SalePosition". Значение поля сохраняется в колонке "SALE_POSITION_ID".
+     */
+    @Id
+    @Column(name = "SALE_POSITION_ID")
+    private long salePositionId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "PRODUCT_ID", nullable = false)
+    private Product product;
+
+    @Column(name = "NUMBER", nullable = false)
+    private int number;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ORDER_ID", nullable = false)
+    private ArchivedOrder order;
+
+    /**
+     * Конструктр без параметров.
+     */
+    public ArchivedSalePosition() {
+    }
+
+    /**
+     * Создает архивную копию торговой позиции.
+     *
+     * @param order        Архивный заказ.
+     * @param salePosition Торговая позиция из таблицы "SalePosition".
+     */
+    public ArchivedSalePosition(ArchivedOrder order, SalePosition salePosition) {
+        this.salePositionId = salePosition.getSalePositionId();
+        this.product = salePosition.getProduct();
+        this.number = salePosition.getNumber();
+        this.order = order;
+    }
+
+    public long getSalePositionId() {
+        return salePositionId;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public ArchivedOrder getOrder() {
+        return order;
+    }
+}
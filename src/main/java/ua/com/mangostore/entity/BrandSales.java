@@ -0,0 +1,108 @@
+package ua.com.mangostore.entity;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import ua.com.mangostore.entity.generator.PooledSequenceGenerator;
+import ua.com.mangostore.model.Money;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Класс описывает сущность "Продажи производителя за день" - строку сводной таблицы "Brand_Sales".
+ * Строка хранит количество проданных единиц товаров производителя и выручку по заказам,
+ * оформленным в этот день, и обновляется вместе с {@link ProductSales}.
+ * Аннотация @Entity говорит о том что объекты этого класса будет обрабатываться Hibernate.
+ *
+ * @author Diukarev Sergii
+ * @see ProductSales
+ */
+@Entity
+@Table(name = "Brand_Sales",
+        uniqueConstraints = @UniqueConstraint(name = "UK_BRAND_SALES", columnNames = {"GENERATION", "SALE_DATE", "BRAND"}))
+public class BrandSales {
+    /**
+     * Уникальный код обьекта, генерируется из последовательности "BRAND_SALES_SEQ".
+     */
+    @Id
+    @GeneratedValue(generator = "BRAND_SALES_SEQ")
+    @GenericGenerator(name = "BRAND_SALES_SEQ", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = "sequence_name", value = "BRAND_SALES_SEQ"))
+    @Column(name = "BRAND_SALES_ID")
+    private long brandSalesId;
+
+    /**
+     * Поколение сводных таблиц: пересчет пишет строки нового поколения рядом с действующими,
+     * а отчеты и приращения работают только с действующим (см. {@link SalesGeneration}).
+     * Значение поля сохраняется в колонке "GENERATION".
+     */
+    @Column(name = "GENERATION", nullable = false)
+    private long generation;
+
+    /**
+     * День оформления заказов. Значение поля сохраняется в колонке "SALE_DATE".
+     */
+    @Column(name = "SALE_DATE", nullable = false)
+    private LocalDate saleDate;
+
+    /**
+     * Производитель товаров. Значение поля сохраняется в колонке "BRAND".
+     */
+    @Column(name = "BRAND", nullable = false)
+    private String brand;
+
+    /**
+     * Количество проданных единиц товаров.
+     */
+    @Column(name = "UNITS", nullable = false)
+    private long units;
+
+    /**
+     * Выручка в копейках.
+     */
+    @Column(name = "REVENUE", nullable = false)
+    private long revenue;
+
+    /**
+     * Конструктр без параметров.
+     */
+    public BrandSales() {
+    }
+
+    /**
+     * Конструктор строки продаж.
+     *
+     * @param generation Поколение сводных таблиц.
+     * @param saleDate   День оформления заказов.
+     * @param brand      Производитель.
+     * @param units      Количество единиц товаров.
+     * @param revenue    Выручка в копейках.
+     */
+    public BrandSales(long generation, LocalDate saleDate, String brand, long units, long revenue) {
+        this.generation = generation;
+        this.saleDate = saleDate;
+        this.brand = brand;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public Money getRevenue() {
+        return Money.ofKopecks(revenue);
+    }
+}
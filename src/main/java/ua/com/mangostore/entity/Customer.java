@@ -1,27 +1,40 @@
 package ua.com.mangostore.entity;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import ua.com.mangostore.entity.generator.PooledSequenceGenerator;
+
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 /**
  * Класс описывает сущность "Покупатель".
  * Аннотация @Entity говорит о том что объекты этого класса будет обрабатываться Hibernate.
  * Аннотация @Table(name = "Customers") указывает на таблицу "Customers", в которой будут храниться объекты.
+ * Покупатель определяется нормализованным телефоном: по колонке "PHONE_KEY" построен уникальный индекс,
+ * по нормализованной почте "EMAIL_KEY" - обычный индекс.
  *
  * @author Diukarev Sergii
  */
 @Entity
-@Table(name = "Customers")
+@Table(name = "Customers",
+        uniqueConstraints = @UniqueConstraint(name = "UK_CUSTOMERS_PHONE_KEY", columnNames = "PHONE_KEY"),
+        indexes = @Index(name = "IX_CUSTOMERS_EMAIL_KEY", columnList = "EMAIL_KEY"))
 public class Customer {
     /**
      * Уникальный код обьекта.
      * Аннотация @Id говорит о том что поле является ключем для текущего объекта,
-     * Аннотация @GeneratedValue говорит о том что значение генерируется автоматически.
+     * Аннотация @GeneratedValue говорит о том что значение генерируется автоматически
+     * из последовательности "CUSTOMER_SEQ" блоками (см. {@link PooledSequenceGenerator}).
      * Значение поля сохраняется в колонке "CUSTOMER_ID".
      */
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "CUSTOMER_SEQ")
+    @GenericGenerator(name = "CUSTOMER_SEQ", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = "sequence_name", value = "CUSTOMER_SEQ"))
     @Column(name = "CUSTOMER_ID")
     private long customerId;
 
@@ -62,6 +75,20 @@ public class Customer {
     @Column(name = "EMAIL")
     private String email;
 
+    /**
+     * Нормализованный телефон покупателя (последние 10 цифр номера).
+     * Значение поля сохраняется в колонке "PHONE_KEY", по которой построен уникальный индекс.
+     */
+    @Column(nullable = false, name = "PHONE_KEY", length = 10)
+    private String phoneKey;
+
+    /**
+     * Нормализованная электронная почта покупателя (без пробелов, в нижнем регистре).
+     * Значение поля сохраняется в колонке "EMAIL_KEY", по которой построен индекс.
+     */
+    @Column(name = "EMAIL_KEY")
+    private String emailKey;
+
     /**
      * Список заказов, которые сделал текущий покупатель.
      * К текущему пользователю можно добраться через поле "customer"
@@ -103,6 +130,16 @@ public class Customer {
      */
     public void setEmail(String email) {
         this.email = email;
+        this.emailKey = normalizeEmail(email);
+    }
+
+    /**
+     * Возвращает уникальный код покупателя.
+     *
+     * @return Значение типа long - код покупателя.
+     */
+    public long getCustomerId() {
+        return customerId;
     }
 
     /**
@@ -193,25 +230,91 @@ public class Customer {
      */
     public void setPhone(String phone) {
         this.phone = phone;
+        this.phoneKey = normalizePhone(phone);
+    }
+
+    /**
+     * Возвращает нормализованный телефон покупателя.
+     *
+     * @return Значение типа {@link String} - нормализованный телефон покупателя.
+     */
+    public String getPhoneKey() {
+        return phoneKey;
+    }
+
+    /**
+     * Возвращает нормализованную электронную почту покупателя.
+     *
+     * @return Значение типа {@link String} - нормализованная электронная почта покупателя.
+     */
+    public String getEmailKey() {
+        return emailKey;
+    }
+
+    /**
+     * Нормализует телефон: оставляет только цифры, из которых берет последние 10,
+     * поэтому "+38 (050) 123-45-67" и "0501234567" дают одинаковый ключ.
+     *
+     * @param phone Телефон.
+     * @return Значение типа {@link String} - нормализованный телефон или null.
+     */
+    public static String normalizePhone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char ch = phone.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                digits.append(ch);
+            }
+        }
+        return digits.length() > 10 ? digits.substring(digits.length() - 10) : digits.toString();
+    }
+
+    /**
+     * Нормализует электронную почту: убирает пробелы по краям и переводит в нижний регистр.
+     *
+     * @param email Электронная почта.
+     * @return Значение типа {@link String} - нормализованная почта или null, если почта пустая.
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null || email.trim().isEmpty()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Нормализует фамилию для поиска по началу: убирает пробелы по краям и переводит в нижний регистр.
+     *
+     * @param surname Фамилия.
+     * @return Значение типа {@link String} - нормализованная фамилия или null, если фамилия пустая.
+     */
+    public static String normalizeSurname(String surname) {
+        if (surname == null || surname.trim().isEmpty()) {
+            return null;
+        }
+        return surname.trim().toLowerCase(Locale.ROOT);
     }
 
     /**
-     * Переопределям метод equals на основание поля phone.
+     * Переопределям метод equals на основание нормализованного телефона.
      */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Customer customer = (Customer) o;
-        return phone.equals(customer.phone);
+        return Objects.equals(phoneKey, customer.phoneKey);
     }
 
     /**
-     * Возвращает hashCode объекта на основание поля phone.
+     * Возвращает hashCode объекта на основание нормализованного телефона.
      */
     @Override
     public int hashCode() {
-        return phone.hashCode();
+        return Objects.hashCode(phoneKey);
     }
 
     /**
@@ -1,48 +1,68 @@
 package ua.com.mangostore.entity;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.generator.PooledSequenceGenerator;
+import ua.com.mangostore.model.Money;
 
 import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Класс описывает сущность "Доставка".
  * Аннотация @Entity говорит о том что объекты этого класса будет обрабатываться Hibernate.
  * Аннотация @Table(name = "Deliveries") указывает на таблицу "Deliveries", в которой будут храниться объекты.
+ * По колонкам "EMPLOYEE_ID" и "DELIVERY_AT" построен индекс для выборки графика доставок курьера за период,
+ * по колонке "ORDER_ID" - для соединения доставки с заказом.
  *
  * @author Diukarev Sergii
  */
 @Entity
-@Table(name = "Deliveries")
+@Table(name = "Deliveries", indexes = {
+        @Index(name = "IX_DELIVERIES_EMPLOYEE_DELIVERY_AT", columnList = "EMPLOYEE_ID, DELIVERY_AT"),
+        @Index(name = "IX_DELIVERIES_ORDER_ID", columnList = "ORDER_ID")
+})
 public class Delivery {
+    /**
+     * Формат ввода и отображения даты доставки.
+     */
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    /**
+     * Формат ввода и отображения времени доставки.
+     */
+    public static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("H:mm");
 
     /**
      * Уникальный код обьекта.
      * Аннотация @Id говорит о том что поле является ключем для текущего объекта,
-     * Аннотация @GeneratedValue говорит о том что значение генерируется автоматически.
+     * Аннотация @GeneratedValue говорит о том что значение генерируется автоматически
+     * из последовательности "DELIVERY_SEQ" блоками (см. {@link PooledSequenceGenerator}).
      * Значение поля сохраняется в колонке "DELIVERY_ID".
      */
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "DELIVERY_SEQ")
+    @GenericGenerator(name = "DELIVERY_SEQ", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = "sequence_name", value = "DELIVERY_SEQ"))
     @Column(name = "DELIVERY_ID")
     private long deliveryId;
 
     /**
-     * Дата доставки
+     * Дата и время доставки. Значение поля сохраняется в колонке "DELIVERY_AT" типа TIMESTAMP.
+     * null, пока курьер не назначил время доставки.
      */
-    @Column(name = "DELIVERY_DATE")
-    private String deliveryDate;
+    @Column(name = "DELIVERY_AT")
+    private LocalDateTime deliveryAt;
 
     /**
-     * Время доставки
-     */
-    @Column(name = "DELIVERY_TIME")
-    private String deliveryTime;
-
-    /**
-     * Стоимость доставки
+     * Стоимость доставки, хранится в копейках.
      */
     @Column(name = "DELIVERY_COST")
-    private double cost;
+    private Money cost = Money.ZERO;
 
     /**
      * Тип доставки
@@ -57,9 +77,10 @@ public class Delivery {
      * в объекте класса {@link Order}.
      * Между объектами классов {@link Order} и {@link Delivery} связь один-к-одному,
      * а именно каждая запись в одной таблице напрямую связана с отдельной записью в другой таблице.
+     * Выборка объекта order при первом доступе к нему.
      * Сущности связаны полностью каскадным обновлением записей в базе данных.
      */
-    @OneToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "ORDER_ID")
     private Order order;
 
@@ -68,9 +89,9 @@ public class Delivery {
      * Значение поля (employeeId объекта Employee) сохраняется в колонке "EMPLOYEE_ID".
      * Между объектами классов {@link Delivery} и {@link Employee} связь многие-к-одному,
      * а именно много разных заказов могут иметь одного курьера.
-     * Выборка объекта status до первого доступа нему, при первом доступе к текущему объекту.
+     * Выборка объекта employee при первом доступе к нему.
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "EMPLOYEE_ID")
     private Employee employee;
 
@@ -80,6 +101,15 @@ public class Delivery {
     public Delivery() {
     }
 
+    /**
+     * Возвращает уникальный код объекта.
+     *
+     * @return Значение типа {@link long} - уникальный код объекта.
+     */
+    public long getDeliveryId() {
+        return deliveryId;
+    }
+
     /**
      * Возвращает курьера.
      *
@@ -117,47 +147,59 @@ public class Delivery {
     }
 
     /**
-     * Возвращает дату доставки.
+     * Возвращает дату и время доставки.
      *
-     * @return Значение типа {@link String} - дата доставки.
+     * @return Значение типа {@link LocalDateTime} - дата и время доставки или null.
      */
-    public String getDeliveryDate() {
-        return deliveryDate;
+    public LocalDateTime getDeliveryAt() {
+        return deliveryAt;
     }
 
     /**
-     * Устанавливает дату доставки.
+     * Устанавливает дату и время доставки.
      *
-     * @param deliveryDate дату доставки.
+     * @param deliveryAt дата и время доставки.
      */
-    public void setDeliveryDate(String deliveryDate) {
-        this.deliveryDate = deliveryDate;
+    public void setDeliveryAt(LocalDateTime deliveryAt) {
+        this.deliveryAt = deliveryAt;
     }
 
     /**
-     * Возвращает время доставки.
+     * Устанавливает дату и время доставки, введенные курьером.
      *
-     * @return Значение типа {@link String} - время доставки.
+     * @param deliveryDate дата доставки в формате "dd-MM-yyyy".
+     * @param deliveryTime время доставки в формате "H:mm".
+     * @throws java.time.format.DateTimeParseException Если дата или время введены в неверном формате.
      */
-    public String getDeliveryTime() {
-        return deliveryTime;
+    public void setDeliveryAt(String deliveryDate, String deliveryTime) {
+        this.deliveryAt = LocalDateTime.of(LocalDate.parse(deliveryDate, DATE_FORMAT),
+                LocalTime.parse(deliveryTime, TIME_FORMAT));
     }
 
     /**
-     * Устанавливает время доставки.
+     * Возвращает дату доставки в формате "dd-MM-yyyy".
      *
-     * @param deliveryTime время доставки.
+     * @return Значение типа {@link String} - дата доставки или пустая строка.
      */
-    public void setDeliveryTime(String deliveryTime) {
-        this.deliveryTime = deliveryTime;
+    public String getDeliveryDate() {
+        return deliveryAt != null ? deliveryAt.format(DATE_FORMAT) : "";
+    }
+
+    /**
+     * Возвращает время доставки в формате "H:mm".
+     *
+     * @return Значение типа {@link String} - время доставки или пустая строка.
+     */
+    public String getDeliveryTime() {
+        return deliveryAt != null ? deliveryAt.format(TIME_FORMAT) : "";
     }
 
     /**
      * Возвращает стоимость доставки.
      *
-     * @return Значение типа {@link String} - стоимость доставки.
+     * @return Значение типа {@link Money} - стоимость доставки.
      */
-    public double getCost() {
+    public Money getCost() {
         return cost;
     }
 
@@ -166,7 +208,7 @@ public class Delivery {
      *
      * @param cost стоимость доставки.
      */
-    public void setCost(double cost) {
+    public void setCost(Money cost) {
         this.cost = cost;
     }
 
@@ -187,13 +229,13 @@ public class Delivery {
     public void setDeliveryType(String deliveryType) {
         if (deliveryType.equals(DeliveryType.PICKUP.name())) {
             this.setDeliveryType(DeliveryType.PICKUP);
-            this.setCost(0);
+            this.setCost(Money.ZERO);
         } else if (deliveryType.equals(DeliveryType.COURIER.name())) {
             this.setDeliveryType(DeliveryType.COURIER);
-            this.setCost(50);
+            this.setCost(Money.ofHryvnias(50));
         } else {
             this.setDeliveryType(DeliveryType.UNMANNED_AIRCRAFT);
-            this.setCost(150);
+            this.setCost(Money.ofHryvnias(150));
         }
     }
 
@@ -207,8 +249,7 @@ public class Delivery {
     }
 
     public void reset() {
-        this.deliveryTime = "";
-        this.deliveryDate = "";
+        this.deliveryAt = null;
         this.setEmployee(null);
     }
 
@@ -221,8 +262,7 @@ public class Delivery {
     @Override
     public String toString() {
         return "Delivery{" +
-                "deliveryDate='" + deliveryDate + '\'' +
-                ", deliveryTime='" + deliveryTime + '\'' +
+                "deliveryAt=" + deliveryAt +
                 ", cost=" + cost +
                 ", deliveryType=" + deliveryType +
                 ", order=" + order +
@@ -1,7 +1,10 @@
 package ua.com.mangostore.entity;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.springframework.security.authentication.encoding.ShaPasswordEncoder;
 import ua.com.mangostore.entity.enums.EmployeePosition;
+import ua.com.mangostore.entity.generator.PooledSequenceGenerator;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -21,11 +24,14 @@ public class Employee {
     /**
      * Уникальный код обьекта.
      * Аннотация @Id говорит о том что поле является ключем для текущего объекта,
-     * Аннотация @GeneratedValue говорит о том что значение генерируется автоматически.
+     * Аннотация @GeneratedValue говорит о том что значение генерируется автоматически
+     * из последовательности "EMPLOYEE_SEQ" блоками (см. {@link PooledSequenceGenerator}).
      * Значение поля сохраняется в колонке "EMPLOYEE_ID".
      */
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "EMPLOYEE_SEQ")
+    @GenericGenerator(name = "EMPLOYEE_SEQ", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = "sequence_name", value = "EMPLOYEE_SEQ"))
     @Column(name = "EMPLOYEE_ID")
     private long employeeId;
 
@@ -1,67 +1,108 @@
 package ua.com.mangostore.entity;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.entity.generator.PooledSequenceGenerator;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.OrderNumberGenerator;
 
 import javax.persistence.*;
-import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Класс описывает сущность "Заказ".
  * Аннотация @Entity говорит о том что объекты этого класса будет обрабатываться Hibernate.
  * Аннотация @Table(name = "Orders") указывает на таблицу "Orders", в которой будут храниться объекты.
+ * Индексы таблицы обслуживают выборки заказов за период, по статусу, по покупателю
+ * и выбор заказов для архива, уникальный индекс номера - поиск заказа по номеру.
+ * Списки заказов менеджера и курьера читают не эту таблицу, а сводки заказов {@link OrderSummary}.
  *
  * @author Diukarev Sergii
  */
 @Entity
-@Table(name = "Orders")
+@Table(name = "Orders",
+        uniqueConstraints = @UniqueConstraint(name = "UK_ORDERS_NUMBER", columnNames = "NUMBER"),
+        indexes = {
+                @Index(name = "IX_ORDERS_CREATED_AT", columnList = "CREATED_AT, ORDER_ID"),
+                @Index(name = "IX_ORDERS_STATUS", columnList = "STATUS, CREATED_AT, ORDER_ID"),
+                @Index(name = "IX_ORDERS_PRICE", columnList = "ORDER_PRICE, ORDER_ID"),
+                @Index(name = "IX_ORDERS_CUSTOMER", columnList = "CUSTOMER_ID, CREATED_AT")
+        })
 public class Order {
+    /**
+     * Формат отображения даты создания заказа.
+     */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    /**
+     * Формат отображения времени создания заказа.
+     */
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("H:mm");
+
     /**
      * Уникальный код обьекта.
      * Аннотация @Id говорит о том что поле является ключем для текущего объекта,
-     * Аннотация @GeneratedValue говорит о том что значение генерируется автоматически.
+     * Аннотация @GeneratedValue говорит о том что значение генерируется автоматически
+     * из последовательности "ORDER_SEQ" блоками (см. {@link PooledSequenceGenerator}).
+     * Ключ берется из последовательности, а не из IDENTITY-колонки, иначе Hibernate
+     * не может объединять INSERT заказов в пакеты.
      * Значение поля сохраняется в колонке "ORDER_ID".
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "ORDER_SEQ")
+    @GenericGenerator(name = "ORDER_SEQ", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = "sequence_name", value = "ORDER_SEQ"))
     @Column(name = "ORDER_ID")
     private long orderId;
 
     /**
      * Номер заказа. Значение поля сохраняется в колонке "number". Не может быть null.
+     * Номер уникален, это гарантирует {@link OrderNumberGenerator} и уникальный индекс "UK_ORDERS_NUMBER",
+     * по которому покупатель находит заказ на странице отслеживания.
      */
-    @Column(name = "NUMBER", nullable = false)
+    @Column(name = "NUMBER", nullable = false, length = 16)
     private String number;
 
     /**
-     * Статус заказа. Значение поля сохраняется в колонке "status". Не может быть null.
+     * Статус заказа. Значение поля сохраняется в колонке "STATUS" именем константы {@link Status},
+     * поэтому порядок констант перечисления можно менять. Не может быть null.
      */
-    @Column(name = "STATUS", nullable = false)
+    @Column(name = "STATUS", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
     private Status status;
 
     /**
-     * Общая стоимость заказа. Значение поля сохраняется в колонке "ORDER_PRICE". Не может быть null.
+     * Общая стоимость заказа. Значение поля сохраняется в колонке "ORDER_PRICE" в копейках. Не может быть null.
      */
     @Column(nullable = false, name = "ORDER_PRICE")
-    private double orderPrice;
+    private Money orderPrice = Money.ZERO;
 
     /**
-     * Дата создания заказа. Значение поля сохраняется в колонке "DATE_CREATED". Не может быть null.
+     * Дата и время создания заказа. Значение поля сохраняется в колонке "CREATED_AT"
+     * типа TIMESTAMP. Не может быть null.
      */
-    @Column(nullable = false, name = "DATE_CREATED")
-    private String dateCreated;
+    @Column(nullable = false, updatable = false, name = "CREATED_AT")
+    private LocalDateTime createdAt;
 
     /**
-     * Время создания заказа. Значение поля сохраняется в колонке "TIME_CREATED". Не может быть null.
+     * Ключ идемпотентности запроса, которым оформлен заказ, вместе с областью ключа
+     * (сессией покупателя) в виде "область:ключ". Значение поля сохраняется
+     * в колонке "IDEMPOTENCY_KEY" с уникальным индексом, поэтому повторный запрос с тем же ключом
+     * из той же сессии не может создать второй заказ. Может быть null.
      */
-    @Column(nullable = false, name = "TIME_CREATED")
-    private String timeCreated;
+    @Column(name = "IDEMPOTENCY_KEY", unique = true, updatable = false, length = 160)
+    private String idempotencyKey;
 
+    /**
+     * Доставка заказа. Связь один-к-одному хранится в таблице "Deliveries", поэтому Hibernate
+     * не может отложить ее выборку и загружает доставку вместе с заказом отдельным запросом;
+     * запросы заказов в {@link ua.com.mangostore.repository.OrderRepository} выбирают ее join fetch.
+     */
     @OneToOne(fetch = FetchType.LAZY, mappedBy = "order", cascade = CascadeType.ALL)
     private Delivery delivery;
 
@@ -70,13 +111,20 @@ public class Order {
      * Между объектами классов {@link Order} и
      * {@link Customer} связь один-ко-многим, а именно каждая
      * запись в одной таблице напрямую связана с одной или несколькими записями в другой таблице.
-     * Выборка объекта customer до первого доступа к нему, при первом доступе к текущему объекту.
+     * Выборка объекта customer при первом доступе к нему.
      * Сущности связаны полностью каскадным обновлением записей в базе данных.
      */
-    @ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "CUSTOMER_ID")
     private Customer customer;
 
+    /**
+     * Получатель заказа - имя, телефон и адрес, указанные при оформлении именно этого заказа.
+     * Хранится в строке заказа, поэтому не меняется при следующих заказах того же покупателя.
+     */
+    @Embedded
+    private Recipient recipient;
+
     /**
      * Покупатель, оформивший заказ.
      * Между объектами классов {@link Order} и
@@ -92,43 +140,38 @@ public class Order {
      * Список торговых позиция текущего заказу.
      * К текущему заказу можно добраться через поле "order"
      * в объекте класса {@link SalePosition}.
-     * Выборка продаж при первом доступе к текущему объекту.
+     * Выборка продаж при первом доступе к ним.
      * Сущности связаны полностью каскадным обновлением записей в базе данных.
      */
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "order", cascade = CascadeType.ALL)
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "order", cascade = CascadeType.ALL)
     private List<SalePosition> salePositions = new ArrayList<>();
 
+    /**
+     * Признак заказа, восстановленного из архива (см. {@link ArchivedOrder}).
+     * Такой заказ доступен только для чтения и не сохраняется в таблицу "Orders".
+     */
+    @Transient
+    private boolean archived;
+
     /**
      * Конструктр без параметров.
-     * Автоматически инициализируются поля номер, дата и время создания заказа, статуса заказа.
+     * Автоматически инициализируются поля дата и время создания заказа, статуса заказа.
+     * Номер присваивается перед первым сохранением ({@link #assignNumber()}), потому что
+     * этот конструктор вызывается и при каждой загрузке заказа из базы данных.
      */
     public Order() {
-        this.setDateCreated(LocalDate.now());
-        this.setTimeCreated(LocalTime.now());
-        this.number = createNumberOfOrder();
+        this.createdAt = LocalDateTime.now().withNano(0);
         this.status = Status.NEW;
     }
 
     /**
-     * Набор вожможных символов для использованния по-умолчанию.
+     * Присваивает номер новому заказу перед первым сохранением, если номер еще не задан.
      */
-    protected static final char[] NUMBER_PATTERN = {
-            'M', 'A', 'N', 'G', 'O', 'S', 'T', 'R', 'E',
-            '1', '2', '3', '4', '5', '6', '7', '8', '9', '0'};
-
-    /**
-     * Возвращает рандомную строку используя набор символов NUMBER_PATTERN.
-     *
-     * @return Значение типа {@link String} - рандомная строка из набора символов NUMBER_PATTERN.
-     */
-    private String createNumberOfOrder() {
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < 6; i++) {
-            int number = new Random().nextInt(NUMBER_PATTERN.length);
-            char ch = NUMBER_PATTERN[number];
-            builder.append(ch);
+    @PrePersist
+    void assignNumber() {
+        if (number == null) {
+            number = OrderNumberGenerator.getDefault().next();
         }
-        return builder.toString();
     }
 
     /**
@@ -232,6 +275,24 @@ public class Order {
         this.number = number;
     }
 
+    /**
+     * Возвращает ключ идемпотентности запроса, которым оформлен заказ.
+     *
+     * @return Значение типа {@link String} - ключ идемпотентности или null.
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    /**
+     * Устанавливает ключ идемпотентности запроса, которым оформлен заказ.
+     *
+     * @param idempotencyKey ключ идемпотентности.
+     */
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     /**
      * Возвращает сотрудника, связанного с заказом.
      *
@@ -268,6 +329,24 @@ public class Order {
         this.customer = customer;
     }
 
+    /**
+     * Возвращает получателя заказа.
+     *
+     * @return Значение типа {@link Recipient} - получатель заказа.
+     */
+    public Recipient getRecipient() {
+        return recipient;
+    }
+
+    /**
+     * Устанавливает получателя заказа.
+     *
+     * @param recipient получатель заказа.
+     */
+    public void setRecipient(Recipient recipient) {
+        this.recipient = recipient;
+    }
+
     /**
      * Возвращает статус заказа.
      *
@@ -289,9 +368,9 @@ public class Order {
     /**
      * Возвращает общую стоимость заказа.
      *
-     * @return Значение типа {@link double} - стоимость заказа.
+     * @return Значение типа {@link Money} - стоимость заказа.
      */
-    public double getOrderPrice() {
+    public Money getOrderPrice() {
         return orderPrice;
     }
 
@@ -300,7 +379,7 @@ public class Order {
      *
      * @param orderPrice стоимость заказа.
      */
-    public void setOrderPrice(double orderPrice) {
+    public void setOrderPrice(Money orderPrice) {
         this.orderPrice = orderPrice;
     }
 
@@ -332,57 +411,64 @@ public class Order {
     }
 
     /**
-     * Возвращает дату создания заказа.
+     * Устанавливает уникальный код объекта при восстановлении заказа из архива.
      *
-     * @return Значение типа {@link String} - дата создания заказа.
+     * @param orderId уникальный код объекта.
      */
-    public String getDateCreated() {
-        return dateCreated;
+    void setOrderId(long orderId) {
+        this.orderId = orderId;
     }
 
     /**
-     * Устанавливает дату создания заказа.
+     * Возвращает признак заказа, восстановленного из архива.
      *
-     * @param dateCreated дату создания заказа.
+     * @return Значение типа boolean - true, если заказ архивный.
+     */
+    public boolean isArchived() {
+        return archived;
+    }
+
+    /**
+     * Помечает заказ как восстановленный из архива.
      */
-    public void setDateCreated(String dateCreated) {
-        this.dateCreated = dateCreated;
+    void markArchived() {
+        this.archived = true;
     }
 
     /**
-     * Устанавливает дату создания заказа.
+     * Возвращает дату и время создания заказа.
      *
-     * @param localDate дату создания заказа.
+     * @return Значение типа {@link LocalDateTime} - дата и время создания заказа.
      */
-    public void setDateCreated(LocalDate localDate) {
-        this.dateCreated = localDate.format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
     }
 
     /**
-     * Возвращает время создания заказа.
+     * Устанавливает дату и время создания заказа.
      *
-     * @return Значение типа {@link String} - время создания заказа.
+     * @param createdAt дата и время создания заказа.
      */
-    public String getTimeCreated() {
-        return timeCreated;
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
     }
 
     /**
-     * Устанавливает время создания заказа.
+     * Возвращает дату создания заказа в формате "dd-MM-yyyy".
      *
-     * @param timeCreated времясоздания заказа.
+     * @return Значение типа {@link String} - дата создания заказа.
      */
-    public void setTimeCreated(String timeCreated) {
-        this.timeCreated = timeCreated;
+    public String getDateCreated() {
+        return createdAt.format(DATE_FORMAT);
     }
 
     /**
-     * Устанавливает время создания заказа.
+     * Возвращает время создания заказа в формате "H:mm".
      *
-     * @param localTime времясоздания заказа.
+     * @return Значение типа {@link String} - время создания заказа.
      */
-    public void setTimeCreated(LocalTime localTime) {
-        this.timeCreated = localTime.format(DateTimeFormatter.ofPattern("H:mm"));
+    public String getTimeCreated() {
+        return createdAt.format(TIME_FORMAT);
     }
 
     /**
@@ -398,8 +484,7 @@ public class Order {
                 "number='" + number + '\'' +
                 ", status=" + status +
                 ", orderPrice=" + orderPrice +
-                ", dateCreated='" + dateCreated + '\'' +
-                ", timeCreated='" + timeCreated + '\'' +
+                ", createdAt=" + createdAt +
                 ", delivery=" + delivery +
                 ", customer=" + customer +
                 ", employee=" + employee +
@@ -0,0 +1,223 @@
+package ua.com.mangostore.entity;
+
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Класс описывает сущность "Сводка заказа" - строку денормализованной таблицы "Order_Summary".
+ * Строка повторяет все, что показывают списки заказов менеджера и курьера: номер, статус, дату,
+ * стоимость и количество единиц товара заказа, имя, телефон и город покупателя, способ и время
+ * доставки и имя курьера. Сводка обновляется в той же транзакции, что и заказ
+ * (см. {@link ua.com.mangostore.service.impl.OrderSummaryServiceImpl}), поэтому списки заказов
+ * читают одну таблицу по ее индексам, без соединения заказов, доставок, покупателей и сотрудников.
+ * Код сводки совпадает с кодом заказа.
+ * Аннотация @Entity говорит о том что объекты этого класса будет обрабатываться Hibernate.
+ *
+ * @author Diukarev Sergii
+ * @see Order
+ */
+@Entity
+@Table(name = "Order_Summary", indexes = {
+        @Index(name = "IX_ORDER_SUMMARY_CREATED_AT", columnList = "CREATED_AT, ORDER_ID"),
+        @Index(name = "IX_ORDER_SUMMARY_STATUS", columnList = "STATUS, CREATED_AT, ORDER_ID"),
+        @Index(name = "IX_ORDER_SUMMARY_PRICE", columnList = "ORDER_PRICE, ORDER_ID"),
+        @Index(name = "IX_ORDER_SUMMARY_STATUS_PRICE", columnList = "STATUS, ORDER_PRICE, ORDER_ID"),
+        @Index(name = "IX_ORDER_SUMMARY_DELIVERY", columnList = "DELIVERY_TYPE, CREATED_AT, ORDER_ID"),
+        @Index(name = "IX_ORDER_SUMMARY_PHONE_KEY", columnList = "PHONE_KEY, CREATED_AT"),
+        @Index(name = "IX_ORDER_SUMMARY_EMAIL_KEY", columnList = "EMAIL_KEY, CREATED_AT"),
+        @Index(name = "IX_ORDER_SUMMARY_SURNAME_KEY", columnList = "SURNAME_KEY, CREATED_AT"),
+        @Index(name = "IX_ORDER_SUMMARY_CUSTOMER", columnList = "CUSTOMER_ID"),
+        @Index(name = "IX_ORDER_SUMMARY_COURIER", columnList = "COURIER_ID, DELIVERY_AT")
+})
+public class OrderSummary {
+    /**
+     * Код заказа.
+     */
+    @Id
+    @Column(name = "ORDER_ID")
+    private long orderId;
+
+    @Column(name = "NUMBER", nullable = false, length = 16)
+    private String number;
+
+    @Column(name = "STATUS", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(name = "CREATED_AT", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Стоимость заказа в копейках.
+     */
+    @Column(name = "ORDER_PRICE", nullable = false)
+    private Money orderPrice;
+
+    /**
+     * Количество единиц товара во всех торговых позициях заказа.
+     */
+    @Column(name = "ITEM_COUNT", nullable = false)
+    private int itemCount;
+
+    @Column(name = "CUSTOMER_ID")
+    private Long customerId;
+
+    @Column(name = "CUSTOMER_NAME")
+    private String customerName;
+
+    @Column(name = "CUSTOMER_SURNAME")
+    private String customerSurname;
+
+    @Column(name = "CUSTOMER_PHONE")
+    private String customerPhone;
+
+    /**
+     * Фамилия в нижнем регистре для поиска по началу фамилии по индексу
+     * (см. {@link Customer#normalizeSurname(String)}).
+     */
+    @Column(name = "SURNAME_KEY")
+    private String surnameKey;
+
+    @Column(name = "PHONE_KEY", length = 10)
+    private String phoneKey;
+
+    @Column(name = "EMAIL_KEY")
+    private String emailKey;
+
+    @Column(name = "CITY")
+    private String city;
+
+    @Column(name = "DELIVERY_TYPE")
+    @Enumerated(EnumType.STRING)
+    private DeliveryType deliveryType;
+
+    @Column(name = "DELIVERY_AT")
+    private LocalDateTime deliveryAt;
+
+    @Column(name = "COURIER_ID")
+    private Long courierId;
+
+    @Column(name = "COURIER_NAME")
+    private String courierName;
+
+    /**
+     * Конструктр без параметров.
+     */
+    public OrderSummary() {
+    }
+
+    /**
+     * Создает сводку заказа.
+     *
+     * @param order Заказ.
+     * @return Объект класса {@link OrderSummary}.
+     */
+    public static OrderSummary of(Order order) {
+        OrderSummary summary = new OrderSummary();
+        summary.orderId = order.getOrderId();
+        summary.update(order);
+        return summary;
+    }
+
+    /**
+     * Переписывает сводку по текущему состоянию заказа, его доставки и покупателя.
+     *
+     * @param order Заказ.
+     */
+    public void update(Order order) {
+        number = order.getNumber();
+        status = order.getStatus();
+        createdAt = order.getCreatedAt();
+        orderPrice = order.getOrderPrice();
+        int count = 0;
+        for (SalePosition salePosition : order.getSalePositions()) {
+            count += salePosition.getNumber();
+        }
+        itemCount = count;
+        update(order.getCustomer(), order.getRecipient());
+        update(order.getDelivery());
+    }
+
+    /**
+     * Переписывает данные покупателя. Имя, телефон и город берутся из получателя заказа,
+     * а не из общей строки покупателя, поэтому сводка показывает данные именно этого заказа.
+     *
+     * @param customer  Покупатель или null.
+     * @param recipient Получатель заказа или null.
+     */
+    private void update(Customer customer, Recipient recipient) {
+        customerId = customer != null ? customer.getCustomerId() : null;
+        customerName = recipient != null ? recipient.getName() : null;
+        customerSurname = recipient != null ? recipient.getSurname() : null;
+        customerPhone = recipient != null ? recipient.getPhone() : null;
+        surnameKey = recipient != null ? Customer.normalizeSurname(recipient.getSurname()) : null;
+        phoneKey = recipient != null ? Customer.normalizePhone(recipient.getPhone()) : null;
+        emailKey = recipient != null ? Customer.normalizeEmail(recipient.getEmail()) : null;
+        city = recipient != null ? recipient.getCity() : null;
+    }
+
+    /**
+     * Переписывает данные доставки и курьера.
+     *
+     * @param delivery Доставка или null.
+     */
+    public void update(Delivery delivery) {
+        Employee courier = delivery != null ? delivery.getEmployee() : null;
+        deliveryType = delivery != null ? delivery.getDeliveryType() : null;
+        deliveryAt = delivery != null ? delivery.getDeliveryAt() : null;
+        courierId = courier != null ? courier.getEmployeeId() : null;
+        courierName = courier != null ? courier.getFullName() : null;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Money getOrderPrice() {
+        return orderPrice;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerSurname() {
+        return customerSurname;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public DeliveryType getDeliveryType() {
+        return deliveryType;
+    }
+
+    public LocalDateTime getDeliveryAt() {
+        return deliveryAt;
+    }
+
+    public String getCourierName() {
+        return courierName;
+    }
+}
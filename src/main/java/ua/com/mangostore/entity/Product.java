@@ -1,10 +1,12 @@
 package ua.com.mangostore.entity;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ua.com.mangostore.entity.enums.OnMain;
+import ua.com.mangostore.entity.generator.PooledSequenceGenerator;
+import ua.com.mangostore.model.Money;
 
 import javax.persistence.*;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,11 +24,14 @@ public class Product {
     /**
      * Уникальный код обьекта.
      * Аннотация @Id говорит о том что поле является ключем для текущего объекта,
-     * Аннотация @GeneratedValue говорит о том что значение генерируется автоматически.
+     * Аннотация @GeneratedValue говорит о том что значение генерируется автоматически
+     * из последовательности "PRODUCT_SEQ" блоками (см. {@link PooledSequenceGenerator}).
      * Значение поля сохраняется в колонке "PRODUCT_ID".
      */
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "PRODUCT_SEQ")
+    @GenericGenerator(name = "PRODUCT_SEQ", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = "sequence_name", value = "PRODUCT_SEQ"))
     @Column(name = "PRODUCT_ID")
     private long productId;
 
@@ -51,17 +56,31 @@ public class Product {
     private String brand;
 
     /**
-     * Полная стоимость за одну штуку
+     * Полная стоимость за одну штуку, хранится в копейках.
      * Не может быть null.
      */
     @Column(nullable = false, name = "FULL_PRICE")
-    private double fullPrice;
+    private Money fullPrice;
 
     /**
-     * Цена со скидкой
+     * Цена со скидкой, хранится в копейках.
      */
     @Column(name = "SALE_PRICE")
-    private double salePrice;
+    private Money salePrice;
+
+    /**
+     * Полная стоимость в отформатированном виде.
+     * Вычисляется при первом обращении и сбрасывается при изменении цены.
+     */
+    @Transient
+    private volatile String formatFullPrice;
+
+    /**
+     * Цена со скидкой в отформатированном виде.
+     * Вычисляется при первом обращении и сбрасывается при изменении цены.
+     */
+    @Transient
+    private volatile String formatSalePrice;
 
     /**
      * Описание товара
@@ -90,9 +109,12 @@ public class Product {
     private OnMain onMain;
 
     /**
-     * Количество
+     * Количество на складе.
+     * Колонка не обновляется при сохранении товара: остаток меняется только атомарными запросами
+     * {@link ua.com.mangostore.service.StockService}, поэтому устаревшая копия товара из кеша
+     * каталога не может перезаписать проданное количество.
      */
-    @Column(name = "QUANTITY")
+    @Column(name = "QUANTITY", updatable = false)
     private int quantity;
 
     /**
@@ -105,22 +127,6 @@ public class Product {
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "product", cascade = CascadeType.ALL)
     private List<SalePosition> salePositions = new ArrayList<>();
 
-    /**
-     * Объект {@link DecimalFormat} для  форматирования десятичных чисел.
-     */
-    public static DecimalFormat df = new DecimalFormat();
-
-    {
-        df.setGroupingUsed(true);
-        df.setGroupingSize(3);
-
-        DecimalFormatSymbols decimalFormatSymbols = new DecimalFormatSymbols();
-        decimalFormatSymbols.setZeroDigit('0');
-        decimalFormatSymbols.setGroupingSeparator(' ');
-
-        df.setDecimalFormatSymbols(decimalFormatSymbols);
-    }
-
     /**
      * Конструктор без параметров
      */
@@ -136,7 +142,7 @@ public class Product {
      * @param fullPrice Полная стомость
      * @param salePrice Цена со скидкой
      */
-    public Product(String productTitle, String type, String brand, double fullPrice, double salePrice) {
+    public Product(String productTitle, String type, String brand, Money fullPrice, Money salePrice) {
         this.productTitle = productTitle;
         this.type = type;
         this.brand = brand;
@@ -246,28 +252,38 @@ public class Product {
     /**
      * Возвращает полную стоимость товара
      *
-     * @return Значение типа {@link String} -  полную стоимость товара.
+     * @return Значение типа {@link Money} -  полную стоимость товара.
      */
-    public double getFullPrice() {
+    public Money getFullPrice() {
         return fullPrice;
     }
 
     /**
-     * Возвращает полную стоимость товара в форматированном виде
+     * Возвращает полную стоимость товара в форматированном виде.
+     * Строка кешируется в товаре, поэтому повторный рендеринг страниц не форматирует цену заново.
      *
      * @return Значение типа {@link String} - полная стоимость товара.
      */
     public String getFormatFullPrice() {
-        return df.format(getFullPrice());
+        String format = formatFullPrice;
+        if (format == null) {
+            format = formatFullPrice = fullPrice.format();
+        }
+        return format;
     }
 
     /**
-     * Возвращает стоимость товара со скидкой в форматированном виде
+     * Возвращает стоимость товара со скидкой в форматированном виде.
+     * Строка кешируется в товаре, поэтому повторный рендеринг страниц не форматирует цену заново.
      *
      * @return Значение типа {@link String} - стоимость товара со скидкой.
      */
     public String getFormatSalePrice() {
-        return df.format(getSalePrice());
+        String format = formatSalePrice;
+        if (format == null) {
+            format = formatSalePrice = salePrice.format();
+        }
+        return format;
     }
 
     /**
@@ -275,17 +291,18 @@ public class Product {
      *
      * @param fullPrice полную стоимость товара
      */
-    public void setFullPrice(double fullPrice) {
+    public void setFullPrice(Money fullPrice) {
         this.fullPrice = fullPrice;
+        this.formatFullPrice = null;
     }
 
 
     /**
      * Возвращает стоимость товара со скидкой
      *
-     * @return Значение типа {@link double} - стоимость товара со скидкой.
+     * @return Значение типа {@link Money} - стоимость товара со скидкой.
      */
-    public double getSalePrice() {
+    public Money getSalePrice() {
         return salePrice;
     }
 
@@ -294,8 +311,9 @@ public class Product {
      *
      * @param salePrice стоимость товара со скидкой
      */
-    public void setSalePrice(double salePrice) {
+    public void setSalePrice(Money salePrice) {
         this.salePrice = salePrice;
+        this.formatSalePrice = null;
     }
 
     /**
@@ -451,8 +469,8 @@ public class Product {
 
         Product product = (Product) o;
 
-        if (Double.compare(product.fullPrice, fullPrice) != 0) return false;
-        if (Double.compare(product.salePrice, salePrice) != 0) return false;
+        if (fullPrice != null ? !fullPrice.equals(product.fullPrice) : product.fullPrice != null) return false;
+        if (salePrice != null ? !salePrice.equals(product.salePrice) : product.salePrice != null) return false;
         if (!productTitle.equals(product.productTitle)) return false;
         if (type != null ? !type.equals(product.type) : product.type != null) return false;
         return brand != null ? brand.equals(product.brand) : product.brand == null;
@@ -468,14 +486,11 @@ public class Product {
     @Override
     public int hashCode() {
         int result;
-        long temp;
         result = productTitle.hashCode();
         result = 31 * result + (type != null ? type.hashCode() : 0);
         result = 31 * result + (brand != null ? brand.hashCode() : 0);
-        temp = Double.doubleToLongBits(fullPrice);
-        result = 31 * result + (int) (temp ^ (temp >>> 32));
-        temp = Double.doubleToLongBits(salePrice);
-        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + (fullPrice != null ? fullPrice.hashCode() : 0);
+        result = 31 * result + (salePrice != null ? salePrice.hashCode() : 0);
         return result;
     }
 
@@ -0,0 +1,111 @@
+package ua.com.mangostore.entity;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import ua.com.mangostore.entity.generator.PooledSequenceGenerator;
+import ua.com.mangostore.model.Money;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Класс описывает сущность "Продажи товара за день" - строку сводной таблицы "Product_Sales".
+ * Строка хранит количество проданных единиц товара и выручку по заказам, оформленным в этот день,
+ * и обновляется приращениями при оформлении и изменении заказов
+ * (см. {@link ua.com.mangostore.service.impl.SalesRollupServiceImpl}), поэтому отчеты о продажах
+ * читают только сводную таблицу, а не заказы.
+ * Аннотация @Entity говорит о том что объекты этого класса будет обрабатываться Hibernate.
+ *
+ * @author Diukarev Sergii
+ * @see BrandSales
+ */
+@Entity
+@Table(name = "Product_Sales",
+        uniqueConstraints = @UniqueConstraint(name = "UK_PRODUCT_SALES", columnNames = {"GENERATION", "SALE_DATE", "PRODUCT_ID"}))
+public class ProductSales {
+    /**
+     * Уникальный код обьекта, генерируется из последовательности "PRODUCT_SALES_SEQ".
+     */
+    @Id
+    @GeneratedValue(generator = "PRODUCT_SALES_SEQ")
+    @GenericGenerator(name = "PRODUCT_SALES_SEQ", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = "sequence_name", value = "PRODUCT_SALES_SEQ"))
+    @Column(name = "PRODUCT_SALES_ID")
+    private long productSalesId;
+
+    /**
+     * Поколение сводных таблиц: пересчет пишет строки нового поколения рядом с действующими,
+     * а отчеты и приращения работают только с действующим (см. {@link SalesGeneration}).
+     * Значение поля сохраняется в колонке "GENERATION".
+     */
+    @Column(name = "GENERATION", nullable = false)
+    private long generation;
+
+    /**
+     * День оформления заказов. Значение поля сохраняется в колонке "SALE_DATE".
+     */
+    @Column(name = "SALE_DATE", nullable = false)
+    private LocalDate saleDate;
+
+    /**
+     * Проданный товар. Значение поля сохраняется в колонке "PRODUCT_ID".
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "PRODUCT_ID", nullable = false)
+    private Product product;
+
+    /**
+     * Количество проданных единиц товара.
+     */
+    @Column(name = "UNITS", nullable = false)
+    private long units;
+
+    /**
+     * Выручка в копейках.
+     */
+    @Column(name = "REVENUE", nullable = false)
+    private long revenue;
+
+    /**
+     * Конструктр без параметров.
+     */
+    public ProductSales() {
+    }
+
+    /**
+     * Конструктор строки продаж.
+     *
+     * @param generation Поколение сводных таблиц.
+     * @param saleDate   День оформления заказов.
+     * @param product    Товар.
+     * @param units      Количество единиц товара.
+     * @param revenue    Выручка в копейках.
+     */
+    public ProductSales(long generation, LocalDate saleDate, Product product, long units, long revenue) {
+        this.generation = generation;
+        this.saleDate = saleDate;
+        this.product = product;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public Money getRevenue() {
+        return Money.ofKopecks(revenue);
+    }
+}
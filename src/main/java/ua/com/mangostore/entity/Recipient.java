@@ -0,0 +1,123 @@
+package ua.com.mangostore.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+/**
+ * Класс описывает получателя заказа - имя, телефон, почту и адрес, указанные покупателем
+ * при оформлении конкретного заказа. Данные копируются в строку заказа (колонки RECIPIENT_*
+ * таблицы "Orders"), поэтому повторный заказ с тем же телефоном, но другим адресом, не меняет
+ * адрес доставки уже оформленных заказов, а общая строка покупателя при оформлении не переписывается.
+ * Аннотация @Embeddable говорит о том что поля класса хранятся в таблице владеющей сущности.
+ *
+ * @author Diukarev Sergii
+ * @see Order
+ * @see Customer
+ */
+@Embeddable
+public class Recipient {
+    @Column(name = "RECIPIENT_NAME")
+    private String name;
+
+    @Column(name = "RECIPIENT_SURNAME")
+    private String surname;
+
+    @Column(name = "RECIPIENT_PHONE")
+    private String phone;
+
+    @Column(name = "RECIPIENT_EMAIL")
+    private String email;
+
+    @Column(name = "RECIPIENT_CITY")
+    private String city;
+
+    @Column(name = "RECIPIENT_ADDRESS")
+    private String address;
+
+    /**
+     * Конструктр без параметров.
+     */
+    public Recipient() {
+    }
+
+    /**
+     * Копирует данные получателя из формы покупателя.
+     *
+     * @param customer Покупатель.
+     * @return Объект класса {@link Recipient}.
+     */
+    public static Recipient of(Customer customer) {
+        Recipient recipient = new Recipient();
+        recipient.name = customer.getName();
+        recipient.surname = customer.getSurname();
+        recipient.phone = customer.getPhone();
+        recipient.email = customer.getEmail();
+        recipient.city = customer.getCity();
+        recipient.address = customer.getAddress();
+        return recipient;
+    }
+
+    /**
+     * Возвращает копию получателя, не связанную с заказом.
+     *
+     * @return Объект класса {@link Recipient}.
+     */
+    public Recipient copy() {
+        Recipient recipient = new Recipient();
+        recipient.name = name;
+        recipient.surname = surname;
+        recipient.phone = phone;
+        recipient.email = email;
+        recipient.city = city;
+        recipient.address = address;
+        return recipient;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSurname() {
+        return surname;
+    }
+
+    public void setSurname(String surname) {
+        this.surname = surname;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+}
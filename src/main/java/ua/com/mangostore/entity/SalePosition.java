@@ -1,10 +1,12 @@
 package ua.com.mangostore.entity;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import ua.com.mangostore.entity.generator.PooledSequenceGenerator;
+import ua.com.mangostore.model.Money;
 import ua.com.mangostore.model.ShoppingCart;
 
 import javax.persistence.*;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 
 /**
  * Класс описывает сущность "Торговая позиция".
@@ -22,7 +24,9 @@ import java.text.DecimalFormatSymbols;
 public class SalePosition{
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "SALE_POSITION_SEQ")
+    @GenericGenerator(name = "SALE_POSITION_SEQ", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = "sequence_name", value = "SALE_POSITION_SEQ"))
     @Column(name = "SALE_POSITION_ID")
     private long salePositionId;
 
@@ -30,12 +34,12 @@ public class SalePosition{
     /**
      * Товар текущей торговой позици.
      * Между объектами классов {@link Product}
-     * и {@link SalePosition} связь один-к-одному, а именно каждая
-     * запись в одной таблице напрямую связана с отдельной записью в другой таблице.
-     * Выборка объекта product происходит до первого доступа нему.
-     * * Не может быть null.
+     * и {@link SalePosition} связь многие-к-одному, а именно
+     * один товар может входить в торговые позиции разных заказов.
+     * Выборка объекта product при первом доступе к нему.
+     * Не может быть null.
      */
-    @OneToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PRODUCT_ID", nullable = false)
     private Product product;
 
@@ -90,19 +94,20 @@ public class SalePosition{
     /**
      * Возвращает общую стоимость торговой позиции (цена товара * количество).
      *
-     * @return Значение типа double - цена торговой пзиции.
+     * @return Значение типа {@link Money} - цена торговой пзиции.
      */
-    public double getPrice() {
-        return product.getSalePrice() * number;
+    public Money getPrice() {
+        return product.getSalePrice().times(number);
     }
 
     /**
-     * Возвращает общую стоимость торговой позиции (цена товара * количество).
+     * Возвращает общую стоимость торговой позиции (цена товара * количество) в отформатированном виде.
+     * Для позиции из одного товара используется закешированная в товаре строка.
      *
-     * @return Значение типа double - цена торговой пзиции.
+     * @return Значение типа {@link String} - цена торговой пзиции.
      */
     public String getFormatPrice() {
-        return Product.df.format(product.getSalePrice() * number);
+        return number == 1 ? product.getFormatSalePrice() : getPrice().format();
     }
 
     /**
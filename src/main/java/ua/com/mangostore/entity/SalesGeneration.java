@@ -0,0 +1,56 @@
+package ua.com.mangostore.entity;
+
+import javax.persistence.*;
+
+/**
+ * Класс описывает сущность "Действующее поколение сводных таблиц продаж" - единственную строку
+ * таблицы "Sales_Generation". Пересчет пишет строки {@link ProductSales} и {@link BrandSales}
+ * нового поколения рядом с действующими, не останавливая запись приращений, а затем одним
+ * обновлением этой строки делает их действующими; строки прежнего поколения удаляются позже.
+ * Аннотация @Entity говорит о том что объекты этого класса будет обрабатываться Hibernate.
+ *
+ * @author Diukarev Sergii
+ * @see ua.com.mangostore.service.impl.SalesRollupServiceImpl
+ */
+@Entity
+@Table(name = "Sales_Generation")
+public class SalesGeneration {
+    /**
+     * Код единственной строки таблицы.
+     */
+    public static final long ID = 1;
+
+    @Id
+    @Column(name = "SALES_GENERATION_ID")
+    private long salesGenerationId;
+
+    /**
+     * Номер действующего поколения. Значение поля сохраняется в колонке "GENERATION".
+     */
+    @Column(name = "GENERATION", nullable = false)
+    private long generation;
+
+    /**
+     * Конструктр без параметров.
+     */
+    public SalesGeneration() {
+    }
+
+    /**
+     * Конструктор строки с действующим поколением.
+     *
+     * @param generation Номер действующего поколения.
+     */
+    public SalesGeneration(long generation) {
+        this.salesGenerationId = ID;
+        this.generation = generation;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(long generation) {
+        this.generation = generation;
+    }
+}
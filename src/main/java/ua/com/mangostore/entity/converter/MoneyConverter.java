@@ -0,0 +1,41 @@
+package ua.com.mangostore.entity.converter;
+
+import ua.com.mangostore.model.Money;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Класс преобразует денежную сумму {@link Money} в колонку базы данных и обратно.
+ * Сумма хранится в колонке типа BIGINT в копейках.
+ * Аннотация @Converter(autoApply = true) говорит о том, что преобразование применяется
+ * ко всем полям сущностей типа {@link Money}.
+ *
+ * @author Diukarev Sergii
+ * @see Money
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    /**
+     * Преобразует сумму в значение колонки.
+     *
+     * @param money Денежная сумма.
+     * @return Сумма в копейках или null.
+     */
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.getAmount();
+    }
+
+    /**
+     * Преобразует значение колонки в сумму.
+     *
+     * @param amount Сумма в копейках.
+     * @return Объект класса {@link Money} или null.
+     */
+    @Override
+    public Money convertToEntityAttribute(Long amount) {
+        return amount == null ? null : Money.ofKopecks(amount);
+    }
+}
@@ -10,6 +10,27 @@ public enum Status {
     CLOSED,
     DELETED;
 
+    /**
+     * Проверяет, можно ли перевести заказ из этого статуса в указанный групповым изменением статусов.
+     * Заказ двигается только вперед: возврат в NEW сбрасывает доставку, а восстановление
+     * закрытого или удаленного заказа требует проверки, поэтому выполняется на странице заказа.
+     *
+     * @param target Новый статус.
+     * @return true, если переход разрешен.
+     */
+    public boolean canMoveTo(Status target) {
+        switch (this) {
+            case NEW:
+                return target == WORK || target == DELETED;
+            case WORK:
+                return target == DELIVERY || target == CLOSED || target == DELETED;
+            case DELIVERY:
+                return target == CLOSED || target == DELETED;
+            default:
+                return false;
+        }
+    }
+
     @Override
     public String toString() {
         switch (this.name()) {
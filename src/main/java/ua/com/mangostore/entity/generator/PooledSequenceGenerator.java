@@ -0,0 +1,53 @@
+package ua.com.mangostore.entity.generator;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Генератор ключей сущностей из отдельной для каждой сущности последовательности.
+ * Ключи выделяются блоками оптимизатором "pooled-lo": одно обращение к последовательности
+ * резервирует блок из {@link #ALLOCATION_SIZE_SETTING} ключей, остальные ключи блока выдаются
+ * из памяти. Поэтому пакетная вставка (оформление заказа, заполнение базы, импорт)
+ * не обращается к базе данных за каждым ключом, а последовательности разных сущностей
+ * не конкурируют между собой.
+ * Размер блока задается свойством {@link #ALLOCATION_SIZE_SETTING} в настройках Hibernate,
+ * для отдельной сущности его можно переопределить параметром "increment_size".
+ * Имя последовательности задается параметром "sequence_name".
+ *
+ * @author Diukarev Sergii
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    /**
+     * Полное имя класса генератора для использования в аннотации @GenericGenerator.
+     */
+    public static final String NAME = "ua.com.mangostore.entity.generator.PooledSequenceGenerator";
+
+    /**
+     * Настройка Hibernate с размером блока ключей по-умолчанию.
+     */
+    public static final String ALLOCATION_SIZE_SETTING = "mangostore.id.allocation_size";
+
+    /**
+     * Размер блока ключей, если настройка не задана.
+     */
+    private static final String DEFAULT_ALLOCATION_SIZE = "50";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        if (!params.containsKey(INCREMENT_PARAM)) {
+            Object allocationSize = serviceRegistry.getService(ConfigurationService.class)
+                    .getSettings().get(ALLOCATION_SIZE_SETTING);
+            params.setProperty(INCREMENT_PARAM,
+                    allocationSize != null ? allocationSize.toString() : DEFAULT_ALLOCATION_SIZE);
+        }
+        if (!params.containsKey(OPT_PARAM)) {
+            params.setProperty(OPT_PARAM, "pooled-lo");
+        }
+        super.configure(type, params, serviceRegistry);
+    }
+}
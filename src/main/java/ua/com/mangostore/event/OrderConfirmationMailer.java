@@ -0,0 +1,126 @@
+package ua.com.mangostore.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Обработчик событий "заказ оформлен", который отправляет покупателям письма с подтверждением заказа.
+ * Письма всей пачки событий отправляются через одно SMTP-соединение, но результат учитывается
+ * для каждого письма отдельно: конвейеру возвращаются только неотправленные письма, поэтому
+ * ошибка на одном письме не приводит к повторной отправке уже отправленных.
+ * Письмо на некорректный адрес не повторяется.
+ * Адрес SMTP-сервера задается системными свойствами "mangostore.smtp.host" и "mangostore.smtp.port";
+ * если сервер не задан, письма не отправляются.
+ *
+ * @author Diukarev Sergii
+ * @see OrderEventPipeline
+ */
+@Component
+public class OrderConfirmationMailer implements OrderEventHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(OrderConfirmationMailer.class);
+
+    /**
+     * Адрес отправителя писем.
+     */
+    private static final String FROM = "info@mangostore.com.ua";
+
+    /**
+     * Сессия JavaMail или null, если SMTP-сервер не задан.
+     */
+    private final Session session;
+
+    /**
+     * Конструктор для инициализации обработчика по системным свойствам.
+     */
+    public OrderConfirmationMailer() {
+        this(System.getProperty("mangostore.smtp.host"), Integer.getInteger("mangostore.smtp.port", 25));
+    }
+
+    /**
+     * Конструктор для инициализации обработчика.
+     *
+     * @param host Адрес SMTP-сервера или null, чтобы не отправлять письма.
+     * @param port Порт SMTP-сервера.
+     */
+    public OrderConfirmationMailer(String host, int port) {
+        if (host == null) {
+            this.session = null;
+        } else {
+            Properties properties = new Properties();
+            properties.put("mail.smtp.host", host);
+            properties.put("mail.smtp.port", String.valueOf(port));
+            properties.put("mail.smtp.connectiontimeout", "5000");
+            properties.put("mail.smtp.timeout", "5000");
+            this.session = Session.getInstance(properties);
+        }
+    }
+
+    @Override
+    public List<OrderPlacedEvent> handle(List<OrderPlacedEvent> events) throws MessagingException {
+        if (session == null) {
+            return Collections.emptyList();
+        }
+        List<OrderPlacedEvent> failed = new ArrayList<>();
+        Transport transport = session.getTransport("smtp");
+        transport.connect();
+        try {
+            for (OrderPlacedEvent event : events) {
+                if (event.getCustomerEmail() == null || event.getCustomerEmail().isEmpty()) {
+                    continue;
+                }
+                if (!failed.isEmpty() && !transport.isConnected()) {
+                    failed.add(event);
+                    continue;
+                }
+                try {
+                    MimeMessage message = createMessage(event);
+                    transport.sendMessage(message, message.getAllRecipients());
+                } catch (AddressException ex) {
+                    LOG.warn("Order " + event.getNumber() + " confirmation is not sent: " + ex.getMessage());
+                } catch (MessagingException ex) {
+                    LOG.warn("Order " + event.getNumber() + " confirmation failed: " + ex);
+                    failed.add(event);
+                }
+            }
+        } finally {
+            try {
+                transport.close();
+            } catch (MessagingException ex) {
+                LOG.warn("Failed to close SMTP connection: " + ex);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Создает письмо с подтверждением заказа.
+     *
+     * @param event Событие "заказ оформлен".
+     * @return Объект класса {@link MimeMessage} - письмо покупателю.
+     * @throws MessagingException Если адрес покупателя некорректен.
+     */
+    private MimeMessage createMessage(OrderPlacedEvent event) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(FROM));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(event.getCustomerEmail()));
+        message.setSubject("MANGO STORE: заказ " + event.getNumber() + " оформлен", "UTF-8");
+        message.setText(event.getCustomerName() + ", спасибо за заказ!\n\n"
+                + "Номер заказа: " + event.getNumber() + "\n"
+                + "Сумма заказа: " + event.getFormatPrice() + " грн\n\n"
+                + "Наш менеджер свяжется с Вами в ближайшее время.", "UTF-8");
+        return message;
+    }
+}
@@ -0,0 +1,19 @@
+package ua.com.mangostore.event;
+
+import java.util.List;
+
+/**
+ * Обработчик событий "заказ оформлен". Все бины, реализующие интерфейс, подключаются
+ * к {@link OrderEventPipeline} и получают события пачками в потоке конвейера.
+ * Обработчик возвращает события пачки, которые обработать не удалось, и конвейер повторяет
+ * с задержкой только их; обработанные события конвейер запоминает и повторно не передает.
+ * Исключение означает, что не обработано ни одно событие пачки, и пачка повторяется целиком.
+ *
+ * @author Diukarev Sergii
+ * @see OrderEventPipeline
+ */
+public interface OrderEventHandler {
+
+    List<OrderPlacedEvent> handle(List<OrderPlacedEvent> events) throws Exception;
+
+}
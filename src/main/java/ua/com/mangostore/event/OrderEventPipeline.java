@@ -0,0 +1,472 @@
+package ua.com.mangostore.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Конвейер обработки событий "заказ оформлен".
+ * Событие попадает в конвейер только после фиксации транзакции заказа (@TransactionalEventListener),
+ * ставится в ограниченную очередь и обрабатывается в отдельном потоке "order-events",
+ * поэтому время оформления заказа не зависит от отправки писем и другой последующей работы.
+ * Поток конвейера забирает события пачками до {@link #DEFAULT_BATCH_SIZE} штук и передает пачку
+ * каждому {@link OrderEventHandler}. Обработчик сообщает, какие события пачки обработать не удалось,
+ * и повторно с экспоненциально растущей задержкой передаются только они. Повтор откладывается,
+ * а не выполняется во сне потока, поэтому пока, например, недоступен SMTP-сервер, поток продолжает
+ * обрабатывать новые события. Коды заказов обработанных событий запоминаются для каждого обработчика
+ * (последние {@link #DEFAULT_CAPACITY}), поэтому повторно переданное событие не приводит,
+ * например, ко второму письму покупателю.
+ * Если очередь заполнена, публикующий поток ждет места не дольше {@link #DEFAULT_OFFER_TIMEOUT_MILLIS} мс
+ * и не выполняет работу конвейера сам. Событие, которое не поместилось в очередь, и событие, которое не
+ * удалось обработать после {@link #DEFAULT_MAX_ATTEMPTS} попыток, откладываются в буфер неотправленных
+ * событий (той же емкости, что и очередь) и раз в {@link #DEFAULT_REDRIVE_MILLIS} мс возвращаются
+ * в очередь ({@link #redrive()}), поэтому после восстановления SMTP-сервера письма будут отправлены.
+ * Событие теряется (с ошибкой в журнале и счетчиком {@link #getLostCount()}), если заполнен и буфер
+ * неотправленных событий, а также при остановке или падении приложения: очередь, отложенные повторы
+ * и буфер хранятся только в памяти.
+ * Для мониторинга доступны глубина очереди, задержка обработки и счетчики событий.
+ *
+ * @author Diukarev Sergii
+ * @see OrderPlacedEvent
+ * @see OrderEventHandler
+ */
+@Component
+public class OrderEventPipeline {
+    private static final Logger LOG = LoggerFactory.getLogger(OrderEventPipeline.class);
+
+    /**
+     * Емкость очереди событий по-умолчанию.
+     */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    /**
+     * Максимальный размер пачки событий по-умолчанию.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * Количество попыток обработки пачки по-умолчанию.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    /**
+     * Задержка перед первой повторной попыткой по-умолчанию, в миллисекундах.
+     */
+    public static final long DEFAULT_BACKOFF_MILLIS = 200;
+
+    /**
+     * Максимальное время ожидания места в очереди при публикации по-умолчанию, в миллисекундах.
+     */
+    public static final long DEFAULT_OFFER_TIMEOUT_MILLIS = 50;
+
+    /**
+     * Период возврата неотправленных событий в очередь по-умолчанию, в миллисекундах.
+     */
+    public static final long DEFAULT_REDRIVE_MILLIS = 60_000;
+
+    /**
+     * Максимальное время ожидания новых событий потоком конвейера, в миллисекундах.
+     */
+    private static final long POLL_MILLIS = 100;
+
+    private final List<OrderEventHandler> handlers;
+    private final Map<OrderEventHandler, Set<Long>> delivered = new IdentityHashMap<>();
+    private final BlockingQueue<OrderPlacedEvent> queue;
+    private final BlockingQueue<OrderPlacedEvent> undelivered;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long offerTimeoutMillis;
+    private final long redriveMillis;
+    private final ExecutorService executor;
+
+    /**
+     * Отложенные повторы по времени выполнения. Доступны только потоку конвейера.
+     */
+    private final PriorityQueue<Retry> retries = new PriorityQueue<>(Comparator.comparingLong(retry -> retry.dueAt));
+
+    private volatile boolean running;
+
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong lostCount = new AtomicLong();
+    private volatile long lagMillis;
+
+    /**
+     * Конструктор конвейера с настройками по-умолчанию.
+     *
+     * @param handlers Обработчики событий.
+     */
+    @Autowired
+    public OrderEventPipeline(List<OrderEventHandler> handlers) {
+        this(handlers, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF_MILLIS);
+    }
+
+    /**
+     * Конструктор конвейера с ожиданием места в очереди и периодом возврата неотправленных событий
+     * по-умолчанию.
+     *
+     * @param handlers      Обработчики событий.
+     * @param capacity      Емкость очереди событий.
+     * @param batchSize     Максимальный размер пачки событий.
+     * @param maxAttempts   Количество попыток обработки пачки.
+     * @param backoffMillis Задержка перед первой повторной попыткой, в миллисекундах.
+     */
+    public OrderEventPipeline(List<OrderEventHandler> handlers, int capacity, int batchSize,
+                              int maxAttempts, long backoffMillis) {
+        this(handlers, capacity, batchSize, maxAttempts, backoffMillis,
+                DEFAULT_OFFER_TIMEOUT_MILLIS, DEFAULT_REDRIVE_MILLIS);
+    }
+
+    /**
+     * Конструктор конвейера.
+     *
+     * @param handlers           Обработчики событий.
+     * @param capacity           Емкость очереди событий и буфера неотправленных событий.
+     * @param batchSize          Максимальный размер пачки событий.
+     * @param maxAttempts        Количество попыток обработки пачки.
+     * @param backoffMillis      Задержка перед первой повторной попыткой, в миллисекундах.
+     * @param offerTimeoutMillis Максимальное время ожидания места в очереди, в миллисекундах.
+     * @param redriveMillis      Период возврата неотправленных событий в очередь, в миллисекундах.
+     */
+    public OrderEventPipeline(List<OrderEventHandler> handlers, int capacity, int batchSize,
+                              int maxAttempts, long backoffMillis, long offerTimeoutMillis, long redriveMillis) {
+        this.handlers = new ArrayList<>(handlers);
+        for (OrderEventHandler handler : handlers) {
+            delivered.put(handler, Collections.newSetFromMap(new LinkedHashMap<Long, Boolean>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                    return size() > capacity;
+                }
+            }));
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.undelivered = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.redriveMillis = redriveMillis;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Запускает поток обработки событий.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        executor.execute(this::consume);
+    }
+
+    /**
+     * Останавливает конвейер. События, оставшиеся в очереди, и отложенные повторы обрабатываются
+     * до остановки; неотправленные события теряются.
+     *
+     * @throws InterruptedException Если поток прерван во время ожидания.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Принимает событие после фиксации транзакции, в которой оно опубликовано.
+     * Если транзакции нет, событие принимается сразу.
+     *
+     * @param event Событие "заказ оформлен".
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        publish(event);
+    }
+
+    /**
+     * Ставит событие в очередь, ожидая места не дольше {@link #offerTimeoutMillis} мс.
+     * Если очередь так и осталась заполненной, событие откладывается в буфер неотправленных событий;
+     * если заполнен и он или конвейер остановлен, событие теряется.
+     *
+     * @param event Событие "заказ оформлен".
+     */
+    public void publish(OrderPlacedEvent event) {
+        publishedCount.incrementAndGet();
+        boolean queued = false;
+        if (running) {
+            try {
+                queued = queue.offer(event, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queued) {
+            droppedCount.incrementAndGet();
+            if (running) {
+                LOG.warn("Order events queue is full, event of order " + event.getNumber() + " is postponed");
+            }
+            postpone(event);
+        }
+    }
+
+    /**
+     * Возвращает неотправленные события в очередь, пока в ней есть место.
+     *
+     * @return Значение типа int - количество возвращенных событий.
+     */
+    public synchronized int redrive() {
+        int count = 0;
+        for (OrderPlacedEvent event = undelivered.peek(); event != null; event = undelivered.peek()) {
+            if (!queue.offer(event)) {
+                break;
+            }
+            undelivered.remove(event);
+            count++;
+        }
+        if (count > 0) {
+            LOG.info("Order events redriven: " + count + ", still undelivered: " + undelivered.size());
+        }
+        return count;
+    }
+
+    /**
+     * Откладывает событие в буфер неотправленных событий; если буфер заполнен или конвейер
+     * остановлен, событие теряется.
+     *
+     * @param event Событие "заказ оформлен".
+     */
+    private void postpone(OrderPlacedEvent event) {
+        if (!running || !undelivered.offer(event)) {
+            lostCount.incrementAndGet();
+            LOG.error("Order event of order " + event.getNumber() + " is lost");
+        }
+    }
+
+    /**
+     * Цикл потока конвейера: забирает события пачками и передает их обработчикам,
+     * выполняет наступившие повторы и периодически возвращает неотправленные события в очередь.
+     */
+    private void consume() {
+        long redriveAt = System.currentTimeMillis() + redriveMillis;
+        while (running || !queue.isEmpty() || !retries.isEmpty()) {
+            try {
+                long now = System.currentTimeMillis();
+                long wait = retries.isEmpty() ? POLL_MILLIS : Math.min(POLL_MILLIS, retries.peek().dueAt - now);
+                OrderPlacedEvent first = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first != null) {
+                    List<OrderPlacedEvent> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    dispatch(batch);
+                }
+                now = System.currentTimeMillis();
+                while (!retries.isEmpty() && retries.peek().dueAt <= now) {
+                    Retry retry = retries.poll();
+                    deliver(retry.handler, retry.events, retry.attempt);
+                }
+                if (running && now >= redriveAt) {
+                    redrive();
+                    redriveAt = now + redriveMillis;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException ex) {
+                LOG.error("Order events processing failed", ex);
+            }
+        }
+        int left = undelivered.size();
+        for (Retry retry : retries) {
+            left += retry.events.size();
+        }
+        if (left > 0) {
+            lostCount.addAndGet(left);
+            LOG.error("Order events pipeline stopped, " + left + " undelivered order events are lost");
+        }
+    }
+
+    /**
+     * Передает пачку событий всем обработчикам и обновляет метрики.
+     *
+     * @param batch Пачка событий.
+     */
+    private void dispatch(List<OrderPlacedEvent> batch) {
+        for (OrderEventHandler handler : handlers) {
+            Set<Long> handled = delivered.get(handler);
+            Set<Long> orderIds = new HashSet<>();
+            List<OrderPlacedEvent> pending = new ArrayList<>(batch.size());
+            for (OrderPlacedEvent event : batch) {
+                if (!handled.contains(event.getOrderId()) && orderIds.add(event.getOrderId())) {
+                    pending.add(event);
+                }
+            }
+            if (!pending.isEmpty()) {
+                deliver(handler, pending, 1);
+            }
+        }
+        processedCount.addAndGet(batch.size());
+        lagMillis = System.currentTimeMillis() - batch.get(0).getPlacedAt();
+    }
+
+    /**
+     * Передает события обработчику. События, которые обработчик не обработал, откладываются
+     * для повтора с растущей задержкой, а после последней попытки - в буфер неотправленных событий.
+     *
+     * @param handler Обработчик событий.
+     * @param pending События, еще не обработанные этим обработчиком.
+     * @param attempt Номер попытки.
+     */
+    private void deliver(OrderEventHandler handler, List<OrderPlacedEvent> pending, int attempt) {
+        Set<Long> handled = delivered.get(handler);
+        List<OrderPlacedEvent> failed;
+        Exception error = null;
+        try {
+            failed = handler.handle(pending);
+        } catch (Exception ex) {
+            failed = pending;
+            error = ex;
+        }
+        for (OrderPlacedEvent event : pending) {
+            if (!failed.contains(event)) {
+                handled.add(event.getOrderId());
+            }
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+        if (attempt >= maxAttempts) {
+            failedCount.addAndGet(failed.size());
+            LOG.error(handler.getClass().getSimpleName() + " failed to handle " + failed.size()
+                    + " order events after " + attempt + " attempts, postponed", error);
+            for (OrderPlacedEvent event : failed) {
+                postpone(event);
+            }
+            return;
+        }
+        long delay = backoffMillis << (attempt - 1);
+        LOG.warn(handler.getClass().getSimpleName() + " failed to handle " + failed.size()
+                + " order events, retry in " + delay + " ms" + (error != null ? ": " + error : ""));
+        retries.add(new Retry(handler, new ArrayList<>(failed), attempt + 1, System.currentTimeMillis() + delay));
+    }
+
+    /**
+     * Возвращает количество событий, ожидающих обработки.
+     *
+     * @return Значение типа int - глубина очереди.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Возвращает задержку обработки последней пачки: время от оформления самого старого
+     * заказа пачки до окончания ее обработки.
+     *
+     * @return Значение типа long - задержка в миллисекундах.
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * Возвращает количество принятых событий.
+     *
+     * @return Значение типа long - количество событий.
+     */
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    /**
+     * Возвращает количество событий, прошедших через обработчики (включая отброшенные после всех попыток).
+     *
+     * @return Значение типа long - количество событий.
+     */
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * Возвращает количество событий, которые не удалось обработать после всех попыток
+     * (такие события откладываются в буфер неотправленных событий).
+     *
+     * @return Значение типа long - количество событий.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Возвращает количество событий, не поместившихся в заполненную очередь
+     * (такие события откладываются в буфер неотправленных событий).
+     *
+     * @return Значение типа long - количество событий.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Возвращает количество событий в буфере неотправленных событий.
+     *
+     * @return Значение типа int - количество событий.
+     */
+    public int getUndeliveredCount() {
+        return undelivered.size();
+    }
+
+    /**
+     * Возвращает количество потерянных событий: не поместившихся и в буфер неотправленных событий
+     * или оставшихся необработанными при остановке конвейера.
+     *
+     * @return Значение типа long - количество событий.
+     */
+    public long getLostCount() {
+        return lostCount.get();
+    }
+
+    /**
+     * Отложенный повтор: события, которые обработчик не обработал, номер следующей попытки
+     * и время, когда ее можно выполнить.
+     */
+    private static final class Retry {
+        private final OrderEventHandler handler;
+        private final List<OrderPlacedEvent> events;
+        private final int attempt;
+        private final long dueAt;
+
+        private Retry(OrderEventHandler handler, List<OrderPlacedEvent> events, int attempt, long dueAt) {
+            this.handler = handler;
+            this.events = events;
+            this.attempt = attempt;
+            this.dueAt = dueAt;
+        }
+    }
+}
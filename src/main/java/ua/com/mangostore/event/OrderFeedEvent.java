@@ -0,0 +1,128 @@
+package ua.com.mangostore.event;
+
+/**
+ * Событие ленты заказов для страницы менеджеров: "order-created" - оформлен новый заказ,
+ * "status-changed" - изменен статус заказа. Номер события равен порядковому номеру записи
+ * журнала изменений заказов, поэтому браузер после переподключения передает его в заголовке
+ * "Last-Event-ID" и получает пропущенные события.
+ * Данные события передаются в формате JSON и содержат только готовые к отображению строки;
+ * символы вне ASCII записываются escape-последовательностями JSON, поэтому данные
+ * не зависят от кодировки ответа.
+ *
+ * @author Diukarev Sergii
+ * @see OrderFeedHub
+ */
+public final class OrderFeedEvent {
+    /**
+     * Тип события "оформлен новый заказ".
+     */
+    public static final String ORDER_CREATED = "order-created";
+
+    /**
+     * Тип события "изменен статус заказа".
+     */
+    public static final String STATUS_CHANGED = "status-changed";
+
+    private final long sequence;
+    private final String type;
+    private final long orderId;
+    private final String number;
+    private final String customer;
+    private final String city;
+    private final String status;
+    private final String delivery;
+    private final String createdAt;
+    private final String items;
+    private final String price;
+
+    /**
+     * Конструктор для инициализации основных переменных события.
+     *
+     * @param sequence  Порядковый номер записи журнала.
+     * @param type      Тип события.
+     * @param orderId   Код заказа.
+     * @param number    Номер заказа или null.
+     * @param customer  Покупатель: имя, фамилия и телефон, или null.
+     * @param city      Город покупателя или null.
+     * @param status    Статус заказа для отображения.
+     * @param delivery  Способ доставки для отображения или null.
+     * @param createdAt Дата и время оформления заказа или null.
+     * @param items     Количество единиц товара в заказе или null.
+     * @param price     Отформатированная стоимость заказа или null.
+     */
+    public OrderFeedEvent(long sequence, String type, long orderId, String number, String customer, String city,
+                          String status, String delivery, String createdAt, String items, String price) {
+        this.sequence = sequence;
+        this.type = type;
+        this.orderId = orderId;
+        this.number = number;
+        this.customer = customer;
+        this.city = city;
+        this.status = status;
+        this.delivery = delivery;
+        this.createdAt = createdAt;
+        this.items = items;
+        this.price = price;
+    }
+
+    /**
+     * Возвращает данные события в формате JSON.
+     *
+     * @return Значение типа {@link String}.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(192).append('{');
+        json.append("\"orderId\":").append(orderId);
+        appendField(json, "number", number);
+        appendField(json, "customer", customer);
+        appendField(json, "city", city);
+        appendField(json, "status", status);
+        appendField(json, "delivery", delivery);
+        appendField(json, "createdAt", createdAt);
+        appendField(json, "items", items);
+        appendField(json, "price", price);
+        return json.append('}').toString();
+    }
+
+    private static void appendField(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public String getCustomer() {
+        return customer;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
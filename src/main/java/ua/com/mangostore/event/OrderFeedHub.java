@@ -0,0 +1,489 @@
+package ua.com.mangostore.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.journal.JournalRecord;
+import ua.com.mangostore.journal.OrderChange;
+import ua.com.mangostore.journal.OrderJournal;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.OrderRow;
+import ua.com.mangostore.repository.OrderSummaryRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Лента заказов для страниц менеджеров: рассылает подключенным браузерам события
+ * {@link OrderFeedEvent} по протоколу server-sent events, поэтому страница заказов
+ * показывает новые заказы и смену статусов без перезагрузки и повторных запросов к базе.
+ * Источник событий - {@link OrderJournal}: поток "order-feed" читает новые записи журнала
+ * (оформление заказа и смена статуса попадают в журнал после фиксации транзакции)
+ * и проверяет журнал каждые {@link #DEFAULT_POLL_MILLIS} мс, пока новых записей нет.
+ * Для нового заказа строка сводки заказа читается из базы один раз на все подключения.
+ * <p>
+ * У каждого подписчика своя ограниченная очередь событий, а запись в ответ выполняют
+ * потоки "order-feed-sender": пока у подписчика есть события, его очередь разбирает отдельный поток,
+ * поэтому браузер, который перестал читать ответ, блокирует только свой поток и не задерживает
+ * остальных; потоков не больше, чем подписчиков. Подписчик отключается, если его очередь заполнена
+ * или запись одного события длится дольше "mangostore.feed.write.timeout.millis" мс: браузер
+ * переподключится сам и получит пропущенные события, а поток освобождается, когда сервер
+ * прервет зависшую запись. Последние события хранятся в памяти,
+ * и подписчик с заголовком "Last-Event-ID" получает все события после указанного номера;
+ * если часть из них уже вытеснена, подписчику отправляется событие "reload" - страницу нужно перезагрузить.
+ * Раз в {@link #KEEPALIVE_MILLIS} мс подписчикам отправляется комментарий, чтобы прокси не закрывали
+ * соединение, а отключившиеся браузеры обнаруживались.
+ * Настройки задаются системными свойствами "mangostore.feed.buffer.size" (размер очереди подписчика
+ * и количество хранимых событий), "mangostore.feed.poll.millis" и "mangostore.feed.timeout.millis"
+ * (время жизни соединения, после которого браузер переподключается).
+ *
+ * @author Diukarev Sergii
+ * @see OrderFeedEvent
+ * @see OrderJournal
+ */
+@Component
+public class OrderFeedHub {
+    private static final Logger LOG = LoggerFactory.getLogger(OrderFeedHub.class);
+
+    /**
+     * Размер очереди подписчика по-умолчанию.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64;
+
+    /**
+     * Период проверки журнала по-умолчанию, в миллисекундах.
+     */
+    public static final long DEFAULT_POLL_MILLIS = 200;
+
+    /**
+     * Время жизни соединения по-умолчанию, в миллисекундах.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30 * 60 * 1000;
+
+    /**
+     * Максимальное время записи одного события по-умолчанию, в миллисекундах.
+     */
+    public static final long DEFAULT_WRITE_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Тип события "страницу нужно перезагрузить".
+     */
+    public static final String RELOAD = "reload";
+
+    /**
+     * Период отправки комментария для поддержания соединения, в миллисекундах.
+     */
+    private static final long KEEPALIVE_MILLIS = 15_000;
+
+    /**
+     * Служебное событие: комментарий для поддержания соединения.
+     */
+    private static final OrderFeedEvent PING = new OrderFeedEvent(0, "ping", 0, null, null, null, null, null, null, null, null);
+
+    private final OrderJournal journal;
+    private final LongFunction<OrderRow> orderLookup;
+    private final int bufferSize;
+    private final long pollMillis;
+    private final long timeoutMillis;
+    private final long writeTimeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<OrderFeedEvent> recent = new ArrayDeque<>();
+    private final ExecutorService senders;
+
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    /**
+     * Номер первой записи журнала, которую прочитала лента; предыдущие события подписчикам недоступны.
+     */
+    private long firstSequence;
+
+    /**
+     * Номер последнего события, вытесненного из {@link #recent}.
+     */
+    private long evictedSequence;
+
+    private volatile boolean running;
+    private Thread tailThread;
+
+    /**
+     * Конструктор ленты с настройками из системных свойств.
+     *
+     * @param journal           Журнал изменений заказов.
+     * @param summaryRepository Репозиторий сводок заказов.
+     */
+    @Autowired
+    public OrderFeedHub(OrderJournal journal, OrderSummaryRepository summaryRepository) {
+        this(journal, summaryRepository::findRowById,
+                Integer.getInteger("mangostore.feed.buffer.size", DEFAULT_BUFFER_SIZE),
+                Long.getLong("mangostore.feed.poll.millis", DEFAULT_POLL_MILLIS),
+                Long.getLong("mangostore.feed.timeout.millis", DEFAULT_TIMEOUT_MILLIS),
+                Long.getLong("mangostore.feed.write.timeout.millis", DEFAULT_WRITE_TIMEOUT_MILLIS));
+    }
+
+    /**
+     * Конструктор ленты с максимальным временем записи события по-умолчанию.
+     *
+     * @param journal       Журнал изменений заказов.
+     * @param orderLookup   Поиск строки заказа по коду для события "order-created".
+     * @param bufferSize    Размер очереди подписчика и количество хранимых событий.
+     * @param pollMillis    Период проверки журнала, в миллисекундах.
+     * @param timeoutMillis Время жизни соединения, в миллисекундах.
+     */
+    public OrderFeedHub(OrderJournal journal, LongFunction<OrderRow> orderLookup, int bufferSize,
+                        long pollMillis, long timeoutMillis) {
+        this(journal, orderLookup, bufferSize, pollMillis, timeoutMillis, DEFAULT_WRITE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Конструктор ленты.
+     *
+     * @param journal            Журнал изменений заказов.
+     * @param orderLookup        Поиск строки заказа по коду для события "order-created".
+     * @param bufferSize         Размер очереди подписчика и количество хранимых событий.
+     * @param pollMillis         Период проверки журнала, в миллисекундах.
+     * @param timeoutMillis      Время жизни соединения, в миллисекундах.
+     * @param writeTimeoutMillis Максимальное время записи одного события, в миллисекундах.
+     */
+    public OrderFeedHub(OrderJournal journal, LongFunction<OrderRow> orderLookup, int bufferSize,
+                        long pollMillis, long timeoutMillis, long writeTimeoutMillis) {
+        this.journal = journal;
+        this.orderLookup = orderLookup;
+        this.bufferSize = bufferSize;
+        this.pollMillis = pollMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Запускает чтение журнала с записи, следующей за последней.
+     */
+    @PostConstruct
+    public void start() {
+        synchronized (this) {
+            firstSequence = journal.getLastSequence() + 1;
+            evictedSequence = firstSequence - 1;
+        }
+        OrderJournal.Reader reader = journal.openReader(firstSequence);
+        running = true;
+        tailThread = new Thread(() -> tail(reader), "order-feed");
+        tailThread.setDaemon(true);
+        tailThread.start();
+    }
+
+    /**
+     * Останавливает ленту и закрывает все подключения.
+     *
+     * @throws InterruptedException Если поток прерван во время ожидания.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (tailThread != null) {
+            tailThread.interrupt();
+            tailThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.evict();
+        }
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Подключает браузер к ленте.
+     *
+     * @param lastEventId Номер последнего полученного события из заголовка "Last-Event-ID" или null.
+     * @return Объект класса {@link SseEmitter}, который возвращает контроллер.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        long lastSequence = parseSequence(lastEventId);
+        synchronized (this) {
+            if (lastSequence >= 0) {
+                if (lastSequence < evictedSequence) {
+                    subscriber.offer(new OrderFeedEvent(evictedSequence, RELOAD, 0,
+                            null, null, null, null, null, null, null, null));
+                } else {
+                    for (OrderFeedEvent event : recent) {
+                        if (event.getSequence() > lastSequence) {
+                            subscriber.offer(event);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Рассылает событие всем подписчикам и запоминает его для переподключений.
+     *
+     * @param event Событие ленты.
+     */
+    public void publish(OrderFeedEvent event) {
+        synchronized (this) {
+            recent.addLast(event);
+            while (recent.size() > bufferSize) {
+                evictedSequence = recent.removeFirst().getSequence();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+        publishedCount.incrementAndGet();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    private void tail(OrderJournal.Reader reader) {
+        long lastPing = System.currentTimeMillis();
+        long lastStallCheck = lastPing;
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                if (now - lastStallCheck >= Math.min(writeTimeoutMillis, KEEPALIVE_MILLIS)) {
+                    evictStalled(now);
+                    lastStallCheck = now;
+                }
+                JournalRecord record = reader.next();
+                if (record != null) {
+                    OrderFeedEvent event = toEvent(record);
+                    if (event != null) {
+                        publish(event);
+                    }
+                    continue;
+                }
+                if (System.currentTimeMillis() - lastPing >= KEEPALIVE_MILLIS) {
+                    for (Subscriber subscriber : subscribers) {
+                        subscriber.offer(PING);
+                    }
+                    lastPing = System.currentTimeMillis();
+                }
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                LOG.error("Failed to read order journal for the order feed", ex);
+                try {
+                    Thread.sleep(pollMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Отключает подписчиков, запись события которым длится дольше {@link #writeTimeoutMillis} мс.
+     *
+     * @param now Текущее время, в миллисекундах.
+     */
+    private void evictStalled(long now) {
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > writeTimeoutMillis) {
+                evictedCount.incrementAndGet();
+                LOG.info("Order feed subscriber has not read an event for " + (now - since)
+                        + " ms and is disconnected");
+                subscriber.evict();
+            }
+        }
+    }
+
+    private OrderFeedEvent toEvent(JournalRecord record) {
+        OrderChange change = record.getChange();
+        switch (change.getType()) {
+            case CREATED:
+                return toCreatedEvent(record);
+            case STATUS:
+                return new OrderFeedEvent(record.getSequence(), OrderFeedEvent.STATUS_CHANGED, record.getOrderId(),
+                        null, null, null, Status.valueOf(change.getText()).toString(), null, null, null, null);
+            default:
+                return null;
+        }
+    }
+
+    private OrderFeedEvent toCreatedEvent(JournalRecord record) {
+        OrderChange change = record.getChange();
+        String status = Status.valueOf(change.getText()).toString();
+        String price = Money.ofKopecks(change.getAmount()).format();
+        OrderRow row = null;
+        try {
+            row = orderLookup.apply(record.getOrderId());
+        } catch (RuntimeException ex) {
+            LOG.warn("Failed to load order " + record.getOrderId() + " for the order feed", ex);
+        }
+        if (row == null) {
+            return new OrderFeedEvent(record.getSequence(), OrderFeedEvent.ORDER_CREATED, record.getOrderId(),
+                    null, null, null, status, null, null, null, price);
+        }
+        String delivery = row.getDeliveryType() != null ? row.getDeliveryType().toString() : null;
+        return new OrderFeedEvent(record.getSequence(), OrderFeedEvent.ORDER_CREATED, record.getOrderId(),
+                row.getNumber(), join(row.getCustomerName(), row.getCustomerSurname(), row.getCustomerPhone()),
+                row.getCity(), status, delivery, row.getDateCreated() + " " + row.getTimeCreated(),
+                String.valueOf(row.getItemCount()), price);
+    }
+
+    private static String join(String... values) {
+        List<String> parts = new ArrayList<>();
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                parts.add(value);
+            }
+        }
+        return String.join(" ", parts);
+    }
+
+    private static long parseSequence(String lastEventId) {
+        if (lastEventId == null || lastEventId.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Подключенный браузер: ограниченная очередь событий и признак того,
+     * что очередь уже разбирается одним из потоков рассылки.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<OrderFeedEvent> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean evicted;
+
+        /**
+         * Время начала текущей записи события, в миллисекундах, или 0, если запись не выполняется.
+         */
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Ставит событие в очередь; если очередь заполнена, подписчик отключается.
+         */
+        private void offer(OrderFeedEvent event) {
+            if (evicted) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                evictedCount.incrementAndGet();
+                LOG.info("Order feed subscriber is too slow and is disconnected");
+                evict();
+                return;
+            }
+            schedule();
+        }
+
+        /**
+         * Отключает подписчика. Соединение закрывает поток рассылки, когда закончит текущую запись.
+         */
+        private void evict() {
+            evicted = true;
+            subscribers.remove(this);
+            queue.clear();
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException ex) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                if (evicted) {
+                    complete();
+                    return;
+                }
+                OrderFeedEvent event = queue.poll();
+                if (event == null) {
+                    scheduled.set(false);
+                    // событие могло появиться после poll, но до сброса признака
+                    if (queue.isEmpty() && !evicted || !scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                sendingSince = System.currentTimeMillis();
+                try {
+                    send(event);
+                } catch (IOException | RuntimeException ex) {
+                    evicted = true;
+                    subscribers.remove(this);
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+        }
+
+        private void send(OrderFeedEvent event) throws IOException {
+            if (event == PING) {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } else {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getSequence()))
+                        .name(event.getType())
+                        .data(event.toJson()));
+            }
+        }
+
+        private void complete() {
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignored) {
+                // соединение уже закрыто
+            }
+        }
+    }
+}
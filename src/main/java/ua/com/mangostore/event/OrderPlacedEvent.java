@@ -0,0 +1,108 @@
+package ua.com.mangostore.event;
+
+import ua.com.mangostore.entity.Order;
+
+/**
+ * Событие "заказ оформлен". Публикуется при оформлении заказа и передается
+ * в {@link OrderEventPipeline} после фиксации транзакции заказа.
+ * Событие хранит только неизменяемые данные заказа, а не сущность, поэтому обработчики
+ * в других потоках не обращаются к сессии Hibernate, в которой заказ был сохранен.
+ *
+ * @author Diukarev Sergii
+ * @see OrderEventPipeline
+ */
+public final class OrderPlacedEvent {
+    /**
+     * Код заказа.
+     */
+    private final long orderId;
+
+    /**
+     * Номер заказа.
+     */
+    private final String number;
+
+    /**
+     * Имя покупателя.
+     */
+    private final String customerName;
+
+    /**
+     * Электронная почта покупателя.
+     */
+    private final String customerEmail;
+
+    /**
+     * Отформатированная стоимость заказа.
+     */
+    private final String formatPrice;
+
+    /**
+     * Время оформления заказа в миллисекундах.
+     */
+    private final long placedAt;
+
+    /**
+     * Конструктор для инициализации основных переменных события.
+     *
+     * @param orderId       Код заказа.
+     * @param number        Номер заказа.
+     * @param customerName  Имя покупателя.
+     * @param customerEmail Электронная почта покупателя.
+     * @param formatPrice   Отформатированная стоимость заказа.
+     * @param placedAt      Время оформления заказа в миллисекундах.
+     */
+    public OrderPlacedEvent(long orderId, String number, String customerName, String customerEmail,
+                            String formatPrice, long placedAt) {
+        this.orderId = orderId;
+        this.number = number;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.formatPrice = formatPrice;
+        this.placedAt = placedAt;
+    }
+
+    /**
+     * Создает событие по сохраненному заказу.
+     *
+     * @param order Сохраненный заказ.
+     * @return Объект класса {@link OrderPlacedEvent}.
+     */
+    public static OrderPlacedEvent of(Order order) {
+        return new OrderPlacedEvent(order.getOrderId(), order.getNumber(),
+                order.getRecipient().getName(), order.getRecipient().getEmail(),
+                order.getOrderPrice().format(), System.currentTimeMillis());
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public String getFormatPrice() {
+        return formatPrice;
+    }
+
+    public long getPlacedAt() {
+        return placedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderPlacedEvent{" +
+                "orderId=" + orderId +
+                ", number='" + number + '\'' +
+                '}';
+    }
+}
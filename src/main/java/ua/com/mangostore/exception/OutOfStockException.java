@@ -0,0 +1,22 @@
+package ua.com.mangostore.exception;
+
+/**
+ * Исключение генерируется, если на складе недостаточно товара для оформления заказа.
+ */
+public class OutOfStockException extends RuntimeException {
+    /**
+     * Конструктр без параметров.
+     */
+    public OutOfStockException() {
+        super();
+    }
+
+    /**
+     * Конструктор с параметром.
+     *
+     * @param message Сообщение исключения.
+     */
+    public OutOfStockException(String message) {
+        super(message);
+    }
+}
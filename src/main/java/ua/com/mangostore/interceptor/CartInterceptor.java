@@ -0,0 +1,83 @@
+package ua.com.mangostore.interceptor;
+
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import ua.com.mangostore.config.WebConfig;
+import ua.com.mangostore.model.ShoppingCart;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.util.Map;
+
+/**
+ * Перехватчик запросов, который один раз на запрос добавляет в модель состояние корзины
+ * для шапки сайта: количество товаров ("cart_size") и отформатированную цену ("cart_format_price").
+ * Корзина читается напрямую из атрибута сессии, без scoped-proxy и без транзакции,
+ * а значения берутся из счетчиков корзины. Если сессии еще нет, она не создается,
+ * а корзина считается пустой.
+ * Значения, которые контроллер уже положил в модель, не перезаписываются.
+ *
+ * @author Diukarev Sergii
+ * @see ShoppingCart
+ * @see WebConfig
+ */
+public class CartInterceptor extends HandlerInterceptorAdapter {
+    /**
+     * Имя атрибута сессии, под которым Spring хранит корзину с областью видимости "session".
+     */
+    private static final String CART_ATTRIBUTE = ScopedProxyUtils.getTargetBeanName("shoppingCart");
+
+    /**
+     * Отформатированная цена пустой корзины.
+     */
+    private static final String EMPTY_CART_PRICE = "0";
+
+    /**
+     * Добавляет состояние корзины в модель после выполнения метода контроллера.
+     * Для перенаправлений модель не дополняется, чтобы значения не попали в URL.
+     *
+     * @param request      Текущий запрос.
+     * @param response     Текущий ответ.
+     * @param handler      Обработчик запроса.
+     * @param modelAndView Объект класса {@link ModelAndView}, может быть null.
+     */
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response,
+                           Object handler, ModelAndView modelAndView) {
+        if (modelAndView == null || isRedirect(modelAndView)) {
+            return;
+        }
+        ShoppingCart shoppingCart = getShoppingCart(request);
+        Map<String, Object> model = modelAndView.getModel();
+        if (!model.containsKey("cart_size")) {
+            model.put("cart_size", shoppingCart == null ? 0 : shoppingCart.getSize());
+        }
+        if (!model.containsKey("cart_format_price")) {
+            model.put("cart_format_price", shoppingCart == null ? EMPTY_CART_PRICE : shoppingCart.getFormatPrice());
+        }
+    }
+
+    /**
+     * Возвращает корзину текущей сессии, не создавая новую сессию.
+     *
+     * @param request Текущий запрос.
+     * @return Объект класса {@link ShoppingCart} или null, если корзины еще нет.
+     */
+    private ShoppingCart getShoppingCart(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session == null ? null : (ShoppingCart) session.getAttribute(CART_ATTRIBUTE);
+    }
+
+    /**
+     * Проверяет, является ли представление перенаправлением.
+     *
+     * @param modelAndView Объект класса {@link ModelAndView}.
+     * @return true, если имя представления начинается с "redirect:".
+     */
+    private boolean isRedirect(ModelAndView modelAndView) {
+        String viewName = modelAndView.getViewName();
+        return viewName != null && viewName.startsWith("redirect:");
+    }
+}
@@ -0,0 +1,51 @@
+package ua.com.mangostore.journal;
+
+/**
+ * Запись журнала изменений заказов: порядковый номер, время записи, код заказа и изменение.
+ *
+ * @author Diukarev Sergii
+ * @see OrderJournal
+ */
+public final class JournalRecord {
+    private final long sequence;
+    private final long timestamp;
+    private final long orderId;
+    private final OrderChange change;
+
+    /**
+     * Конструктор записи.
+     *
+     * @param sequence  Порядковый номер записи в журнале, начиная с 1.
+     * @param timestamp Время записи в миллисекундах эпохи.
+     * @param orderId   Код заказа.
+     * @param change    Изменение заказа.
+     */
+    public JournalRecord(long sequence, long timestamp, long orderId, OrderChange change) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.orderId = orderId;
+        this.change = change;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public OrderChange getChange() {
+        return change;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord{sequence=" + sequence + ", timestamp=" + timestamp
+                + ", orderId=" + orderId + ", change=" + change + '}';
+    }
+}
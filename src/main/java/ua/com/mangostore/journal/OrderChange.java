@@ -0,0 +1,89 @@
+package ua.com.mangostore.journal;
+
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Одно изменение заказа: тип, ссылка на связанный объект (товар, курьер), числовое значение
+ * и короткий текст. Значение полей зависит от типа (см. {@link OrderChangeType}).
+ *
+ * @author Diukarev Sergii
+ * @see OrderJournal
+ */
+public final class OrderChange {
+    /**
+     * Максимальная длина текста изменения в байтах UTF-8.
+     */
+    public static final int MAX_TEXT_BYTES = 255;
+
+    private final OrderChangeType type;
+    private final long ref;
+    private final long amount;
+    private final String text;
+
+    /**
+     * Конструктор изменения.
+     *
+     * @param type   Тип изменения.
+     * @param ref    Код связанного объекта или 0.
+     * @param amount Числовое значение.
+     * @param text   Текст или пустая строка.
+     */
+    public OrderChange(OrderChangeType type, long ref, long amount, String text) {
+        this.type = type;
+        this.ref = ref;
+        this.amount = amount;
+        this.text = text != null ? text : "";
+    }
+
+    public static OrderChange created(Status status, Money price) {
+        return new OrderChange(OrderChangeType.CREATED, 0, price.getAmount(), status.name());
+    }
+
+    public static OrderChange status(Status status) {
+        return new OrderChange(OrderChangeType.STATUS, 0, 0, status.name());
+    }
+
+    public static OrderChange price(Money price) {
+        return new OrderChange(OrderChangeType.PRICE, 0, price.getAmount(), "");
+    }
+
+    public static OrderChange delivery(DeliveryType deliveryType, LocalDateTime deliveryAt, long courierId) {
+        return new OrderChange(OrderChangeType.DELIVERY, courierId,
+                deliveryAt != null ? deliveryAt.toEpochSecond(ZoneOffset.UTC) : -1,
+                deliveryType != null ? deliveryType.name() : "");
+    }
+
+    public static OrderChange lineAdded(long productId, int number) {
+        return new OrderChange(OrderChangeType.LINE_ADDED, productId, number, "");
+    }
+
+    public static OrderChange lineRemoved(long productId, int number) {
+        return new OrderChange(OrderChangeType.LINE_REMOVED, productId, number, "");
+    }
+
+    public OrderChangeType getType() {
+        return type;
+    }
+
+    public long getRef() {
+        return ref;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return type + "{ref=" + ref + ", amount=" + amount + ", text='" + text + "'}";
+    }
+}
@@ -0,0 +1,256 @@
+package ua.com.mangostore.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.com.mangostore.entity.Delivery;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Записывает изменения заказов в {@link OrderJournal}.
+ * Сервисы снимают состояние заказа или доставки до сохранения ({@link #snapshot(Order)},
+ * {@link #snapshot(Delivery)}), а после сохранения передают его вместе с новым состоянием:
+ * в журнал попадают только отличия. Записи добавляются после фиксации транзакции,
+ * поэтому откаченные изменения в журнал не попадают. Запись только добавляется в отображенный
+ * в память сегмент и не ждет сброса на диск: его выполняет поток группового сброса журнала,
+ * поэтому поток запроса не задерживается, а при сбое машины теряются только записи последних
+ * "mangostore.journal.sync.millis" мс. Изменения всех заказов одной транзакции
+ * (например, пачки заказов при групповой фиксации) добавляются вместе.
+ * Ошибка журнала не отменяет сохраненный заказ, а только записывается в лог.
+ *
+ * @author Diukarev Sergii
+ * @see OrderJournal
+ */
+@Component
+public class OrderChangeRecorder {
+    private static final Logger LOG = LoggerFactory.getLogger(OrderChangeRecorder.class);
+
+    private final OrderJournal journal;
+
+    @Autowired
+    public OrderChangeRecorder(OrderJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Снимает состояние заказа.
+     *
+     * @param order Заказ или null.
+     * @return Объект класса {@link OrderState} или null, если заказа нет.
+     */
+    public OrderState snapshot(Order order) {
+        return order != null ? new OrderState(order) : null;
+    }
+
+    /**
+     * Снимает состояние доставки.
+     *
+     * @param delivery Доставка или null.
+     * @return Объект класса {@link DeliveryState} или null, если доставки нет.
+     */
+    public DeliveryState snapshot(Delivery delivery) {
+        return delivery != null ? new DeliveryState(delivery) : null;
+    }
+
+    /**
+     * Записывает оформление заказа: статус и стоимость, доставку и все товары.
+     *
+     * @param order Сохраненный заказ.
+     */
+    public void recordCreated(Order order) {
+        OrderState state = new OrderState(order);
+        List<OrderChange> changes = new ArrayList<>();
+        changes.add(OrderChange.created(state.status, state.price));
+        if (order.getDelivery() != null) {
+            changes.add(new DeliveryState(order.getDelivery()).toChange());
+        }
+        for (Map.Entry<Long, Integer> line : state.lines.entrySet()) {
+            changes.add(OrderChange.lineAdded(line.getKey(), line.getValue()));
+        }
+        append(order.getOrderId(), changes);
+    }
+
+    /**
+     * Записывает отличия заказа от состояния до сохранения.
+     *
+     * @param before Состояние до сохранения или null, если заказ новый.
+     * @param after  Сохраненный заказ.
+     */
+    public void recordChanges(OrderState before, Order after) {
+        if (before == null) {
+            recordCreated(after);
+            return;
+        }
+        OrderState state = new OrderState(after);
+        List<OrderChange> changes = new ArrayList<>();
+        if (state.status != before.status) {
+            changes.add(OrderChange.status(state.status));
+        }
+        if (!Objects.equals(state.price, before.price)) {
+            changes.add(OrderChange.price(state.price));
+        }
+        for (Map.Entry<Long, Integer> line : state.lines.entrySet()) {
+            int delta = line.getValue() - before.lines.getOrDefault(line.getKey(), 0);
+            if (delta > 0) {
+                changes.add(OrderChange.lineAdded(line.getKey(), delta));
+            } else if (delta < 0) {
+                changes.add(OrderChange.lineRemoved(line.getKey(), -delta));
+            }
+        }
+        for (Map.Entry<Long, Integer> line : before.lines.entrySet()) {
+            if (!state.lines.containsKey(line.getKey())) {
+                changes.add(OrderChange.lineRemoved(line.getKey(), line.getValue()));
+            }
+        }
+        append(after.getOrderId(), changes);
+    }
+
+    /**
+     * Записывает новый статус заказов, измененный одним запросом без загрузки заказов.
+     *
+     * @param orderIds Коды заказов.
+     * @param status   Новый статус.
+     */
+    public void recordStatus(Collection<Long> orderIds, Status status) {
+        for (long orderId : orderIds) {
+            List<OrderChange> changes = new ArrayList<>();
+            changes.add(OrderChange.status(status));
+            append(orderId, changes);
+        }
+    }
+
+    /**
+     * Записывает изменение доставки, если она отличается от состояния до сохранения.
+     *
+     * @param before Состояние до сохранения или null.
+     * @param after  Сохраненная доставка.
+     */
+    public void recordChanges(DeliveryState before, Delivery after) {
+        DeliveryState state = new DeliveryState(after);
+        if (after.getOrder() != null && !state.equals(before)) {
+            List<OrderChange> changes = new ArrayList<>();
+            changes.add(state.toChange());
+            append(after.getOrder().getOrderId(), changes);
+        }
+    }
+
+    private void append(long orderId, List<OrderChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<Long, List<OrderChange>> pending = new LinkedHashMap<>();
+            pending.put(orderId, changes);
+            write(pending);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, List<OrderChange>> pending =
+                (Map<Long, List<OrderChange>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, List<OrderChange>> transactionChanges = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    write(transactionChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderChangeRecorder.this);
+                }
+            });
+            pending = transactionChanges;
+        }
+        pending.computeIfAbsent(orderId, id -> new ArrayList<>()).addAll(changes);
+    }
+
+    /**
+     * Добавляет изменения заказов в журнал.
+     *
+     * @param pending Изменения по кодам заказов.
+     */
+    private void write(Map<Long, List<OrderChange>> pending) {
+        for (Map.Entry<Long, List<OrderChange>> order : pending.entrySet()) {
+            try {
+                for (OrderChange change : order.getValue()) {
+                    journal.append(order.getKey(), change);
+                }
+            } catch (RuntimeException ex) {
+                LOG.error("Failed to journal changes of order " + order.getKey(), ex);
+            }
+        }
+    }
+
+    /**
+     * Состояние заказа, которое отслеживается журналом: статус, стоимость и количество каждого товара.
+     */
+    public static final class OrderState {
+        private final Status status;
+        private final Money price;
+        private final Map<Long, Integer> lines = new HashMap<>();
+
+        private OrderState(Order order) {
+            this.status = order.getStatus();
+            this.price = order.getOrderPrice() != null ? order.getOrderPrice() : Money.ZERO;
+            for (SalePosition position : order.getSalePositions()) {
+                lines.merge(position.getProduct().getProductId(), position.getNumber(), Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Состояние доставки, которое отслеживается журналом: тип, время и курьер.
+     */
+    public static final class DeliveryState {
+        private final DeliveryType deliveryType;
+        private final LocalDateTime deliveryAt;
+        private final long courierId;
+
+        private DeliveryState(Delivery delivery) {
+            this.deliveryType = delivery.getDeliveryType();
+            this.deliveryAt = delivery.getDeliveryAt();
+            this.courierId = delivery.getEmployee() != null ? delivery.getEmployee().getEmployeeId() : 0;
+        }
+
+        private OrderChange toChange() {
+            return OrderChange.delivery(deliveryType, deliveryAt, courierId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DeliveryState that = (DeliveryState) o;
+            return courierId == that.courierId
+                    && deliveryType == that.deliveryType
+                    && Objects.equals(deliveryAt, that.deliveryAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(deliveryType, deliveryAt, courierId);
+        }
+    }
+}
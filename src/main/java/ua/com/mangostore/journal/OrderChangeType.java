@@ -0,0 +1,48 @@
+package ua.com.mangostore.journal;
+
+/**
+ * Тип изменения заказа в журнале. В журнал записывается порядковый номер константы,
+ * поэтому новые типы добавляются только в конец перечисления.
+ *
+ * @author Diukarev Sergii
+ * @see OrderChange
+ */
+public enum OrderChangeType {
+    /**
+     * Заказ оформлен: текст - статус, сумма - стоимость заказа в копейках.
+     */
+    CREATED,
+    /**
+     * Изменен статус заказа: текст - новый статус.
+     */
+    STATUS,
+    /**
+     * Изменена стоимость заказа: сумма - новая стоимость в копейках.
+     */
+    PRICE,
+    /**
+     * Изменена доставка: текст - тип доставки, ссылка - код курьера или 0,
+     * сумма - время доставки в секундах эпохи UTC или -1.
+     */
+    DELIVERY,
+    /**
+     * Добавлен товар: ссылка - код товара, сумма - добавленное количество.
+     */
+    LINE_ADDED,
+    /**
+     * Удален товар: ссылка - код товара, сумма - удаленное количество.
+     */
+    LINE_REMOVED;
+
+    private static final OrderChangeType[] VALUES = values();
+
+    /**
+     * Возвращает тип изменения по коду из журнала.
+     *
+     * @param code Код типа (порядковый номер константы).
+     * @return Объект {@link OrderChangeType} или null, если код неизвестен.
+     */
+    public static OrderChangeType ofCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : null;
+    }
+}
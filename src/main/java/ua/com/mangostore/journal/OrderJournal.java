@@ -0,0 +1,513 @@
+package ua.com.mangostore.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал изменений заказов только на дозапись.
+ * Каждое изменение статуса, доставки и товаров заказа записывается компактной двоичной записью
+ * в сегментные файлы фиксированного размера, отображенные в память (memory-mapped), поэтому
+ * запись в журнал не создает дополнительных запросов и строк в базе данных.
+ * Формат записи: длина тела (int), CRC32 тела (int), тело - порядковый номер (long), время (long),
+ * код заказа (long), тип изменения (byte), ссылка (long), значение (long), длина текста (short)
+ * и текст в UTF-8. Длина записывается последней, нулевая длина означает конец данных сегмента.
+ * Файл сегмента называется порядковым номером своей первой записи; когда запись не помещается
+ * в сегмент, сегмент сбрасывается на диск и создается следующий.
+ * Сброс на диск групповой: поток "order-journal-sync" раз в {@link #syncMillis} мс сбрасывает
+ * все записи, добавленные с прошлого сброса, одним вызовом force(), а писатели, которым нужна
+ * надежность, ждут его через {@link #awaitSynced(long, long)}.
+ * При открытии журнал проверяет последний сегмент и отбрасывает хвост, оборванный сбоем.
+ * Для воспроизведения и чтения новых записей по мере поступления служит {@link Reader}.
+ * Настройки задаются системными свойствами "mangostore.journal.dir" (каталог данных, обязательное:
+ * временный каталог очищается системой, и журнал в нем не переживет перезагрузку),
+ * "mangostore.journal.segment.bytes" (размер сегмента, по-умолчанию 64 МБ)
+ * и "mangostore.journal.sync.millis" (период сброса, по-умолчанию 10 мс).
+ *
+ * @author Diukarev Sergii
+ * @see OrderChangeRecorder
+ * @see JournalRecord
+ */
+@Component
+public class OrderJournal implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(OrderJournal.class);
+
+    /**
+     * Расширение файлов сегментов.
+     */
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    /**
+     * Размер заголовка записи: длина и CRC32 тела.
+     */
+    private static final int HEADER_BYTES = 8;
+
+    /**
+     * Размер тела записи без текста.
+     */
+    private static final int BODY_BYTES = 8 + 8 + 8 + 1 + 8 + 8 + 2;
+
+    /**
+     * Максимальный размер записи.
+     */
+    private static final int MAX_RECORD_BYTES = HEADER_BYTES + BODY_BYTES + OrderChange.MAX_TEXT_BYTES;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long syncMillis;
+
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final byte[] scratch = new byte[MAX_RECORD_BYTES];
+    private final CRC32 crc = new CRC32();
+    private final Object syncMonitor = new Object();
+
+    private volatile Segment active;
+    private volatile long lastSequence;
+    private volatile long syncedSequence;
+    private volatile boolean running;
+    private Thread syncThread;
+
+    /**
+     * Конструктор журнала с настройками из системных свойств.
+     *
+     * @throws IllegalStateException Если не задан каталог журнала "mangostore.journal.dir".
+     */
+    public OrderJournal() {
+        this(Paths.get(getRequiredProperty("mangostore.journal.dir")),
+                Integer.getInteger("mangostore.journal.segment.bytes", 64 * 1024 * 1024),
+                Long.getLong("mangostore.journal.sync.millis", 10));
+    }
+
+    /**
+     * Конструктор журнала.
+     *
+     * @param directory    Каталог файлов сегментов.
+     * @param segmentBytes Размер файла сегмента в байтах.
+     * @param syncMillis   Период группового сброса на диск в миллисекундах.
+     */
+    public OrderJournal(Path directory, int segmentBytes, long syncMillis) {
+        if (segmentBytes < MAX_RECORD_BYTES + 4) {
+            throw new IllegalArgumentException("Размер сегмента журнала слишком мал: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.syncMillis = syncMillis;
+    }
+
+    private static String getRequiredProperty(String name) {
+        String value = System.getProperty(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalStateException("Не задан каталог журнала заказов: -D" + name + "=<каталог данных>");
+        }
+        return value;
+    }
+
+    /**
+     * Открывает журнал: находит сегменты, восстанавливает последний сегмент после сбоя
+     * и запускает поток группового сброса на диск.
+     *
+     * @throws IOException Если каталог или файлы журнала недоступны.
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file);
+            }
+        }
+        if (segments.isEmpty()) {
+            active = createSegment(1);
+            lastSequence = 0;
+        } else {
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            active = new Segment(last.getKey(), map(last.getValue(), FileChannel.MapMode.READ_WRITE));
+            lastSequence = active.recover();
+        }
+        syncedSequence = lastSequence;
+        running = true;
+        syncThread = new Thread(this::syncLoop, "order-journal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+        LOG.info("Order journal opened in {}: {} segments, last sequence {}", directory, segments.size(), lastSequence);
+    }
+
+    /**
+     * Сбрасывает журнал на диск и останавливает поток сброса.
+     *
+     * @throws InterruptedException Если поток прерван во время ожидания.
+     */
+    @PreDestroy
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        Thread thread = syncThread;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(10_000);
+        }
+        sync();
+    }
+
+    /**
+     * Добавляет изменение заказа в конец журнала. Запись становится видна читателям сразу,
+     * а на диск сбрасывается ближайшим групповым сбросом.
+     *
+     * @param orderId Код заказа.
+     * @param change  Изменение заказа.
+     * @return Значение типа long - порядковый номер записи.
+     */
+    public synchronized long append(long orderId, OrderChange change) {
+        if (!running) {
+            throw new IllegalStateException("Журнал заказов закрыт");
+        }
+        byte[] text = change.getText().getBytes(StandardCharsets.UTF_8);
+        if (text.length > OrderChange.MAX_TEXT_BYTES) {
+            throw new IllegalArgumentException("Текст изменения длиннее " + OrderChange.MAX_TEXT_BYTES + " байт");
+        }
+        long sequence = lastSequence + 1;
+        ByteBuffer body = ByteBuffer.wrap(scratch);
+        body.putLong(sequence)
+                .putLong(System.currentTimeMillis())
+                .putLong(orderId)
+                .put((byte) change.getType().ordinal())
+                .putLong(change.getRef())
+                .putLong(change.getAmount())
+                .putShort((short) text.length)
+                .put(text);
+        int length = body.position();
+        crc.reset();
+        crc.update(scratch, 0, length);
+
+        Segment segment = active;
+        if (segment.buffer.position() + HEADER_BYTES + length + 4 > segmentBytes) {
+            segment = roll(sequence);
+        }
+        MappedByteBuffer buffer = segment.buffer;
+        int position = buffer.position();
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.position(position + HEADER_BYTES);
+        buffer.put(scratch, 0, length);
+        buffer.putInt(position, length);
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Ожидает, пока запись с заданным номером будет сброшена на диск.
+     *
+     * @param sequence      Порядковый номер записи.
+     * @param timeoutMillis Максимальное время ожидания в миллисекундах.
+     * @return Значение типа boolean - true, если запись сброшена на диск.
+     * @throws InterruptedException Если поток прерван во время ожидания.
+     */
+    public boolean awaitSynced(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (syncMonitor) {
+            while (syncedSequence < sequence) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0) {
+                    return false;
+                }
+                syncMonitor.wait(wait);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Сбрасывает на диск все добавленные записи и будит ожидающих писателей.
+     */
+    public void sync() {
+        Segment segment;
+        long target;
+        synchronized (this) {
+            segment = active;
+            target = lastSequence;
+        }
+        if (segment == null || target <= syncedSequence) {
+            return;
+        }
+        segment.buffer.force();
+        synchronized (syncMonitor) {
+            syncedSequence = target;
+            syncMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Открывает читателя журнала с заданной записи.
+     *
+     * @param fromSequence Порядковый номер первой читаемой записи.
+     * @return Объект класса {@link Reader} - читатель журнала.
+     */
+    public Reader openReader(long fromSequence) {
+        return new Reader(Math.max(1, fromSequence));
+    }
+
+    /**
+     * Воспроизводит записи журнала, начиная с заданной, до последней добавленной.
+     *
+     * @param fromSequence Порядковый номер первой записи.
+     * @param consumer     Получатель записей.
+     * @return Значение типа long - количество воспроизведенных записей.
+     */
+    public long replay(long fromSequence, Consumer<JournalRecord> consumer) {
+        Reader reader = openReader(fromSequence);
+        long count = 0;
+        for (JournalRecord record = reader.next(); record != null; record = reader.next()) {
+            consumer.accept(record);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Возвращает порядковый номер последней добавленной записи.
+     *
+     * @return Значение типа long - номер записи или 0, если журнал пуст.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Возвращает порядковый номер последней записи, сброшенной на диск.
+     *
+     * @return Значение типа long - номер записи или 0.
+     */
+    public long getSyncedSequence() {
+        return syncedSequence;
+    }
+
+    /**
+     * Возвращает количество сегментов журнала.
+     *
+     * @return Значение типа int - количество файлов сегментов.
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Цикл потока группового сброса на диск.
+     */
+    private void syncLoop() {
+        while (running) {
+            try {
+                Thread.sleep(syncMillis);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            try {
+                sync();
+            } catch (RuntimeException ex) {
+                LOG.error("Order journal sync failed", ex);
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает текущий сегмент на диск и создает следующий.
+     *
+     * @param firstSequence Порядковый номер первой записи нового сегмента.
+     * @return Объект класса {@link Segment} - новый сегмент.
+     */
+    private Segment roll(long firstSequence) {
+        active.buffer.force();
+        synchronized (syncMonitor) {
+            syncedSequence = firstSequence - 1;
+            syncMonitor.notifyAll();
+        }
+        active = createSegment(firstSequence);
+        return active;
+    }
+
+    private Segment createSegment(long firstSequence) {
+        Path file = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        Segment segment = new Segment(firstSequence, map(file, FileChannel.MapMode.READ_WRITE));
+        segments.put(firstSequence, file);
+        return segment;
+    }
+
+    private MappedByteBuffer map(Path file, FileChannel.MapMode mode) {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            long size = mode == FileChannel.MapMode.READ_ONLY ? channel.size() : segmentBytes;
+            return channel.map(mode, 0, size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Не удалось открыть сегмент журнала " + file, ex);
+        }
+    }
+
+    /**
+     * Читает запись по позиции буфера сегмента.
+     *
+     * @param buffer   Буфер сегмента, позиция указывает на начало записи.
+     * @param body     Буфер для тела записи.
+     * @param checksum Объект для подсчета CRC32.
+     * @return Объект класса {@link JournalRecord} или null, если по позиции нет целой записи.
+     */
+    private static JournalRecord read(ByteBuffer buffer, byte[] body, CRC32 checksum) {
+        int position = buffer.position();
+        if (position + HEADER_BYTES > buffer.limit()) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length < BODY_BYTES || length > body.length || position + HEADER_BYTES + length > buffer.limit()) {
+            return null;
+        }
+        int expected = buffer.getInt(position + 4);
+        buffer.position(position + HEADER_BYTES);
+        buffer.get(body, 0, length);
+        checksum.reset();
+        checksum.update(body, 0, length);
+        ByteBuffer in = ByteBuffer.wrap(body, 0, length);
+        long sequence = in.getLong();
+        long timestamp = in.getLong();
+        long orderId = in.getLong();
+        OrderChangeType type = OrderChangeType.ofCode(in.get());
+        long ref = in.getLong();
+        long amount = in.getLong();
+        int textLength = in.getShort();
+        if ((int) checksum.getValue() != expected || type == null || textLength != length - BODY_BYTES) {
+            buffer.position(position);
+            return null;
+        }
+        String text = new String(body, BODY_BYTES, textLength, StandardCharsets.UTF_8);
+        return new JournalRecord(sequence, timestamp, orderId, new OrderChange(type, ref, amount, text));
+    }
+
+    /**
+     * Сегмент журнала, открытый для записи.
+     */
+    private final class Segment {
+        private final long firstSequence;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long firstSequence, MappedByteBuffer buffer) {
+            this.firstSequence = firstSequence;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Находит конец корректных записей сегмента и обнуляет оборванный хвост.
+         *
+         * @return Значение типа long - номер последней корректной записи.
+         */
+        private long recover() {
+            byte[] body = new byte[MAX_RECORD_BYTES];
+            CRC32 checksum = new CRC32();
+            long sequence = firstSequence - 1;
+            int end = 0;
+            buffer.position(0);
+            JournalRecord record;
+            while ((record = read(buffer, body, checksum)) != null && record.getSequence() == sequence + 1) {
+                sequence = record.getSequence();
+                end = buffer.position();
+            }
+            buffer.position(end);
+            if (end + 4 <= buffer.limit() && buffer.getInt(end) != 0) {
+                LOG.warn("Order journal segment {} is truncated after sequence {}", firstSequence, sequence);
+                for (int i = end; i < buffer.limit() && i < end + MAX_RECORD_BYTES + 4; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.force();
+            }
+            return sequence;
+        }
+    }
+
+    /**
+     * Читатель журнала. Читает записи по порядку, начиная с заданной; когда достигнут конец журнала,
+     * {@link #next()} возвращает null, а последующие вызовы вернут записи, добавленные позже,
+     * поэтому читатель подходит и для воспроизведения истории, и для слежения за новыми записями.
+     * Читатель не потокобезопасен.
+     */
+    public final class Reader {
+        private final byte[] body = new byte[MAX_RECORD_BYTES];
+        private final CRC32 checksum = new CRC32();
+        private long nextSequence;
+        private long segmentFirst = -1;
+        private ByteBuffer buffer;
+
+        private Reader(long fromSequence) {
+            this.nextSequence = fromSequence;
+        }
+
+        /**
+         * Возвращает следующую запись журнала.
+         *
+         * @return Объект класса {@link JournalRecord} или null, если новых записей пока нет.
+         */
+        public JournalRecord next() {
+            long last = lastSequence;
+            while (nextSequence <= last) {
+                if (buffer == null && !openSegment(segments.floorKey(nextSequence))) {
+                    return null;
+                }
+                int position = buffer.position();
+                JournalRecord record = read(buffer, body, checksum);
+                if (record == null) {
+                    // конец сегмента: переходим к следующему
+                    if (!openSegment(segments.higherKey(segmentFirst))) {
+                        return null;
+                    }
+                    continue;
+                }
+                if (record.getSequence() > last) {
+                    buffer.position(position);
+                    return null;
+                }
+                if (record.getSequence() >= nextSequence) {
+                    nextSequence = record.getSequence() + 1;
+                    return record;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Возвращает порядковый номер следующей читаемой записи.
+         *
+         * @return Значение типа long - номер записи.
+         */
+        public long getNextSequence() {
+            return nextSequence;
+        }
+
+        private boolean openSegment(Long first) {
+            if (first == null) {
+                return false;
+            }
+            Segment current = active;
+            segmentFirst = first;
+            buffer = current.firstSequence == first
+                    ? current.buffer.asReadOnlyBuffer()
+                    : map(segments.get(first), FileChannel.MapMode.READ_ONLY);
+            buffer.position(0);
+            return true;
+        }
+    }
+}
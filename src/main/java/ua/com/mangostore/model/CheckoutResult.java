@@ -0,0 +1,34 @@
+package ua.com.mangostore.model;
+
+import ua.com.mangostore.entity.Order;
+
+/**
+ * Результат оформления заказа по ключу идемпотентности: заказ и признак того,
+ * что заказ создан именно этим запросом, а не найден по ключу повторного запроса.
+ *
+ * @author Diukarev Sergii
+ * @see ua.com.mangostore.service.CheckoutService
+ */
+public final class CheckoutResult {
+    private final Order order;
+    private final boolean created;
+
+    /**
+     * Конструктор результата.
+     *
+     * @param order   Оформленный заказ.
+     * @param created true, если заказ создан этим запросом.
+     */
+    public CheckoutResult(Order order, boolean created) {
+        this.order = order;
+        this.created = created;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+}
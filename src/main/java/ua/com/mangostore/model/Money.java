@@ -0,0 +1,205 @@
+package ua.com.mangostore.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Класс описывает денежную сумму в гривнах.
+ * Сумма хранится в копейках в поле типа long, поэтому сложение и умножение
+ * выполняются без ошибок округления, свойственных double.
+ * Объекты класса неизменяемые и могут безопасно использоваться из разных потоков.
+ * Форматирование суммы не использует {@link java.text.DecimalFormat} и не имеет общего состояния,
+ * поэтому не требует блокировок.
+ *
+ * @author Diukarev Sergii
+ * @see ua.com.mangostore.entity.converter.MoneyConverter
+ */
+public final class Money implements Serializable, Comparable<Money> {
+    /**
+     * Номер версии класса необходимый для десериализации и сериализации.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Количество копеек в одной гривне.
+     */
+    private static final int KOPECKS_IN_HRYVNIA = 100;
+
+    /**
+     * Разделитель групп разрядов при форматировании суммы.
+     */
+    private static final char GROUPING_SEPARATOR = ' ';
+
+    /**
+     * Нулевая сумма.
+     */
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Сумма в копейках.
+     */
+    private final long amount;
+
+    /**
+     * Конструктор для инициализации суммы.
+     *
+     * @param amount Сумма в копейках.
+     */
+    private Money(long amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Возвращает сумму по количеству копеек.
+     *
+     * @param kopecks Сумма в копейках.
+     * @return Объект класса {@link Money}.
+     */
+    public static Money ofKopecks(long kopecks) {
+        return kopecks == 0 ? ZERO : new Money(kopecks);
+    }
+
+    /**
+     * Возвращает сумму по количеству целых гривен.
+     *
+     * @param hryvnias Сумма в гривнах.
+     * @return Объект класса {@link Money}.
+     */
+    public static Money ofHryvnias(long hryvnias) {
+        return ofKopecks(Math.multiplyExact(hryvnias, KOPECKS_IN_HRYVNIA));
+    }
+
+    /**
+     * Разбирает сумму в гривнах из строки, например "17999", "17 999" или "17999,50".
+     * Дробная часть округляется до копеек. Метод также используется Spring для
+     * преобразования параметров запроса в объекты класса {@link Money}.
+     *
+     * @param value Строка с суммой в гривнах.
+     * @return Объект класса {@link Money}.
+     * @throws NumberFormatException Если строка не является числом.
+     */
+    public static Money valueOf(String value) {
+        String normalized = value.trim().replace(" ", "").replace("\u00A0", "").replace(',', '.');
+        BigDecimal hryvnias = new BigDecimal(normalized);
+        return ofKopecks(hryvnias.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact());
+    }
+
+    /**
+     * Возвращает сумму в копейках.
+     *
+     * @return Значение типа long - сумма в копейках.
+     */
+    public long getAmount() {
+        return amount;
+    }
+
+    /**
+     * Возвращает сумму текущей и входящей суммы.
+     *
+     * @param other Сумма для сложения.
+     * @return Объект класса {@link Money} - результат сложения.
+     */
+    public Money plus(Money other) {
+        return other.amount == 0 ? this : ofKopecks(Math.addExact(amount, other.amount));
+    }
+
+    /**
+     * Возвращает текущую сумму, умноженную на количество.
+     *
+     * @param number Количество.
+     * @return Объект класса {@link Money} - результат умножения.
+     */
+    public Money times(int number) {
+        return number == 1 ? this : ofKopecks(Math.multiplyExact(amount, number));
+    }
+
+    /**
+     * Проверяет, равна ли сумма нулю.
+     *
+     * @return true, если сумма равна нулю.
+     */
+    public boolean isZero() {
+        return amount == 0;
+    }
+
+    /**
+     * Возвращает сумму в отформатированном виде: разряды разделены пробелом,
+     * копейки выводятся только если они есть, например "17 999" или "1 250,50".
+     *
+     * @return Значение типа {@link String} - отформатированная сумма.
+     */
+    public String format() {
+        long abs = Math.abs(amount);
+        long hryvnias = abs / KOPECKS_IN_HRYVNIA;
+        int kopecks = (int) (abs % KOPECKS_IN_HRYVNIA);
+
+        char[] buffer = new char[32];
+        int position = buffer.length;
+        if (kopecks != 0) {
+            buffer[--position] = (char) ('0' + kopecks % 10);
+            buffer[--position] = (char) ('0' + kopecks / 10);
+            buffer[--position] = ',';
+        }
+        int digits = 0;
+        do {
+            if (digits > 0 && digits % 3 == 0) {
+                buffer[--position] = GROUPING_SEPARATOR;
+            }
+            buffer[--position] = (char) ('0' + hryvnias % 10);
+            hryvnias /= 10;
+            digits++;
+        } while (hryvnias > 0);
+        if (amount < 0) {
+            buffer[--position] = '-';
+        }
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    /**
+     * Сравнение сумм.
+     * Переопределенный метод родительского класса {@link Object}.
+     *
+     * @return Значение типа {@link boolean}.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return amount == ((Money) o).amount;
+    }
+
+    /**
+     * HashCode суммы.
+     * Переопределенный метод родительского класса {@link Object}.
+     *
+     * @return Значение типа {@link int}.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(amount);
+    }
+
+    /**
+     * Сравнивает текущую сумму с входящей.
+     *
+     * @param other Сумма для сравнения.
+     * @return Отрицательное число, ноль или положительное число.
+     */
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(amount, other.amount);
+    }
+
+    /**
+     * Возвращает сумму в гривнах без форматирования, например "17999" или "17999.50".
+     * Результат может быть разобран методом {@link #valueOf(String)}, поэтому используется
+     * в полях ввода форм.
+     *
+     * @return Значение типа {@link String} - сумма в гривнах.
+     */
+    @Override
+    public String toString() {
+        return BigDecimal.valueOf(amount, 2).stripTrailingZeros().toPlainString();
+    }
+}
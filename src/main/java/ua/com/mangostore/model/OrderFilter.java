@@ -0,0 +1,174 @@
+package ua.com.mangostore.model;
+
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Условия выборки страницы консоли заказов менеджера: фильтры, порядок сортировки
+ * и курсор - ключ последней строки предыдущей страницы.
+ * Страницы выбираются по ключу (keyset): следующая страница начинается сразу после
+ * курсора в порядке сортировки, поэтому база данных не перебирает пропущенные строки
+ * и время выборки не зависит от номера страницы и общего количества заказов.
+ * Курсор имеет вид "значение_код", где значение - дата создания или стоимость заказа
+ * в копейках, в зависимости от сортировки.
+ *
+ * @author Diukarev Sergii
+ * @see OrderRow
+ * @see OrderSort
+ */
+public final class OrderFilter {
+    /**
+     * Разделитель значений курсора.
+     */
+    private static final char CURSOR_SEPARATOR = '_';
+
+    /**
+     * Максимальная длина периода в днях для сортировки по стоимости: заказы периода читаются
+     * по индексу даты и сортируются, поэтому период ограничен.
+     */
+    public static final int MAX_PRICE_SORT_DAYS = 31;
+
+    private Status status;
+    private LocalDate from;
+    private LocalDate to;
+    private DeliveryType deliveryType;
+    private String customer;
+    private OrderSort sort = OrderSort.NEWEST;
+
+    private LocalDateTime afterCreatedAt;
+    private Money afterPrice;
+    private long afterOrderId;
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public DeliveryType getDeliveryType() {
+        return deliveryType;
+    }
+
+    public void setDeliveryType(DeliveryType deliveryType) {
+        this.deliveryType = deliveryType;
+    }
+
+    /**
+     * Возвращает покупателя для фильтра: телефон, электронную почту или начало фамилии.
+     *
+     * @return Значение типа {@link String} - покупатель или null.
+     */
+    public String getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(String customer) {
+        this.customer = customer != null && !customer.trim().isEmpty() ? customer.trim() : null;
+    }
+
+    public OrderSort getSort() {
+        return sort;
+    }
+
+    public void setSort(OrderSort sort) {
+        this.sort = sort != null ? sort : OrderSort.NEWEST;
+        this.afterCreatedAt = null;
+        this.afterPrice = null;
+    }
+
+    /**
+     * Проверяет, задан ли для сортировки по стоимости период длиннее {@link #MAX_PRICE_SORT_DAYS} дней.
+     * Период без начальной даты считается неограниченным, без конечной - до сегодняшнего дня.
+     * Без периода сортировка по стоимости читает индекс стоимости и не ограничена.
+     *
+     * @return true, если сортировка по стоимости недоступна для заданного периода.
+     */
+    public boolean isPriceSortPeriodTooLong() {
+        if (!sort.isByPrice() || from == null && to == null) {
+            return false;
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        return from == null || ChronoUnit.DAYS.between(from, end) >= MAX_PRICE_SORT_DAYS;
+    }
+
+    /**
+     * Возвращает признак выборки не первой страницы.
+     *
+     * @return true, если задан курсор.
+     */
+    public boolean hasCursor() {
+        return afterCreatedAt != null || afterPrice != null;
+    }
+
+    public LocalDateTime getAfterCreatedAt() {
+        return afterCreatedAt;
+    }
+
+    public Money getAfterPrice() {
+        return afterPrice;
+    }
+
+    public long getAfterOrderId() {
+        return afterOrderId;
+    }
+
+    /**
+     * Устанавливает курсор страницы. Сортировку нужно устанавливать до курсора.
+     * Некорректный курсор игнорируется - выбирается первая страница.
+     *
+     * @param cursor Курсор, полученный методом {@link #cursorOf(OrderRow)}, или null.
+     */
+    public void setCursor(String cursor) {
+        afterCreatedAt = null;
+        afterPrice = null;
+        int index = cursor != null ? cursor.lastIndexOf(CURSOR_SEPARATOR) : -1;
+        if (index <= 0) {
+            return;
+        }
+        try {
+            String value = cursor.substring(0, index);
+            afterOrderId = Long.parseLong(cursor.substring(index + 1));
+            if (sort.isByPrice()) {
+                afterPrice = Money.ofKopecks(Long.parseLong(value));
+            } else {
+                afterCreatedAt = LocalDateTime.parse(value);
+            }
+        } catch (RuntimeException ex) {
+            afterCreatedAt = null;
+            afterPrice = null;
+        }
+    }
+
+    /**
+     * Возвращает курсор, указывающий на строку в текущем порядке сортировки.
+     *
+     * @param row Строка консоли заказов.
+     * @return Значение типа {@link String} - курсор.
+     */
+    public String cursorOf(OrderRow row) {
+        String value = sort.isByPrice() ? String.valueOf(row.getOrderPrice().getAmount()) : row.getCreatedAt().toString();
+        return value + CURSOR_SEPARATOR + row.getOrderId();
+    }
+}
@@ -0,0 +1,114 @@
+package ua.com.mangostore.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Класс генерирует короткие уникальные номера заказов.
+ * Номер состоит из времени создания в секундах от {@link #EPOCH_SECONDS}, счетчика заказов
+ * внутри секунды и кода узла приложения, и записывается символами без легко путаемых букв
+ * (I, L, O, U), например "8ZK4M1Q70".
+ * Номера разных узлов не совпадают благодаря коду узла, номера одного узла - благодаря
+ * монотонному счетчику: если за секунду создано больше заказов, чем помещается в счетчик,
+ * генератор занимает номера следующей секунды. Генерация выполняется одной CAS-операцией
+ * без блокировок и без обращений к базе данных.
+ * Код узла задается системным свойством "mangostore.node.id" (от 0 до 31).
+ *
+ * @author Diukarev Sergii
+ * @see ua.com.mangostore.entity.Order
+ */
+public final class OrderNumberGenerator {
+    /**
+     * Начало отсчета времени: 2017-01-01T00:00:00Z.
+     */
+    static final long EPOCH_SECONDS = 1_483_228_800L;
+
+    /**
+     * Количество бит кода узла.
+     */
+    private static final int NODE_BITS = 5;
+
+    /**
+     * Количество бит счетчика заказов внутри секунды.
+     */
+    private static final int COUNTER_BITS = 10;
+
+    /**
+     * Максимальный код узла.
+     */
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    /**
+     * Символы для записи номера (32 символа, по 5 бит на символ).
+     */
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    /**
+     * Генератор узла по-умолчанию.
+     */
+    private static final OrderNumberGenerator DEFAULT =
+            new OrderNumberGenerator(Integer.getInteger("mangostore.node.id", 0));
+
+    /**
+     * Код узла приложения.
+     */
+    private final int nodeId;
+
+    /**
+     * Последнее выданное значение: секунды от начала отсчета, сдвинутые на COUNTER_BITS, плюс счетчик.
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * Конструктор для инициализации генератора узла.
+     *
+     * @param nodeId Код узла приложения.
+     * @throws IllegalArgumentException Если код узла вне диапазона от 0 до {@link #MAX_NODE_ID}.
+     */
+    public OrderNumberGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be in range 0.." + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Возвращает генератор узла по-умолчанию.
+     *
+     * @return Объект класса {@link OrderNumberGenerator}.
+     */
+    public static OrderNumberGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Возвращает следующий номер заказа.
+     *
+     * @return Значение типа {@link String} - номер заказа.
+     */
+    public String next() {
+        long now = (System.currentTimeMillis() / 1000 - EPOCH_SECONDS) << COUNTER_BITS;
+        long previous;
+        long current;
+        do {
+            previous = last.get();
+            current = Math.max(previous + 1, now);
+        } while (!last.compareAndSet(previous, current));
+        return encode((current << NODE_BITS) | nodeId);
+    }
+
+    /**
+     * Записывает значение символами {@link #ALPHABET}.
+     *
+     * @param value Значение.
+     * @return Значение типа {@link String} - запись значения.
+     */
+    private static String encode(long value) {
+        char[] buffer = new char[13];
+        int position = buffer.length;
+        do {
+            buffer[--position] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        } while (value != 0);
+        return new String(buffer, position, buffer.length - position);
+    }
+}
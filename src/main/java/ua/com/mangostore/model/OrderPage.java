@@ -0,0 +1,38 @@
+package ua.com.mangostore.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Страница консоли заказов менеджера.
+ *
+ * @author Diukarev Sergii
+ * @see OrderFilter
+ */
+public final class OrderPage {
+    private final List<OrderRow> rows;
+    private final String nextCursor;
+
+    /**
+     * Конструктор страницы.
+     *
+     * @param rows       Строки страницы.
+     * @param nextCursor Курсор следующей страницы или null, если страница последняя.
+     */
+    public OrderPage(List<OrderRow> rows, String nextCursor) {
+        this.rows = Collections.unmodifiableList(rows);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderRow> getRows() {
+        return rows;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isLast() {
+        return nextCursor == null;
+    }
+}
@@ -0,0 +1,156 @@
+package ua.com.mangostore.model;
+
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Строка списков заказов менеджера и курьера - облегченное представление заказа.
+ * Заполняется одним запросом прямо из колонок сводки заказа
+ * ({@link ua.com.mangostore.entity.OrderSummary}), без загрузки сущностей и их связей.
+ *
+ * @author Diukarev Sergii
+ * @see ua.com.mangostore.entity.Order
+ */
+public final class OrderRow {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("H:mm");
+
+    private final long orderId;
+    private final String number;
+    private final Status status;
+    private final LocalDateTime createdAt;
+    private final Money orderPrice;
+    private final DeliveryType deliveryType;
+    private final String customerName;
+    private final String customerSurname;
+    private final String customerPhone;
+    private final String city;
+    private final int itemCount;
+    private final LocalDateTime deliveryAt;
+    private final String courierName;
+
+    /**
+     * Конструктор строки без данных о городе, товарах и доставке курьером.
+     *
+     * @param orderId         Код заказа.
+     * @param number          Номер заказа.
+     * @param status          Статус заказа.
+     * @param createdAt       Дата и время создания заказа.
+     * @param orderPrice      Стоимость заказа.
+     * @param deliveryType    Тип доставки или null.
+     * @param customerName    Имя покупателя.
+     * @param customerSurname Фамилия покупателя.
+     * @param customerPhone   Телефон покупателя.
+     */
+    public OrderRow(long orderId, String number, Status status, LocalDateTime createdAt, Money orderPrice,
+                    DeliveryType deliveryType, String customerName, String customerSurname, String customerPhone) {
+        this(orderId, number, status, createdAt, orderPrice, deliveryType, customerName, customerSurname,
+                customerPhone, null, 0, null, null);
+    }
+
+    /**
+     * Конструктор строки, используется в выражении "select new" запроса.
+     *
+     * @param orderId         Код заказа.
+     * @param number          Номер заказа.
+     * @param status          Статус заказа.
+     * @param createdAt       Дата и время создания заказа.
+     * @param orderPrice      Стоимость заказа.
+     * @param deliveryType    Тип доставки или null.
+     * @param customerName    Имя покупателя.
+     * @param customerSurname Фамилия покупателя.
+     * @param customerPhone   Телефон покупателя.
+     * @param city            Город покупателя.
+     * @param itemCount       Количество единиц товара в заказе.
+     * @param deliveryAt      Дата и время доставки или null.
+     * @param courierName     Имя курьера или null.
+     */
+    public OrderRow(long orderId, String number, Status status, LocalDateTime createdAt, Money orderPrice,
+                    DeliveryType deliveryType, String customerName, String customerSurname, String customerPhone,
+                    String city, int itemCount, LocalDateTime deliveryAt, String courierName) {
+        this.orderId = orderId;
+        this.number = number;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.orderPrice = orderPrice;
+        this.deliveryType = deliveryType;
+        this.customerName = customerName;
+        this.customerSurname = customerSurname;
+        this.customerPhone = customerPhone;
+        this.city = city;
+        this.itemCount = itemCount;
+        this.deliveryAt = deliveryAt;
+        this.courierName = courierName;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getDateCreated() {
+        return createdAt.format(DATE_FORMAT);
+    }
+
+    public String getTimeCreated() {
+        return createdAt.format(TIME_FORMAT);
+    }
+
+    public Money getOrderPrice() {
+        return orderPrice;
+    }
+
+    public DeliveryType getDeliveryType() {
+        return deliveryType;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerSurname() {
+        return customerSurname;
+    }
+
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public LocalDateTime getDeliveryAt() {
+        return deliveryAt;
+    }
+
+    public String getDeliveryDate() {
+        return deliveryAt != null ? deliveryAt.format(DATE_FORMAT) : "";
+    }
+
+    public String getDeliveryTime() {
+        return deliveryAt != null ? deliveryAt.format(TIME_FORMAT) : "";
+    }
+
+    public String getCourierName() {
+        return courierName;
+    }
+}
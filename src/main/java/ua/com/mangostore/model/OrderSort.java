@@ -0,0 +1,47 @@
+package ua.com.mangostore.model;
+
+/**
+ * Порядок сортировки заказов в консоли менеджера.
+ * Каждый порядок дополняется кодом заказа, поэтому он однозначен и пригоден
+ * для постраничной выборки по ключу (см. {@link OrderFilter}).
+ *
+ * @author Diukarev Sergii
+ */
+public enum OrderSort {
+    NEWEST,
+    OLDEST,
+    PRICE_HIGH,
+    PRICE_LOW;
+
+    /**
+     * Возвращает признак сортировки по стоимости заказа.
+     *
+     * @return true, если заказы сортируются по стоимости, иначе - по дате создания.
+     */
+    public boolean isByPrice() {
+        return this == PRICE_HIGH || this == PRICE_LOW;
+    }
+
+    /**
+     * Возвращает признак сортировки по убыванию.
+     *
+     * @return true, если сортировка по убыванию.
+     */
+    public boolean isDescending() {
+        return this == NEWEST || this == PRICE_HIGH;
+    }
+
+    @Override
+    public String toString() {
+        switch (this) {
+            case NEWEST:
+                return "Сначала новые";
+            case OLDEST:
+                return "Сначала старые";
+            case PRICE_HIGH:
+                return "Сначала дорогие";
+            default:
+                return "Сначала дешевые";
+        }
+    }
+}
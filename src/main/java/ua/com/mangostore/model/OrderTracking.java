@@ -0,0 +1,80 @@
+package ua.com.mangostore.model;
+
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Состояние заказа для страницы отслеживания заказа покупателем.
+ * Заполняется одним запросом по уникальному индексу номера заказа прямо из колонок заказа,
+ * доставки и телефона покупателя, без загрузки торговых позиций и сущности покупателя.
+ * Телефон покупателя хранится только нормализованным и наружу не отдается: по нему лишь
+ * проверяется, что заказ запрашивает тот, кто его оформил.
+ *
+ * @author Diukarev Sergii
+ * @see ua.com.mangostore.service.OrderTrackingService
+ */
+public final class OrderTracking {
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy H:mm");
+
+    private final String number;
+    private final Status status;
+    private final LocalDateTime createdAt;
+    private final DeliveryType deliveryType;
+    private final LocalDateTime deliveryAt;
+    private final String phoneKey;
+
+    /**
+     * Конструктор, используется в выражении "select new" запроса.
+     *
+     * @param number       Номер заказа.
+     * @param status       Статус заказа.
+     * @param createdAt    Дата и время создания заказа.
+     * @param deliveryType Тип доставки или null.
+     * @param deliveryAt   Дата и время доставки или null.
+     * @param phoneKey     Нормализованный телефон покупателя или null.
+     */
+    public OrderTracking(String number, Status status, LocalDateTime createdAt, DeliveryType deliveryType,
+                         LocalDateTime deliveryAt, String phoneKey) {
+        this.number = number;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.deliveryType = deliveryType;
+        this.deliveryAt = deliveryAt;
+        this.phoneKey = phoneKey;
+    }
+
+    /**
+     * Проверяет, оформлен ли заказ на указанный телефон.
+     *
+     * @param phone Телефон в любом формате.
+     * @return true, если нормализованные телефоны совпадают.
+     */
+    public boolean isPlacedBy(String phone) {
+        String key = Customer.normalizePhone(phone);
+        return phoneKey != null && key != null && !key.isEmpty() && phoneKey.equals(key);
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getCreated() {
+        return createdAt.format(DATE_TIME_FORMAT);
+    }
+
+    public DeliveryType getDeliveryType() {
+        return deliveryType;
+    }
+
+    public String getDelivery() {
+        return deliveryAt != null ? deliveryAt.format(DATE_TIME_FORMAT) : "";
+    }
+}
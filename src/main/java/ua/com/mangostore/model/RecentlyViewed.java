@@ -0,0 +1,121 @@
+package ua.com.mangostore.model;
+
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.Serializable;
+
+/**
+ * Класс описывает список недавно просмотренных товаров клиента.
+ * Коды товаров хранятся в кольцевом буфере фиксированного размера, поэтому память на одну сессию
+ * ограничена и не растет от количества просмотров, а запись просмотра не создает новых объектов.
+ * Повторный просмотр товара переносит его в начало списка без дублирования.
+ * Помечен аннотациями @Component указывает, что клас является компонентом фреймворка Spring;
+ * и @Scope - область видимости бина "session" (один экземпляр бина для каждой сессии).
+ * Методы выполняются под монитором объекта, то есть блокировка действует только в пределах одной сессии.
+ *
+ * @author Diukarev Sergii
+ * @see ShoppingCart
+ */
+@Component
+@Scope(value = WebApplicationContext.SCOPE_SESSION, proxyMode = ScopedProxyMode.TARGET_CLASS)
+public class RecentlyViewed implements Serializable {
+    /**
+     * Номер версии класса необходимый для десериализации и сериализации.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Максимальное количество запоминаемых товаров.
+     */
+    public static final int CAPACITY = 8;
+
+    /**
+     * Кольцевой буфер кодов товаров.
+     */
+    private final long[] productIds = new long[CAPACITY];
+
+    /**
+     * Позиция, в которую будет записан следующий просмотр.
+     */
+    private int head;
+
+    /**
+     * Количество кодов товаров в буфере.
+     */
+    private int size;
+
+    /**
+     * Запоминает просмотр товара. Если товар уже есть в списке, он переносится в начало.
+     *
+     * @param productId Код просмотренного товара.
+     */
+    public synchronized void add(long productId) {
+        int index = indexOf(productId);
+        if (index == 0) {
+            return;
+        }
+        if (index > 0) {
+            // сдвигаем более свежие просмотры на одну позицию, освобождая начало списка
+            for (int i = index; i > 0; i--) {
+                productIds[slot(i)] = productIds[slot(i - 1)];
+            }
+            productIds[slot(0)] = productId;
+            return;
+        }
+        productIds[head] = productId;
+        head = (head + 1) % CAPACITY;
+        if (size < CAPACITY) {
+            size++;
+        }
+    }
+
+    /**
+     * Возвращает коды недавно просмотренных товаров, начиная с последнего просмотра.
+     *
+     * @return Массив кодов товаров.
+     */
+    public synchronized long[] getProductIds() {
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = productIds[slot(i)];
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает количество запомненных товаров.
+     *
+     * @return Значение типа int - количество товаров.
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * Возвращает порядковый номер товара в списке (0 - последний просмотр) или -1.
+     *
+     * @param productId Код товара.
+     * @return Порядковый номер товара или -1, если товара нет в списке.
+     */
+    private int indexOf(long productId) {
+        for (int i = 0; i < size; i++) {
+            if (productIds[slot(i)] == productId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает позицию в буфере для порядкового номера просмотра (0 - последний просмотр).
+     *
+     * @param index Порядковый номер просмотра.
+     * @return Позиция в буфере.
+     */
+    private int slot(int index) {
+        return (head - 1 - index + 2 * CAPACITY) % CAPACITY;
+    }
+}
@@ -0,0 +1,145 @@
+package ua.com.mangostore.model;
+
+import java.util.Arrays;
+
+/**
+ * Накопитель продаж по ключу "день и товар" для пересчета сводных таблиц.
+ * Хэш-таблица с открытой адресацией хранит ключи и суммы в массивах примитивов
+ * (день - номер дня от 1970-01-01, код товара, количество единиц, выручка в копейках),
+ * поэтому добавление строки не создает объектов, а таблица на миллион ключей занимает около 60 МБ.
+ * Объект не потокобезопасен: при параллельном пересчете у каждой задачи свой накопитель,
+ * а результаты объединяются методом {@link #addAll(SalesAccumulator)}.
+ *
+ * @author Diukarev Sergii
+ * @see ua.com.mangostore.service.impl.SalesRollupServiceImpl
+ */
+public final class SalesAccumulator {
+    /**
+     * Начальная емкость таблицы, степень двойки.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Метка свободной ячейки в массиве дней.
+     */
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] days;
+    private long[] products;
+    private long[] units;
+    private long[] revenue;
+    private int size;
+
+    /**
+     * Конструктор пустого накопителя.
+     */
+    public SalesAccumulator() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Добавляет продажи товара за день.
+     *
+     * @param epochDay  Номер дня от 1970-01-01.
+     * @param productId Код товара.
+     * @param units     Количество единиц.
+     * @param revenue   Выручка в копейках.
+     */
+    public void add(int epochDay, long productId, long units, long revenue) {
+        int index = indexOf(epochDay, productId);
+        this.units[index] += units;
+        this.revenue[index] += revenue;
+        if (days[index] == FREE) {
+            days[index] = epochDay;
+            products[index] = productId;
+            // заполнение не больше 3/4, чтобы цепочки проб оставались короткими
+            if (++size * 4 > days.length * 3) {
+                rehash(days.length * 2);
+            }
+        }
+    }
+
+    /**
+     * Добавляет все продажи другого накопителя.
+     *
+     * @param other Накопитель, который добавляется к этому.
+     */
+    public void addAll(SalesAccumulator other) {
+        for (int i = 0; i < other.days.length; i++) {
+            if (other.days[i] != FREE) {
+                add(other.days[i], other.products[i], other.units[i], other.revenue[i]);
+            }
+        }
+    }
+
+    /**
+     * Передает посетителю все ненулевые строки.
+     *
+     * @param visitor Посетитель строк.
+     */
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < days.length; i++) {
+            if (days[i] != FREE && (units[i] != 0 || revenue[i] != 0)) {
+                visitor.visit(days[i], products[i], units[i], revenue[i]);
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество ключей "день и товар".
+     *
+     * @return Значение типа int.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int indexOf(int epochDay, long productId) {
+        int mask = days.length - 1;
+        int index = hash(epochDay, productId) & mask;
+        while (days[index] != FREE && (days[index] != epochDay || products[index] != productId)) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldDays = days;
+        long[] oldProducts = products;
+        long[] oldUnits = units;
+        long[] oldRevenue = revenue;
+        allocate(capacity);
+        for (int i = 0; i < oldDays.length; i++) {
+            if (oldDays[i] != FREE) {
+                int index = indexOf(oldDays[i], oldProducts[i]);
+                days[index] = oldDays[i];
+                products[index] = oldProducts[i];
+                units[index] = oldUnits[i];
+                revenue[index] = oldRevenue[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        days = new int[capacity];
+        products = new long[capacity];
+        units = new long[capacity];
+        revenue = new long[capacity];
+        Arrays.fill(days, FREE);
+    }
+
+    private static int hash(int epochDay, long productId) {
+        long h = productId * 0x9E3779B97F4A7C15L + epochDay;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Посетитель строк накопителя.
+     */
+    public interface Visitor {
+        void visit(int epochDay, long productId, long units, long revenue);
+    }
+}
@@ -0,0 +1,154 @@
+package ua.com.mangostore.model;
+
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.Status;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Вклад заказа в сводные таблицы продаж: день оформления заказа, количество единиц
+ * и выручка по каждому товару. Удаленный заказ (статус DELETED) в продажи не входит.
+ * Разность вкладов заказа до и после изменения - приращение, на которое обновляются сводные таблицы.
+ *
+ * @author Diukarev Sergii
+ * @see ua.com.mangostore.service.SalesRollupService
+ */
+public final class SalesContribution {
+    private final long orderId;
+    private final LocalDate saleDate;
+    private final Map<Long, Line> lines;
+
+    private SalesContribution(long orderId, LocalDate saleDate, Map<Long, Line> lines) {
+        this.orderId = orderId;
+        this.saleDate = saleDate;
+        this.lines = lines;
+    }
+
+    /**
+     * Возвращает вклад заказа в продажи.
+     *
+     * @param order Заказ с загруженными торговыми позициями и товарами.
+     * @return Объект класса {@link SalesContribution}.
+     */
+    public static SalesContribution of(Order order) {
+        Map<Long, Line> lines = new TreeMap<>();
+        if (order.getStatus() != Status.DELETED) {
+            for (SalePosition position : order.getSalePositions()) {
+                Product product = position.getProduct();
+                lines.merge(product.getProductId(),
+                        new Line(product.getBrand(), position.getNumber(), position.getPrice().getAmount()), Line::plus);
+            }
+        }
+        return new SalesContribution(order.getOrderId(), order.getCreatedAt().toLocalDate(), lines);
+    }
+
+    /**
+     * Возвращает разность вкладов: текущий вклад минус предыдущий.
+     *
+     * @param previous Предыдущий вклад того же заказа или null.
+     * @return Объект класса {@link SalesContribution} - приращение продаж.
+     */
+    public SalesContribution minus(SalesContribution previous) {
+        if (previous == null) {
+            return this;
+        }
+        Map<Long, Line> delta = new TreeMap<>(lines);
+        for (Map.Entry<Long, Line> line : previous.lines.entrySet()) {
+            delta.merge(line.getKey(), line.getValue().negate(), Line::plus);
+        }
+        delta.values().removeIf(Line::isZero);
+        return new SalesContribution(orderId, saleDate, delta);
+    }
+
+    /**
+     * Возвращает вклад с противоположным знаком - приращение продаж при удалении заказа.
+     *
+     * @return Объект класса {@link SalesContribution}.
+     */
+    public SalesContribution negate() {
+        Map<Long, Line> negated = new TreeMap<>();
+        for (Map.Entry<Long, Line> line : lines.entrySet()) {
+            negated.put(line.getKey(), line.getValue().negate());
+        }
+        return new SalesContribution(orderId, saleDate, negated);
+    }
+
+    /**
+     * Возвращает вклад по производителям.
+     *
+     * @return Объект типа {@link Map} - производитель и его строка продаж, упорядоченные по производителю.
+     */
+    public Map<String, Line> byBrand() {
+        Map<String, Line> brands = new TreeMap<>();
+        for (Line line : lines.values()) {
+            brands.merge(line.getBrand(), line, Line::plus);
+        }
+        brands.values().removeIf(Line::isZero);
+        return brands;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    /**
+     * Возвращает вклад по товарам.
+     *
+     * @return Объект типа {@link Map} - код товара и его строка продаж, упорядоченные по коду товара.
+     */
+    public Map<Long, Line> getLines() {
+        return Collections.unmodifiableMap(lines);
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    /**
+     * Строка вклада: производитель, количество единиц и выручка в копейках.
+     */
+    public static final class Line {
+        private final String brand;
+        private final long units;
+        private final long revenue;
+
+        public Line(String brand, long units, long revenue) {
+            this.brand = brand != null ? brand : "";
+            this.units = units;
+            this.revenue = revenue;
+        }
+
+        private Line plus(Line other) {
+            return new Line(brand, units + other.units, revenue + other.revenue);
+        }
+
+        private Line negate() {
+            return new Line(brand, -units, -revenue);
+        }
+
+        private boolean isZero() {
+            return units == 0 && revenue == 0;
+        }
+
+        public String getBrand() {
+            return brand;
+        }
+
+        public long getUnits() {
+            return units;
+        }
+
+        public long getRevenue() {
+            return revenue;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ua.com.mangostore.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Состояние пересчета сводных таблиц продаж на момент запроса: сколько диапазонов кодов заказов
+ * прочитано из общего числа, сколько прочитано торговых позиций, время начала и окончания
+ * и текст ошибки, если пересчет не удался.
+ *
+ * @author Diukarev Sergii
+ * @see ua.com.mangostore.service.SalesRollupService#getRebuildProgress()
+ */
+public final class SalesRebuildProgress {
+    /**
+     * Пересчет еще не запускался.
+     */
+    public static final SalesRebuildProgress IDLE = new SalesRebuildProgress(false, 0, 0, 0, null, null, null);
+
+    private final boolean running;
+    private final int chunksDone;
+    private final int chunksTotal;
+    private final long lines;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final String error;
+
+    /**
+     * Конструктор для инициализации основных переменных.
+     *
+     * @param running     Выполняется ли пересчет.
+     * @param chunksDone  Количество прочитанных диапазонов.
+     * @param chunksTotal Общее количество диапазонов.
+     * @param lines       Количество прочитанных торговых позиций.
+     * @param startedAt   Время начала.
+     * @param finishedAt  Время окончания или null.
+     * @param error       Текст ошибки или null.
+     */
+    public SalesRebuildProgress(boolean running, int chunksDone, int chunksTotal, long lines,
+                                LocalDateTime startedAt, LocalDateTime finishedAt, String error) {
+        this.running = running;
+        this.chunksDone = chunksDone;
+        this.chunksTotal = chunksTotal;
+        this.lines = lines;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    /**
+     * Возвращает процент прочитанных диапазонов.
+     *
+     * @return Значение типа int от 0 до 100.
+     */
+    public int getPercent() {
+        return chunksTotal > 0 ? (int) (chunksDone * 100L / chunksTotal) : (finishedAt != null ? 100 : 0);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getChunksDone() {
+        return chunksDone;
+    }
+
+    public int getChunksTotal() {
+        return chunksTotal;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,58 @@
+package ua.com.mangostore.model;
+
+/**
+ * Строка отчета о продажах: товар или производитель, количество проданных единиц и выручка за период.
+ * Заполняется запросом "select new" по сводным таблицам продаж.
+ *
+ * @author Diukarev Sergii
+ * @see ua.com.mangostore.entity.ProductSales
+ * @see ua.com.mangostore.entity.BrandSales
+ */
+public final class SalesRow {
+    private final String title;
+    private final String brand;
+    private final long units;
+    private final Money revenue;
+
+    /**
+     * Конструктор строки отчета по производителям.
+     *
+     * @param brand   Производитель.
+     * @param units   Количество единиц.
+     * @param revenue Выручка в копейках.
+     */
+    public SalesRow(String brand, long units, long revenue) {
+        this(brand, brand, units, revenue);
+    }
+
+    /**
+     * Конструктор строки отчета по товарам.
+     *
+     * @param title   Название товара.
+     * @param brand   Производитель.
+     * @param units   Количество единиц.
+     * @param revenue Выручка в копейках.
+     */
+    public SalesRow(String title, String brand, long units, long revenue) {
+        this.title = title;
+        this.brand = brand;
+        this.units = units;
+        this.revenue = Money.ofKopecks(revenue);
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public Money getRevenue() {
+        return revenue;
+    }
+}
@@ -4,19 +4,22 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.WebApplicationContext;
-import ua.com.mangostore.entity.Product;
 import ua.com.mangostore.entity.SalePosition;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Класс описывает корзину товаров.
  * Реализует интерфейс Serializable, может быть сериализован.
  * Помечен аннотациями @Component указывает, что клас является компонентом фреймворка Spring;
  * и @Scope - область видимости бина "session" (один экземпляр бина для каждой сессии).
+ * Одна сессия может обслуживать несколько параллельных запросов (несколько вкладок, двойной клик),
+ * поэтому изменения корзины выполняются под монитором самой корзины (блокировка только в пределах
+ * одной сессии), а чтение идет без блокировок: список торговых позиций - {@link CopyOnWriteArrayList},
+ * количество товаров и цена корзины хранятся в volatile-счетчиках, которые пересчитываются при изменении.
  *
  * @author Diukarev Sergii
  * @see SalePosition
@@ -31,8 +34,24 @@ public class ShoppingCart implements Serializable {
 
     /**
      * Список торговых позиций, которые сделал клиент, но пока не оформил заказ.
+     * Итерация по списку не требует блокировки и не бросает ConcurrentModificationException.
      */
-    private List<SalePosition> salePositions = new ArrayList<>();
+    private final List<SalePosition> salePositions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Количество товаров в корзине, пересчитывается при каждом изменении корзины.
+     */
+    private volatile int size;
+
+    /**
+     * Цена корзины, пересчитывается при каждом изменении корзины.
+     */
+    private volatile Money price = Money.ZERO;
+
+    /**
+     * Цена корзины в отформатированном виде, пересчитывается вместе с ценой.
+     */
+    private volatile String formatPrice = Money.ZERO.format();
 
     /**
      * Конструктр без параметров.
@@ -48,7 +67,7 @@ public class ShoppingCart implements Serializable {
      */
     public ShoppingCart(List<SalePosition> salePositions) {
         super();
-        this.salePositions = salePositions;
+        setSalePositions(salePositions);
     }
 
     /**
@@ -80,14 +99,15 @@ public class ShoppingCart implements Serializable {
      *
      * @param salePosition Торговая позиция, которая будет добавлена в корзину.
      */
-    public void addSalePosition(SalePosition salePosition) {
+    public synchronized void addSalePosition(SalePosition salePosition) {
         if (salePosition != null) {
-            if (!salePositions.contains(salePosition)) {
+            int index = salePositions.indexOf(salePosition);
+            if (index == -1) {
                 salePositions.add(salePosition);
             } else {
-                int index = salePositions.indexOf(salePosition);
                 salePositions.get(index).numberIncr();
             }
+            recount();
         }
     }
 
@@ -96,7 +116,7 @@ public class ShoppingCart implements Serializable {
      *
      * @param salePositions Список торговых позиций, которые будут добавлены в корзину.
      */
-    public void addSalePositions(List<SalePosition> salePositions) {
+    public synchronized void addSalePositions(List<SalePosition> salePositions) {
         for (SalePosition salePosition : salePositions) {
             addSalePosition(salePosition);
         }
@@ -107,8 +127,10 @@ public class ShoppingCart implements Serializable {
      *
      * @param salePosition Торговая позиция для удаления из корзины.
      */
-    public void removeSalePosition(SalePosition salePosition) {
-        salePositions.remove(salePosition);
+    public synchronized void removeSalePosition(SalePosition salePosition) {
+        if (salePositions.remove(salePosition)) {
+            recount();
+        }
     }
 
     /**
@@ -116,15 +138,18 @@ public class ShoppingCart implements Serializable {
      *
      * @param salePositions Торговые позиции для удаления из корзины.
      */
-    public void removeSalePositions(List<SalePosition> salePositions) {
-        this.salePositions.removeAll(salePositions);
+    public synchronized void removeSalePositions(List<SalePosition> salePositions) {
+        if (this.salePositions.removeAll(salePositions)) {
+            recount();
+        }
     }
 
     /**
      * Очищает корзину. Удаляет все торговые позиции в корзине.
      */
-    public void clearSalePositions() {
+    public synchronized void clearSalePositions() {
         salePositions.clear();
+        recount();
     }
 
     /**
@@ -134,29 +159,32 @@ public class ShoppingCart implements Serializable {
      * @return Объект типа {@link List} - список торговых позиций только для чтения или пустой список.
      */
     public List<SalePosition> getSalePositions() {
-        return salePositions == null || salePositions.isEmpty() ? Collections.EMPTY_LIST : Collections.unmodifiableList(salePositions);
+        return salePositions.isEmpty() ? Collections.<SalePosition>emptyList() : Collections.unmodifiableList(salePositions);
     }
 
     /**
      * Устанавливает список торговых позиций.
+     * Позиции копируются в список корзины, одинаковые позиции объединяются.
      *
      * @param salePositions Список торговых позиций .
      */
-    public void setSalePositions(List<SalePosition> salePositions) {
-        this.salePositions = salePositions;
+    public synchronized void setSalePositions(List<SalePosition> salePositions) {
+        this.salePositions.clear();
+        if (salePositions != null) {
+            for (SalePosition salePosition : salePositions) {
+                addSalePosition(salePosition);
+            }
+        }
+        recount();
     }
 
     /**
      * Возвращает цену корзины - цена всех торговых позиций.
      *
-     * @return Значение типа double - цена корзины.
+     * @return Значение типа {@link Money} - цена корзины.
      */
-    public double getPrice() {
-        double sum = 0;
-        for (SalePosition salePosition : salePositions) {
-            sum += salePosition.getPrice();
-        }
-        return sum;
+    public Money getPrice() {
+        return price;
     }
 
     /**
@@ -165,7 +193,7 @@ public class ShoppingCart implements Serializable {
      * @return Значение типа String - цена корзины в отформатированном виде.
      */
     public String getFormatPrice() {
-        return Product.df.format(getPrice());
+        return formatPrice;
     }
 
     /**
@@ -174,11 +202,24 @@ public class ShoppingCart implements Serializable {
      * @return Значение типа int - количество товаров в корзине.
      */
     public int getSize() {
+        return size;
+    }
+
+    /**
+     * Пересчитывает количество товаров и цену корзины.
+     * Вызывается только под монитором корзины после каждого изменения списка позиций.
+     */
+    private void recount() {
         int size = 0;
+        long price = 0;
         for (SalePosition salePosition : salePositions) {
             size += salePosition.getNumber();
+            price += salePosition.getProduct().getSalePrice().getAmount() * salePosition.getNumber();
         }
-        return size;
+        Money money = Money.ofKopecks(price);
+        this.size = size;
+        this.formatPrice = money.format();
+        this.price = money;
     }
 
 }
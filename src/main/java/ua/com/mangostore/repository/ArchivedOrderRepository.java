@@ -0,0 +1,13 @@
+package ua.com.mangostore.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.com.mangostore.entity.ArchivedOrder;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    @Query("select distinct a from ArchivedOrder a left join fetch a.salePositions sp left join fetch sp.product"
+            + " left join fetch a.customer left join fetch a.employee left join fetch a.courier"
+            + " where a.orderId = :id")
+    ArchivedOrder findById(@Param("id") long id);
+}
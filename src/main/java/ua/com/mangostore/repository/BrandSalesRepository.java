@@ -0,0 +1,30 @@
+package ua.com.mangostore.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.com.mangostore.entity.BrandSales;
+import ua.com.mangostore.model.SalesRow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BrandSalesRepository extends JpaRepository<BrandSales, Long> {
+    @Modifying
+    @Query("update BrandSales s set s.units = s.units + :units, s.revenue = s.revenue + :revenue"
+            + " where s.generation = :generation and s.saleDate = :saleDate and s.brand = :brand")
+    int add(@Param("generation") long generation, @Param("saleDate") LocalDate saleDate,
+            @Param("brand") String brand, @Param("units") long units, @Param("revenue") long revenue);
+
+    @Query("select new ua.com.mangostore.model.SalesRow(s.brand, sum(s.units), sum(s.revenue))"
+            + " from BrandSales s where s.generation = :generation"
+            + " and s.saleDate >= :from and s.saleDate <= :to"
+            + " group by s.brand order by sum(s.revenue) desc")
+    List<SalesRow> sumByBrand(@Param("generation") long generation,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from BrandSales s where s.generation <> :generation")
+    int deleteOtherGenerations(@Param("generation") long generation);
+}
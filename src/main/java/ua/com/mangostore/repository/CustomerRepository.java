@@ -5,10 +5,15 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ua.com.mangostore.entity.Customer;
 
+import java.util.List;
+
 public interface CustomerRepository extends JpaRepository<Customer, Long>{
     @Query("select c from Customer c where c.name = :name")
     Customer findByName(@Param("name") String name);
 
-    @Query("select c from Customer c where c.email = :email")
-    Customer findByEmail(@Param("email") String email);
+    @Query("select c from Customer c where c.emailKey = :emailKey order by c.customerId")
+    List<Customer> findByEmailKey(@Param("emailKey") String emailKey);
+
+    @Query("select c from Customer c where c.phoneKey = :phoneKey")
+    Customer findByPhoneKey(@Param("phoneKey") String phoneKey);
 }
@@ -1,11 +1,18 @@
 package ua.com.mangostore.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ua.com.mangostore.entity.Delivery;
 
+import java.util.Collection;
+
 public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
-    @Query("select d from Delivery d where d.deliveryId = :id")
+    @Query("select d from Delivery d left join fetch d.employee where d.deliveryId = :id")
     Delivery findById(@Param("id") long id);
+
+    @Modifying
+    @Query("delete from Delivery d where d.order.orderId in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -6,6 +6,8 @@ import org.springframework.data.repository.query.Param;
 import ua.com.mangostore.entity.Employee;
 import ua.com.mangostore.entity.Product;
 
+import java.util.List;
+
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     @Query("select e from Employee e where e.fullName = :fullName")
@@ -17,4 +19,7 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     @Query("select e from Employee e where e.employeeId = :id")
     Employee findById(@Param("id") long id);
+
+    @Query("select e.position, count(e) from Employee e group by e.position")
+    List<Object[]> countByPosition();
 }
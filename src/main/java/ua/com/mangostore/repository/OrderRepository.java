@@ -1,11 +1,98 @@
 package ua.com.mangostore.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.OrderTracking;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    @Query("select o from Order o where o.orderId = :id")
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+    @Query("select distinct o from Order o left join fetch o.delivery d left join fetch d.employee"
+            + " left join fetch o.employee left join fetch o.customer"
+            + " left join fetch o.salePositions sp left join fetch sp.product where o.orderId = :id")
     Order findById(@Param("id") long id);
+
+    @Query("select distinct o from Order o left join fetch o.delivery left join fetch o.customer"
+            + " left join fetch o.salePositions sp left join fetch sp.product where o.idempotencyKey = :key")
+    Order findByIdempotencyKey(@Param("key") String key);
+
+    @Query("select new ua.com.mangostore.model.OrderTracking(o.number, o.status, o.createdAt,"
+            + " d.deliveryType, d.deliveryAt, c.phoneKey)"
+            + " from Order o left join o.delivery d left join o.customer c where o.number = :number")
+    OrderTracking findTrackingByNumber(@Param("number") String number);
+
+    @Query("select o from Order o left join fetch o.delivery left join fetch o.customer"
+            + " where o.createdAt >= :from and o.createdAt < :to order by o.createdAt desc")
+    List<Order> findByCreatedAtBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select o.status, count(o) from Order o group by o.status")
+    List<Object[]> countByStatus();
+
+    @Query("select distinct o from Order o left join fetch o.delivery d left join fetch d.employee"
+            + " left join fetch o.customer left join fetch o.salePositions sp left join fetch sp.product"
+            + " where o.status in :statuses order by o.createdAt desc")
+    List<Order> findByStatusIn(@Param("statuses") Collection<Status> statuses);
+
+    @Query("select distinct o from Order o join fetch o.delivery d left join fetch d.employee"
+            + " left join fetch o.customer left join fetch o.salePositions sp left join fetch sp.product"
+            + " where o.status = :status and d.deliveryType in :deliveryTypes order by o.createdAt")
+    List<Order> findByStatusAndDeliveryTypeIn(@Param("status") Status status,
+                                              @Param("deliveryTypes") Collection<DeliveryType> deliveryTypes);
+
+    @Query("select o from Order o join fetch o.delivery d join fetch d.employee e"
+            + " where e.employeeId = :courierId order by o.createdAt desc")
+    List<Order> findByCourierId(@Param("courierId") long courierId);
+
+    @Query("select o from Order o join fetch o.delivery d join fetch d.employee e"
+            + " where e.employeeId = :courierId and d.deliveryAt >= :from and d.deliveryAt < :to order by d.deliveryAt")
+    List<Order> findByCourierIdAndDeliveryAtBetween(@Param("courierId") long courierId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    @Query("select o.orderId from Order o where o.status in :statuses and o.createdAt < :before order by o.orderId")
+    List<Long> findIdsByStatusInAndCreatedAtBefore(@Param("statuses") Collection<Status> statuses,
+                                                   @Param("before") LocalDateTime before, Pageable pageable);
+
+    @Query("select distinct o from Order o left join fetch o.delivery left join fetch o.salePositions"
+            + " where o.orderId in :ids")
+    List<Order> findByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select o.orderId, o.status from Order o where o.orderId in :ids")
+    List<Object[]> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct o from Order o left join fetch o.salePositions sp left join fetch sp.product"
+            + " where o.orderId in :ids")
+    List<Order> findWithSalePositionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Order o set o.status = :status where o.orderId in :ids and o.status = :previous")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("previous") Status previous,
+                           @Param("status") Status status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Order o where o.orderId in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select min(ids.ORDER_ID), max(ids.ORDER_ID)"
+            + " from (select ORDER_ID from Orders union all select ORDER_ID from Archived_Orders) ids",
+            nativeQuery = true)
+    List<Object[]> findIdRangeWithArchive();
+
+    @Query(value = "select o.CREATED_AT, sp.PRODUCT_ID, sp.NUMBER from Orders o"
+            + " join SalePosition sp on sp.ORDER_ID = o.ORDER_ID"
+            + " where o.ORDER_ID >= ?1 and o.ORDER_ID < ?2 and o.STATUS <> 'DELETED'"
+            + " union all"
+            + " select o.CREATED_AT, sp.PRODUCT_ID, sp.NUMBER from Archived_Orders o"
+            + " join Archived_Sale_Positions sp on sp.ORDER_ID = o.ORDER_ID"
+            + " where o.ORDER_ID >= ?1 and o.ORDER_ID < ?2 and o.STATUS <> 'DELETED'",
+            nativeQuery = true)
+    List<Object[]> findSaleLinesWithArchive(long fromId, long toId);
 }
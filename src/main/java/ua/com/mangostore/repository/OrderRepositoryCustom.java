@@ -0,0 +1,25 @@
+package ua.com.mangostore.repository;
+
+import ua.com.mangostore.model.OrderFilter;
+import ua.com.mangostore.model.OrderRow;
+import ua.com.mangostore.repository.impl.OrderRepositoryImpl;
+
+import java.util.List;
+
+/**
+ * Интерфейс описывает запросы к заказам, которые строятся динамически и не выражаются
+ * одним аннотированным запросом {@link OrderRepository}.
+ *
+ * @author Diukarev Sergii
+ * @see OrderRepositoryImpl
+ */
+public interface OrderRepositoryCustom {
+    /**
+     * Возвращает строки консоли заказов, удовлетворяющие фильтру, начиная сразу после курсора фильтра.
+     *
+     * @param filter Фильтр, сортировка и курсор.
+     * @param limit  Максимальное количество строк.
+     * @return Объект типа {@link List} - строки заказов в порядке сортировки фильтра.
+     */
+    List<OrderRow> findRows(OrderFilter filter, int limit);
+}
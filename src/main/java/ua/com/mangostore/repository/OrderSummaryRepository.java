@@ -0,0 +1,57 @@
+package ua.com.mangostore.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.com.mangostore.entity.OrderSummary;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.OrderRow;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+    @Query("select new ua.com.mangostore.model.OrderRow(s.orderId, s.number, s.status, s.createdAt, s.orderPrice,"
+            + " s.deliveryType, s.customerName, s.customerSurname, s.customerPhone, s.city, s.itemCount,"
+            + " s.deliveryAt, s.courierName)"
+            + " from OrderSummary s where s.orderId = :id")
+    OrderRow findRowById(@Param("id") long id);
+
+    @Query("select new ua.com.mangostore.model.OrderRow(s.orderId, s.number, s.status, s.createdAt, s.orderPrice,"
+            + " s.deliveryType, s.customerName, s.customerSurname, s.customerPhone, s.city, s.itemCount,"
+            + " s.deliveryAt, s.courierName)"
+            + " from OrderSummary s where s.status = :status and s.deliveryType in :deliveryTypes"
+            + " order by s.createdAt, s.orderId")
+    List<OrderRow> findRowsByStatusAndDeliveryTypeIn(@Param("status") Status status,
+                                                     @Param("deliveryTypes") Collection<DeliveryType> deliveryTypes);
+
+    @Query("select new ua.com.mangostore.model.OrderRow(s.orderId, s.number, s.status, s.createdAt, s.orderPrice,"
+            + " s.deliveryType, s.customerName, s.customerSurname, s.customerPhone, s.city, s.itemCount,"
+            + " s.deliveryAt, s.courierName)"
+            + " from OrderSummary s where s.courierId = :courierId order by s.createdAt desc")
+    List<OrderRow> findRowsByCourierId(@Param("courierId") long courierId);
+
+    @Query("select new ua.com.mangostore.model.OrderRow(s.orderId, s.number, s.status, s.createdAt, s.orderPrice,"
+            + " s.deliveryType, s.customerName, s.customerSurname, s.customerPhone, s.city, s.itemCount,"
+            + " s.deliveryAt, s.courierName)"
+            + " from OrderSummary s where s.courierId = :courierId and s.deliveryAt >= :from and s.deliveryAt < :to"
+            + " order by s.deliveryAt")
+    List<OrderRow> findRowsByCourierIdAndDeliveryAtBetween(@Param("courierId") long courierId,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("update OrderSummary s set s.courierName = :name where s.courierId = :courierId")
+    int updateCourierName(@Param("courierId") long courierId, @Param("name") String name);
+
+    @Modifying
+    @Query("update OrderSummary s set s.status = :status where s.orderId in :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    @Modifying
+    @Query("delete from OrderSummary s where s.orderId in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
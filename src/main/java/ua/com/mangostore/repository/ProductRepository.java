@@ -1,14 +1,31 @@
 package ua.com.mangostore.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ua.com.mangostore.entity.Product;
 
+import java.util.List;
+
 public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("select p from Product p where p.productTitle = :name")
     Product findByName(@Param("name") String name);
 
     @Query("select p from Product p where p.productId = :id")
     Product findById(@Param("id") long id);
+
+    @Query("select p.productId, p.brand, p.salePrice from Product p")
+    List<Object[]> findPrices();
+
+    @Query("select p.quantity from Product p where p.productId = :id")
+    Integer findQuantityById(@Param("id") long id);
+
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity - :number where p.productId = :id and p.quantity >= :number")
+    int reserve(@Param("id") long id, @Param("number") int number);
+
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity + :number where p.productId = :id")
+    int restock(@Param("id") long id, @Param("number") int number);
 }
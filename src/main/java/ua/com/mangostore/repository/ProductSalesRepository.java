@@ -0,0 +1,30 @@
+package ua.com.mangostore.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.com.mangostore.entity.ProductSales;
+import ua.com.mangostore.model.SalesRow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ProductSalesRepository extends JpaRepository<ProductSales, Long> {
+    @Modifying
+    @Query("update ProductSales s set s.units = s.units + :units, s.revenue = s.revenue + :revenue"
+            + " where s.generation = :generation and s.saleDate = :saleDate and s.product.productId = :productId")
+    int add(@Param("generation") long generation, @Param("saleDate") LocalDate saleDate,
+            @Param("productId") long productId, @Param("units") long units, @Param("revenue") long revenue);
+
+    @Query("select new ua.com.mangostore.model.SalesRow(p.productTitle, p.brand, sum(s.units), sum(s.revenue))"
+            + " from ProductSales s join s.product p where s.generation = :generation"
+            + " and s.saleDate >= :from and s.saleDate <= :to"
+            + " group by p.productId, p.productTitle, p.brand order by sum(s.revenue) desc")
+    List<SalesRow> sumByProduct(@Param("generation") long generation,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from ProductSales s where s.generation <> :generation")
+    int deleteOtherGenerations(@Param("generation") long generation);
+}
@@ -1,11 +1,18 @@
 package ua.com.mangostore.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ua.com.mangostore.entity.SalePosition;
 
+import java.util.Collection;
+
 public interface SalePositonRepository extends JpaRepository<SalePosition, Long> {
     @Query("select s from SalePosition s where s.salePositionId = :id")
     SalePosition findById(@Param("id") long id);
+
+    @Modifying
+    @Query("delete from SalePosition s where s.order.orderId in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
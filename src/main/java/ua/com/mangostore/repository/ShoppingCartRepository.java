@@ -2,6 +2,7 @@ package ua.com.mangostore.repository;
 
 import ua.com.mangostore.repository.impl.*;
 import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.model.Money;
 import ua.com.mangostore.model.ShoppingCart;
 
 import java.util.List;
@@ -57,9 +58,9 @@ public interface ShoppingCartRepository {
     /**
      * Возвращает цену корзины - цена всех торговых позиций.
      *
-     * @return Значение типа double - цена корзины.
+     * @return Объект класса {@link Money} - цена корзины.
      */
-    double getPrice();
+    Money getPrice();
 
     /**
      * Возвращает цену корзины в отформатированном виде - цена всех продаж.
@@ -0,0 +1,110 @@
+package ua.com.mangostore.repository.impl;
+
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.OrderSummary;
+import ua.com.mangostore.model.OrderFilter;
+import ua.com.mangostore.model.OrderRow;
+import ua.com.mangostore.model.OrderSort;
+import ua.com.mangostore.repository.OrderRepository;
+import ua.com.mangostore.repository.OrderRepositoryCustom;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс реализует методы интерфейса {@link OrderRepositoryCustom}. Spring Data JPA подключает
+ * реализацию к {@link OrderRepository} по имени класса.
+ * Строки консоли заказов выбираются одним JPQL-запросом "select new {@link OrderRow}" только
+ * из нужных колонок одной таблицы сводок заказов "Order_Summary" ({@link OrderSummary});
+ * условия фильтра добавляются в запрос только если заданы, а следующая страница выбирается
+ * сравнением строк "(ключ, код) < (:ключ, :код)" вместо OFFSET, которое база данных проверяет
+ * как одну границу индекса.
+ * Запросы опираются на индексы таблицы сводок: ("CREATED_AT", "ORDER_ID") и ("ORDER_PRICE", "ORDER_ID")
+ * без фильтров и с периодом, ("STATUS", "CREATED_AT", "ORDER_ID") и ("STATUS", "ORDER_PRICE", "ORDER_ID")
+ * со статусом, ("DELIVERY_TYPE", "CREATED_AT", "ORDER_ID") со способом доставки, ("PHONE_KEY", "CREATED_AT"),
+ * ("EMAIL_KEY", "CREATED_AT") и ("SURNAME_KEY", "CREATED_AT") с покупателем. Сортировка по стоимости
+ * внутри периода читает заказы периода по индексу даты и выбирает из них первые по стоимости,
+ * поэтому период для нее ограничен {@link OrderFilter#MAX_PRICE_SORT_DAYS} днями
+ * (см. {@link OrderFilter#isPriceSortPeriodTooLong()}).
+ *
+ * @author Diukarev Sergii
+ * @see OrderFilter
+ */
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<OrderRow> findRows(OrderFilter filter, int limit) {
+        StringBuilder jpql = new StringBuilder("select new ua.com.mangostore.model.OrderRow(s.orderId, s.number,"
+                + " s.status, s.createdAt, s.orderPrice, s.deliveryType, s.customerName, s.customerSurname,"
+                + " s.customerPhone, s.city, s.itemCount, s.deliveryAt, s.courierName)"
+                + " from OrderSummary s where 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (filter.getStatus() != null) {
+            jpql.append(" and s.status = :status");
+            parameters.put("status", filter.getStatus());
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" and s.createdAt >= :from");
+            parameters.put("from", filter.getFrom().atStartOfDay());
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" and s.createdAt < :to");
+            parameters.put("to", filter.getTo().plusDays(1).atStartOfDay());
+        }
+        if (filter.getDeliveryType() != null) {
+            jpql.append(" and s.deliveryType = :deliveryType");
+            parameters.put("deliveryType", filter.getDeliveryType());
+        }
+        if (filter.getCustomer() != null) {
+            appendCustomer(jpql, parameters, filter.getCustomer());
+        }
+
+        OrderSort sort = filter.getSort();
+        String key = sort.isByPrice() ? "s.orderPrice" : "s.createdAt";
+        String direction = sort.isDescending() ? "desc" : "asc";
+        if (filter.hasCursor()) {
+            String after = sort.isDescending() ? "<" : ">";
+            jpql.append(" and (").append(key).append(", s.orderId) ").append(after).append(" (:afterKey, :afterId)");
+            parameters.put("afterKey", sort.isByPrice() ? filter.getAfterPrice() : filter.getAfterCreatedAt());
+            parameters.put("afterId", filter.getAfterOrderId());
+        }
+        jpql.append(" order by ").append(key).append(' ').append(direction)
+                .append(", s.orderId ").append(direction);
+
+        TypedQuery<OrderRow> query = em.createQuery(jpql.toString(), OrderRow.class);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            query.setParameter(parameter.getKey(), parameter.getValue());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Добавляет условие по покупателю: по индексированным ключам телефона или электронной почты,
+     * иначе - по началу фамилии в нижнем регистре (индексированный ключ фамилии).
+     *
+     * @param jpql       Текст запроса.
+     * @param parameters Параметры запроса.
+     * @param customer   Телефон, электронная почта или начало фамилии покупателя.
+     */
+    private static void appendCustomer(StringBuilder jpql, Map<String, Object> parameters, String customer) {
+        String phoneKey = Customer.normalizePhone(customer);
+        if (customer.indexOf('@') >= 0) {
+            jpql.append(" and s.emailKey = :emailKey");
+            parameters.put("emailKey", Customer.normalizeEmail(customer));
+        } else if (phoneKey != null && phoneKey.length() == 10 && customer.matches("[+\\d\\s()-]+")) {
+            jpql.append(" and s.phoneKey = :phoneKey");
+            parameters.put("phoneKey", phoneKey);
+        } else {
+            jpql.append(" and s.surnameKey like :surname");
+            parameters.put("surname", Customer.normalizeSurname(customer).replace("%", "").replace("_", "") + "%");
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import ua.com.mangostore.repository.ShoppingCartRepository;
 import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.model.Money;
 import ua.com.mangostore.model.ShoppingCart;
 
 import java.util.List;
@@ -96,10 +97,10 @@ public class ShoppingCartRepositoryImpl implements ShoppingCartRepository {
     /**
      * Возвращает цену корзины - цена всех продаж.
      *
-     * @return Значение типа double - цена корзины.
+     * @return Объект класса {@link Money} - цена корзины.
      */
     @Override
-    public double getPrice() {
+    public Money getPrice() {
         return shoppingCart.getPrice();
     }
 
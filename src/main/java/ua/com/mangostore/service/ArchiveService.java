@@ -0,0 +1,13 @@
+package ua.com.mangostore.service;
+
+import ua.com.mangostore.entity.Order;
+
+import java.time.LocalDateTime;
+
+public interface ArchiveService {
+
+    int archive();
+    int archiveBefore(LocalDateTime before);
+    Order getArchivedById(long id);
+
+}
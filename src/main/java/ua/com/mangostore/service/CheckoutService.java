@@ -0,0 +1,55 @@
+package ua.com.mangostore.service;
+
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.model.CheckoutResult;
+
+import java.util.List;
+
+/**
+ * Интерфейс сервисного слоя для оформления заказа.
+ * Сохраняет заказ целиком (покупатель, заказ, доставка, торговые позиции) в одной транзакции.
+ * Повторные запросы с тем же ключом идемпотентности возвращают уже оформленный заказ.
+ *
+ * @author Diukarev Sergii
+ * @see Order
+ */
+public interface CheckoutService {
+
+    /**
+     * Оформляет и сохраняет заказ.
+     *
+     * @param customer      Покупатель, оформляющий заказ.
+     * @param salePositions Торговые позиции заказа.
+     * @param deliveryType  Тип доставки (название константы {@link ua.com.mangostore.entity.enums.DeliveryType}).
+     * @return Объект класса {@link Order} - сохраненный заказ.
+     */
+    Order checkout(Customer customer, List<SalePosition> salePositions, String deliveryType);
+
+    /**
+     * Оформляет и сохраняет заказ не более одного раза для ключа идемпотентности.
+     * Ключ приходит от клиента, поэтому действует только в пределах области (сессии покупателя):
+     * тот же ключ из другой сессии не находит чужой заказ.
+     * Если заказ с таким ключом в той же области уже оформлен (или оформляется параллельным
+     * запросом), возвращается этот заказ, а новый не создается.
+     *
+     * @param customer       Покупатель, оформляющий заказ.
+     * @param salePositions  Торговые позиции заказа.
+     * @param deliveryType   Тип доставки (название константы {@link ua.com.mangostore.entity.enums.DeliveryType}).
+     * @param scope          Область ключа, например код сессии покупателя.
+     * @param idempotencyKey Ключ идемпотентности запроса или null.
+     * @return Объект класса {@link CheckoutResult} - заказ и признак того, что он создан этим вызовом.
+     */
+    CheckoutResult checkout(Customer customer, List<SalePosition> salePositions, String deliveryType,
+                            String scope, String idempotencyKey);
+
+    /**
+     * Возвращает заказ, оформленный с ключом идемпотентности в той же области.
+     *
+     * @param scope          Область ключа, например код сессии покупателя.
+     * @param idempotencyKey Ключ идемпотентности запроса.
+     * @return Объект класса {@link Order} - оформленный заказ или null.
+     */
+    Order getByIdempotencyKey(String scope, String idempotencyKey);
+}
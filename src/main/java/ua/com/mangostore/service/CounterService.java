@@ -0,0 +1,22 @@
+package ua.com.mangostore.service;
+
+import ua.com.mangostore.entity.enums.EmployeePosition;
+import ua.com.mangostore.entity.enums.Status;
+
+import java.util.Map;
+
+public interface CounterService {
+
+    long getOrderCount();
+    long getOrderCount(Status status);
+    Map<Status, Long> getOrderCounts();
+    long getEmployeeCount(EmployeePosition position);
+    Map<EmployeePosition, Long> getEmployeeCounts();
+    void onOrderAdded(Status status);
+    void onOrderStatusChanged(Status previous, Status current);
+    void onOrdersStatusChanged(Map<Status, Long> previous, Status current);
+    void onOrderRemoved(Status status);
+    void onOrdersChanged();
+    void onEmployeesChanged();
+
+}
@@ -2,6 +2,7 @@ package ua.com.mangostore.service;
 
 import ua.com.mangostore.entity.Delivery;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface DeliveryService {
@@ -10,6 +11,7 @@ public interface DeliveryService {
     void delete(long id);
     Delivery getById(long id);
     List<Delivery> getByEmployeeId(long id);
+    List<Delivery> getByEmployeeIdAndDate(long id, LocalDate date);
     Delivery editDelivery(Delivery delivery);
     List<Delivery> getAll();
 }
@@ -1,7 +1,14 @@
 package ua.com.mangostore.service;
 
 import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.OrderFilter;
+import ua.com.mangostore.model.OrderPage;
+import ua.com.mangostore.model.OrderRow;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderService {
@@ -10,6 +17,13 @@ public interface OrderService {
     void delete(long id);
     Order getById(long id);
     Order editOrder(Order order);
+    int editStatuses(Collection<Long> ids, Status status);
     List<Order> getAll();
+    List<Order> getByPeriod(LocalDate from, LocalDate to);
+    List<Order> getByStatuses(Collection<Status> statuses);
+    List<Order> getByStatusAndDeliveryTypes(Status status, Collection<DeliveryType> deliveryTypes);
+    OrderPage getPage(OrderFilter filter, int size);
+    List<OrderRow> getRowsByStatusAndDeliveryTypes(Status status, Collection<DeliveryType> deliveryTypes);
+    List<OrderRow> getRowsByCourier(long courierId, LocalDate date);
     int getSize();
 }
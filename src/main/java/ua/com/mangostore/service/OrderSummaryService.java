@@ -0,0 +1,18 @@
+package ua.com.mangostore.service;
+
+import ua.com.mangostore.entity.Delivery;
+import ua.com.mangostore.entity.Employee;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.enums.Status;
+
+import java.util.Collection;
+
+public interface OrderSummaryService {
+
+    void onOrderPlaced(Order order);
+    void onOrderChanged(Order order);
+    void onOrdersRemoved(Collection<Long> orderIds);
+    void onOrdersStatusChanged(Collection<Long> orderIds, Status status);
+    void onDeliveryChanged(Delivery delivery);
+    void onEmployeeChanged(Employee employee);
+}
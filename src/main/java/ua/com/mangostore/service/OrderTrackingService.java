@@ -0,0 +1,8 @@
+package ua.com.mangostore.service;
+
+import ua.com.mangostore.model.OrderTracking;
+
+public interface OrderTrackingService {
+
+    OrderTracking track(String number, String phone, String client);
+}
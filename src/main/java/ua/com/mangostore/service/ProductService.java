@@ -10,6 +10,7 @@ public interface ProductService {
     void delete(long id);
     Product getByName(String name);
     Product getById(long id);
+    Product getForUpdate(long id);
     Product editProduct(Product product);
     List<Product> getAll();
 
@@ -0,0 +1,22 @@
+package ua.com.mangostore.service;
+
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.model.SalesContribution;
+import ua.com.mangostore.model.SalesRebuildProgress;
+import ua.com.mangostore.model.SalesRow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesRollupService {
+
+    void onOrderPlaced(Order order);
+    void onOrderChanged(SalesContribution before, Order after);
+    void onOrderRemoved(SalesContribution before);
+    List<SalesRow> getByBrand(LocalDate from, LocalDate to);
+    List<SalesRow> getByProduct(LocalDate from, LocalDate to);
+    boolean startRebuild();
+    void rebuild();
+    SalesRebuildProgress getRebuildProgress();
+
+}
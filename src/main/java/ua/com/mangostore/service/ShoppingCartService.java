@@ -1,6 +1,7 @@
 package ua.com.mangostore.service;
 
 import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.model.Money;
 import ua.com.mangostore.model.ShoppingCart;
 
 import java.util.List;
@@ -50,9 +51,9 @@ public interface ShoppingCartService {
     /**
      * Возвращает цену корзины - цена всех продаж.
      *
-     * @return Значение типа double - цена корзины.
+     * @return Объект класса {@link Money} - цена корзины.
      */
-    double getPrice();
+    Money getPrice();
 
     /**
      * Возвращает цену корзины в отформатированном виде- цена всех продаж.
@@ -0,0 +1,15 @@
+package ua.com.mangostore.service;
+
+import ua.com.mangostore.entity.SalePosition;
+
+import java.util.List;
+import java.util.Map;
+
+public interface StockService {
+
+    void reserve(List<SalePosition> salePositions);
+    void release(Map<Long, Integer> numbers);
+    void restock(long productId, int number);
+    int getAvailable(long productId);
+
+}
@@ -0,0 +1,174 @@
+package ua.com.mangostore.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.com.mangostore.entity.ArchivedOrder;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.repository.ArchivedOrderRepository;
+import ua.com.mangostore.repository.DeliveryRepository;
+import ua.com.mangostore.repository.OrderRepository;
+import ua.com.mangostore.repository.SalePositonRepository;
+import ua.com.mangostore.service.ArchiveService;
+import ua.com.mangostore.service.CounterService;
+import ua.com.mangostore.service.OrderSummaryService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс сервисного слоя для переноса выполненных и удаленных заказов в архив.
+ * Заказы со статусом CLOSED или DELETED старше заданного возраста переносятся из таблиц
+ * "Orders", "Deliveries" и "SalePosition" в таблицы "Archived_Orders" и "Archived_Sale_Positions",
+ * поэтому рабочие таблицы и их индексы содержат только актуальные заказы.
+ * Перенос выполняется пачками по {@link #batchSize} заказов, каждая пачка - отдельной транзакцией:
+ * архивные строки вставляются пакетом, а рабочие удаляются тремя запросами "delete ... where id in".
+ * Архивирование запускается в фоновом потоке "order-archiver" каждые {@link #intervalMinutes} минут.
+ * Настройки задаются системными свойствами "mangostore.archive.age.days" (возраст заказа, по-умолчанию 90),
+ * "mangostore.archive.batch.size" (размер пачки, по-умолчанию 500) и "mangostore.archive.interval.minutes"
+ * (период запуска, по-умолчанию 60, 0 - не запускать автоматически).
+ *
+ * @author Diukarev Sergii
+ * @see ArchivedOrder
+ */
+@Service
+public class ArchiveServiceImpl implements ArchiveService {
+    private static final Logger LOG = LoggerFactory.getLogger(ArchiveServiceImpl.class);
+
+    /**
+     * Статусы заказов, которые переносятся в архив.
+     */
+    private static final Set<Status> ARCHIVED_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(Status.CLOSED, Status.DELETED));
+
+    private final int ageDays = Integer.getInteger("mangostore.archive.age.days", 90);
+    private final int batchSize = Integer.getInteger("mangostore.archive.batch.size", 500);
+    private final int intervalMinutes = Integer.getInteger("mangostore.archive.interval.minutes", 60);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private SalePositonRepository salePositonRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (intervalMinutes > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "order-archiver");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::runScheduled, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public int archive() {
+        return archiveBefore(LocalDateTime.now().minusDays(ageDays));
+    }
+
+    @Override
+    public int archiveBefore(LocalDateTime before) {
+        int total = 0;
+        int archived;
+        do {
+            archived = transactionTemplate.execute(status -> archiveBatch(before));
+            total += archived;
+        } while (archived == batchSize && !Thread.currentThread().isInterrupted());
+        if (total > 0) {
+            counterService.onOrdersChanged();
+        }
+        return total;
+    }
+
+    @Override
+    @Transactional
+    public Order getArchivedById(long id) {
+        ArchivedOrder archivedOrder = archivedOrderRepository.findById(id);
+        return archivedOrder != null ? archivedOrder.toOrder() : null;
+    }
+
+    /**
+     * Переносит в архив одну пачку заказов. Выполняется в транзакции.
+     *
+     * @param before Заказы, созданные раньше этого момента, переносятся в архив.
+     * @return Значение типа int - количество перенесенных заказов.
+     */
+    private int archiveBatch(LocalDateTime before) {
+        List<Long> ids = orderRepository.findIdsByStatusInAndCreatedAtBefore(ARCHIVED_STATUSES, before,
+                new PageRequest(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime archivedAt = LocalDateTime.now();
+        for (Order order : orderRepository.findByIdIn(ids)) {
+            em.persist(ArchivedOrder.of(order, archivedAt));
+        }
+        em.flush();
+        salePositonRepository.deleteByOrderIds(ids);
+        deliveryRepository.deleteByOrderIds(ids);
+        orderRepository.deleteByIdIn(ids);
+        orderSummaryService.onOrdersRemoved(ids);
+        return ids.size();
+    }
+
+    /**
+     * Запуск архивирования по расписанию. Ошибка не останавливает следующие запуски.
+     */
+    private void runScheduled() {
+        try {
+            int archived = archive();
+            if (archived > 0) {
+                LOG.info("Archived " + archived + " orders older than " + ageDays + " days");
+            }
+        } catch (RuntimeException ex) {
+            LOG.error("Order archiving failed", ex);
+        }
+    }
+}
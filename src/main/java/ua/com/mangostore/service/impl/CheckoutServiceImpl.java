@@ -0,0 +1,538 @@
+package ua.com.mangostore.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Delivery;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Recipient;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.event.OrderPlacedEvent;
+import ua.com.mangostore.journal.OrderChangeRecorder;
+import ua.com.mangostore.model.CheckoutResult;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.repository.OrderRepository;
+import ua.com.mangostore.service.CheckoutService;
+import ua.com.mangostore.service.CounterService;
+import ua.com.mangostore.service.CustomerService;
+import ua.com.mangostore.service.OrderSummaryService;
+import ua.com.mangostore.service.SalesRollupService;
+import ua.com.mangostore.service.StockService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Класс сервисного слоя для оформления заказа.
+ * Весь агрегат заказа сохраняется одной транзакцией: заказ сохраняется без промежуточного flush,
+ * покупатель, доставка и торговые позиции сохраняются каскадно, а все INSERT отправляются
+ * в базу данных пакетами (hibernate.jdbc.batch_size) при фиксации транзакции.
+ * В той же транзакции резервируются товары на складе, поэтому заказ без товара не сохраняется,
+ * а покупатель находится по индексу телефона или добавляется, если заказывает впервые.
+ * Последующая обработка заказа (письма, уведомления) выполняется асинхронно: сервис публикует
+ * {@link OrderPlacedEvent}, который попадает в конвейер событий после фиксации транзакции.
+ * Повторные запросы с тем же ключом идемпотентности (двойное нажатие кнопки, повтор запроса прокси)
+ * получают уже оформленный заказ: недавние ключи хранятся в памяти {@link #KEY_TTL_MILLIS} мс,
+ * более старые находятся в базе данных по уникальному индексу "IDEMPOTENCY_KEY".
+ * Ключ присылает клиент, поэтому он хранится вместе с областью (сессией покупателя) и не находит
+ * заказы других покупателей.
+ * <p>
+ * Для распродаж есть режим групповой фиксации (mangostore.checkout.group.enabled=true): запрос ставит
+ * заказ в ограниченную очередь и ждет результат, а поток "order-intake" забирает заказы пачками
+ * до mangostore.checkout.group.batch штук, ожидая следующие заказы не дольше
+ * mangostore.checkout.group.linger.millis мс, и сохраняет всю пачку одной транзакцией.
+ * Так на пачку приходится одна фиксация и один сброс журнала вместо одной на заказ, а ожидание
+ * пачки добавляет к времени оформления несколько миллисекунд. Если один из заказов пачки
+ * не сохраняется (нет товара на складе, гонка по уникальному индексу), транзакция откатывается,
+ * пачка делится пополам и половины сохраняются заново, поэтому отдельно, в потоке своего запроса
+ * и с обычной обработкой ошибок, оформляется только заказ, который не удалось сохранить
+ * (и заказы, оставшиеся без пары). Если других оформлений в этот момент нет, пачку не из чего
+ * собрать, и заказ сразу оформляется отдельной транзакцией, не ожидая в очереди.
+ * Если очередь заполнена или поток не взял заказ за mangostore.checkout.group.wait.millis мс,
+ * заказ оформляется отдельной транзакцией, как без групповой фиксации.
+ *
+ * @author Diukarev Sergii
+ * @see CheckoutService
+ */
+@Service
+public class CheckoutServiceImpl implements CheckoutService {
+    /**
+     * Время хранения ключей идемпотентности в памяти, в миллисекундах.
+     */
+    private static final long KEY_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Интервал очистки устаревших ключей идемпотентности, в миллисекундах.
+     */
+    private static final long SWEEP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckoutServiceImpl.class);
+
+    private final int groupQueueSize = Integer.getInteger("mangostore.checkout.group.queue", 1000);
+    private final int groupBatchSize = Integer.getInteger("mangostore.checkout.group.batch", 50);
+    private final long groupLingerMillis = Long.getLong("mangostore.checkout.group.linger.millis", 2);
+    private final long groupWaitMillis = Long.getLong("mangostore.checkout.group.wait.millis", 1000);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private OrderChangeRecorder changeRecorder;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Недавние попытки оформления заказа по ключу идемпотентности.
+     */
+    private final ConcurrentMap<String, Attempt> attempts = new ConcurrentHashMap<>();
+
+    /**
+     * Время следующей очистки устаревших ключей.
+     */
+    private final AtomicLong nextSweep = new AtomicLong();
+
+    /**
+     * Количество оформлений заказа, выполняющихся в данный момент.
+     */
+    private final AtomicInteger checkoutsInFlight = new AtomicInteger();
+
+    /**
+     * Очередь заказов, ожидающих групповой фиксации.
+     */
+    private final BlockingQueue<Intake> intakeQueue = new ArrayBlockingQueue<>(groupQueueSize);
+
+    private final ExecutorService intakeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-intake");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean groupCommit = Boolean.getBoolean("mangostore.checkout.group.enabled");
+    private volatile boolean intakeRunning;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        intakeRunning = true;
+        intakeExecutor.execute(this::writeOrders);
+    }
+
+    /**
+     * Останавливает поток групповой фиксации. Заказы, оставшиеся в очереди, сохраняются до остановки.
+     *
+     * @throws InterruptedException Если поток прерван во время ожидания.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        intakeRunning = false;
+        intakeExecutor.shutdown();
+        intakeExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Включает или выключает режим групповой фиксации заказов.
+     *
+     * @param groupCommit Сохранять ли заказы пачками.
+     */
+    public void setGroupCommit(boolean groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    /**
+     * Оформляет и сохраняет заказ.
+     * Торговые позиции копируются, поэтому позиции корзины не становятся сущностями заказа
+     * и корзину можно повторно отправить, если транзакция откатилась.
+     * Если тот же новый покупатель параллельно оформил другой заказ, уникальный индекс телефона
+     * откатывает транзакцию, и заказ оформляется повторно уже на найденного покупателя.
+     *
+     * @param customer      Покупатель, оформляющий заказ.
+     * @param salePositions Торговые позиции заказа.
+     * @param deliveryType  Тип доставки.
+     * @return Объект класса {@link Order} - сохраненный заказ.
+     * @throws ua.com.mangostore.exception.OutOfStockException Если товара на складе недостаточно.
+     */
+    @Override
+    public Order checkout(Customer customer, List<SalePosition> salePositions, String deliveryType) {
+        return save(customer, salePositions, deliveryType, null);
+    }
+
+    /**
+     * Оформляет заказ не более одного раза для ключа идемпотентности в пределах области.
+     * В базе данных и в памяти хранится ключ вместе с областью ("область:ключ"), поэтому
+     * уникальный индекс "IDEMPOTENCY_KEY" действует в пределах области.
+     * Первый запрос с ключом оформляет заказ, параллельные запросы с тем же ключом
+     * ждут его результата и получают тот же заказ (или то же исключение), но не как созданный ими.
+     *
+     * @param customer       Покупатель, оформляющий заказ.
+     * @param salePositions  Торговые позиции заказа.
+     * @param deliveryType   Тип доставки.
+     * @param scope          Область ключа, например код сессии покупателя.
+     * @param idempotencyKey Ключ идемпотентности запроса или null.
+     * @return Объект класса {@link CheckoutResult} - заказ и признак того, что он создан этим вызовом.
+     */
+    @Override
+    public CheckoutResult checkout(Customer customer, List<SalePosition> salePositions, String deliveryType,
+                                   String scope, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new CheckoutResult(save(customer, salePositions, deliveryType, null), true);
+        }
+        return checkoutOnce(customer, salePositions, deliveryType, scopedKey(scope, idempotencyKey));
+    }
+
+    /**
+     * Оформляет заказ не более одного раза для ключа с областью.
+     *
+     * @param customer      Покупатель, оформляющий заказ.
+     * @param salePositions Торговые позиции заказа.
+     * @param deliveryType  Тип доставки.
+     * @param key           Ключ идемпотентности с областью.
+     * @return Объект класса {@link CheckoutResult}.
+     */
+    private CheckoutResult checkoutOnce(Customer customer, List<SalePosition> salePositions, String deliveryType,
+                                        String key) {
+        sweepExpiredKeys();
+        Attempt attempt = new Attempt();
+        Attempt previous = attempts.putIfAbsent(key, attempt);
+        if (previous != null) {
+            if (!previous.isExpired()) {
+                return new CheckoutResult(previous.await(), false);
+            }
+            attempts.remove(key, previous);
+            return checkoutOnce(customer, salePositions, deliveryType, key);
+        }
+        try {
+            Order order = orderRepository.findByIdempotencyKey(key);
+            boolean created = order == null;
+            if (created) {
+                order = save(customer, salePositions, deliveryType, key);
+            }
+            attempt.result.complete(order);
+            return new CheckoutResult(order, created);
+        } catch (RuntimeException ex) {
+            attempts.remove(key, attempt);
+            attempt.result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public Order getByIdempotencyKey(String scope, String idempotencyKey) {
+        String key = scopedKey(scope, idempotencyKey);
+        Attempt attempt = attempts.get(key);
+        if (attempt != null && !attempt.isExpired()) {
+            return attempt.await();
+        }
+        return orderRepository.findByIdempotencyKey(key);
+    }
+
+    /**
+     * Возвращает ключ идемпотентности вместе с областью.
+     *
+     * @param scope          Область ключа.
+     * @param idempotencyKey Ключ идемпотентности запроса.
+     * @return Значение типа {@link String} - ключ вида "область:ключ".
+     */
+    private static String scopedKey(String scope, String idempotencyKey) {
+        if (scope == null || scope.isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key scope is required");
+        }
+        return scope + ":" + idempotencyKey;
+    }
+
+    /**
+     * Сохраняет заказ: в режиме групповой фиксации - в пачке потока "order-intake",
+     * иначе или если заказ не попал в пачку - в отдельной транзакции.
+     *
+     * @param customer       Покупатель, оформляющий заказ.
+     * @param salePositions  Торговые позиции заказа.
+     * @param deliveryType   Тип доставки.
+     * @param idempotencyKey Ключ идемпотентности запроса или null.
+     * @return Объект класса {@link Order} - сохраненный заказ.
+     */
+    private Order save(Customer customer, List<SalePosition> salePositions, String deliveryType,
+                       String idempotencyKey) {
+        int inFlight = checkoutsInFlight.incrementAndGet();
+        try {
+            // одиночный заказ не составит пачку - не ждем ее в очереди
+            if (groupCommit && intakeRunning && inFlight > 1) {
+                Intake intake = new Intake(customer, salePositions, deliveryType, idempotencyKey);
+                if (intakeQueue.offer(intake)) {
+                    Order order = intake.await(groupWaitMillis);
+                    if (order != null) {
+                        return order;
+                    }
+                }
+            }
+            return saveDirect(customer, salePositions, deliveryType, idempotencyKey);
+        } finally {
+            checkoutsInFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Сохраняет заказ в отдельной транзакции.
+     * Если транзакция откатилась из-за уникального индекса, то при совпадении ключа идемпотентности
+     * возвращается заказ, оформленный параллельным запросом, иначе заказ оформляется повторно.
+     *
+     * @param customer       Покупатель, оформляющий заказ.
+     * @param salePositions  Торговые позиции заказа.
+     * @param deliveryType   Тип доставки.
+     * @param idempotencyKey Ключ идемпотентности запроса или null.
+     * @return Объект класса {@link Order} - сохраненный заказ.
+     */
+    private Order saveDirect(Customer customer, List<SalePosition> salePositions, String deliveryType,
+                             String idempotencyKey) {
+        try {
+            return transactionTemplate.execute(status -> placeOrder(customer, salePositions, deliveryType, idempotencyKey));
+        } catch (DataIntegrityViolationException ex) {
+            if (idempotencyKey != null) {
+                Order order = orderRepository.findByIdempotencyKey(idempotencyKey);
+                if (order != null) {
+                    return order;
+                }
+            }
+            return transactionTemplate.execute(status -> placeOrder(customer, salePositions, deliveryType, idempotencyKey));
+        }
+    }
+
+    /**
+     * Цикл потока "order-intake": забирает заказы из очереди пачками и сохраняет каждую пачку
+     * одной транзакцией.
+     */
+    private void writeOrders() {
+        List<Intake> batch = new ArrayList<>(groupBatchSize);
+        while (intakeRunning || !intakeQueue.isEmpty()) {
+            try {
+                Intake first = intakeQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long lingerUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupLingerMillis);
+                while (batch.size() < groupBatchSize) {
+                    Intake next = intakeQueue.poll(lingerUntil - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    intakeQueue.drainTo(batch, groupBatchSize - batch.size());
+                }
+                batch.removeIf(intake -> !intake.claim());
+                writeBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                LOG.error("Order intake failed", ex);
+            } finally {
+                // запросы, не получившие заказ, оформляют его сами
+                for (Intake intake : batch) {
+                    intake.result.complete(null);
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Сохраняет пачку заказов одной транзакцией и передает заказы ожидающим запросам.
+     * Если транзакция не удалась, пачка делится пополам и каждая половина сохраняется заново,
+     * пока неудавшийся заказ не останется один. Запросы, не получившие заказ, получают null
+     * и оформляют заказы отдельно. Точка сохранения на каждый заказ здесь не подходит: откат к ней
+     * не убирает сущности неудавшегося заказа из контекста персистентности, а ошибка уникального
+     * индекса проявляется только при сбросе, уже после следующих заказов пачки.
+     *
+     * @param batch Пачка заказов.
+     */
+    private void writeBatch(List<Intake> batch) {
+        if (batch.size() < 2) {
+            return;
+        }
+        List<Order> orders;
+        try {
+            orders = transactionTemplate.execute(status -> {
+                List<Order> placed = new ArrayList<>(batch.size());
+                for (Intake intake : batch) {
+                    placed.add(placeOrder(intake.customer, intake.salePositions, intake.deliveryType,
+                            intake.idempotencyKey));
+                }
+                return placed;
+            });
+        } catch (RuntimeException ex) {
+            LOG.debug("Group commit of " + batch.size() + " orders rolled back, splitting the batch", ex);
+            int middle = batch.size() / 2;
+            writeBatch(batch.subList(0, middle));
+            writeBatch(batch.subList(middle, batch.size()));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result.complete(orders.get(i));
+        }
+    }
+
+    /**
+     * Удаляет из памяти устаревшие ключи идемпотентности, не чаще одного раза в {@link #SWEEP_INTERVAL_MILLIS} мс.
+     */
+    private void sweepExpiredKeys() {
+        long now = System.currentTimeMillis();
+        long sweepAt = nextSweep.get();
+        if (now >= sweepAt && nextSweep.compareAndSet(sweepAt, now + SWEEP_INTERVAL_MILLIS)) {
+            attempts.values().removeIf(Attempt::isExpired);
+        }
+    }
+
+    /**
+     * Сохраняет заказ в текущей транзакции.
+     *
+     * @param customer       Покупатель, оформляющий заказ.
+     * @param salePositions  Торговые позиции заказа.
+     * @param deliveryType   Тип доставки.
+     * @param idempotencyKey Ключ идемпотентности запроса или null.
+     * @return Объект класса {@link Order} - сохраненный заказ.
+     */
+    private Order placeOrder(Customer customer, List<SalePosition> salePositions, String deliveryType,
+                             String idempotencyKey) {
+        Order order = new Order();
+        order.setIdempotencyKey(idempotencyKey);
+        long price = 0;
+        for (SalePosition salePosition : salePositions) {
+            order.addSalePosition(new SalePosition(salePosition.getProduct(), salePosition.getNumber()));
+            price += salePosition.getPrice().getAmount();
+        }
+        order.setOrderPrice(Money.ofKopecks(price));
+        order.setRecipient(Recipient.of(customer));
+        order.setCustomer(customerService.addCustomer(customer));
+
+        Delivery delivery = new Delivery();
+        delivery.setDeliveryType(deliveryType);
+        delivery.setOrder(order);
+        order.setDelivery(delivery);
+
+        stockService.reserve(order.getSalePositions());
+        Order saveOrder = orderRepository.save(order);
+        orderSummaryService.onOrderPlaced(saveOrder);
+        counterService.onOrderAdded(saveOrder.getStatus());
+        changeRecorder.recordCreated(saveOrder);
+        salesRollupService.onOrderPlaced(saveOrder);
+        eventPublisher.publishEvent(OrderPlacedEvent.of(saveOrder));
+        return saveOrder;
+    }
+
+    /**
+     * Заказ, ожидающий групповой фиксации.
+     * Поток "order-intake" забирает заказ методом {@link #claim()}; если запрос не дождался этого,
+     * он отменяет заказ тем же флагом и оформляет его сам, поэтому заказ не сохраняется дважды.
+     */
+    private static final class Intake {
+        private final Customer customer;
+        private final List<SalePosition> salePositions;
+        private final String deliveryType;
+        private final String idempotencyKey;
+        private final AtomicBoolean taken = new AtomicBoolean();
+        private final CompletableFuture<Order> result = new CompletableFuture<>();
+
+        private Intake(Customer customer, List<SalePosition> salePositions, String deliveryType,
+                       String idempotencyKey) {
+            this.customer = customer;
+            this.salePositions = salePositions;
+            this.deliveryType = deliveryType;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        private boolean claim() {
+            return taken.compareAndSet(false, true);
+        }
+
+        /**
+         * Ждет сохранения заказа в пачке.
+         *
+         * @param waitMillis Время ожидания, пока заказ не взят в пачку, в миллисекундах.
+         * @return Сохраненный заказ или null, если заказ нужно оформить отдельно.
+         */
+        private Order await(long waitMillis) {
+            try {
+                try {
+                    return result.get(waitMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ex) {
+                    if (claim()) {
+                        return null;
+                    }
+                    // заказ уже в пачке, которая сохраняется
+                    return result.get();
+                }
+            } catch (InterruptedException ex) {
+                claim();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for order intake", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Order intake failed", ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Попытка оформления заказа по ключу идемпотентности.
+     */
+    private static final class Attempt {
+        private final CompletableFuture<Order> result = new CompletableFuture<>();
+        private final long expiresAt = System.currentTimeMillis() + KEY_TTL_MILLIS;
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+
+        private Order await() {
+            try {
+                return result.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+    }
+}
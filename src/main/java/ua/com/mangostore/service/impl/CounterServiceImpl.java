@@ -0,0 +1,224 @@
+package ua.com.mangostore.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.com.mangostore.entity.enums.EmployeePosition;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.repository.EmployeeRepository;
+import ua.com.mangostore.repository.OrderRepository;
+import ua.com.mangostore.service.CounterService;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Класс сервисного слоя для счетчиков заказов по статусам и сотрудников по должностям.
+ * Счетчики загружаются одним запросом "count ... group by" при первом обращении и затем
+ * изменяются сервисами при записи заказов и сотрудников, поэтому панели управления получают
+ * количества без выборки сущностей. Изменения применяются после фиксации транзакции.
+ * Чтобы ограничить возможное расхождение с базой данных (например, после записей в обход
+ * сервисов), счетчики перечитываются не реже чем раз в {@link #RELOAD_INTERVAL_MILLIS} мс.
+ *
+ * @author Diukarev Sergii
+ * @see CounterService
+ */
+@Service
+public class CounterServiceImpl implements CounterService {
+    /**
+     * Максимальное время между перечитываниями счетчиков из базы данных, в миллисекундах.
+     */
+    private static final long RELOAD_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    /**
+     * Счетчики заказов по статусам или null, если их нужно загрузить.
+     */
+    private volatile Counters<Status> orderCounters;
+
+    /**
+     * Счетчики сотрудников по должностям или null, если их нужно загрузить.
+     */
+    private volatile Counters<EmployeePosition> employeeCounters;
+
+    @Override
+    public long getOrderCount() {
+        return orderCounters().total();
+    }
+
+    @Override
+    public long getOrderCount(Status status) {
+        return orderCounters().get(status);
+    }
+
+    @Override
+    public Map<Status, Long> getOrderCounts() {
+        return orderCounters().snapshot();
+    }
+
+    @Override
+    public long getEmployeeCount(EmployeePosition position) {
+        return employeeCounters().get(position);
+    }
+
+    @Override
+    public Map<EmployeePosition, Long> getEmployeeCounts() {
+        return employeeCounters().snapshot();
+    }
+
+    @Override
+    public void onOrderAdded(Status status) {
+        afterCommit(() -> {
+            Counters<Status> counters = orderCounters;
+            if (counters != null) {
+                counters.add(status, 1);
+            }
+        });
+    }
+
+    @Override
+    public void onOrderStatusChanged(Status previous, Status current) {
+        if (previous == current) {
+            return;
+        }
+        afterCommit(() -> {
+            Counters<Status> counters = orderCounters;
+            if (counters != null) {
+                counters.add(previous, -1);
+                counters.add(current, 1);
+            }
+        });
+    }
+
+    @Override
+    public void onOrdersStatusChanged(Map<Status, Long> previous, Status current) {
+        if (previous.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            Counters<Status> counters = orderCounters;
+            if (counters != null) {
+                for (Map.Entry<Status, Long> entry : previous.entrySet()) {
+                    if (entry.getKey() != current) {
+                        counters.add(entry.getKey(), -entry.getValue());
+                        counters.add(current, entry.getValue());
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onOrderRemoved(Status status) {
+        afterCommit(() -> {
+            Counters<Status> counters = orderCounters;
+            if (counters != null) {
+                counters.add(status, -1);
+            }
+        });
+    }
+
+    @Override
+    public void onOrdersChanged() {
+        afterCommit(() -> orderCounters = null);
+    }
+
+    @Override
+    public void onEmployeesChanged() {
+        afterCommit(() -> employeeCounters = null);
+    }
+
+    private Counters<Status> orderCounters() {
+        Counters<Status> counters = orderCounters;
+        if (counters == null || counters.isStale()) {
+            counters = new Counters<>(Status.class, orderRepository.countByStatus());
+            orderCounters = counters;
+        }
+        return counters;
+    }
+
+    private Counters<EmployeePosition> employeeCounters() {
+        Counters<EmployeePosition> counters = employeeCounters;
+        if (counters == null || counters.isStale()) {
+            counters = new Counters<>(EmployeePosition.class, employeeRepository.countByPosition());
+            employeeCounters = counters;
+        }
+        return counters;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Набор счетчиков по значениям перечисления, загруженный из результата запроса
+     * "select значение, count(...) ... group by значение".
+     *
+     * @param <E> Тип перечисления.
+     */
+    private static final class Counters<E extends Enum<E>> {
+        private final Class<E> type;
+        private final Map<E, AtomicLong> values;
+        private final long loadedAt = System.currentTimeMillis();
+
+        Counters(Class<E> type, List<Object[]> rows) {
+            this.type = type;
+            this.values = new EnumMap<>(type);
+            for (E constant : type.getEnumConstants()) {
+                values.put(constant, new AtomicLong());
+            }
+            for (Object[] row : rows) {
+                if (row[0] != null) {
+                    values.get(type.cast(row[0])).set(((Number) row[1]).longValue());
+                }
+            }
+        }
+
+        boolean isStale() {
+            return System.currentTimeMillis() - loadedAt > RELOAD_INTERVAL_MILLIS;
+        }
+
+        long get(E key) {
+            return values.get(key).get();
+        }
+
+        void add(E key, long delta) {
+            values.get(key).addAndGet(delta);
+        }
+
+        long total() {
+            long total = 0;
+            for (AtomicLong value : values.values()) {
+                total += value.get();
+            }
+            return total;
+        }
+
+        Map<E, Long> snapshot() {
+            Map<E, Long> snapshot = new EnumMap<>(type);
+            for (Map.Entry<E, AtomicLong> entry : values.entrySet()) {
+                snapshot.put(entry.getKey(), entry.getValue().get());
+            }
+            return Collections.unmodifiableMap(snapshot);
+        }
+    }
+}
@@ -9,19 +9,36 @@ import ua.com.mangostore.service.CustomerService;
 
 import java.util.List;
 
+/**
+ * Класс сервисного слоя для работы с покупателями.
+ * Покупатель ищется по индексу нормализованного телефона, поэтому повторный заказ
+ * того же покупателя не добавляет новую строку в таблицу "Customers".
+ *
+ * @author Diukarev Sergii
+ * @see CustomerService
+ */
 @Service
 public class CustomerServiceImpl implements CustomerService{
     @Autowired
     private CustomerRepository customerRepository;
 
+    /**
+     * Добавляет покупателя или возвращает уже известного покупателя с тем же
+     * нормализованным телефоном. Строка известного покупателя не меняется: имя и адрес,
+     * указанные при оформлении, хранятся в самом заказе (см. {@link ua.com.mangostore.entity.Recipient}),
+     * иначе любой, кто знает телефон, мог бы переписать адрес доставки чужих заказов.
+     * Новый покупатель сохраняется без flush, поэтому его INSERT попадает в пакет
+     * вместе с остальными INSERT транзакции.
+     * Одновременное добавление одного покупателя отсекается уникальным индексом "PHONE_KEY".
+     *
+     * @param customer Контактные данные покупателя.
+     * @return Объект класса {@link Customer} - сохраненный покупатель.
+     */
     @Override
     @Transactional
     public Customer addCustomer(Customer customer) {
-        if (getAll().contains(customer)) {
-            return customer;
-        }
-        Customer saveCustomer = customerRepository.saveAndFlush(customer);
-        return saveCustomer;
+        Customer existing = customerRepository.findByPhoneKey(customer.getPhoneKey());
+        return existing != null ? existing : customerRepository.save(customer);
     }
 
     @Override
@@ -40,7 +57,8 @@ public class CustomerServiceImpl implements CustomerService{
     @Override
     @Transactional
     public Customer getByEmail(String email) {
-        return customerRepository.findByEmail(email);
+        List<Customer> customers = customerRepository.findByEmailKey(Customer.normalizeEmail(email));
+        return customers.isEmpty() ? null : customers.get(0);
     }
 
     @Override
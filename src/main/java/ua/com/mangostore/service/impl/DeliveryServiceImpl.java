@@ -4,12 +4,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ua.com.mangostore.entity.Delivery;
-import ua.com.mangostore.entity.Employee;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.journal.OrderChangeRecorder;
 import ua.com.mangostore.repository.DeliveryRepository;
+import ua.com.mangostore.repository.OrderRepository;
 import ua.com.mangostore.service.DeliveryService;
+import ua.com.mangostore.service.OrderSummaryService;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class DeliveryServiceImpl implements DeliveryService {
@@ -17,10 +21,20 @@ public class DeliveryServiceImpl implements DeliveryService {
     @Autowired
     private DeliveryRepository deliveryRepository;
 
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderChangeRecorder changeRecorder;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
     @Override
     @Transactional
     public Delivery addDelivery(Delivery delivery) {
         Delivery saveDelivery = deliveryRepository.saveAndFlush(delivery);
+        orderSummaryService.onDeliveryChanged(saveDelivery);
         return saveDelivery;
     }
 
@@ -39,7 +53,12 @@ public class DeliveryServiceImpl implements DeliveryService {
     @Override
     @Transactional
     public Delivery editDelivery(Delivery delivery) {
-        return deliveryRepository.saveAndFlush(delivery);
+        OrderChangeRecorder.DeliveryState before =
+                changeRecorder.snapshot(deliveryRepository.findById(delivery.getDeliveryId()));
+        Delivery saveDelivery = deliveryRepository.saveAndFlush(delivery);
+        orderSummaryService.onDeliveryChanged(saveDelivery);
+        changeRecorder.recordChanges(before, saveDelivery);
+        return saveDelivery;
     }
 
     @Override
@@ -51,13 +70,25 @@ public class DeliveryServiceImpl implements DeliveryService {
     @Override
     @Transactional
     public List<Delivery> getByEmployeeId(long id) {
-        List<Delivery> deliveryList = new ArrayList<>();
-        for (Delivery delivery : getAll()) {
-            Employee employee = delivery.getEmployee();
-            if (employee != null && employee.getEmployeeId() == id) {
-                deliveryList.add(delivery);
-            }
-        }
-        return deliveryList;
+        return toDeliveries(orderRepository.findByCourierId(id));
+    }
+
+    @Override
+    @Transactional
+    public List<Delivery> getByEmployeeIdAndDate(long id, LocalDate date) {
+        return toDeliveries(orderRepository.findByCourierIdAndDeliveryAtBetween(id, date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Возвращает доставки заказов. Доставки курьера выбираются запросом от заказа
+     * (см. {@link OrderRepository#findByCourierId(long)}): обратная связь "заказ - доставка"
+     * заполняется тем же запросом, иначе Hibernate выбирал бы ее отдельным запросом для каждого заказа.
+     *
+     * @param orders Заказы с выбранными доставками.
+     * @return Объект типа {@link List} - доставки в порядке заказов.
+     */
+    private static List<Delivery> toDeliveries(List<Order> orders) {
+        return orders.stream().map(Order::getDelivery).collect(Collectors.toList());
     }
 }
@@ -5,7 +5,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ua.com.mangostore.entity.Employee;
 import ua.com.mangostore.repository.EmployeeRepository;
+import ua.com.mangostore.service.CounterService;
 import ua.com.mangostore.service.EmployeeService;
+import ua.com.mangostore.service.OrderSummaryService;
 
 import java.util.List;
 
@@ -15,6 +17,12 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
     @Override
     @Transactional
     public Employee addEmployee(Employee employee) {
@@ -22,6 +30,7 @@ public class EmployeeServiceImpl implements EmployeeService {
             return employee;
         }
         Employee saveEmployee = employeeRepository.saveAndFlush(employee);
+        counterService.onEmployeesChanged();
         return saveEmployee;
     }
 
@@ -29,6 +38,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Transactional
     public void delete(long id) {
         employeeRepository.delete(id);
+        counterService.onEmployeesChanged();
     }
 
     @Override
@@ -52,7 +62,10 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public Employee editEmployee(Employee employee) {
-        return employeeRepository.saveAndFlush(employee);
+        Employee saveEmployee = employeeRepository.saveAndFlush(employee);
+        orderSummaryService.onEmployeeChanged(saveEmployee);
+        counterService.onEmployeesChanged();
+        return saveEmployee;
     }
 
     @Override
@@ -4,10 +4,31 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.journal.OrderChangeRecorder;
+import ua.com.mangostore.model.OrderFilter;
+import ua.com.mangostore.model.OrderPage;
+import ua.com.mangostore.model.OrderRow;
+import ua.com.mangostore.model.SalesContribution;
 import ua.com.mangostore.repository.OrderRepository;
+import ua.com.mangostore.repository.OrderSummaryRepository;
+import ua.com.mangostore.service.ArchiveService;
+import ua.com.mangostore.service.CounterService;
 import ua.com.mangostore.service.OrderService;
+import ua.com.mangostore.service.OrderSummaryService;
+import ua.com.mangostore.service.SalesRollupService;
+import ua.com.mangostore.service.StockService;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class OrderServiceImpl implements OrderService {
@@ -15,29 +36,147 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private OrderChangeRecorder changeRecorder;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private StockService stockService;
+
     @Override
     @Transactional
     public Order addOrder(Order order) {
         Order saveOrder = orderRepository.saveAndFlush(order);
+        orderSummaryService.onOrderPlaced(saveOrder);
+        counterService.onOrderAdded(saveOrder.getStatus());
+        changeRecorder.recordCreated(saveOrder);
+        salesRollupService.onOrderPlaced(saveOrder);
         return saveOrder;
     }
 
     @Override
     @Transactional
     public void delete(long id) {
+        Order order = orderRepository.findById(id);
+        if (order.getStatus() != Status.DELETED) {
+            stockService.release(countProducts(order.getSalePositions()));
+        }
         orderRepository.delete(id);
+        orderSummaryService.onOrdersRemoved(Collections.singletonList(id));
+        counterService.onOrderRemoved(order.getStatus());
+        salesRollupService.onOrderRemoved(SalesContribution.of(order));
     }
 
     @Override
     @Transactional
     public Order getById(long id) {
-        return orderRepository.findById(id);
+        Order order = orderRepository.findById(id);
+        return order != null ? order : archiveService.getArchivedById(id);
     }
 
     @Override
     @Transactional
     public Order editOrder(Order order) {
-        return orderRepository.saveAndFlush(order);
+        if (order.isArchived()) {
+            throw new IllegalStateException("Архивный заказ " + order.getNumber() + " доступен только для чтения");
+        }
+        Order current = orderRepository.findById(order.getOrderId());
+        Status previous = current != null ? current.getStatus() : null;
+        OrderChangeRecorder.OrderState before = changeRecorder.snapshot(current);
+        SalesContribution sales = current != null ? SalesContribution.of(current) : null;
+        Map<Long, Integer> reserved = current != null ? countProducts(current.getSalePositions()) : null;
+        Order saveOrder = orderRepository.saveAndFlush(order);
+        if (previous != null && previous != Status.DELETED && saveOrder.getStatus() == Status.DELETED) {
+            stockService.release(reserved);
+        } else if (previous == Status.DELETED && saveOrder.getStatus() != Status.DELETED) {
+            stockService.reserve(saveOrder.getSalePositions());
+        }
+        orderSummaryService.onOrderChanged(saveOrder);
+        if (previous == null) {
+            counterService.onOrderAdded(saveOrder.getStatus());
+        } else {
+            counterService.onOrderStatusChanged(previous, saveOrder.getStatus());
+        }
+        changeRecorder.recordChanges(before, saveOrder);
+        salesRollupService.onOrderChanged(sales, saveOrder);
+        return saveOrder;
+    }
+
+    /**
+     * Переводит группу заказов в новый статус запросами "update ... where ORDER_ID in (...) and STATUS = ?",
+     * по одному на каждый прочитанный прежний статус, поэтому каждый заказ обновляется, только если
+     * его статус все еще тот, для которого проверен переход ({@link Status#canMoveTo(Status)}).
+     * Заказы, для которых переход не разрешен, а также архивные и несуществующие заказы пропускаются.
+     * Сводная таблица заказов обновляется одним запросом, а счетчики, журнал изменений и продажи -
+     * один раз для всей группы после фиксации транзакции. Товары удаленных заказов возвращаются на склад.
+     * Если статус какого-либо заказа успел измениться после чтения, запрос обновляет меньше строк,
+     * чем прочитано, и метод бросает исключение, откатывая транзакцию; изменение, после которого
+     * заказ вернулся в прежний статус, не обнаруживается.
+     *
+     * @param ids    Коды заказов.
+     * @param status Новый статус.
+     * @return Количество переведенных заказов.
+     */
+    @Override
+    @Transactional
+    public int editStatuses(Collection<Long> ids, Status status) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> moved = new ArrayList<>();
+        Map<Status, List<Long>> movedByStatus = new EnumMap<>(Status.class);
+        for (Object[] row : orderRepository.findStatusesByIdIn(ids)) {
+            Status current = (Status) row[1];
+            if (current.canMoveTo(status)) {
+                moved.add((Long) row[0]);
+                movedByStatus.computeIfAbsent(current, key -> new ArrayList<>()).add((Long) row[0]);
+            }
+        }
+        if (moved.isEmpty()) {
+            return 0;
+        }
+        List<SalesContribution> removed = new ArrayList<>();
+        List<SalePosition> released = new ArrayList<>();
+        if (status == Status.DELETED) {
+            for (Order order : orderRepository.findWithSalePositionsByIdIn(moved)) {
+                removed.add(SalesContribution.of(order));
+                released.addAll(order.getSalePositions());
+            }
+        }
+        Map<Long, Integer> releasedNumbers = countProducts(released);
+        Map<Status, Long> previous = new EnumMap<>(Status.class);
+        for (Map.Entry<Status, List<Long>> group : movedByStatus.entrySet()) {
+            List<Long> groupIds = group.getValue();
+            if (orderRepository.updateStatusByIdIn(groupIds, group.getKey(), status) != groupIds.size()) {
+                throw new IllegalStateException(
+                        "Статус части заказов изменился во время обновления, повторите операцию");
+            }
+            previous.put(group.getKey(), (long) groupIds.size());
+        }
+        orderSummaryService.onOrdersStatusChanged(moved, status);
+        counterService.onOrdersStatusChanged(previous, status);
+        changeRecorder.recordStatus(moved, status);
+        for (SalesContribution sales : removed) {
+            salesRollupService.onOrderRemoved(sales);
+        }
+        if (!releasedNumbers.isEmpty()) {
+            stockService.release(releasedNumbers);
+        }
+        return moved.size();
     }
 
     @Override
@@ -46,9 +185,68 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.findAll();
     }
 
+    @Override
+    @Transactional
+    public List<Order> getByPeriod(LocalDate from, LocalDate to) {
+        return orderRepository.findByCreatedAtBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    @Transactional
+    public List<Order> getByStatuses(Collection<Status> statuses) {
+        return orderRepository.findByStatusIn(statuses);
+    }
+
+    @Override
+    @Transactional
+    public List<Order> getByStatusAndDeliveryTypes(Status status, Collection<DeliveryType> deliveryTypes) {
+        return orderRepository.findByStatusAndDeliveryTypeIn(status, deliveryTypes);
+    }
+
+    @Override
+    @Transactional
+    public OrderPage getPage(OrderFilter filter, int size) {
+        List<OrderRow> rows = orderRepository.findRows(filter, size + 1);
+        if (rows.size() <= size) {
+            return new OrderPage(rows, null);
+        }
+        rows = rows.subList(0, size);
+        return new OrderPage(rows, filter.cursorOf(rows.get(size - 1)));
+    }
+
+    @Override
+    @Transactional
+    public List<OrderRow> getRowsByStatusAndDeliveryTypes(Status status, Collection<DeliveryType> deliveryTypes) {
+        return orderSummaryRepository.findRowsByStatusAndDeliveryTypeIn(status, deliveryTypes);
+    }
+
+    @Override
+    @Transactional
+    public List<OrderRow> getRowsByCourier(long courierId, LocalDate date) {
+        if (date == null) {
+            return orderSummaryRepository.findRowsByCourierId(courierId);
+        }
+        return orderSummaryRepository.findRowsByCourierIdAndDeliveryAtBetween(courierId, date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay());
+    }
+
     @Override
     @Transactional
     public int getSize() {
-        return orderRepository.findAll().size();
+        return (int) counterService.getOrderCount();
+    }
+
+    /**
+     * Возвращает количество единиц товара в торговых позициях по кодам товаров.
+     *
+     * @param salePositions Торговые позиции заказа.
+     * @return Объект типа {@link Map} - код товара и количество единиц.
+     */
+    private static Map<Long, Integer> countProducts(Collection<SalePosition> salePositions) {
+        Map<Long, Integer> numbers = new HashMap<>();
+        for (SalePosition salePosition : salePositions) {
+            numbers.merge(salePosition.getProduct().getProductId(), salePosition.getNumber(), Integer::sum);
+        }
+        return numbers;
     }
 }
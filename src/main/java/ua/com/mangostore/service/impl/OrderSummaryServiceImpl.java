@@ -0,0 +1,90 @@
+package ua.com.mangostore.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.com.mangostore.entity.Delivery;
+import ua.com.mangostore.entity.Employee;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.OrderSummary;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.repository.OrderSummaryRepository;
+import ua.com.mangostore.service.OrderSummaryService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+
+/**
+ * Класс сервисного слоя для ведения сводок заказов {@link OrderSummary}.
+ * Методы вызываются сервисами заказов, доставок и сотрудников в их транзакциях,
+ * поэтому сводка фиксируется или откатывается вместе с изменением, которое ее породило,
+ * и списки заказов никогда не расходятся с заказами.
+ * Сводка нового заказа только добавляется (без чтения), изменение заказа или доставки
+ * переписывает строку сводки, а изменение имени курьера обновляет все его сводки одним
+ * запросом UPDATE по индексу. Данные покупателя в сводке берутся из получателя заказа
+ * и меняются только вместе с заказом.
+ *
+ * @author Diukarev Sergii
+ * @see OrderSummaryService
+ */
+@Service
+public class OrderSummaryServiceImpl implements OrderSummaryService {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private OrderSummaryRepository summaryRepository;
+
+    @Override
+    @Transactional
+    public void onOrderPlaced(Order order) {
+        em.persist(OrderSummary.of(order));
+    }
+
+    @Override
+    @Transactional
+    public void onOrderChanged(Order order) {
+        OrderSummary summary = em.find(OrderSummary.class, order.getOrderId());
+        if (summary == null) {
+            em.persist(OrderSummary.of(order));
+        } else {
+            summary.update(order);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onOrdersRemoved(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            summaryRepository.deleteByIdIn(orderIds);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onOrdersStatusChanged(Collection<Long> orderIds, Status status) {
+        if (!orderIds.isEmpty()) {
+            summaryRepository.updateStatusByIdIn(orderIds, status);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onDeliveryChanged(Delivery delivery) {
+        if (delivery.getOrder() == null) {
+            return;
+        }
+        OrderSummary summary = em.find(OrderSummary.class, delivery.getOrder().getOrderId());
+        if (summary != null) {
+            summary.update(delivery);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onEmployeeChanged(Employee employee) {
+        summaryRepository.updateCourierName(employee.getEmployeeId(), employee.getFullName());
+    }
+}
@@ -0,0 +1,167 @@
+package ua.com.mangostore.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ua.com.mangostore.model.OrderTracking;
+import ua.com.mangostore.repository.OrderRepository;
+import ua.com.mangostore.service.OrderTrackingService;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс сервисного слоя для отслеживания заказа покупателем по номеру заказа и телефону.
+ * Состояние заказа читается одним запросом по уникальному индексу номера (см. {@link OrderTracking})
+ * и хранится в памяти mangostore.track.ttl.millis мс, поэтому покупатель, который часто обновляет
+ * страницу, обращается к базе данных не чаще одного раза за это время. Запоминается и отсутствие
+ * заказа, чтобы перебор номеров тоже не нагружал базу. Найденные заказы и отсутствующие номера
+ * хранятся в разных кэшах по mangostore.track.cache.size записей, из которых вытесняются давно
+ * не запрошенные записи, поэтому перебор номеров вытесняет только другие отсутствующие номера,
+ * а не заказы, которые отслеживают покупатели.
+ * Неверный телефон дает тот же ответ, что и несуществующий номер, поэтому по странице
+ * нельзя узнать, существует ли заказ. Неудачные запросы считаются по клиенту (адресу, с которого
+ * пришел запрос) по всем номерам сразу: после mangostore.track.max.misses неудачных запросов клиента
+ * за mangostore.track.miss.window.millis мс его запросы до конца этого окна не проверяются и отвечают
+ * "не найден", поэтому телефон к номеру нельзя подобрать перебором. Перебор с одного адреса не блокирует
+ * покупателя, который отслеживает тот же заказ с другого адреса, а запросы несуществующих номеров
+ * засчитываются тому же клиенту и не вытесняют его счетчик. Счетчики клиентов хранятся в отдельном
+ * кэше, из которого вытесняются только счетчики клиентов, давно не делавших запросов.
+ *
+ * @author Diukarev Sergii
+ * @see OrderTrackingService
+ */
+@Service
+public class OrderTrackingServiceImpl implements OrderTrackingService {
+    /**
+     * Максимальная длина номера заказа.
+     */
+    private static final int MAX_NUMBER_LENGTH = 16;
+
+    private final long ttlMillis = Long.getLong("mangostore.track.ttl.millis", 5000);
+    private final int maxEntries = Integer.getInteger("mangostore.track.cache.size", 10_000);
+    private final int maxMisses = Integer.getInteger("mangostore.track.max.misses", 10);
+    private final long missWindowMillis = Long.getLong("mangostore.track.miss.window.millis",
+            TimeUnit.MINUTES.toMillis(15));
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /**
+     * Недавно найденные заказы по номеру.
+     */
+    private final Map<String, Entry> orders = lruMap(maxEntries);
+
+    /**
+     * Недавно запрошенные номера, по которым заказа нет.
+     */
+    private final Map<String, Entry> absent = lruMap(maxEntries);
+
+    /**
+     * Неудачные запросы по клиенту.
+     */
+    private final Map<String, Misses> misses = lruMap(maxEntries);
+
+    /**
+     * Возвращает состояние заказа, если заказ с таким номером оформлен на указанный телефон.
+     *
+     * @param number Номер заказа.
+     * @param phone  Телефон покупателя в любом формате.
+     * @param client Адрес клиента, с которого пришел запрос.
+     * @return Объект класса {@link OrderTracking} или null, если заказ не найден
+     * или клиент временно заблокирован после неудачных запросов.
+     */
+    @Override
+    public OrderTracking track(String number, String phone, String client) {
+        if (number == null || phone == null || client == null) {
+            return null;
+        }
+        number = number.trim().toUpperCase();
+        if (number.isEmpty() || number.length() > MAX_NUMBER_LENGTH) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Misses clientMisses = misses.get(client);
+        if (clientMisses != null && clientMisses.count >= maxMisses && !clientMisses.isOver(now, missWindowMillis)) {
+            return null;
+        }
+        OrderTracking tracking = lookup(number, now);
+        if (tracking != null && tracking.isPlacedBy(phone)) {
+            return tracking;
+        }
+        misses.compute(client, (key, previous) -> previous == null || previous.isOver(now, missWindowMillis)
+                ? new Misses(now, 1) : new Misses(previous.windowStart, previous.count + 1));
+        return null;
+    }
+
+    /**
+     * Возвращает состояние заказа из кэша или из базы данных, если записи нет или она устарела.
+     *
+     * @param number Номер заказа.
+     * @param now    Текущее время, в миллисекундах.
+     * @return Объект класса {@link OrderTracking} или null, если заказа нет.
+     */
+    private OrderTracking lookup(String number, long now) {
+        Entry entry = orders.get(number);
+        if (entry == null) {
+            entry = absent.get(number);
+        }
+        if (entry == null || entry.expiresAt < now) {
+            entry = new Entry(orderRepository.findTrackingByNumber(number), now + ttlMillis);
+            if (entry.tracking != null) {
+                absent.remove(number);
+                orders.put(number, entry);
+            } else {
+                orders.remove(number);
+                absent.put(number, entry);
+            }
+        }
+        return entry.tracking;
+    }
+
+    /**
+     * Создает потокобезопасную карту, из которой при заполнении вытесняется давно не запрошенная запись.
+     *
+     * @param maxSize Максимальное количество записей.
+     * @return Объект типа {@link Map}.
+     */
+    private static <V> Map<String, V> lruMap(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Запись кэша: состояние заказа или null, если заказа нет, и время устаревания.
+     */
+    private static final class Entry {
+        private final OrderTracking tracking;
+        private final long expiresAt;
+
+        private Entry(OrderTracking tracking, long expiresAt) {
+            this.tracking = tracking;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Количество неудачных запросов клиента с начала окна.
+     */
+    private static final class Misses {
+        private final long windowStart;
+        private final int count;
+
+        private Misses(long windowStart, int count) {
+            this.windowStart = windowStart;
+            this.count = count;
+        }
+
+        private boolean isOver(long now, long windowMillis) {
+            return now - windowStart >= windowMillis;
+        }
+    }
+}
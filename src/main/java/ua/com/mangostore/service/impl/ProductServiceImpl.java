@@ -3,18 +3,47 @@ package ua.com.mangostore.service.impl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ua.com.mangostore.entity.Product;
 import ua.com.mangostore.repository.ProductRepository;
 import ua.com.mangostore.service.ProductService;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Класс сервисного слоя для работы с товарами.
+ * Каталог товаров меняется редко, а читается на каждой странице магазина, поэтому
+ * методы чтения работают с кешем каталога в памяти. Кеш загружается при первом обращении
+ * и сбрасывается после фиксации транзакции, изменившей товары.
+ * Товары кеша общие для всех запросов и только читаются; для изменения товар загружается
+ * из базы данных методом {@link #getForUpdate(long)}.
+ *
+ * @author Diukarev Sergii
+ * @see ProductService
+ */
 @Service
 public class ProductServiceImpl implements ProductService {
 
     @Autowired
     private ProductRepository productRepository;
 
+    /**
+     * Кеш каталога товаров, null - если кеш еще не загружен или сброшен.
+     */
+    private volatile Catalog catalog;
+
+    /**
+     * Поколение кеша, увеличивается при каждом сбросе. Загруженный каталог сохраняется в кеш,
+     * только если за время загрузки кеш не сбрасывался, иначе он мог прочитать устаревшие данные.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
     @Override
     @Transactional
     public Product addProduct(Product product) {
@@ -22,6 +51,7 @@ public class ProductServiceImpl implements ProductService {
             return product;
         }
         Product saveProduct = productRepository.saveAndFlush(product);
+        evictCatalog();
         return saveProduct;
     }
 
@@ -29,6 +59,7 @@ public class ProductServiceImpl implements ProductService {
     @Transactional
     public void delete(long id) {
         productRepository.delete(id);
+        evictCatalog();
     }
 
     @Override
@@ -39,18 +70,94 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Product getById(long id) {
+        Product product = getCatalog().byId.get(id);
+        return product != null ? product : productRepository.findById(id);
+    }
+
+    /**
+     * Возвращает товар, загруженный из базы данных в обход кеша каталога.
+     * Изменения этого объекта не видны другим запросам до сохранения методом {@link #editProduct(Product)}.
+     *
+     * @param id Код товара.
+     * @return Объект класса {@link Product} или null.
+     */
+    @Override
+    @Transactional
+    public Product getForUpdate(long id) {
         return productRepository.findById(id);
     }
 
     @Override
     @Transactional
     public Product editProduct(Product product) {
-        return productRepository.saveAndFlush(product);
+        Product saveProduct = productRepository.saveAndFlush(product);
+        evictCatalog();
+        return saveProduct;
     }
 
     @Override
-    @Transactional
     public List<Product> getAll() {
-        return productRepository.findAll();
+        return getCatalog().products;
+    }
+
+    /**
+     * Возвращает кеш каталога, загружая его из базы данных при необходимости.
+     * Параллельные загрузки допустимы, но загрузка, во время которой кеш был сброшен,
+     * возвращает прочитанный каталог без сохранения в кеш.
+     *
+     * @return Объект класса {@link Catalog} - кеш каталога.
+     */
+    private Catalog getCatalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            long loadGeneration = generation.get();
+            current = new Catalog(productRepository.findAll());
+            synchronized (generation) {
+                if (generation.get() == loadGeneration) {
+                    catalog = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Сбрасывает кеш каталога. Если метод вызван внутри транзакции, кеш сбрасывается
+     * после ее завершения, чтобы параллельный запрос не закешировал незафиксированные данные.
+     */
+    private void evictCatalog() {
+        resetCatalog();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    resetCatalog();
+                }
+            });
+        }
+    }
+
+    private void resetCatalog() {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            catalog = null;
+        }
+    }
+
+    /**
+     * Неизменяемый снимок каталога: список товаров и индекс товаров по коду.
+     */
+    private static final class Catalog {
+        private final List<Product> products;
+        private final Map<Long, Product> byId;
+
+        private Catalog(List<Product> products) {
+            Map<Long, Product> byId = new HashMap<>(products.size() * 2);
+            for (Product product : products) {
+                byId.put(product.getProductId(), product);
+            }
+            this.products = Collections.unmodifiableList(new ArrayList<>(products));
+            this.byId = byId;
+        }
     }
 }
@@ -0,0 +1,650 @@
+package ua.com.mangostore.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.com.mangostore.entity.BrandSales;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.ProductSales;
+import ua.com.mangostore.entity.SalesGeneration;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.SalesAccumulator;
+import ua.com.mangostore.model.SalesContribution;
+import ua.com.mangostore.model.SalesRebuildProgress;
+import ua.com.mangostore.model.SalesRow;
+import ua.com.mangostore.repository.BrandSalesRepository;
+import ua.com.mangostore.repository.OrderRepository;
+import ua.com.mangostore.repository.ProductRepository;
+import ua.com.mangostore.repository.ProductSalesRepository;
+import ua.com.mangostore.service.SalesRollupService;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Класс сервисного слоя для сводных таблиц продаж "Product_Sales" (день и товар)
+ * и "Brand_Sales" (день и производитель).
+ * При оформлении, изменении и удалении заказа сервисы передают вклад заказа до и после изменения
+ * (см. {@link SalesContribution}), а сводные строки обновляются на разность запросом
+ * "update ... set units = units + ?"; если строки за этот день еще нет, она вставляется.
+ * Приращение записывается после фиксации транзакции заказа в отдельной транзакции,
+ * (приращения всех заказов одной транзакции - вместе),
+ * поэтому ошибка сводных таблиц не отменяет заказ, а одновременная вставка одной и той же
+ * строки (нарушение уникального ключа) повторяется обновлением. Строки обновляются в порядке
+ * ключей, чтобы параллельные транзакции не блокировали друг друга крест-накрест.
+ * Выручка считается по текущей цене товара в торговой позиции; удаленные заказы в продажи не входят.
+ * Отчеты читают только сводные таблицы, поэтому их стоимость зависит от длины периода,
+ * а не от количества заказов.
+ * <p>
+ * Если правила подсчета изменились, сводные таблицы пересчитываются заново ({@link #rebuild()},
+ * {@link #startRebuild()} - в фоновом потоке "sales-rebuild"). Коды заказов делятся на диапазоны
+ * по "mangostore.sales.rebuild.chunk.ids" (по-умолчанию 2000); каждый диапазон читается одним запросом
+ * сразу по рабочим и архивным таблицам, поэтому перенос заказа в архив во время чтения не приводит
+ * к двойному подсчету. Диапазоны обрабатываются задачами fork/join, которые суммируют продажи
+ * в накопители {@link SalesAccumulator} и объединяют их попарно. Нагрузка на пул соединений
+ * ограничена: задачи выполняет пул из "mangostore.sales.rebuild.parallelism" потоков (по-умолчанию 2),
+ * то есть одновременно заняты не больше стольких соединений, а после каждого диапазона поток ждет
+ * "mangostore.sales.rebuild.pause.millis" мс (по-умолчанию 20). Ход пересчета возвращает
+ * {@link #getRebuildProgress()}.
+ * Строки сводных таблиц помечены поколением (см. {@link SalesGeneration}): приращения и отчеты
+ * работают только с действующим поколением, а пересчет пишет новые строки под следующим поколением,
+ * не мешая записи приращений. Приращения заказов, измененных во время пересчета, запоминаются:
+ * если диапазон заказа был прочитан раньше изменения, приращение добавляется и к новым строкам.
+ * Затем новое поколение одной транзакцией становится действующим, поэтому отчеты видят либо старые,
+ * либо новые сводные таблицы. Запись приращений приостанавливается блокировкой только на это
+ * переключение и на последние запомненные приращения; строки прежнего поколения удаляются после.
+ *
+ * @author Diukarev Sergii
+ * @see ProductSales
+ * @see BrandSales
+ */
+@Service
+public class SalesRollupServiceImpl implements SalesRollupService {
+    private static final Logger LOG = LoggerFactory.getLogger(SalesRollupServiceImpl.class);
+
+    /**
+     * Количество попыток записи приращения.
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * Количество строк, после которого при замене сводных таблиц контекст сбрасывается в базу и очищается.
+     */
+    private static final int FLUSH_SIZE = 50;
+
+    private final int rebuildChunkIds = Integer.getInteger("mangostore.sales.rebuild.chunk.ids", 2000);
+    private final int rebuildParallelism = Integer.getInteger("mangostore.sales.rebuild.parallelism", 2);
+    private final int rebuildPauseMillis = Integer.getInteger("mangostore.sales.rebuild.pause.millis", 20);
+
+    /**
+     * Блокировка сводных таблиц: приращения записываются под блокировкой чтения,
+     * а переключение поколения при пересчете - под блокировкой записи.
+     */
+    private final ReentrantReadWriteLock rollupLock = new ReentrantReadWriteLock();
+
+    /**
+     * Действующее поколение сводных таблиц; -1 - еще не прочитано из базы.
+     */
+    private volatile long generation = -1;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile Rebuild rebuild;
+    private volatile SalesRebuildProgress lastProgress = SalesRebuildProgress.IDLE;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private BrandSalesRepository brandSalesRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void onOrderPlaced(Order order) {
+        apply(SalesContribution.of(order));
+    }
+
+    @Override
+    public void onOrderChanged(SalesContribution before, Order after) {
+        apply(SalesContribution.of(after).minus(before));
+    }
+
+    @Override
+    public void onOrderRemoved(SalesContribution before) {
+        if (before != null) {
+            apply(before.negate());
+        }
+    }
+
+    /**
+     * Записывает приращение продаж после фиксации текущей транзакции.
+     * Приращения всех заказов одной транзакции записываются вместе, одной транзакцией.
+     *
+     * @param delta Приращение продаж.
+     */
+    private void apply(SalesContribution delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(Collections.singletonList(delta));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<SalesContribution> pending = (List<SalesContribution>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<SalesContribution> transactionDeltas = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionDeltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    write(transactionDeltas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SalesRollupServiceImpl.this);
+                }
+            });
+            pending = transactionDeltas;
+        }
+        pending.add(delta);
+    }
+
+    private void write(List<SalesContribution> deltas) {
+        long recordedAt = System.nanoTime();
+        rollupLock.readLock().lock();
+        try {
+            long active = getGeneration();
+            Rebuild current = rebuild;
+            if (current != null) {
+                for (SalesContribution delta : deltas) {
+                    current.pending.add(new PendingDelta(delta, recordedAt));
+                }
+            }
+            writeWithRetry(deltas, active);
+        } finally {
+            rollupLock.readLock().unlock();
+        }
+    }
+
+    private void writeWithRetry(List<SalesContribution> deltas, long generation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.execute(status -> {
+                    writeRows(deltas, generation);
+                    return null;
+                });
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    LOG.error("Failed to update sales rollups for " + deltas.size() + " orders", ex);
+                    return;
+                }
+            } catch (RuntimeException ex) {
+                LOG.error("Failed to update sales rollups for " + deltas.size() + " orders", ex);
+                return;
+            }
+        }
+    }
+
+    private void writeRows(List<SalesContribution> deltas, long generation) {
+        Map<LocalDate, Map<Long, long[]>> products = new TreeMap<>();
+        Map<LocalDate, Map<String, long[]>> brands = new TreeMap<>();
+        for (SalesContribution delta : deltas) {
+            Map<Long, long[]> dayProducts = products.computeIfAbsent(delta.getSaleDate(), date -> new TreeMap<>());
+            for (Map.Entry<Long, SalesContribution.Line> line : delta.getLines().entrySet()) {
+                addTotals(dayProducts, line.getKey(), line.getValue());
+            }
+            Map<String, long[]> dayBrands = brands.computeIfAbsent(delta.getSaleDate(), date -> new TreeMap<>());
+            for (Map.Entry<String, SalesContribution.Line> line : delta.byBrand().entrySet()) {
+                addTotals(dayBrands, line.getKey(), line.getValue());
+            }
+        }
+        for (Map.Entry<LocalDate, Map<Long, long[]>> day : products.entrySet()) {
+            LocalDate saleDate = day.getKey();
+            for (Map.Entry<Long, long[]> entry : day.getValue().entrySet()) {
+                long[] totals = entry.getValue();
+                if ((totals[0] != 0 || totals[1] != 0)
+                        && productSalesRepository.add(generation, saleDate, entry.getKey(), totals[0], totals[1]) == 0) {
+                    productSalesRepository.saveAndFlush(new ProductSales(generation, saleDate,
+                            em.getReference(Product.class, entry.getKey()), totals[0], totals[1]));
+                }
+            }
+        }
+        for (Map.Entry<LocalDate, Map<String, long[]>> day : brands.entrySet()) {
+            LocalDate saleDate = day.getKey();
+            for (Map.Entry<String, long[]> entry : day.getValue().entrySet()) {
+                long[] totals = entry.getValue();
+                if ((totals[0] != 0 || totals[1] != 0)
+                        && brandSalesRepository.add(generation, saleDate, entry.getKey(), totals[0], totals[1]) == 0) {
+                    brandSalesRepository.saveAndFlush(
+                            new BrandSales(generation, saleDate, entry.getKey(), totals[0], totals[1]));
+                }
+            }
+        }
+    }
+
+    private static <K> void addTotals(Map<K, long[]> totals, K key, SalesContribution.Line line) {
+        long[] sum = totals.computeIfAbsent(key, k -> new long[2]);
+        sum[0] += line.getUnits();
+        sum[1] += line.getRevenue();
+    }
+
+    /**
+     * Возвращает действующее поколение сводных таблиц, при первом обращении читает его из базы
+     * в отдельной транзакции. Если строки поколения еще нет, действующим считается нулевое.
+     */
+    private long getGeneration() {
+        long current = generation;
+        if (current < 0) {
+            synchronized (this) {
+                current = generation;
+                if (current < 0) {
+                    current = transactionTemplate.execute(status -> {
+                        SalesGeneration row = em.find(SalesGeneration.class, SalesGeneration.ID);
+                        return row != null ? row.getGeneration() : 0L;
+                    });
+                    generation = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    @Transactional
+    public List<SalesRow> getByBrand(LocalDate from, LocalDate to) {
+        return brandSalesRepository.sumByBrand(getGeneration(), from, to);
+    }
+
+    @Override
+    @Transactional
+    public List<SalesRow> getByProduct(LocalDate from, LocalDate to) {
+        return productSalesRepository.sumByProduct(getGeneration(), from, to);
+    }
+
+    @Override
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                runRebuild();
+            } catch (RuntimeException ex) {
+                LOG.error("Sales rollup rebuild failed", ex);
+            } finally {
+                rebuilding.set(false);
+            }
+        }, "sales-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    @Override
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("Sales rollup rebuild is already running");
+        }
+        try {
+            runRebuild();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Override
+    public SalesRebuildProgress getRebuildProgress() {
+        Rebuild current = rebuild;
+        return current != null ? current.toProgress(null, null) : lastProgress;
+    }
+
+    private void runRebuild() {
+        long active = getGeneration();
+        long next = active + 1;
+        // Остатки прерванного пересчета.
+        deleteOtherGenerations(active);
+        Rebuild current = new Rebuild(LocalDateTime.now());
+        rebuild = current;
+        ForkJoinPool pool = new ForkJoinPool(rebuildParallelism);
+        try {
+            Map<Long, ProductPrice> prices = readTemplate.execute(status -> loadPrices());
+            Object[] range = readTemplate.execute(status -> orderRepository.findIdRangeWithArchive().get(0));
+            SalesAccumulator sales;
+            if (range[0] != null) {
+                long minId = ((Number) range[0]).longValue();
+                long maxId = ((Number) range[1]).longValue();
+                current.init(minId, rebuildChunkIds, (int) ((maxId - minId) / rebuildChunkIds + 1));
+                sales = pool.invoke(new ChunkTask(current, prices, 0, current.chunks));
+            } else {
+                sales = new SalesAccumulator();
+            }
+            transactionTemplate.execute(status -> {
+                writeAll(sales, prices, next);
+                return null;
+            });
+            switchGeneration(current, next);
+            lastProgress = current.toProgress(LocalDateTime.now(), null);
+            LOG.info("Sales rollups rebuilt from " + current.lines.get() + " sale positions in "
+                    + current.chunks + " chunks, " + sales.size() + " product rows");
+        } catch (RuntimeException ex) {
+            rebuild = null;
+            lastProgress = current.toProgress(LocalDateTime.now(), String.valueOf(ex.getMessage()));
+            throw ex;
+        } finally {
+            pool.shutdown();
+        }
+        deleteOtherGenerations(next);
+    }
+
+    /**
+     * Читает диапазон кодов заказов и суммирует продажи. Выполняется в потоке пула fork/join.
+     *
+     * @param current Текущий пересчет.
+     * @param prices  Цены и производители товаров.
+     * @param chunk   Номер диапазона.
+     * @return Объект класса {@link SalesAccumulator} - продажи заказов диапазона.
+     */
+    private SalesAccumulator readChunk(Rebuild current, Map<Long, ProductPrice> prices, int chunk) {
+        long fromId = current.minId + (long) chunk * rebuildChunkIds;
+        current.chunkStarts.set(chunk, System.nanoTime());
+        SalesAccumulator sales = new SalesAccumulator();
+        int lines = readTemplate.execute(status -> {
+            List<Object[]> rows = orderRepository.findSaleLinesWithArchive(fromId, fromId + rebuildChunkIds);
+            for (Object[] row : rows) {
+                int day = (int) ((Timestamp) row[0]).toLocalDateTime().toLocalDate().toEpochDay();
+                long productId = ((Number) row[1]).longValue();
+                int number = ((Number) row[2]).intValue();
+                sales.add(day, productId, number, number * getPrice(prices, productId).price);
+            }
+            return rows.size();
+        });
+        current.chunkDone(lines);
+        if (rebuildPauseMillis > 0) {
+            try {
+                Thread.sleep(rebuildPauseMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Sales rollup rebuild is interrupted", ex);
+            }
+        }
+        return sales;
+    }
+
+    /**
+     * Делает новое поколение сводных таблиц действующим. Запомненные приращения заказов,
+     * которые изменились после чтения их диапазона, сначала добавляются к новым строкам без блокировки;
+     * под блокировкой записи добавляются только приращения, записанные за это время,
+     * и одной транзакцией с ними меняется действующее поколение.
+     */
+    private void switchGeneration(Rebuild current, long next) {
+        transactionTemplate.execute(status -> {
+            writeRows(current.drainMissed(), next);
+            return null;
+        });
+        rollupLock.writeLock().lock();
+        try {
+            transactionTemplate.execute(status -> {
+                writeRows(current.drainMissed(), next);
+                SalesGeneration row = em.find(SalesGeneration.class, SalesGeneration.ID);
+                if (row != null) {
+                    row.setGeneration(next);
+                } else {
+                    em.persist(new SalesGeneration(next));
+                }
+                return null;
+            });
+            generation = next;
+        } finally {
+            rebuild = null;
+            rollupLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет строки всех поколений, кроме указанного. Ошибка не прерывает пересчет:
+     * отчеты такие строки не читают, а следующий пересчет удалит их снова.
+     */
+    private void deleteOtherGenerations(long keep) {
+        try {
+            transactionTemplate.execute(status -> {
+                productSalesRepository.deleteOtherGenerations(keep);
+                brandSalesRepository.deleteOtherGenerations(keep);
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            LOG.error("Failed to delete sales rollups of old generations", ex);
+        }
+    }
+
+    private void writeAll(SalesAccumulator sales, Map<Long, ProductPrice> prices, long generation) {
+        Map<LocalDate, Map<String, long[]>> brands = new TreeMap<>();
+        AtomicInteger count = new AtomicInteger();
+        sales.forEach((epochDay, productId, units, revenue) -> {
+            LocalDate saleDate = LocalDate.ofEpochDay(epochDay);
+            em.persist(new ProductSales(generation, saleDate, em.getReference(Product.class, productId), units, revenue));
+            flushIfFull(count.incrementAndGet());
+            long[] brand = brands.computeIfAbsent(saleDate, date -> new TreeMap<>())
+                    .computeIfAbsent(getPrice(prices, productId).brand, name -> new long[2]);
+            brand[0] += units;
+            brand[1] += revenue;
+        });
+        for (Map.Entry<LocalDate, Map<String, long[]>> day : brands.entrySet()) {
+            for (Map.Entry<String, long[]> brand : day.getValue().entrySet()) {
+                long[] totals = brand.getValue();
+                if (totals[0] != 0 || totals[1] != 0) {
+                    em.persist(new BrandSales(generation, day.getKey(), brand.getKey(), totals[0], totals[1]));
+                    flushIfFull(count.incrementAndGet());
+                }
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private void flushIfFull(int count) {
+        if (count % FLUSH_SIZE == 0) {
+            em.flush();
+            em.clear();
+        }
+    }
+
+    private Map<Long, ProductPrice> loadPrices() {
+        Map<Long, ProductPrice> prices = new ConcurrentHashMap<>();
+        for (Object[] row : productRepository.findPrices()) {
+            prices.put((Long) row[0], new ProductPrice((String) row[1], (Money) row[2]));
+        }
+        return prices;
+    }
+
+    /**
+     * Возвращает цену и производителя товара; товар, добавленный после начала пересчета,
+     * читается из базы. Вызывается в транзакции.
+     */
+    private ProductPrice getPrice(Map<Long, ProductPrice> prices, long productId) {
+        return prices.computeIfAbsent(productId, id -> {
+            Product product = productRepository.findById(id);
+            return product != null
+                    ? new ProductPrice(product.getBrand(), product.getSalePrice())
+                    : new ProductPrice(null, null);
+        });
+    }
+
+    /**
+     * Задача fork/join: делит диапазоны пополам, пока не останется один,
+     * и объединяет накопители, добавляя меньший к большему.
+     */
+    private final class ChunkTask extends RecursiveTask<SalesAccumulator> {
+        private final Rebuild current;
+        private final Map<Long, ProductPrice> prices;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(Rebuild current, Map<Long, ProductPrice> prices, int from, int to) {
+            this.current = current;
+            this.prices = prices;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SalesAccumulator compute() {
+            if (to - from == 1) {
+                return readChunk(current, prices, from);
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(current, prices, from, middle);
+            left.fork();
+            SalesAccumulator right = new ChunkTask(current, prices, middle, to).compute();
+            SalesAccumulator result = left.join();
+            if (result.size() < right.size()) {
+                right.addAll(result);
+                return right;
+            }
+            result.addAll(right);
+            return result;
+        }
+    }
+
+    /**
+     * Состояние одного пересчета: диапазоны, время начала чтения каждого диапазона
+     * и приращения заказов, записанные во время пересчета.
+     */
+    private static final class Rebuild {
+        private final LocalDateTime startedAt;
+        private final Queue<PendingDelta> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger chunksDone = new AtomicInteger();
+        private final AtomicLong lines = new AtomicLong();
+        private volatile long minId;
+        private volatile int chunkIds;
+        private volatile int chunks;
+        private volatile AtomicLongArray chunkStarts = new AtomicLongArray(0);
+
+        private Rebuild(LocalDateTime startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private void init(long minId, int chunkIds, int chunks) {
+            this.minId = minId;
+            this.chunkIds = chunkIds;
+            this.chunkStarts = new AtomicLongArray(chunks);
+            this.chunks = chunks;
+        }
+
+        private void chunkDone(int chunkLines) {
+            lines.addAndGet(chunkLines);
+            int done = chunksDone.incrementAndGet();
+            if (done * 10L / chunks != (done - 1) * 10L / chunks) {
+                LOG.info("Sales rollup rebuild: " + done + " of " + chunks + " chunks, "
+                        + lines.get() + " sale positions");
+            }
+        }
+
+        /**
+         * Забирает из очереди запомненные приращения, не учтенные в пересчитанных строках.
+         * Вызывается после чтения всех диапазонов.
+         */
+        private List<SalesContribution> drainMissed() {
+            List<SalesContribution> missed = new ArrayList<>();
+            for (PendingDelta delta = pending.poll(); delta != null; delta = pending.poll()) {
+                if (!isScannedAfter(delta.delta.getOrderId(), delta.recordedAt)) {
+                    missed.add(delta.delta);
+                }
+            }
+            return missed;
+        }
+
+        /**
+         * Проверяет, начато ли чтение диапазона заказа позже момента, когда было записано его приращение,
+         * то есть учтено ли приращение в пересчитанных строках.
+         */
+        private boolean isScannedAfter(long orderId, long recordedAt) {
+            if (chunks == 0 || orderId < minId || (orderId - minId) / chunkIds >= chunks) {
+                return false;
+            }
+            long scannedAt = chunkStarts.get((int) ((orderId - minId) / chunkIds));
+            return scannedAt != 0 && scannedAt - recordedAt > 0;
+        }
+
+        private SalesRebuildProgress toProgress(LocalDateTime finishedAt, String error) {
+            return new SalesRebuildProgress(finishedAt == null, chunksDone.get(), chunks, lines.get(),
+                    startedAt, finishedAt, error);
+        }
+    }
+
+    /**
+     * Приращение заказа, записанное во время пересчета, и момент записи по {@link System#nanoTime()}.
+     */
+    private static final class PendingDelta {
+        private final SalesContribution delta;
+        private final long recordedAt;
+
+        private PendingDelta(SalesContribution delta, long recordedAt) {
+            this.delta = delta;
+            this.recordedAt = recordedAt;
+        }
+    }
+
+    /**
+     * Цена продажи в копейках и производитель товара.
+     */
+    private static final class ProductPrice {
+        private final String brand;
+        private final long price;
+
+        private ProductPrice(String brand, Money price) {
+            this.brand = brand != null ? brand : "";
+            this.price = price != null ? price.getAmount() : 0;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.transaction.annotation.Transactional;
 import ua.com.mangostore.repository.ShoppingCartRepository;
 import ua.com.mangostore.entity.SalePosition;
 import ua.com.mangostore.exception.BadRequestException;
+import ua.com.mangostore.model.Money;
 import ua.com.mangostore.model.ShoppingCart;
 import ua.com.mangostore.service.ShoppingCartService;
 
@@ -17,9 +18,10 @@ import java.util.List;
  * Класс помечан аннотацией @Service - аннотация обьявляющая, что этот класс представляет
  * собой сервис – компонент сервис-слоя. Сервис является подтипом класса @Component.
  * Использование данной аннотации позволит искать бины-сервисы автоматически.
- * Методы класса помечены аннотацией @Transactional - перед исполнением метода помеченного
+ * Методы изменения корзины помечены аннотацией @Transactional - перед исполнением метода помеченного
  * данной аннотацией начинается транзакция, после выполнения метода транзакция коммитится,
- * при выбрасывании RuntimeException откатывается.
+ * при выбрасывании RuntimeException откатывается. Методы чтения работают только с корзиной
+ * в памяти и транзакцию не открывают.
  *
  * @author Diukarev Sergii
  * @see ShoppingCart
@@ -45,13 +47,12 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
     }
 
     /**
-     * Возвращает объект корзину. Режим только для чтения.
+     * Возвращает объект корзину.
      *
      * @return Объект класса {@link ShoppingCart} - торговая корзина.
      * @throws BadRequestException Бросает исключение, если корзина отсутствует.
      */
     @Override
-    @Transactional(readOnly = true)
     public ShoppingCart getShoppingCart() throws BadRequestException {
         ShoppingCart shoppingCart = shoppingCartDAO.get();
         if (shoppingCart == null) {
@@ -74,12 +75,11 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
     }
 
     /**
-     * Возвращает список всех торговых позиций в корзине. Режим только для чтения.
+     * Возвращает список всех торговых позиций в корзине.
      *
      * @return Объект типа {@link List} - список торговых позиций.
      */
     @Override
-    @Transactional(readOnly = true)
     public List<SalePosition> getSalePositions() {
         return shoppingCartDAO.getSalePositions();
     }
@@ -107,13 +107,12 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
     }
 
     /**
-     * Возвращает цену корзины - цена всех продаж. Режим только для чтения.
+     * Возвращает цену корзины - цена всех продаж.
      *
-     * @return Значение типа double - цена корзины.
+     * @return Объект класса {@link Money} - цена корзины.
      */
     @Override
-    @Transactional(readOnly = true)
-    public double getPrice() {
+    public Money getPrice() {
         return shoppingCartDAO.getPrice();
     }
 
@@ -122,6 +121,7 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
      *
      * @return Значение типа String - цена корзины в отформатированном виде.
      */
+    @Override
     public String getFormatPrice(){
         return shoppingCartDAO.getFormatPrice();
     }
@@ -130,12 +130,10 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
 
     /**
      * Возвращает размер корзины, то есть количество товаров в корзине.
-     * Режим только для чтения.
      *
      * @return Значение типа int - количество товаров в корзине.
      */
     @Override
-    @Transactional(readOnly = true)
     public int getSize() {
         return shoppingCartDAO.getSize();
     }
@@ -0,0 +1,233 @@
+package ua.com.mangostore.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.exception.OutOfStockException;
+import ua.com.mangostore.repository.ProductRepository;
+import ua.com.mangostore.service.StockService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс сервисного слоя для работы с остатками товаров на складе.
+ * Резервирование выполняется условным UPDATE (quantity = quantity - n WHERE quantity >= n),
+ * поэтому параллельные покупатели не могут продать больше, чем есть на складе.
+ * Для отображения наличия на страницах магазина остатки хранятся в счетчиках в памяти,
+ * которые загружаются при первом обращении и уменьшаются после фиксации заказов.
+ * Загруженный остаток запоминается, только если за время чтения ни одна транзакция со складом
+ * этого товара не фиксировалась и не была в процессе фиксации: иначе прочитанное значение могло
+ * не учесть изменение, которое счетчик уже не получит (или учесть его дважды). Изменения других
+ * узлов и записи в обход сервиса счетчик не видит, поэтому остатки перечитываются не реже
+ * чем раз в {@link #RELOAD_INTERVAL_MILLIS} мс.
+ * Товары удаленного (отмененного) заказа возвращаются на склад методом {@link #release(Map)}.
+ *
+ * @author Diukarev Sergii
+ * @see StockService
+ */
+@Service
+public class StockServiceImpl implements StockService {
+    /**
+     * Максимальное время между перечитываниями остатка товара из базы данных, в миллисекундах.
+     */
+    private static final long RELOAD_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /**
+     * Счетчики остатков товаров по коду товара.
+     */
+    private final ConcurrentMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Резервирует товары торговых позиций. Позиции обрабатываются в порядке кодов товаров,
+     * чтобы параллельные заказы блокировали строки в одном порядке и не попадали во взаимную блокировку.
+     * Если хотя бы одного товара не хватает, генерируется исключение и транзакция заказа
+     * откатывается вместе с уже сделанными резервами.
+     *
+     * @param salePositions Торговые позиции заказа.
+     * @throws OutOfStockException Если товара на складе недостаточно.
+     */
+    @Override
+    @Transactional
+    public void reserve(List<SalePosition> salePositions) {
+        List<SalePosition> sorted = new ArrayList<>(salePositions);
+        sorted.sort(Comparator.comparingLong(salePosition -> salePosition.getProduct().getProductId()));
+        for (SalePosition salePosition : sorted) {
+            Product product = salePosition.getProduct();
+            if (productRepository.reserve(product.getProductId(), salePosition.getNumber()) == 0) {
+                throw new OutOfStockException("Недостаточно товара на складе: " + product.getProductTitle());
+            }
+        }
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (SalePosition salePosition : sorted) {
+            deltas.merge(salePosition.getProduct().getProductId(), -salePosition.getNumber(), Integer::sum);
+        }
+        onCompletion(deltas, false);
+    }
+
+    /**
+     * Возвращает на склад товары удаленного заказа. Товары обрабатываются в порядке кодов,
+     * как и при резервировании; счетчики в памяти увеличиваются после фиксации транзакции.
+     *
+     * @param numbers Количество возвращаемых единиц по кодам товаров.
+     */
+    @Override
+    @Transactional
+    public void release(Map<Long, Integer> numbers) {
+        Map<Long, Integer> sorted = new TreeMap<>(numbers);
+        for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+            productRepository.restock(entry.getKey(), entry.getValue());
+        }
+        onCompletion(sorted, false);
+    }
+
+    /**
+     * Добавляет поступивший товар на склад. Количество прибавляется к текущему остатку,
+     * поэтому одновременные продажи не теряются.
+     *
+     * @param productId Код товара.
+     * @param number    Количество поступившего товара.
+     */
+    @Override
+    @Transactional
+    public void restock(long productId, int number) {
+        productRepository.restock(productId, number);
+        onCompletion(Collections.singletonMap(productId, number), true);
+    }
+
+    /**
+     * Возвращает остаток товара из счетчика в памяти, без обращения к базе данных
+     * (кроме первого обращения к товару и перечитывания раз в {@link #RELOAD_INTERVAL_MILLIS} мс).
+     *
+     * @param productId Код товара.
+     * @return Значение типа int - количество товара на складе.
+     */
+    @Override
+    public int getAvailable(long productId) {
+        Counter counter = counter(productId);
+        long now = System.currentTimeMillis();
+        Integer cached = counter.get(now);
+        if (cached != null) {
+            return Math.max(cached, 0);
+        }
+        long version = counter.startLoad();
+        Integer quantity = productRepository.findQuantityById(productId);
+        if (quantity == null) {
+            return 0;
+        }
+        counter.finishLoad(version, quantity, now);
+        return Math.max(quantity, 0);
+    }
+
+    private Counter counter(long productId) {
+        return counters.computeIfAbsent(productId, id -> new Counter());
+    }
+
+    /**
+     * Отмечает счетчики товаров как изменяемые до фиксации текущей транзакции и применяет
+     * изменения после ее завершения. Если транзакции нет, изменения применяются сразу.
+     *
+     * @param deltas     Изменение остатка по кодам товаров.
+     * @param invalidate Сбросить счетчики вместо изменения, чтобы остаток перечитался из базы данных.
+     */
+    private void onCompletion(Map<Long, Integer> deltas, boolean invalidate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+                counter(entry.getKey()).end(false, entry.getValue(), invalidate);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing = true;
+                for (Long productId : deltas.keySet()) {
+                    counter(productId).begin();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+                    Counter counter = counter(entry.getKey());
+                    if (committing) {
+                        counter.end(true, committed ? entry.getValue() : 0, invalidate || status == STATUS_UNKNOWN);
+                    } else if (committed) {
+                        counter.end(false, entry.getValue(), invalidate);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Счетчик остатка товара. Кроме значения хранит количество транзакций, фиксирующих изменения
+     * остатка в данный момент, и номер версии, который растет с каждым зафиксированным изменением:
+     * по ним загрузка из базы данных узнает, что прочитанное значение могло устареть.
+     */
+    private static final class Counter {
+        private Integer value;
+        private long loadedAt;
+        private int pending;
+        private long version;
+
+        /**
+         * Возвращает остаток, если он загружен и не устарел.
+         */
+        private synchronized Integer get(long now) {
+            return value != null && now - loadedAt <= RELOAD_INTERVAL_MILLIS ? value : null;
+        }
+
+        /**
+         * Начинает загрузку остатка.
+         *
+         * @return Версия счетчика или -1, если изменение остатка сейчас фиксируется.
+         */
+        private synchronized long startLoad() {
+            return pending > 0 ? -1 : version;
+        }
+
+        /**
+         * Запоминает загруженный остаток, если с начала загрузки остаток не менялся.
+         */
+        private synchronized void finishLoad(long loadVersion, int quantity, long now) {
+            if (loadVersion >= 0 && pending == 0 && version == loadVersion) {
+                value = quantity;
+                loadedAt = now;
+            }
+        }
+
+        private synchronized void begin() {
+            pending++;
+        }
+
+        private synchronized void end(boolean begun, int delta, boolean invalidate) {
+            if (begun) {
+                pending--;
+            }
+            version++;
+            if (invalidate) {
+                value = null;
+            } else if (value != null) {
+                value += delta;
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Перевод денежных колонок из гривен (DOUBLE PRECISION) в копейки (BIGINT) (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+-- Суммы округляются до копейки, значения NULL остаются NULL.
+
+ALTER TABLE Products
+    ALTER COLUMN FULL_PRICE TYPE BIGINT USING round(FULL_PRICE * 100)::BIGINT,
+    ALTER COLUMN SALE_PRICE TYPE BIGINT USING round(SALE_PRICE * 100)::BIGINT;
+
+ALTER TABLE Orders
+    ALTER COLUMN ORDER_PRICE TYPE BIGINT USING round(ORDER_PRICE * 100)::BIGINT;
+
+ALTER TABLE Deliveries
+    ALTER COLUMN DELIVERY_COST TYPE BIGINT USING round(DELIVERY_COST * 100)::BIGINT;
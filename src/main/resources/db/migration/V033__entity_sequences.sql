@@ -0,0 +1,29 @@
+-- Отдельные последовательности ключей для каждой сущности с блоками по 50 ключей (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+-- Генератор "pooled-lo" получает из последовательности начало блока и выдает следующие 49 ключей
+-- из памяти, поэтому шаг последовательности должен совпадать с mangostore.id.allocation_size,
+-- а следующее значение должно быть больше всех существующих ключей таблицы.
+
+CREATE SEQUENCE IF NOT EXISTS PRODUCT_SEQ;
+ALTER SEQUENCE PRODUCT_SEQ INCREMENT BY 50 MINVALUE 1;
+SELECT setval('PRODUCT_SEQ', (SELECT COALESCE(MAX(PRODUCT_ID), 0) + 1 FROM Products), false);
+
+CREATE SEQUENCE IF NOT EXISTS EMPLOYEE_SEQ;
+ALTER SEQUENCE EMPLOYEE_SEQ INCREMENT BY 50 MINVALUE 1;
+SELECT setval('EMPLOYEE_SEQ', (SELECT COALESCE(MAX(EMPLOYEE_ID), 0) + 1 FROM Employees), false);
+
+CREATE SEQUENCE IF NOT EXISTS CUSTOMER_SEQ;
+ALTER SEQUENCE CUSTOMER_SEQ INCREMENT BY 50 MINVALUE 1;
+SELECT setval('CUSTOMER_SEQ', (SELECT COALESCE(MAX(CUSTOMER_ID), 0) + 1 FROM Customers), false);
+
+CREATE SEQUENCE IF NOT EXISTS DELIVERY_SEQ;
+ALTER SEQUENCE DELIVERY_SEQ INCREMENT BY 50 MINVALUE 1;
+SELECT setval('DELIVERY_SEQ', (SELECT COALESCE(MAX(DELIVERY_ID), 0) + 1 FROM Deliveries), false);
+
+CREATE SEQUENCE IF NOT EXISTS SALE_POSITION_SEQ;
+ALTER SEQUENCE SALE_POSITION_SEQ INCREMENT BY 50 MINVALUE 1;
+SELECT setval('SALE_POSITION_SEQ', (SELECT COALESCE(MAX(SALE_POSITION_ID), 0) + 1 FROM SalePosition), false);
+
+CREATE SEQUENCE IF NOT EXISTS ORDER_SEQ;
+ALTER SEQUENCE ORDER_SEQ INCREMENT BY 50 MINVALUE 1;
+SELECT setval('ORDER_SEQ', (SELECT COALESCE(MAX(ORDER_ID), 0) + 1 FROM Orders), false);
@@ -0,0 +1,49 @@
+-- Получатель заказа в строке заказа и уникальный нормализованный телефон покупателя (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+-- Раньше каждый заказ создавал свою строку покупателя, поэтому сначала имя, телефон и адрес
+-- копируются в заказ, затем строки покупателей с одинаковым телефоном сливаются в одну
+-- (остается последняя), и только после этого создается уникальный индекс UK_CUSTOMERS_PHONE_KEY.
+
+ALTER TABLE Customers ADD COLUMN IF NOT EXISTS PHONE_KEY VARCHAR(10);
+ALTER TABLE Customers ADD COLUMN IF NOT EXISTS EMAIL_KEY VARCHAR(255);
+UPDATE Customers
+SET PHONE_KEY = COALESCE(right(regexp_replace(PHONE, '[^0-9]', '', 'g'), 10), ''),
+    EMAIL_KEY = NULLIF(lower(trim(EMAIL)), '');
+
+ALTER TABLE Orders ADD COLUMN IF NOT EXISTS RECIPIENT_NAME VARCHAR(255);
+ALTER TABLE Orders ADD COLUMN IF NOT EXISTS RECIPIENT_SURNAME VARCHAR(255);
+ALTER TABLE Orders ADD COLUMN IF NOT EXISTS RECIPIENT_PHONE VARCHAR(255);
+ALTER TABLE Orders ADD COLUMN IF NOT EXISTS RECIPIENT_EMAIL VARCHAR(255);
+ALTER TABLE Orders ADD COLUMN IF NOT EXISTS RECIPIENT_CITY VARCHAR(255);
+ALTER TABLE Orders ADD COLUMN IF NOT EXISTS RECIPIENT_ADDRESS VARCHAR(255);
+UPDATE Orders o
+SET RECIPIENT_NAME    = c.NAME,
+    RECIPIENT_SURNAME = c.SURNAME,
+    RECIPIENT_PHONE   = c.PHONE,
+    RECIPIENT_EMAIL   = c.EMAIL,
+    RECIPIENT_CITY    = c.CITY,
+    RECIPIENT_ADDRESS = c.ADDRESS
+FROM Customers c
+WHERE c.CUSTOMER_ID = o.CUSTOMER_ID;
+
+CREATE TEMPORARY TABLE Customer_Merge AS
+SELECT c.CUSTOMER_ID AS OLD_ID, k.KEEP_ID
+FROM Customers c
+         JOIN (SELECT PHONE_KEY, MAX(CUSTOMER_ID) AS KEEP_ID FROM Customers GROUP BY PHONE_KEY) k
+              ON k.PHONE_KEY = c.PHONE_KEY
+WHERE c.CUSTOMER_ID <> k.KEEP_ID;
+
+UPDATE Orders o
+SET CUSTOMER_ID = m.KEEP_ID
+FROM Customer_Merge m
+WHERE o.CUSTOMER_ID = m.OLD_ID;
+
+DELETE FROM Customers c
+USING Customer_Merge m
+WHERE c.CUSTOMER_ID = m.OLD_ID;
+
+DROP TABLE Customer_Merge;
+
+ALTER TABLE Customers ALTER COLUMN PHONE_KEY SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS UK_CUSTOMERS_PHONE_KEY ON Customers (PHONE_KEY);
+CREATE INDEX IF NOT EXISTS IX_CUSTOMERS_EMAIL_KEY ON Customers (EMAIL_KEY);
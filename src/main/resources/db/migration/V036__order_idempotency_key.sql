@@ -0,0 +1,9 @@
+-- Ключ идемпотентности оформления заказа (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+-- Ключ хранится вместе с сессией покупателя ("сессия:ключ"), поэтому колонка длиннее ключа клиента,
+-- а уникальный индекс действует в пределах сессии. Ключи без сессии больше не ищутся и очищаются.
+
+ALTER TABLE Orders ADD COLUMN IF NOT EXISTS IDEMPOTENCY_KEY VARCHAR(160);
+ALTER TABLE Orders ALTER COLUMN IDEMPOTENCY_KEY TYPE VARCHAR(160);
+UPDATE Orders SET IDEMPOTENCY_KEY = NULL WHERE IDEMPOTENCY_KEY IS NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS UK_ORDERS_IDEMPOTENCY_KEY ON Orders (IDEMPOTENCY_KEY);
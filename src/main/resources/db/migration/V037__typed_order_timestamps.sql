@@ -0,0 +1,20 @@
+-- Переход строковых дат заказов и доставок на колонки TIMESTAMP (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+-- Формат старых значений: дата "dd-MM-yyyy", время "H:mm".
+
+ALTER TABLE Orders ADD COLUMN CREATED_AT TIMESTAMP;
+UPDATE Orders
+SET CREATED_AT = to_timestamp(DATE_CREATED || ' ' || TIME_CREATED, 'DD-MM-YYYY HH24:MI');
+ALTER TABLE Orders ALTER COLUMN CREATED_AT SET NOT NULL;
+ALTER TABLE Orders DROP COLUMN DATE_CREATED;
+ALTER TABLE Orders DROP COLUMN TIME_CREATED;
+CREATE INDEX IX_ORDERS_CREATED_AT ON Orders (CREATED_AT);
+
+ALTER TABLE Deliveries ADD COLUMN DELIVERY_AT TIMESTAMP;
+UPDATE Deliveries
+SET DELIVERY_AT = to_timestamp(DELIVERY_DATE || ' ' || DELIVERY_TIME, 'DD-MM-YYYY HH24:MI')
+WHERE DELIVERY_DATE ~ '^[0-9]{2}-[0-9]{2}-[0-9]{4}$'
+  AND DELIVERY_TIME ~ '^[0-9]{1,2}:[0-9]{2}$';
+ALTER TABLE Deliveries DROP COLUMN DELIVERY_DATE;
+ALTER TABLE Deliveries DROP COLUMN DELIVERY_TIME;
+CREATE INDEX IX_DELIVERIES_EMPLOYEE_DELIVERY_AT ON Deliveries (EMPLOYEE_ID, DELIVERY_AT);
@@ -0,0 +1,12 @@
+-- Перевод статуса заказа из порядкового номера константы в ее имя и индекс по статусу (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+
+ALTER TABLE Orders ALTER COLUMN STATUS TYPE VARCHAR(16) USING
+    CASE STATUS
+        WHEN 0 THEN 'NEW'
+        WHEN 1 THEN 'WORK'
+        WHEN 2 THEN 'DELIVERY'
+        WHEN 3 THEN 'CLOSED'
+        WHEN 4 THEN 'DELETED'
+    END;
+CREATE INDEX IX_ORDERS_STATUS ON Orders (STATUS);
@@ -0,0 +1,10 @@
+-- Индексы постраничной выборки консоли заказов менеджера (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+
+DROP INDEX IF EXISTS IX_ORDERS_CREATED_AT;
+DROP INDEX IF EXISTS IX_ORDERS_STATUS;
+CREATE INDEX IX_ORDERS_CREATED_AT ON Orders (CREATED_AT, ORDER_ID);
+CREATE INDEX IX_ORDERS_STATUS ON Orders (STATUS, CREATED_AT, ORDER_ID);
+CREATE INDEX IX_ORDERS_PRICE ON Orders (ORDER_PRICE, ORDER_ID);
+CREATE INDEX IX_ORDERS_CUSTOMER ON Orders (CUSTOMER_ID, CREATED_AT);
+CREATE INDEX IX_DELIVERIES_ORDER_ID ON Deliveries (ORDER_ID);
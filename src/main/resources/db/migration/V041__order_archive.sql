@@ -0,0 +1,31 @@
+-- Архивные таблицы заказов (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+
+CREATE TABLE Archived_Orders (
+    ORDER_ID      BIGINT       NOT NULL PRIMARY KEY,
+    NUMBER        VARCHAR(16)  NOT NULL UNIQUE,
+    STATUS        VARCHAR(16)  NOT NULL,
+    ORDER_PRICE   BIGINT       NOT NULL,
+    CREATED_AT    TIMESTAMP    NOT NULL,
+    ARCHIVED_AT   TIMESTAMP    NOT NULL,
+    CUSTOMER_ID   BIGINT REFERENCES Customers (CUSTOMER_ID),
+    RECIPIENT_NAME    VARCHAR(255),
+    RECIPIENT_SURNAME VARCHAR(255),
+    RECIPIENT_PHONE   VARCHAR(255),
+    RECIPIENT_EMAIL   VARCHAR(255),
+    RECIPIENT_CITY    VARCHAR(255),
+    RECIPIENT_ADDRESS VARCHAR(255),
+    EMPLOYEE_ID   BIGINT REFERENCES Employees (EMPLOYEE_ID),
+    DELIVERY_TYPE VARCHAR(32),
+    DELIVERY_COST BIGINT,
+    DELIVERY_AT   TIMESTAMP,
+    COURIER_ID    BIGINT REFERENCES Employees (EMPLOYEE_ID)
+);
+
+CREATE TABLE Archived_Sale_Positions (
+    SALE_POSITION_ID BIGINT  NOT NULL PRIMARY KEY,
+    PRODUCT_ID       BIGINT  NOT NULL REFERENCES Products (PRODUCT_ID),
+    NUMBER           INTEGER NOT NULL,
+    ORDER_ID         BIGINT  NOT NULL REFERENCES Archived_Orders (ORDER_ID)
+);
+CREATE INDEX IX_ARCHIVED_SALE_POSITIONS_ORDER_ID ON Archived_Sale_Positions (ORDER_ID);
@@ -0,0 +1,44 @@
+-- Сводные таблицы продаж по дням (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+
+CREATE SEQUENCE PRODUCT_SALES_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE BRAND_SALES_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE Product_Sales (
+    PRODUCT_SALES_ID BIGINT NOT NULL PRIMARY KEY,
+    SALE_DATE        DATE   NOT NULL,
+    PRODUCT_ID       BIGINT NOT NULL REFERENCES Products (PRODUCT_ID),
+    UNITS            BIGINT NOT NULL,
+    REVENUE          BIGINT NOT NULL,
+    CONSTRAINT UK_PRODUCT_SALES UNIQUE (SALE_DATE, PRODUCT_ID)
+);
+
+CREATE TABLE Brand_Sales (
+    BRAND_SALES_ID BIGINT       NOT NULL PRIMARY KEY,
+    SALE_DATE      DATE         NOT NULL,
+    BRAND          VARCHAR(255) NOT NULL,
+    UNITS          BIGINT       NOT NULL,
+    REVENUE        BIGINT       NOT NULL,
+    CONSTRAINT UK_BRAND_SALES UNIQUE (SALE_DATE, BRAND)
+);
+
+-- Начальное заполнение по текущим и архивным заказам (удаленные заказы в продажи не входят).
+INSERT INTO Product_Sales (PRODUCT_SALES_ID, SALE_DATE, PRODUCT_ID, UNITS, REVENUE)
+SELECT nextval('PRODUCT_SALES_SEQ'), s.SALE_DATE, s.PRODUCT_ID, s.UNITS, s.REVENUE
+FROM (SELECT CAST(o.CREATED_AT AS DATE) AS SALE_DATE, sp.PRODUCT_ID,
+             SUM(sp.NUMBER) AS UNITS, SUM(sp.NUMBER * p.SALE_PRICE) AS REVENUE
+      FROM (SELECT ORDER_ID, CREATED_AT FROM Orders WHERE STATUS <> 'DELETED'
+            UNION ALL
+            SELECT ORDER_ID, CREATED_AT FROM Archived_Orders WHERE STATUS <> 'DELETED') o
+      JOIN (SELECT ORDER_ID, PRODUCT_ID, NUMBER FROM SalePosition
+            UNION ALL
+            SELECT ORDER_ID, PRODUCT_ID, NUMBER FROM Archived_Sale_Positions) sp ON sp.ORDER_ID = o.ORDER_ID
+      JOIN Products p ON p.PRODUCT_ID = sp.PRODUCT_ID
+      GROUP BY CAST(o.CREATED_AT AS DATE), sp.PRODUCT_ID) s;
+
+INSERT INTO Brand_Sales (BRAND_SALES_ID, SALE_DATE, BRAND, UNITS, REVENUE)
+SELECT nextval('BRAND_SALES_SEQ'), s.SALE_DATE, s.BRAND, s.UNITS, s.REVENUE
+FROM (SELECT ps.SALE_DATE, COALESCE(p.BRAND, '') AS BRAND, SUM(ps.UNITS) AS UNITS, SUM(ps.REVENUE) AS REVENUE
+      FROM Product_Sales ps
+      JOIN Products p ON p.PRODUCT_ID = ps.PRODUCT_ID
+      GROUP BY ps.SALE_DATE, COALESCE(p.BRAND, '')) s;
@@ -0,0 +1,19 @@
+-- Поколения сводных таблиц продаж: пересчет пишет новые строки рядом с действующими (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+
+ALTER TABLE Product_Sales ADD COLUMN GENERATION BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE Product_Sales ALTER COLUMN GENERATION DROP DEFAULT;
+ALTER TABLE Product_Sales DROP CONSTRAINT UK_PRODUCT_SALES;
+ALTER TABLE Product_Sales ADD CONSTRAINT UK_PRODUCT_SALES UNIQUE (GENERATION, SALE_DATE, PRODUCT_ID);
+
+ALTER TABLE Brand_Sales ADD COLUMN GENERATION BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE Brand_Sales ALTER COLUMN GENERATION DROP DEFAULT;
+ALTER TABLE Brand_Sales DROP CONSTRAINT UK_BRAND_SALES;
+ALTER TABLE Brand_Sales ADD CONSTRAINT UK_BRAND_SALES UNIQUE (GENERATION, SALE_DATE, BRAND);
+
+CREATE TABLE Sales_Generation (
+    SALES_GENERATION_ID BIGINT NOT NULL PRIMARY KEY,
+    GENERATION          BIGINT NOT NULL
+);
+
+INSERT INTO Sales_Generation (SALES_GENERATION_ID, GENERATION) VALUES (1, 0);
@@ -0,0 +1,29 @@
+-- Уникальный индекс номера заказа для страницы отслеживания заказа (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+
+BEGIN;
+
+-- Новые заказы не оформляются, пока повторы перенумеровываются и строится индекс.
+LOCK TABLE Orders IN SHARE ROW EXCLUSIVE MODE;
+
+-- Номер сохраняет самый ранний заказ, остальные заказы с тем же номером получают номер "U<код заказа>".
+-- Буквы U нет в номерах OrderNumberGenerator, поэтому новые номера не совпадут с выданными.
+-- Перенумерованные заказы выводятся, чтобы сообщить покупателям новые номера.
+CREATE TEMPORARY TABLE Renumbered_Orders AS
+SELECT ORDER_ID, NUMBER AS OLD_NUMBER, 'U' || ORDER_ID AS NEW_NUMBER
+FROM (SELECT ORDER_ID, NUMBER,
+             ROW_NUMBER() OVER (PARTITION BY NUMBER ORDER BY CREATED_AT, ORDER_ID) AS RN
+      FROM Orders) o
+WHERE o.RN > 1;
+
+UPDATE Orders o SET NUMBER = r.NEW_NUMBER
+FROM Renumbered_Orders r
+WHERE o.ORDER_ID = r.ORDER_ID;
+
+SELECT ORDER_ID, OLD_NUMBER, NEW_NUMBER FROM Renumbered_Orders ORDER BY OLD_NUMBER, ORDER_ID;
+
+DROP TABLE Renumbered_Orders;
+
+CREATE UNIQUE INDEX IF NOT EXISTS UK_ORDERS_NUMBER ON Orders (NUMBER);
+
+COMMIT;
@@ -0,0 +1,52 @@
+-- Денормализованные сводки заказов для списков заказов менеджера и курьера (PostgreSQL).
+-- Нужен только для базы, которая не пересоздается при старте (hibernate.hbm2ddl.auto != create).
+-- Сводки существующих заказов заполняются из заказов (получатель берется из колонок RECIPIENT_*,
+-- см. V034), доставок и торговых позиций,
+-- дальше сводки обновляются приложением в транзакциях изменения заказов.
+
+CREATE TABLE Order_Summary (
+    ORDER_ID         BIGINT       NOT NULL PRIMARY KEY,
+    NUMBER           VARCHAR(16)  NOT NULL,
+    STATUS           VARCHAR(16)  NOT NULL,
+    CREATED_AT       TIMESTAMP    NOT NULL,
+    ORDER_PRICE      BIGINT       NOT NULL,
+    ITEM_COUNT       INTEGER      NOT NULL,
+    CUSTOMER_ID      BIGINT,
+    CUSTOMER_NAME    VARCHAR(255),
+    CUSTOMER_SURNAME VARCHAR(255),
+    CUSTOMER_PHONE   VARCHAR(255),
+    SURNAME_KEY      VARCHAR(255),
+    PHONE_KEY        VARCHAR(10),
+    EMAIL_KEY        VARCHAR(255),
+    CITY             VARCHAR(255),
+    DELIVERY_TYPE    VARCHAR(255),
+    DELIVERY_AT      TIMESTAMP,
+    COURIER_ID       BIGINT,
+    COURIER_NAME     VARCHAR(255)
+);
+
+INSERT INTO Order_Summary (ORDER_ID, NUMBER, STATUS, CREATED_AT, ORDER_PRICE, ITEM_COUNT,
+                           CUSTOMER_ID, CUSTOMER_NAME, CUSTOMER_SURNAME, CUSTOMER_PHONE, SURNAME_KEY,
+                           PHONE_KEY, EMAIL_KEY, CITY, DELIVERY_TYPE, DELIVERY_AT, COURIER_ID, COURIER_NAME)
+SELECT o.ORDER_ID, o.NUMBER, o.STATUS, o.CREATED_AT, o.ORDER_PRICE,
+       COALESCE((SELECT SUM(sp.NUMBER) FROM SalePosition sp WHERE sp.ORDER_ID = o.ORDER_ID), 0),
+       o.CUSTOMER_ID, o.RECIPIENT_NAME, o.RECIPIENT_SURNAME, o.RECIPIENT_PHONE,
+       NULLIF(lower(trim(o.RECIPIENT_SURNAME)), ''),
+       right(regexp_replace(o.RECIPIENT_PHONE, '[^0-9]', '', 'g'), 10),
+       NULLIF(lower(trim(o.RECIPIENT_EMAIL)), ''), o.RECIPIENT_CITY,
+       d.DELIVERY_TYPE, d.DELIVERY_AT, e.EMPLOYEE_ID, e.FULL_NAME
+FROM Orders o
+         LEFT JOIN Deliveries d ON d.ORDER_ID = o.ORDER_ID
+         LEFT JOIN Employees e ON e.EMPLOYEE_ID = d.EMPLOYEE_ID;
+
+CREATE INDEX IX_ORDER_SUMMARY_CREATED_AT ON Order_Summary (CREATED_AT, ORDER_ID);
+CREATE INDEX IX_ORDER_SUMMARY_STATUS ON Order_Summary (STATUS, CREATED_AT, ORDER_ID);
+CREATE INDEX IX_ORDER_SUMMARY_PRICE ON Order_Summary (ORDER_PRICE, ORDER_ID);
+CREATE INDEX IX_ORDER_SUMMARY_STATUS_PRICE ON Order_Summary (STATUS, ORDER_PRICE, ORDER_ID);
+CREATE INDEX IX_ORDER_SUMMARY_DELIVERY ON Order_Summary (DELIVERY_TYPE, CREATED_AT, ORDER_ID);
+CREATE INDEX IX_ORDER_SUMMARY_PHONE_KEY ON Order_Summary (PHONE_KEY, CREATED_AT);
+CREATE INDEX IX_ORDER_SUMMARY_EMAIL_KEY ON Order_Summary (EMAIL_KEY, CREATED_AT);
+-- varchar_pattern_ops: индекс используется для "SURNAME_KEY like 'начало%'" при любой сортировке базы.
+CREATE INDEX IX_ORDER_SUMMARY_SURNAME_KEY ON Order_Summary (SURNAME_KEY varchar_pattern_ops, CREATED_AT);
+CREATE INDEX IX_ORDER_SUMMARY_CUSTOMER ON Order_Summary (CUSTOMER_ID);
+CREATE INDEX IX_ORDER_SUMMARY_COURIER ON Order_Summary (COURIER_ID, DELIVERY_AT);
@@ -14,6 +14,9 @@
     <!-- RIGHT BLOCK -->
     <jsp:include page="/WEB-INF/pages/template/right-block-1.jsp"/>
     <h3>Моя корзина</h3>
+    <c:if test="${not empty stock_error}">
+        <p style="color: #f6731c">${stock_error}</p>
+    </c:if>
 
 <c:choose>
     <c:when test="${cart_size > 0}">
@@ -27,6 +30,8 @@
         Ваша корзина все ещё пуста =(
     </c:otherwise>
 </c:choose>
+    <!-- RECENTLY VIEWED -->
+    <jsp:include page="/WEB-INF/pages/template/recently-viewed.jsp"/>
     <!-- BASEMENT -->
     <jsp:include page="/WEB-INF/pages/template/basement.jsp"/>
 
@@ -21,6 +21,7 @@
         <br>
         <p>Менеджер по продажам свяжется с Вами в ближайшее время!</p>
         <p>Номер вашего заказа: <b>${order.number}</b></p>
+        <p>Состояние заказа можно узнать на странице <a href="/track?number=${order.number}">Отследить заказ</a></p>
         <p>Будем рады видеть Вас снова!</p>
         <p>Телефон для связи с нами:</p>
         <p>+38(093)539-53-05</p>
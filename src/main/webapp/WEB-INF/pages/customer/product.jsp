@@ -43,6 +43,9 @@
                     <sup style="font-size:12px; margin-left:-5px;">грн&nbsp;</sup>
                     </span>
                         <br>
+                        <c:choose>
+                            <c:when test="${available > 0}">
+                        <span style="color: green">Есть в наличии</span>
                         <form action="/cart-add" method=post>
                             <input type="hidden" name="id" value="${product.productId}">
                             <input type="hidden" name="url" value="${url}">
@@ -50,6 +53,11 @@
                             Купить
                         </button>
                         </form>
+                            </c:when>
+                            <c:otherwise>
+                        <span style="color: gray">Нет в наличии</span>
+                            </c:otherwise>
+                        </c:choose>
                     </span>
 
                 <p style="font-size: medium">${product.specification}</p>
@@ -61,6 +69,8 @@
         <div style="margin-left: 2px; margin-top: 0px;width: 720px; float: left;">
             ${product.description}
         </div>
+        <!-- RECENTLY VIEWED -->
+        <jsp:include page="/WEB-INF/pages/template/recently-viewed.jsp"/>
     </div>
     <!-- BASEMENT -->
     <jsp:include page="/WEB-INF/pages/template/basement.jsp"/>
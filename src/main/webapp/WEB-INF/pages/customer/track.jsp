@@ -0,0 +1,48 @@
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+
+<!DOCTYPE HTML PUBLIC "-//W3C//DTD HTML 4.01 Transitional//EN">
+
+<head>
+    <title>Отследить заказ | MANGO STORE</title>
+    <!-- HEAD -->
+    <jsp:include page="/WEB-INF/pages/template/head.jsp"/>
+</head>
+
+<body>
+<div class="container">
+    <!-- MENU -->
+    <jsp:include page="/WEB-INF/pages/template/menu.jsp"/>
+    <!-- RIGHT BLOCK -->
+    <jsp:include page="/WEB-INF/pages/template/right-block-1.jsp"/>
+
+    <div class="main-block" style="height: 350px">
+        <h3>Отследить заказ</h3>
+        <form action="/track" method="get">
+            <strong><p style="font-size: 16px">Номер заказа</p></strong>
+            <input type="text" class="form-control" name="number" value="<c:out value="${number}"/>"
+                   maxlength="16" placeholder="Введите номер заказа" required>
+            <strong><p style="font-size: 16px;margin-top: 10px;">Телефон</p></strong>
+            <input type="text" class="form-control" name="phone" value="<c:out value="${phone}"/>"
+                   placeholder="Телефон, указанный при оформлении заказа" required>
+            <br>
+            <button class="btn btn_in_section">Найти</button>
+        </form>
+        <br>
+        <c:if test="${not empty tracking}">
+            <p>Заказ <b>${tracking.number}</b> от ${tracking.created}</p>
+            <p>Статус: <b>${tracking.status}</b></p>
+            <c:if test="${not empty tracking.deliveryType}">
+                <p>Доставка: ${tracking.deliveryType} ${tracking.delivery}</p>
+            </c:if>
+        </c:if>
+        <c:if test="${not_found}">
+            <p>Заказ с таким номером и телефоном не найден. Проверьте данные или позвоните нам: 0 800 00 71 30</p>
+        </c:if>
+    </div>
+    <!-- BASEMENT -->
+    <jsp:include page="/WEB-INF/pages/template/basement.jsp"/>
+</div>
+
+</body>
+</html>
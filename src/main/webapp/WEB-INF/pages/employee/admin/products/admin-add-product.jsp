@@ -64,6 +64,12 @@
                                    minlength="1" maxlength="10" style="width:100px" required>
                         </td>
                     </tr>
+                    <tr>
+                        <th>Количество на складе:</th>
+                        <td><input class="form-control" type="number" name="quantity" value="0"
+                                   min="0" style="width:100px" required>
+                        </td>
+                    </tr>
                     <tr>
                         <th>На главной:</th>
                         <td>
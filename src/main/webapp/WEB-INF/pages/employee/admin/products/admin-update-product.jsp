@@ -69,6 +69,16 @@
                                    minlength="1" maxlength="10" style="width:90px" pattern="(\d+)?([\.,]\d+)?" required>
                         </td>
                     </tr>
+                    <tr>
+                        <th>На складе:</th>
+                        <td>${available}</td>
+                    </tr>
+                    <tr>
+                        <th>Поступление на склад:</th>
+                        <td><input class="form-control" type="number" name="arrival" value="0"
+                                   min="0" style="width:90px">
+                        </td>
+                    </tr>
                     <tr>
                         <th>На главной:</th>
                         <td>
@@ -21,6 +21,15 @@
             <h3 style="font-size: 30px">Категория: Все ваши доставки</h3>
         </div>
 
+        <!-- DATE FILTER -->
+        <div class="row">
+            <form class="form-inline" action="/courier/deliveries" method="get">
+                <label>График на <input class="form-control" type="date" name="date" value="${date}"></label>
+                <button class="btn" type="submit">Показать</button>
+                <a class="btn" href="/courier/deliveries">Все доставки</a>
+            </form>
+        </div>
+
         <!-- ALL DELIVERIES -->
         <div class="row admin-title">
             <h3>Список ваших доставок:
@@ -39,18 +48,20 @@
                                 <th>Номер</th>
                                 <th>Статус</th>
                                 <th>Дата и время</th>
+                                <th>Доставка</th>
                                 <th></th>
                                 <th></th>
                             </tr>
 
                             <c:forEach items="${deliveries}" var="delivery">
                                 <tr>
-                                    <td>${delivery.getOrder().number} </td>
-                                    <td>${delivery.getOrder().status.toString()}</td>
-                                    <td> ${delivery.getOrder().dateCreated} ${delivery.order.timeCreated}</td>
+                                    <td>${delivery.number} </td>
+                                    <td>${delivery.status.toString()}</td>
+                                    <td> ${delivery.dateCreated} ${delivery.timeCreated}</td>
+                                    <td> ${delivery.deliveryDate} ${delivery.deliveryTime}</td>
                                     <form action="/courier/update" method="get">
                                         <td align="left">
-                                            <input type="hidden" name="id" value="${delivery.order.orderId}">
+                                            <input type="hidden" name="id" value="${delivery.orderId}">
                                             <button class="btn" style="margin-top: 3px">
                                                 Смотреть и редактировать доставку
                                             </button>
@@ -21,6 +21,7 @@
                         <th>Статус</th>
                         <th>Дата и время</th>
                         <th>Город</th>
+                        <th>Товаров</th>
                         <th></th>
                     </tr>
 
@@ -29,7 +30,8 @@
                             <td>${order.number}</td>
                             <td>${order.status.toString()}</td>
                             <td> ${order.dateCreated} ${order.timeCreated}</td>
-                            <td>${order.customer.city}</td>
+                            <td>${order.city}</td>
+                            <td>${order.itemCount}</td>
                             <form action="/courier/update" method="get">
                                 <td align="left">
                                     <input type="hidden" name="id" value="${order.orderId}">
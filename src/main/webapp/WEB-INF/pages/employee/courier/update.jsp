@@ -28,6 +28,7 @@
     <div class="row">
         <div style="margin-top: 12px; height: 700px">
             <div class="col-lg-12" style="margin-top: 12px">
+                <c:if test="${message ne null}"><p style="color: red">${message}</p></c:if>
                 <form action="/courier/updated">
                     <table class="table">
                         <tr>
@@ -53,15 +54,15 @@
                         </tr>
                         <tr>
                             <th>Адресс доставки</th>
-                            <td>${order.customer.city}, ${order.customer.address}</td>
+                            <td>${order.recipient.city}, ${order.recipient.address}</td>
                         </tr>
                         <tr>
                             <th>Телефон покупателя</th>
-                            <td>${order.customer.phone}</td>
+                            <td>${order.recipient.phone}</td>
                         </tr>
                         <tr>
                             <th>Фамилия и имя покупателя</th>
-                            <td>${order.customer.surname} ${order.customer.name}</td>
+                            <td>${order.recipient.surname} ${order.recipient.name}</td>
                         </tr>
                         <tr>
                             <th>Тип доставки</th>
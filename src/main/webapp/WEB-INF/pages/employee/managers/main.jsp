@@ -19,9 +19,149 @@
         <div class="row admin-main-title">
             <h3 style="font-size: 30px">Категория: Заказы</h3>
         </div>
+        <!-- ORDER COUNTERS -->
+        <div class="row">
+            <p>Всего заказов: ${orderCount}
+                <c:forEach items="${statuses}" var="item">
+                    | ${item.toString()}: ${orderCounts[item]}
+                </c:forEach>
+                | Курьеров: ${courierCount}
+            </p>
+        </div>
+        <!-- ORDER FILTER -->
+        <div class="row">
+            <form class="form-inline" action="/managers/main" method="get">
+                <select class="form-control" name="status">
+                    <option value="">Все статусы</option>
+                    <c:forEach items="${statuses}" var="item">
+                        <option value="${item.name()}" ${item eq filter.status ? 'selected' : ''}>${item.toString()}</option>
+                    </c:forEach>
+                </select>
+                <select class="form-control" name="delivery">
+                    <option value="">Все доставки</option>
+                    <c:forEach items="${deliveryTypes}" var="item">
+                        <option value="${item.name()}" ${item eq filter.deliveryType ? 'selected' : ''}>${item.toString()}</option>
+                    </c:forEach>
+                </select>
+                <label>С <input class="form-control" type="date" name="from" value="${filter.from}"></label>
+                <label>по <input class="form-control" type="date" name="to" value="${filter.to}"></label>
+                <input class="form-control" type="text" name="customer" value="${filter.customer}"
+                       placeholder="Телефон, e-mail или фамилия" maxlength="100">
+                <select class="form-control" name="sort">
+                    <c:forEach items="${sorts}" var="item">
+                        <option value="${item.name()}" ${item eq filter.sort ? 'selected' : ''}>${item.toString()}</option>
+                    </c:forEach>
+                </select>
+                <button class="btn" type="submit">Показать</button>
+                <a class="btn" href="/managers/main">Сбросить</a>
+            </form>
+            <c:if test="${message ne null}">
+                <p style="color: red">${message}</p>
+            </c:if>
+        </div>
+        <!-- ORDER FEED -->
+        <div class="row" id="order-feed-notice" style="display: none">
+            <a class="btn" href="">Новых заказов: <span id="order-feed-count">0</span> - обновить</a>
+        </div>
         <!-- ALL ORDERS -->
         <jsp:include page="/WEB-INF/pages/employee/managers/orders.jsp"/>
+        <!-- PAGINATION -->
+        <div class="row">
+            <c:if test="${filter.hasCursor()}">
+                <c:url var="firstPage" value="/managers/main">
+                    <c:param name="status" value="${filter.status}"/>
+                    <c:param name="delivery" value="${filter.deliveryType}"/>
+                    <c:param name="from" value="${filter.from}"/>
+                    <c:param name="to" value="${filter.to}"/>
+                    <c:param name="customer" value="${filter.customer}"/>
+                    <c:param name="sort" value="${filter.sort.name()}"/>
+                </c:url>
+                <a class="btn" href="${firstPage}">В начало</a>
+            </c:if>
+            <c:if test="${not page.last}">
+                <c:url var="nextPage" value="/managers/main">
+                    <c:param name="status" value="${filter.status}"/>
+                    <c:param name="delivery" value="${filter.deliveryType}"/>
+                    <c:param name="from" value="${filter.from}"/>
+                    <c:param name="to" value="${filter.to}"/>
+                    <c:param name="customer" value="${filter.customer}"/>
+                    <c:param name="sort" value="${filter.sort.name()}"/>
+                    <c:param name="after" value="${page.nextCursor}"/>
+                </c:url>
+                <a class="btn" href="${nextPage}">Следующие</a>
+            </c:if>
+        </div>
     </div>
+    <script type="text/javascript">
+        (function () {
+            if (!window.EventSource) {
+                return;
+            }
+            // новые заказы вставляются в таблицу только на первой странице без фильтров,
+            // иначе показывается количество новых заказов
+            var live = ${empty pageContext.request.queryString};
+            var created = 0;
+            var source = new EventSource('/managers/orders/feed');
+
+            function cell(row, text, className) {
+                var td = row.insertCell(-1);
+                td.textContent = text || '';
+                if (className) {
+                    td.className = className;
+                }
+                return td;
+            }
+
+            source.addEventListener('order-created', function (e) {
+                var order = JSON.parse(e.data);
+                var table = document.getElementById('orders');
+                if (!live || !table) {
+                    if (live) {
+                        window.location.reload();
+                        return;
+                    }
+                    document.getElementById('order-feed-count').textContent = ++created;
+                    document.getElementById('order-feed-notice').style.display = '';
+                    return;
+                }
+                var row = table.insertRow(1);
+                row.setAttribute('data-order-id', order.orderId);
+                cell(row, order.number);
+                cell(row, order.customer);
+                cell(row, order.status, 'order-status');
+                cell(row, order.city);
+                cell(row, order.delivery);
+                cell(row);
+                cell(row, order.createdAt);
+                cell(row, order.items);
+                cell(row, order.price);
+                var link = document.createElement('a');
+                link.href = '/managers/order-' + order.orderId;
+                link.className = 'btn btn-change-order';
+                link.textContent = 'Смотреть и редактировать';
+                cell(row).appendChild(link);
+                cell(row);
+                var box = document.createElement('input');
+                box.type = 'checkbox';
+                box.name = 'ids';
+                box.value = order.orderId;
+                box.setAttribute('form', 'bulk-status');
+                cell(row).appendChild(box);
+            });
+
+            source.addEventListener('status-changed', function (e) {
+                var order = JSON.parse(e.data);
+                var row = document.querySelector('tr[data-order-id="' + order.orderId + '"]');
+                if (row) {
+                    row.querySelector('.order-status').textContent = order.status;
+                }
+            });
+
+            source.addEventListener('reload', function () {
+                window.location.reload();
+            });
+        })();
+    </script>
     <!-- BASEMENT -->
     <jsp:include page="/WEB-INF/pages/template/basement.jsp"/>
 
@@ -10,6 +10,9 @@
             <li class="dropdown">
                 <a href="/managers/couriers">Курьеры</a>
             </li>
+            <li class="dropdown">
+                <a href="/managers/sales">Продажи</a>
+            </li>
         </ul>
     </div>
 </div>
\ No newline at end of file
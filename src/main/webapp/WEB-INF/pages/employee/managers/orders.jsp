@@ -5,7 +5,7 @@
 
 <div class="row admin-title">
     <h3>Список заказов:
-        <c:if test="${fn:length(orders) eq 0}">
+        <c:if test="${fn:length(page.rows) eq 0}">
             <span style="color: red"> Пуст!</span>
         </c:if>
     </h3>
@@ -14,25 +14,46 @@
 <div class="row">
     <div style="margin-top: 12px">
         <div class="col-lg-12" style="margin-top: 12px">
-            <c:if test="${fn:length(orders) gt 0}">
-                <table class="table">
+            <c:if test="${fn:length(page.rows) gt 0}">
+                <form class="form-inline" id="bulk-status" action="/managers/orders/status" method="post">
+                    <select class="form-control" name="status">
+                        <c:forEach items="${statuses}" var="item">
+                            <c:if test="${item.name() ne 'NEW'}">
+                                <option value="${item.name()}">${item.toString()}</option>
+                            </c:if>
+                        </c:forEach>
+                    </select>
+                    <button class="btn" type="submit">Перевести отмеченные</button>
+                </form>
+                <table class="table" id="orders">
                     <tr>
                         <th>Номер</th>
-                        <th></th>
+                        <th>Покупатель</th>
                         <th>Статус</th>
-                        <th></th>
+                        <th>Город</th>
+                        <th>Доставка</th>
+                        <th>Курьер</th>
                         <th>Дата и время</th>
+                        <th>Товаров</th>
+                        <th>Сумма, грн</th>
                         <th></th>
                         <th></th>
+                        <th><input type="checkbox" title="Отметить все"
+                                   onclick="var checked = this.checked; [].forEach.call(document.querySelectorAll('input[name=ids]'), function (box) { box.checked = checked; });">
+                        </th>
                     </tr>
 
-                    <c:forEach items="${orders}" var="order">
-                        <tr>
+                    <c:forEach items="${page.rows}" var="order">
+                        <tr data-order-id="${order.orderId}">
                             <td>${order.number} </td>
-                            <td></td>
-                            <td>${order.status.toString()}</td>
-                            <td></td>
+                            <td>${order.customerName} ${order.customerSurname} ${order.customerPhone}</td>
+                            <td class="order-status">${order.status.toString()}</td>
+                            <td>${order.city}</td>
+                            <td>${order.deliveryType.toString()}</td>
+                            <td>${order.courierName}</td>
                             <td> ${order.dateCreated} ${order.timeCreated}</td>
+                            <td>${order.itemCount}</td>
+                            <td>${order.orderPrice.format()}</td>
                             <td align="center">
                                 <a href="/managers/order-${order.orderId}" method=get>
                                     <button class="btn btn-change-order" style="margin-top: 3px">
@@ -46,7 +67,7 @@
                                     <button class="btn btn-remove-order" type="submit">Удалить</button>
                                 </form>
                             </td>
-                            <td></td>
+                            <td><input type="checkbox" name="ids" value="${order.orderId}" form="bulk-status"></td>
                         </tr>
                     </c:forEach>
                 </table>
@@ -0,0 +1,103 @@
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="fn" uri="http://java.sun.com/jsp/jstl/functions" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<!DOCTYPE HTML PUBLIC "-//W3C//DTD HTML 4.01 Transitional//EN">
+
+<head>
+    <title>Продажи | Админ панель</title>
+    <!-- HEAD -->
+    <jsp:include page="/WEB-INF/pages/template/head.jsp"/>
+</head>
+
+<body style="background-image: none; background-color: lightgrey">
+<div class="container">
+    <!-- LOGIN HEADER -->
+    <jsp:include page="/WEB-INF/pages/employee/managers/login-header.jsp"/>
+    <!-- MANAGER MENU -->
+    <jsp:include page="/WEB-INF/pages/employee/managers/manager-general-menu.jsp"/>
+
+    <div class="admin-page">
+        <div class="row admin-main-title">
+            <h3 style="font-size: 30px">Категория: Продажи</h3>
+        </div>
+        <!-- SALES FILTER -->
+        <div class="row">
+            <form class="form-inline" action="/managers/sales" method="get">
+                <select class="form-control" name="group">
+                    <option value="brand" ${group eq 'brand' ? 'selected' : ''}>По производителям</option>
+                    <option value="product" ${group eq 'product' ? 'selected' : ''}>По товарам</option>
+                </select>
+                <label>С <input class="form-control" type="date" name="from" value="${from}"></label>
+                <label>по <input class="form-control" type="date" name="to" value="${to}"></label>
+                <button class="btn" type="submit">Показать</button>
+                <c:url var="csv" value="/managers/sales.csv">
+                    <c:param name="group" value="${group}"/>
+                    <c:param name="from" value="${from}"/>
+                    <c:param name="to" value="${to}"/>
+                </c:url>
+                <a class="btn" href="${csv}">Скачать CSV</a>
+            </form>
+        </div>
+        <!-- SALES REBUILD -->
+        <div class="row" style="margin-top: 12px">
+            <form class="form-inline" action="/managers/sales/rebuild" method="post">
+                <c:choose>
+                    <c:when test="${rebuild.running}">
+                        <span>Пересчет продаж: ${rebuild.percent}% (${rebuild.chunksDone} из ${rebuild.chunksTotal}),
+                            прочитано позиций: ${rebuild.lines}</span>
+                    </c:when>
+                    <c:otherwise>
+                        <button class="btn" type="submit">Пересчитать продажи</button>
+                        <c:if test="${rebuild.finishedAt ne null}">
+                            <span>Последний пересчет: ${rebuild.finishedAt}, прочитано позиций: ${rebuild.lines}</span>
+                        </c:if>
+                        <c:if test="${rebuild.error ne null}">
+                            <span style="color: red"> Ошибка: ${fn:escapeXml(rebuild.error)}</span>
+                        </c:if>
+                    </c:otherwise>
+                </c:choose>
+            </form>
+        </div>
+        <div class="row admin-title">
+            <h3>Продано единиц: ${totalUnits}, выручка: ${totalRevenue.format()} грн
+                <c:if test="${fn:length(rows) eq 0}">
+                    <span style="color: red"> Продаж нет!</span>
+                </c:if>
+            </h3>
+        </div>
+
+        <div class="row">
+            <div style="margin-top: 12px">
+                <div class="col-lg-12" style="margin-top: 12px">
+                    <c:if test="${fn:length(rows) gt 0}">
+                        <table class="table">
+                            <tr>
+                                <c:if test="${group eq 'product'}">
+                                    <th>Товар</th>
+                                </c:if>
+                                <th>Производитель</th>
+                                <th>Продано, шт.</th>
+                                <th>Выручка, грн</th>
+                            </tr>
+                            <c:forEach items="${rows}" var="row">
+                                <tr>
+                                    <c:if test="${group eq 'product'}">
+                                        <td>${row.title}</td>
+                                    </c:if>
+                                    <td>${row.brand}</td>
+                                    <td>${row.units}</td>
+                                    <td>${row.revenue.format()}</td>
+                                </tr>
+                            </c:forEach>
+                        </table>
+                    </c:if>
+                </div>
+            </div>
+        </div>
+        <!-- BASEMENT -->
+        <jsp:include page="/WEB-INF/pages/template/basement.jsp"/>
+
+    </div>
+</div>
+</body>
+</html>
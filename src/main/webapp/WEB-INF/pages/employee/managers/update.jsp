@@ -46,7 +46,7 @@
                     <tr>
                         <th style="font-size: medium;">Имя покупателя:</th>
                         <td>
-                            <input class="form-control" type="text" name="name" value="${customer.name}"
+                            <input class="form-control" type="text" name="name" value="${recipient.name}"
                                    minlength="5" maxlength="100" style="width:600px" pattern="[А-Яа-я]+"
                                    required>
                         </td>
@@ -54,7 +54,7 @@
                     <tr>
                         <th style="font-size: medium;">Фамилия покупателя:</th>
                         <td>
-                            <input class="form-control" type="text" name="surname" value="${customer.surname}"
+                            <input class="form-control" type="text" name="surname" value="${recipient.surname}"
                                    minlength="5" maxlength="100" style="width:600px" pattern="[А-Яа-я]+"
                                    required>
                         </td>
@@ -62,7 +62,7 @@
                     <tr>
                         <th style="font-size: medium;">Почта:</th>
                         <td>
-                            <input class="form-control" type="text" name="email" value="${customer.email}"
+                            <input class="form-control" type="text" name="email" value="${recipient.email}"
                                    minlength="5" maxlength="100" style="width:600px"
                                    required>
                         </td>
@@ -70,7 +70,7 @@
                     <tr>
                         <th style="font-size: medium;">Телефон:</th>
                         <td>
-                            <input class="form-control" type="text" name="phone" value="${customer.phone}"
+                            <input class="form-control" type="text" name="phone" value="${recipient.phone}"
                                    minlength="5" maxlength="100" style="width:600px"
                                    required>
                         </td>
@@ -78,7 +78,7 @@
                     <tr>
                         <th style="font-size: medium;">Город:</th>
                         <td>
-                            <input class="form-control" type="text" name="city" value="${customer.city}"
+                            <input class="form-control" type="text" name="city" value="${recipient.city}"
                                    minlength="5" maxlength="100" style="width:600px"
                                    required>
                         </td>
@@ -86,7 +86,7 @@
                     <tr>
                         <th style="font-size: medium;">Адресс:</th>
                         <td>
-                            <input class="form-control" type="text" name="address" value="${customer.address}"
+                            <input class="form-control" type="text" name="address" value="${recipient.address}"
                                    minlength="5" maxlength="100" style="width:600px">
                         </td>
                     </tr>
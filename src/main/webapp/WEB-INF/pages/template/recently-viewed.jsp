@@ -0,0 +1,21 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+
+<c:if test="${not empty recentlyViewed}">
+    <div class="products col-lg-12" style="margin-bottom: 20px">
+        <h4 style="padding-left: 5px;">Вы недавно смотрели</h4>
+        <c:forEach items="${recentlyViewed}" var="viewed">
+            <div class="col-lg-3">
+                <a href="/product-${viewed.productId}">
+                    <img src="<c:out value="${viewed.imageURL}"/>" alt="${viewed.productTitle}" height="120">
+                </a>
+                <br>
+                <a class="title-review" href="/product-${viewed.productId}">${viewed.productTitle}</a>
+                <p class="main-review">
+                    ${viewed.getFormatSalePrice()}
+                    <sup style="font-size:12px; margin-left:-5px;">грн</sup>
+                </p>
+            </div>
+        </c:forEach>
+    </div>
+</c:if>
@@ -4,6 +4,7 @@
 
 <div class="registration_order" style="margin-left: 20px;">
     <form action="/checkout" method="post">
+        <input type="hidden" name="token" value="${checkout_token}">
         <h4 style="color: #f6731c; font-size: 20px; text-decoration: none">Ваши данные</h4>
 
         <strong><p style="font-size: 16px">Имя</p></strong>
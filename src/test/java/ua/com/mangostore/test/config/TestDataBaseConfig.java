@@ -8,6 +8,7 @@ import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import ua.com.mangostore.entity.generator.PooledSequenceGenerator;
 
 import javax.sql.DataSource;
 import java.util.Properties;
@@ -26,6 +27,9 @@ public class TestDataBaseConfig {
     private static final String PROPERTY_NAME_HIBERNATE_SHOW_SQL = "true";
     private static final String PROPERTY_NAME_ENTITYMANAGER_PACKAGES_TO_SCAN = "ua.com.mangostore.entity";
     private static final String PROPERTY_NAME_HIBERNATE_HBM2DDL_AUTO = "create-drop";
+    private static final String PROPERTY_NAME_HIBERNATE_JDBC_BATCH_SIZE = "50";
+    private static final String PROPERTY_NAME_ID_ALLOCATION_SIZE = "50";
+    private static final String PROPERTY_NAME_HIBERNATE_BATCH_FETCH_SIZE = "50";
 
     @Bean
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
@@ -64,6 +68,12 @@ public class TestDataBaseConfig {
         properties.put("hibernate.dialect", PROPERTY_NAME_HIBERNATE_DIALECT);
         properties.put("hibernate.show_sql", PROPERTY_NAME_HIBERNATE_SHOW_SQL);
         properties.put("hibernate.hbm2ddl.auto", PROPERTY_NAME_HIBERNATE_HBM2DDL_AUTO);
+        properties.put("hibernate.jdbc.batch_size", PROPERTY_NAME_HIBERNATE_JDBC_BATCH_SIZE);
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.order_updates", "true");
+        properties.put(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, PROPERTY_NAME_ID_ALLOCATION_SIZE);
+        properties.put("hibernate.default_batch_fetch_size", PROPERTY_NAME_HIBERNATE_BATCH_FETCH_SIZE);
+        properties.put("hibernate.generate_statistics", "true");
         return properties;
     }
 
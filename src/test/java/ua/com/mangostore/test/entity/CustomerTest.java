@@ -0,0 +1,35 @@
+package ua.com.mangostore.test.entity;
+
+import org.junit.Test;
+import ua.com.mangostore.entity.Customer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CustomerTest {
+
+    @Test
+    public void testNormalizePhone() throws Exception {
+        assertEquals("0501234567", Customer.normalizePhone("0501234567"));
+        assertEquals("0501234567", Customer.normalizePhone("+38 (050) 123-45-67"));
+        assertEquals("0501234567", Customer.normalizePhone(" 380501234567 "));
+        assertNull(Customer.normalizePhone(null));
+    }
+
+    @Test
+    public void testNormalizeEmail() throws Exception {
+        assertEquals("buyer@mangostore.com.ua", Customer.normalizeEmail("  Buyer@MangoStore.com.ua "));
+        assertNull(Customer.normalizeEmail("   "));
+        assertNull(Customer.normalizeEmail(null));
+    }
+
+    @Test
+    public void testCustomersWithSamePhoneAreEqual() throws Exception {
+        Customer first = new Customer();
+        first.setPhone("+380501234567");
+        Customer second = new Customer();
+        second.setPhone("050 123 45 67");
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+}
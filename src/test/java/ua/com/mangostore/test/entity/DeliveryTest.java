@@ -0,0 +1,35 @@
+package ua.com.mangostore.test.entity;
+
+import org.junit.Test;
+import ua.com.mangostore.entity.Delivery;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.Assert.assertEquals;
+
+public class DeliveryTest {
+
+    @Test
+    public void testDeliveryAtIsParsedFromCourierInput() throws Exception {
+        Delivery delivery = new Delivery();
+        delivery.setDeliveryAt("01-12-2016", "9:30");
+        assertEquals(LocalDateTime.of(2016, 12, 1, 9, 30), delivery.getDeliveryAt());
+        assertEquals("01-12-2016", delivery.getDeliveryDate());
+        assertEquals("9:30", delivery.getDeliveryTime());
+    }
+
+    @Test
+    public void testEmptyDeliveryAtIsShownAsEmptyStrings() throws Exception {
+        Delivery delivery = new Delivery();
+        delivery.setDeliveryAt("01-12-2016", "12:00");
+        delivery.reset();
+        assertEquals("", delivery.getDeliveryDate());
+        assertEquals("", delivery.getDeliveryTime());
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testInvalidDeliveryDateIsRejected() throws Exception {
+        new Delivery().setDeliveryAt("2016-12-01", "12:00");
+    }
+}
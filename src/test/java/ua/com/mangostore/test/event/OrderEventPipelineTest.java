@@ -0,0 +1,185 @@
+package ua.com.mangostore.test.event;
+
+import org.junit.Test;
+import ua.com.mangostore.event.OrderConfirmationMailer;
+import ua.com.mangostore.event.OrderEventHandler;
+import ua.com.mangostore.event.OrderEventPipeline;
+import ua.com.mangostore.event.OrderPlacedEvent;
+import ua.com.mangostore.test.util.SmtpServerStub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OrderEventPipelineTest {
+
+    @Test
+    public void testConfirmationMailsAreSentInBatches() throws Exception {
+        try (SmtpServerStub smtp = new SmtpServerStub()) {
+            OrderEventPipeline pipeline = new OrderEventPipeline(
+                    Collections.singletonList(new OrderConfirmationMailer("localhost", smtp.getPort())),
+                    100, 50, 3, 10);
+            pipeline.start();
+            for (int i = 0; i < 20; i++) {
+                pipeline.publish(createEvent(i, "buyer" + i + "@mangostore.com.ua"));
+            }
+            pipeline.publish(createEvent(20, null));
+            pipeline.stop();
+
+            assertEquals(20, smtp.getMessages().size());
+            assertEquals(20, smtp.getRecipients().size());
+            assertTrue(smtp.getConnections() < 20);
+            assertEquals(21, pipeline.getProcessedCount());
+            assertEquals(0, pipeline.getFailedCount());
+            assertEquals(0, pipeline.getQueueDepth());
+        }
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedWithBackoff() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        OrderEventHandler flaky = events -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("SMTP is down");
+            }
+            return Collections.emptyList();
+        };
+        OrderEventPipeline pipeline = new OrderEventPipeline(Collections.singletonList(flaky), 10, 10, 5, 10);
+        pipeline.start();
+        pipeline.publish(createEvent(1, "buyer@mangostore.com.ua"));
+        pipeline.stop();
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, pipeline.getProcessedCount());
+        assertEquals(0, pipeline.getFailedCount());
+    }
+
+    @Test
+    public void testOnlyFailedEventsAreRetried() throws Exception {
+        List<Long> handled = new CopyOnWriteArrayList<>();
+        AtomicBoolean failedOnce = new AtomicBoolean();
+        OrderEventHandler partial = events -> {
+            List<OrderPlacedEvent> failed = new ArrayList<>();
+            for (OrderPlacedEvent event : events) {
+                if (event.getOrderId() == 2 && failedOnce.compareAndSet(false, true)) {
+                    failed.add(event);
+                } else {
+                    handled.add(event.getOrderId());
+                }
+            }
+            return failed;
+        };
+        OrderEventPipeline pipeline = new OrderEventPipeline(Collections.singletonList(partial), 10, 10, 3, 1);
+        pipeline.start();
+        pipeline.publish(createEvent(1, null));
+        pipeline.publish(createEvent(2, null));
+        pipeline.publish(createEvent(3, null));
+        pipeline.publish(createEvent(1, null));
+        pipeline.stop();
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), sorted(handled));
+        assertEquals(0, pipeline.getFailedCount());
+    }
+
+    @Test
+    public void testBatchIsDroppedAfterMaxAttempts() throws Exception {
+        OrderEventHandler broken = events -> {
+            throw new IllegalStateException("SMTP is down");
+        };
+        OrderEventPipeline pipeline = new OrderEventPipeline(Collections.singletonList(broken), 10, 10, 2, 1);
+        pipeline.start();
+        pipeline.publish(createEvent(1, "buyer@mangostore.com.ua"));
+        pipeline.stop();
+
+        assertEquals(1, pipeline.getFailedCount());
+    }
+
+    @Test
+    public void testFullQueuePostponesEventsWithoutBlocking() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger handled = new AtomicInteger();
+        OrderEventHandler slow = events -> {
+            started.countDown();
+            if (release.await(10, TimeUnit.SECONDS)) {
+                handled.addAndGet(events.size());
+            }
+            return Collections.emptyList();
+        };
+        OrderEventPipeline pipeline = new OrderEventPipeline(Collections.singletonList(slow), 2, 10, 1, 1);
+        pipeline.start();
+        pipeline.publish(createEvent(0, null));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        pipeline.publish(createEvent(1, null));
+        pipeline.publish(createEvent(2, null));
+        assertEquals(2, pipeline.getQueueDepth());
+        // очередь заполнена: событие отбрасывается, публикующий поток не ждет и не обрабатывает его
+        long start = System.nanoTime();
+        pipeline.publish(createEvent(3, null));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+        assertEquals(1, pipeline.getDroppedCount());
+        assertEquals(1, pipeline.getUndeliveredCount());
+
+        release.countDown();
+        pipeline.stop();
+        assertEquals(3, handled.get());
+        assertEquals(4, pipeline.getPublishedCount());
+    }
+
+    @Test
+    public void testEventsFailedDuringOutageAreRedriven() throws Exception {
+        AtomicBoolean down = new AtomicBoolean(true);
+        List<Long> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(3);
+        OrderEventHandler mailer = events -> {
+            if (down.get()) {
+                throw new IllegalStateException("SMTP is down");
+            }
+            for (OrderPlacedEvent event : events) {
+                handled.add(event.getOrderId());
+                delivered.countDown();
+            }
+            return Collections.emptyList();
+        };
+        OrderEventPipeline pipeline = new OrderEventPipeline(Collections.singletonList(mailer), 10, 10, 2, 1, 10, 50);
+        pipeline.start();
+        for (int i = 1; i <= 3; i++) {
+            pipeline.publish(createEvent(i, "buyer" + i + "@mangostore.com.ua"));
+        }
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pipeline.getFailedCount() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(pipeline.getFailedCount() >= 3);
+        assertTrue(handled.isEmpty());
+
+        // сервер восстановлен: отложенные события возвращаются в очередь и обрабатываются
+        down.set(false);
+        assertTrue(delivered.await(10, TimeUnit.SECONDS));
+        pipeline.stop();
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), sorted(handled));
+        assertEquals(0, pipeline.getUndeliveredCount());
+        assertEquals(0, pipeline.getLostCount());
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        List<Long> copy = new ArrayList<>(ids);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    private OrderPlacedEvent createEvent(long id, String email) {
+        return new OrderPlacedEvent(id, "N" + id, "Buyer", email, "17 999", System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,238 @@
+package ua.com.mangostore.test.event;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.event.OrderFeedHub;
+import ua.com.mangostore.journal.OrderChange;
+import ua.com.mangostore.journal.OrderJournal;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.OrderRow;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+public class OrderFeedHubTest {
+    private static final int BUFFER_SIZE = 4;
+    private static final long WRITE_TIMEOUT_MILLIS = 200;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private OrderJournal journal;
+    private OrderFeedHub hub;
+    private MockMvc mvc;
+
+    @Before
+    public void setUp() throws Exception {
+        journal = new OrderJournal(folder.getRoot().toPath(), 4096, 5);
+        journal.open();
+        hub = new OrderFeedHub(journal, this::createRow, BUFFER_SIZE, 10, 60_000, WRITE_TIMEOUT_MILLIS);
+        hub.start();
+        mvc = standaloneSetup(new FeedController(hub)).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        hub.stop();
+        journal.close();
+    }
+
+    @Test
+    public void testNewOrdersAndStatusChangesArePushed() throws Exception {
+        MvcResult result = subscribe(null);
+        journal.append(7, OrderChange.created(Status.NEW, Money.ofKopecks(1_799_900)));
+        journal.append(7, OrderChange.lineAdded(3, 1));
+        journal.append(7, OrderChange.status(Status.WORK));
+
+        String content = await(result, "event:status-changed");
+        assertTrue(content.contains("id:1\n"));
+        assertTrue(content.contains("event:order-created\n"));
+        assertTrue(content.contains("\"number\":\"N7\""));
+        assertTrue(content.contains("\"customer\":\"Buyer \\\"Best\\\" 0504445566\""));
+        assertTrue(content.contains("\"city\":\"Kyiv\""));
+        assertTrue(content.contains("\"items\":\"2\""));
+        assertTrue(content.contains("id:3\n"));
+        assertTrue(content.contains("\"status\":\"" + escape(Status.WORK.toString()) + "\""));
+        assertFalse(content.contains("id:2\n"));
+    }
+
+    @Test
+    public void testReconnectedSubscriberReceivesMissedEvents() throws Exception {
+        journal.append(1, OrderChange.status(Status.WORK));
+        journal.append(2, OrderChange.status(Status.DELIVERY));
+        awaitPublished(2);
+
+        String content = await(subscribe("1"), "id:2\n");
+        assertFalse(content.contains("id:1\n"));
+        assertTrue(content.contains("\"status\":\"" + escape(Status.DELIVERY.toString()) + "\""));
+    }
+
+    @Test
+    public void testSubscriberBehindBufferIsToldToReload() throws Exception {
+        for (int i = 1; i <= BUFFER_SIZE * 3; i++) {
+            journal.append(i, OrderChange.status(Status.CLOSED));
+        }
+        awaitPublished(BUFFER_SIZE * 3);
+
+        String content = await(subscribe("1"), "event:reload");
+        assertFalse(content.contains("event:status-changed"));
+    }
+
+    @Test
+    public void testStalledSubscribersDoNotDelayOthers() throws Exception {
+        CountDownLatch unstall = new CountDownLatch(1);
+        MockMvc stalledMvc = standaloneSetup(new FeedController(hub)).addFilters(new StallingFilter(unstall)).build();
+        try {
+            // браузеров, которые перестали читать ответ, больше, чем было потоков рассылки
+            for (int i = 0; i < 3; i++) {
+                stalledMvc.perform(get("/feed")).andExpect(request().asyncStarted());
+            }
+            MvcResult result = subscribe(null);
+            journal.append(1, OrderChange.status(Status.WORK));
+            journal.append(2, OrderChange.status(Status.DELIVERY));
+
+            await(result, "id:2\n");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (hub.getEvictedCount() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(3, hub.getEvictedCount());
+            assertEquals(1, hub.getSubscriberCount());
+        } finally {
+            unstall.countDown();
+        }
+    }
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        return mvc.perform(lastEventId != null
+                ? get("/feed").header("Last-Event-ID", lastEventId)
+                : get("/feed"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private String await(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue("No " + expected.trim() + " in " + content, content.contains(expected));
+        return content;
+    }
+
+    private void awaitPublished(long count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hub.getPublishedCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(hub.getPublishedCount() >= count);
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            escaped.append(c > 0x7e ? String.format("\\u%04x", (int) c) : String.valueOf(c));
+        }
+        return escaped.toString();
+    }
+
+    private OrderRow createRow(long id) {
+        return new OrderRow(id, "N" + id, Status.NEW, LocalDateTime.of(2017, 3, 1, 12, 30), Money.ofKopecks(1_799_900),
+                DeliveryType.COURIER, "Buyer", "\"Best\"", "0504445566", "Kyiv", 2, null, null);
+    }
+
+    /**
+     * Фильтр, ответ которого блокирует запись, пока не открыта защелка, - браузер, который перестал читать.
+     */
+    private static class StallingFilter implements Filter {
+        private final CountDownLatch unstall;
+
+        private StallingFilter(CountDownLatch unstall) {
+            this.unstall = unstall;
+        }
+
+        @Override
+        public void init(FilterConfig filterConfig) {
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            ServletOutputStream stalled = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return false;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    try {
+                        unstall.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IOException("Connection reset");
+                }
+            };
+            chain.doFilter(request, new HttpServletResponseWrapper((HttpServletResponse) response) {
+                @Override
+                public ServletOutputStream getOutputStream() {
+                    return stalled;
+                }
+            });
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    @Controller
+    public static class FeedController {
+        private final OrderFeedHub hub;
+
+        public FeedController(OrderFeedHub hub) {
+            this.hub = hub;
+        }
+
+        @RequestMapping("/feed")
+        public SseEmitter onFeed(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+            return hub.subscribe(lastEventId);
+        }
+    }
+}
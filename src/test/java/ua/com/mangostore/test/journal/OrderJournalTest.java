@@ -0,0 +1,120 @@
+package ua.com.mangostore.test.journal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.journal.JournalRecord;
+import ua.com.mangostore.journal.OrderChange;
+import ua.com.mangostore.journal.OrderChangeType;
+import ua.com.mangostore.journal.OrderJournal;
+import ua.com.mangostore.model.Money;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OrderJournalTest {
+    private static final int SEGMENT_BYTES = 4096;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecordsAreReplayedAcrossSegments() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_BYTES, 5)) {
+            journal.open();
+            for (int i = 1; i <= 200; i++) {
+                journal.append(i, OrderChange.status(Status.WORK));
+            }
+            journal.append(7, OrderChange.delivery(DeliveryType.COURIER, LocalDateTime.of(2017, 3, 1, 12, 30), 42));
+            assertTrue(journal.awaitSynced(201, 5000));
+            assertTrue(journal.getSegmentCount() > 1);
+        }
+
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_BYTES, 5)) {
+            journal.open();
+            assertEquals(201, journal.getLastSequence());
+            List<JournalRecord> records = new ArrayList<>();
+            assertEquals(201, journal.replay(1, records::add));
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(i + 1, records.get(i).getSequence());
+            }
+            JournalRecord last = records.get(200);
+            assertEquals(7, last.getOrderId());
+            assertEquals(OrderChangeType.DELIVERY, last.getChange().getType());
+            assertEquals(42, last.getChange().getRef());
+            assertEquals("COURIER", last.getChange().getText());
+
+            assertEquals(11, journal.replay(191, record -> {
+            }));
+            assertEquals(202, journal.append(8, OrderChange.lineAdded(3, 2)));
+        }
+    }
+
+    @Test
+    public void testReaderTailsNewRecords() throws Exception {
+        try (OrderJournal journal = new OrderJournal(folder.getRoot().toPath(), SEGMENT_BYTES, 5)) {
+            journal.open();
+            OrderJournal.Reader reader = journal.openReader(1);
+            assertNull(reader.next());
+
+            journal.append(1, OrderChange.created(Status.NEW, Money.ofKopecks(1500)));
+            JournalRecord record = reader.next();
+            assertEquals(1, record.getSequence());
+            assertEquals(1500, record.getChange().getAmount());
+            assertNull(reader.next());
+
+            for (int i = 0; i < 100; i++) {
+                journal.append(2, OrderChange.lineRemoved(5, 1));
+            }
+            int count = 0;
+            while (reader.next() != null) {
+                count++;
+            }
+            assertEquals(100, count);
+            assertEquals(102, reader.getNextSequence());
+        }
+    }
+
+    @Test
+    public void testTornTailIsDiscardedOnRecovery() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_BYTES, 5)) {
+            journal.open();
+            journal.append(1, OrderChange.status(Status.NEW));
+            journal.append(1, OrderChange.status(Status.WORK));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.collect(Collectors.toList()).get(0);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // портим последний байт второй записи
+            long secondRecordEnd = (8 + 43 + Status.NEW.name().length()) + (8 + 43 + Status.WORK.name().length());
+            file.seek(secondRecordEnd - 1);
+            file.write('X');
+        }
+
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_BYTES, 5)) {
+            journal.open();
+            assertEquals(1, journal.getLastSequence());
+            assertEquals(2, journal.append(1, OrderChange.status(Status.CLOSED)));
+            List<JournalRecord> records = new ArrayList<>();
+            journal.replay(1, records::add);
+            assertEquals(2, records.size());
+            assertEquals("CLOSED", records.get(1).getChange().getText());
+        }
+    }
+}
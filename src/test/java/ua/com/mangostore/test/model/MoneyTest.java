@@ -0,0 +1,32 @@
+package ua.com.mangostore.test.model;
+
+import org.junit.Test;
+import ua.com.mangostore.model.Money;
+
+import static org.junit.Assert.assertEquals;
+
+public class MoneyTest {
+
+    @Test
+    public void testFormat() throws Exception {
+        assertEquals("0", Money.ZERO.format());
+        assertEquals("999", Money.ofHryvnias(999).format());
+        assertEquals("17 999", Money.ofHryvnias(17_999).format());
+        assertEquals("1 250,05", Money.ofKopecks(125_005).format());
+        assertEquals("-1 000", Money.ofHryvnias(-1_000).format());
+    }
+
+    @Test
+    public void testValueOfIsInverseOfToString() throws Exception {
+        assertEquals(Money.ofHryvnias(35_000), Money.valueOf("35000"));
+        assertEquals(Money.ofKopecks(1_799_950), Money.valueOf("17 999,50"));
+        assertEquals(Money.ofKopecks(1_799_950), Money.valueOf(Money.ofKopecks(1_799_950).toString()));
+        assertEquals("35000", Money.ofHryvnias(35_000).toString());
+    }
+
+    @Test
+    public void testArithmetic() throws Exception {
+        assertEquals(Money.ofHryvnias(300), Money.ofHryvnias(100).times(3));
+        assertEquals(Money.ofKopecks(30), Money.ofKopecks(10).plus(Money.ofKopecks(20)));
+    }
+}
@@ -0,0 +1,79 @@
+package ua.com.mangostore.test.model;
+
+import org.junit.Test;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.OrderFilter;
+import ua.com.mangostore.model.OrderRow;
+import ua.com.mangostore.model.OrderSort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OrderFilterTest {
+    private final OrderRow row = new OrderRow(42, "N42", Status.NEW, LocalDateTime.of(2017, 3, 1, 12, 30, 15),
+            Money.ofKopecks(1_999_950), DeliveryType.COURIER, "Buyer", "Surname", "0501234567");
+
+    @Test
+    public void testDateCursorRoundTrip() throws Exception {
+        OrderFilter filter = new OrderFilter();
+        filter.setCursor(filter.cursorOf(row));
+
+        assertTrue(filter.hasCursor());
+        assertEquals(row.getCreatedAt(), filter.getAfterCreatedAt());
+        assertNull(filter.getAfterPrice());
+        assertEquals(42, filter.getAfterOrderId());
+    }
+
+    @Test
+    public void testPriceCursorRoundTrip() throws Exception {
+        OrderFilter filter = new OrderFilter();
+        filter.setSort(OrderSort.PRICE_LOW);
+        filter.setCursor(filter.cursorOf(row));
+
+        assertEquals(row.getOrderPrice(), filter.getAfterPrice());
+        assertNull(filter.getAfterCreatedAt());
+        assertEquals(42, filter.getAfterOrderId());
+    }
+
+    @Test
+    public void testInvalidCursorStartsFromFirstPage() throws Exception {
+        OrderFilter filter = new OrderFilter();
+        for (String cursor : new String[]{null, "", "_42", "yesterday_42", "2017-03-01T12:30_x"}) {
+            filter.setCursor(cursor);
+            assertFalse(cursor, filter.hasCursor());
+        }
+    }
+
+    @Test
+    public void testBlankCustomerIsIgnored() throws Exception {
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomer("   ");
+        assertNull(filter.getCustomer());
+        filter.setCustomer(" 050 123 45 67 ");
+        assertEquals("050 123 45 67", filter.getCustomer());
+    }
+
+    @Test
+    public void testPriceSortIsLimitedToShortPeriods() throws Exception {
+        OrderFilter filter = new OrderFilter();
+        filter.setFrom(LocalDate.of(2017, 3, 1));
+        filter.setTo(LocalDate.of(2017, 6, 1));
+        assertFalse(filter.isPriceSortPeriodTooLong());
+
+        filter.setSort(OrderSort.PRICE_HIGH);
+        assertTrue(filter.isPriceSortPeriodTooLong());
+        filter.setTo(LocalDate.of(2017, 3, 31));
+        assertFalse(filter.isPriceSortPeriodTooLong());
+        filter.setFrom(null);
+        assertTrue(filter.isPriceSortPeriodTooLong());
+        filter.setTo(null);
+        assertFalse(filter.isPriceSortPeriodTooLong());
+    }
+}
@@ -0,0 +1,66 @@
+package ua.com.mangostore.test.model;
+
+import org.junit.Test;
+import ua.com.mangostore.model.OrderNumberGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OrderNumberGeneratorTest {
+    private static final int THREADS = 8;
+    private static final int NUMBERS_PER_THREAD = 50_000;
+
+    @Test
+    public void testConcurrentNumbersAreUnique() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(3);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < NUMBERS_PER_THREAD; j++) {
+                    numbers.add(generator.next());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(THREADS * NUMBERS_PER_THREAD, numbers.size());
+    }
+
+    @Test
+    public void testNodesDoNotCollide() throws Exception {
+        OrderNumberGenerator first = new OrderNumberGenerator(0);
+        OrderNumberGenerator second = new OrderNumberGenerator(1);
+        for (int i = 0; i < 1_000; i++) {
+            assertNotEquals(first.next(), second.next());
+        }
+    }
+
+    @Test
+    public void testNumberIsShort() throws Exception {
+        String number = OrderNumberGenerator.getDefault().next();
+        assertTrue(number, number.length() <= 10);
+        assertTrue(number, number.matches("[0-9A-HJKMNP-TV-Z]+"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNodeIdOutOfRange() throws Exception {
+        new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1);
+    }
+}
@@ -0,0 +1,47 @@
+package ua.com.mangostore.test.model;
+
+import org.junit.Test;
+import ua.com.mangostore.model.RecentlyViewed;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class RecentlyViewedTest {
+
+    @Test
+    public void testLatestViewFirst() throws Exception {
+        RecentlyViewed recentlyViewed = new RecentlyViewed();
+        recentlyViewed.add(1);
+        recentlyViewed.add(2);
+        recentlyViewed.add(3);
+        assertArrayEquals(new long[]{3, 2, 1}, recentlyViewed.getProductIds());
+    }
+
+    @Test
+    public void testRepeatedViewMovesToFront() throws Exception {
+        RecentlyViewed recentlyViewed = new RecentlyViewed();
+        recentlyViewed.add(1);
+        recentlyViewed.add(2);
+        recentlyViewed.add(3);
+        recentlyViewed.add(1);
+        recentlyViewed.add(1);
+        assertArrayEquals(new long[]{1, 3, 2}, recentlyViewed.getProductIds());
+    }
+
+    @Test
+    public void testCapacityIsBounded() throws Exception {
+        RecentlyViewed recentlyViewed = new RecentlyViewed();
+        for (long id = 1; id <= 1_000; id++) {
+            recentlyViewed.add(id);
+        }
+        assertEquals(RecentlyViewed.CAPACITY, recentlyViewed.getSize());
+        long[] ids = recentlyViewed.getProductIds();
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(1_000 - i, ids[i]);
+        }
+        recentlyViewed.add(995);
+        assertEquals(995, recentlyViewed.getProductIds()[0]);
+        assertEquals(1_000, recentlyViewed.getProductIds()[1]);
+        assertEquals(993, recentlyViewed.getProductIds()[RecentlyViewed.CAPACITY - 1]);
+    }
+}
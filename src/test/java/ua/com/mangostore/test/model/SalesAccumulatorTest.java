@@ -0,0 +1,68 @@
+package ua.com.mangostore.test.model;
+
+import org.junit.Test;
+import ua.com.mangostore.model.SalesAccumulator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class SalesAccumulatorTest {
+
+    @Test
+    public void testSalesAreSummedByDayAndProduct() throws Exception {
+        SalesAccumulator sales = new SalesAccumulator();
+        for (int i = 0; i < 10_000; i++) {
+            sales.add(17_000 + i % 100, i % 37, 1, 100);
+        }
+        assertEquals(100 * 37, sales.size());
+
+        Map<String, long[]> rows = collect(sales);
+        assertEquals(100 * 37, rows.size());
+        long units = 0;
+        for (long[] row : rows.values()) {
+            units += row[0];
+            assertEquals(row[0] * 100, row[1]);
+        }
+        assertEquals(10_000, units);
+    }
+
+    @Test
+    public void testMergedAccumulatorEqualsSingleOne() throws Exception {
+        SalesAccumulator single = new SalesAccumulator();
+        SalesAccumulator left = new SalesAccumulator();
+        SalesAccumulator right = new SalesAccumulator();
+        for (int i = 0; i < 5_000; i++) {
+            int day = 17_000 + i % 31;
+            long productId = i % 53 + 1_000_000_000L * (i % 2);
+            single.add(day, productId, 2, 150);
+            (i % 3 == 0 ? left : right).add(day, productId, 2, 150);
+        }
+        left.addAll(right);
+
+        Map<String, long[]> expected = collect(single);
+        Map<String, long[]> actual = collect(left);
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, long[]> row : expected.entrySet()) {
+            assertEquals(row.getValue()[0], actual.get(row.getKey())[0]);
+            assertEquals(row.getValue()[1], actual.get(row.getKey())[1]);
+        }
+    }
+
+    @Test
+    public void testZeroRowsAreSkipped() throws Exception {
+        SalesAccumulator sales = new SalesAccumulator();
+        sales.add(17_000, 1, 3, 300);
+        sales.add(17_000, 1, -3, -300);
+        sales.add(17_001, 1, 1, 100);
+        assertEquals(1, collect(sales).size());
+    }
+
+    private Map<String, long[]> collect(SalesAccumulator sales) {
+        Map<String, long[]> rows = new HashMap<>();
+        sales.forEach((epochDay, productId, units, revenue) ->
+                rows.put(epochDay + ":" + productId, new long[]{units, revenue}));
+        return rows;
+    }
+}
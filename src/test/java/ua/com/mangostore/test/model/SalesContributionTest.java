@@ -0,0 +1,83 @@
+package ua.com.mangostore.test.model;
+
+import org.junit.Test;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.SalesContribution;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SalesContributionTest {
+
+    @Test
+    public void testContributionIsGroupedByProductAndBrand() throws Exception {
+        Order order = createOrder(Status.NEW,
+                new SalePosition(createProduct(1, "Apple", 17_999), 2),
+                new SalePosition(createProduct(2, "Apple", 9_999), 1),
+                new SalePosition(createProduct(3, "Samsung", 15_000), 1));
+        SalesContribution contribution = SalesContribution.of(order);
+
+        assertEquals(LocalDate.of(2017, 3, 1), contribution.getSaleDate());
+        assertEquals(3, contribution.getLines().size());
+        assertEquals(2, contribution.getLines().get(1L).getUnits());
+        assertEquals(Money.ofHryvnias(35_998).getAmount(), contribution.getLines().get(1L).getRevenue());
+
+        Map<String, SalesContribution.Line> brands = contribution.byBrand();
+        assertEquals(2, brands.size());
+        assertEquals(3, brands.get("Apple").getUnits());
+        assertEquals(Money.ofHryvnias(45_997).getAmount(), brands.get("Apple").getRevenue());
+    }
+
+    @Test
+    public void testDeltaContainsOnlyChangedLines() throws Exception {
+        Product iphone = createProduct(1, "Apple", 17_999);
+        Product galaxy = createProduct(2, "Samsung", 15_000);
+        SalesContribution before = SalesContribution.of(createOrder(Status.NEW,
+                new SalePosition(iphone, 1), new SalePosition(galaxy, 1)));
+        SalesContribution after = SalesContribution.of(createOrder(Status.WORK,
+                new SalePosition(iphone, 3), new SalePosition(galaxy, 1)));
+
+        SalesContribution delta = after.minus(before);
+        assertEquals(1, delta.getLines().size());
+        assertEquals(2, delta.getLines().get(1L).getUnits());
+        assertEquals(1, delta.byBrand().size());
+        assertTrue(after.minus(after).isEmpty());
+    }
+
+    @Test
+    public void testDeletedOrderRemovesItsSales() throws Exception {
+        Product iphone = createProduct(1, "Apple", 17_999);
+        SalesContribution before = SalesContribution.of(createOrder(Status.NEW, new SalePosition(iphone, 2)));
+        SalesContribution deleted = SalesContribution.of(createOrder(Status.DELETED, new SalePosition(iphone, 2)));
+
+        assertTrue(deleted.isEmpty());
+        SalesContribution delta = deleted.minus(before);
+        assertEquals(-2, delta.getLines().get(1L).getUnits());
+        assertEquals(-Money.ofHryvnias(35_998).getAmount(), delta.byBrand().get("Apple").getRevenue());
+        assertEquals(delta.getLines().get(1L).getRevenue(), before.negate().getLines().get(1L).getRevenue());
+    }
+
+    private Product createProduct(long id, String brand, long price) {
+        Product product = new Product("Product " + id, "Смартфоны", brand, Money.ofHryvnias(price), Money.ofHryvnias(price));
+        product.setProductId(id);
+        return product;
+    }
+
+    private Order createOrder(Status status, SalePosition... positions) {
+        Order order = new Order();
+        order.setStatus(status);
+        order.setCreatedAt(LocalDateTime.of(2017, 3, 1, 12, 30));
+        order.setSalePositions(new ArrayList<>(Arrays.asList(positions)));
+        return order;
+    }
+}
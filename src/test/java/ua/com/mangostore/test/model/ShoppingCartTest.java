@@ -0,0 +1,110 @@
+package ua.com.mangostore.test.model;
+
+import org.junit.Test;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.ShoppingCart;
+import ua.com.mangostore.test.util.ProductUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShoppingCartTest {
+    private static final int THREADS = 16;
+    private static final int ADDS_PER_THREAD = 2_000;
+
+    @Test
+    public void testConcurrentAddDoesNotLoseUpdates() throws Exception {
+        ShoppingCart cart = new ShoppingCart();
+        Product iphone = ProductUtil.createProduct();
+        Product galaxy = new Product("Samsung Galaxy S7", "Смартфоны", "Samsung", Money.ofHryvnias(20_000), Money.ofHryvnias(15_000));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Product product = i % 2 == 0 ? iphone : galaxy;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < ADDS_PER_THREAD; j++) {
+                    cart.addSalePosition(new SalePosition(product, 1));
+                    // рендеринг страниц идет параллельно с изменением корзины
+                    for (SalePosition position : cart.getSalePositions()) {
+                        position.getNumber();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(2, cart.getSalePositions().size());
+        assertEquals(THREADS * ADDS_PER_THREAD, cart.getSize());
+        for (SalePosition position : cart.getSalePositions()) {
+            assertEquals(THREADS / 2 * ADDS_PER_THREAD, position.getNumber());
+        }
+        Money expectedPrice = iphone.getSalePrice().plus(galaxy.getSalePrice()).times(THREADS / 2 * ADDS_PER_THREAD);
+        assertEquals(expectedPrice, cart.getPrice());
+    }
+
+    @Test
+    public void testConcurrentAddAndRemove() throws Exception {
+        ShoppingCart cart = new ShoppingCart();
+        Product removed = ProductUtil.createProduct();
+        Product kept = new Product("Samsung Galaxy S7", "Смартфоны", "Samsung", Money.ofHryvnias(20_000), Money.ofHryvnias(15_000));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean remove = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < ADDS_PER_THREAD; j++) {
+                    if (remove) {
+                        // каждое добавление снимается этим же потоком, поэтому в конце позиции нет
+                        cart.addSalePosition(new SalePosition(removed, 1));
+                        cart.removeSalePosition(new SalePosition(removed, 1));
+                    } else {
+                        cart.addSalePosition(new SalePosition(kept, 1));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        int keptNumber = THREADS / 2 * ADDS_PER_THREAD;
+        assertEquals(1, cart.getSalePositions().size());
+        SalePosition position = cart.getSalePositions().get(0);
+        assertEquals(kept, position.getProduct());
+        assertEquals(keptNumber, position.getNumber());
+        assertEquals(keptNumber, cart.getSize());
+        assertEquals(kept.getSalePrice().times(keptNumber), cart.getPrice());
+        assertEquals(kept.getSalePrice().times(keptNumber).format(), cart.getFormatPrice());
+
+        cart.clearSalePositions();
+        assertEquals(0, cart.getSize());
+        assertEquals(Money.ZERO, cart.getPrice());
+        assertTrue(cart.getSalePositions().isEmpty());
+    }
+}
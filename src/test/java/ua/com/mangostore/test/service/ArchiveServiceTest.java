@@ -0,0 +1,107 @@
+package ua.com.mangostore.test.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.repository.OrderRepository;
+import ua.com.mangostore.service.ArchiveService;
+import ua.com.mangostore.service.CheckoutService;
+import ua.com.mangostore.service.OrderService;
+import ua.com.mangostore.service.ProductService;
+import ua.com.mangostore.test.config.TestDataBaseConfig;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestDataBaseConfig.class)
+@WebAppConfiguration
+public class ArchiveServiceTest {
+
+    @Resource
+    private ArchiveService archiveService;
+
+    @Resource
+    private CheckoutService checkoutService;
+
+    @Resource
+    private OrderService orderService;
+
+    @Resource
+    private OrderRepository orderRepository;
+
+    @Resource
+    private ProductService productService;
+
+    @Test
+    public void testFinishedOrdersAreMovedToArchiveAndStayReadable() throws Exception {
+        Product first = createProduct("First");
+        Product second = createProduct("Second");
+        List<SalePosition> salePositions = Arrays.asList(new SalePosition(first, 1), new SalePosition(second, 2));
+
+        Order closed = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name());
+        closed.setStatus(Status.CLOSED);
+        orderService.editOrder(closed);
+        Order active = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name());
+
+        assertTrue(archiveService.archiveBefore(LocalDateTime.now().plusMinutes(1)) >= 1);
+
+        assertNull(orderRepository.findById(closed.getOrderId()));
+        assertNotNull(orderRepository.findById(active.getOrderId()));
+
+        Order archived = orderService.getById(closed.getOrderId());
+        assertTrue(archived.isArchived());
+        assertEquals(closed.getNumber(), archived.getNumber());
+        assertEquals(Status.CLOSED, archived.getStatus());
+        assertEquals(closed.getOrderPrice(), archived.getOrderPrice());
+        assertEquals(DeliveryType.COURIER, archived.getDelivery().getDeliveryType());
+        assertEquals(2, archived.getSalePositions().size());
+        assertEquals("Buyer", archived.getCustomer().getName());
+        assertEquals("Buyer", archived.getRecipient().getName());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testArchivedOrderIsReadOnly() throws Exception {
+        Product product = createProduct("Third");
+        Order order = checkoutService.checkout(createCustomer(), Arrays.asList(new SalePosition(product, 1)),
+                DeliveryType.PICKUP.name());
+        order.setStatus(Status.DELETED);
+        orderService.editOrder(order);
+        archiveService.archiveBefore(LocalDateTime.now().plusMinutes(1));
+
+        Order archived = orderService.getById(order.getOrderId());
+        archived.setStatus(Status.NEW);
+        orderService.editOrder(archived);
+    }
+
+    private Product createProduct(String title) {
+        Product product = new Product(title, "Смартфоны", "Brand", Money.ofHryvnias(1_000), Money.ofHryvnias(900));
+        product.setQuantity(100);
+        return productService.addProduct(product);
+    }
+
+    private Customer createCustomer() {
+        Customer customer = new Customer();
+        customer.setName("Buyer");
+        customer.setPhone("0504445566");
+        return customer;
+    }
+}
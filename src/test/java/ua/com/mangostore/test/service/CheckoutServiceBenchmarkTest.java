@@ -0,0 +1,177 @@
+package ua.com.mangostore.test.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.service.CheckoutService;
+import ua.com.mangostore.service.ProductService;
+import ua.com.mangostore.service.impl.CheckoutServiceImpl;
+import ua.com.mangostore.test.config.TestDataBaseConfig;
+
+import javax.annotation.Resource;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+// замер не входит в обычную сборку, запуск: mvn test -Dtest=CheckoutServiceBenchmarkTest -Dmangostore.benchmark=true
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestDataBaseConfig.class)
+@WebAppConfiguration
+public class CheckoutServiceBenchmarkTest {
+    private static final Logger LOG = LoggerFactory.getLogger(CheckoutServiceBenchmarkTest.class);
+    private static final int MAX_LINES = 100;
+    private static final int ROUNDS = 20;
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 25;
+
+    @Resource
+    private EntityManagerFactory emf;
+
+    @Resource
+    private CheckoutService checkoutService;
+
+    @Resource
+    private CheckoutServiceImpl checkoutServiceImpl;
+
+    @Resource
+    private ProductService productService;
+
+    private static final List<Product> products = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeClass
+    public static void checkEnabled() {
+        assumeTrue(Boolean.getBoolean("mangostore.benchmark"));
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        products.clear();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        if (!products.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < MAX_LINES; i++) {
+            Product product = new Product("Product " + i, "Смартфоны", "Brand",
+                    Money.ofHryvnias(1_000 + i), Money.ofHryvnias(900 + i));
+            product.setQuantity(1_000_000);
+            products.add(productService.addProduct(product));
+        }
+    }
+
+    @Test
+    public void testCheckoutLatencyAndStatements() throws Exception {
+        for (int lines : new int[]{1, 10, 100}) {
+            List<SalePosition> salePositions = new ArrayList<>();
+            for (int i = 0; i < lines; i++) {
+                salePositions.add(new SalePosition(products.get(i), 1));
+            }
+            // прогрев
+            checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name());
+
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                Order order = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name());
+                assertEquals(lines, order.getSalePositions().size());
+                assertTrue(order.getOrderId() > 0);
+            }
+            long micros = (System.nanoTime() - start) / 1_000 / ROUNDS;
+            long statements = statistics.getPrepareStatementCount() / ROUNDS;
+            LOG.info("checkout {} lines: {} us, {} statements", lines, micros, statements);
+
+            // по одному резервированию на строку, ключи выделяются блоками, INSERT идут пакетами
+            assertTrue(statements <= lines + 15);
+        }
+    }
+
+    @Test
+    public void testGroupCommitThroughputAndLatency() throws Exception {
+        List<SalePosition> salePositions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            salePositions.add(new SalePosition(products.get(i), 1));
+        }
+        checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name());
+        try {
+            for (boolean group : new boolean[]{false, true}) {
+                checkoutServiceImpl.setGroupCommit(group);
+                statistics.clear();
+                long start = System.nanoTime();
+                long[] latencies = placeConcurrently(salePositions);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                long transactions = statistics.getTransactionCount();
+                Arrays.sort(latencies);
+                LOG.info("{} checkout, {} threads: {} orders/s, p50 {} us, p99 {} us, {} transactions",
+                        group ? "group" : "direct", THREADS, latencies.length * 1000L / Math.max(millis, 1),
+                        latencies[latencies.length / 2] / 1_000, latencies[latencies.length * 99 / 100] / 1_000,
+                        transactions);
+            }
+        } finally {
+            checkoutServiceImpl.setGroupCommit(false);
+        }
+    }
+
+    private long[] placeConcurrently(List<SalePosition> salePositions) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[ORDERS_PER_THREAD];
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        long start = System.nanoTime();
+                        Order order = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name());
+                        latencies[i] = System.nanoTime() - start;
+                        assertTrue(order.getOrderId() > 0);
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[THREADS * ORDERS_PER_THREAD];
+            for (int t = 0; t < THREADS; t++) {
+                System.arraycopy(futures.get(t).get(), 0, all, t * ORDERS_PER_THREAD, ORDERS_PER_THREAD);
+            }
+            return all;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Customer createCustomer() {
+        Customer customer = new Customer();
+        customer.setName("Buyer");
+        customer.setEmail("buyer@mangostore.com.ua");
+        customer.setPhone("0501234567");
+        return customer;
+    }
+}
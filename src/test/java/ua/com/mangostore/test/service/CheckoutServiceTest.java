@@ -0,0 +1,175 @@
+package ua.com.mangostore.test.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.exception.OutOfStockException;
+import ua.com.mangostore.model.CheckoutResult;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.service.CheckoutService;
+import ua.com.mangostore.service.ProductService;
+import ua.com.mangostore.service.StockService;
+import ua.com.mangostore.service.impl.CheckoutServiceImpl;
+import ua.com.mangostore.test.config.TestDataBaseConfig;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestDataBaseConfig.class)
+@WebAppConfiguration
+public class CheckoutServiceTest {
+    private static final int SUBMITS = 8;
+    private static final String SESSION = "session";
+
+    @Resource
+    private CheckoutService checkoutService;
+
+    @Resource
+    private CheckoutServiceImpl checkoutServiceImpl;
+
+    @Resource
+    private ProductService productService;
+
+    @Resource
+    private StockService stockService;
+
+    @Test
+    public void testRepeatedSubmitCreatesOneOrder() throws Exception {
+        Product product = createProduct(10);
+        List<SalePosition> salePositions = Collections.singletonList(new SalePosition(product, 1));
+        String key = UUID.randomUUID().toString();
+
+        ExecutorService executor = Executors.newFixedThreadPool(SUBMITS);
+        List<Callable<CheckoutResult>> submits = new ArrayList<>();
+        for (int i = 0; i < SUBMITS; i++) {
+            submits.add(() -> checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name(),
+                    SESSION, key));
+        }
+        List<Order> orders = new ArrayList<>();
+        int created = 0;
+        for (Future<CheckoutResult> future : executor.invokeAll(submits)) {
+            orders.add(future.get().getOrder());
+            created += future.get().isCreated() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        for (Order order : orders) {
+            assertEquals(orders.get(0).getNumber(), order.getNumber());
+        }
+        assertEquals(1, created);
+        assertEquals(orders.get(0).getNumber(), checkoutService.getByIdempotencyKey(SESSION, key).getNumber());
+        assertEquals(9, stockService.getAvailable(product.getProductId()));
+    }
+
+    @Test
+    public void testDifferentKeysCreateDifferentOrders() throws Exception {
+        Product product = createProduct(10);
+        List<SalePosition> salePositions = Collections.singletonList(new SalePosition(product, 1));
+
+        Order first = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name(),
+                SESSION, UUID.randomUUID().toString()).getOrder();
+        Order second = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name(),
+                SESSION, UUID.randomUUID().toString()).getOrder();
+
+        assertNotEquals(first.getNumber(), second.getNumber());
+        assertEquals(8, stockService.getAvailable(product.getProductId()));
+        assertNull(checkoutService.getByIdempotencyKey(SESSION, UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void testKeyIsScopedToSession() throws Exception {
+        Product product = createProduct(10);
+        List<SalePosition> salePositions = Collections.singletonList(new SalePosition(product, 1));
+        String key = UUID.randomUUID().toString();
+
+        CheckoutResult first = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name(),
+                SESSION, key);
+        assertNull(checkoutService.getByIdempotencyKey("other-session", key));
+        CheckoutResult other = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name(),
+                "other-session", key);
+        CheckoutResult repeat = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name(),
+                SESSION, key);
+
+        assertTrue(first.isCreated());
+        assertTrue(other.isCreated());
+        assertNotEquals(first.getOrder().getNumber(), other.getOrder().getNumber());
+        assertFalse(repeat.isCreated());
+        assertEquals(first.getOrder().getNumber(), repeat.getOrder().getNumber());
+        assertEquals(8, stockService.getAvailable(product.getProductId()));
+    }
+
+    @Test
+    public void testFailedOrderDoesNotFailItsGroupCommitBatch() throws Exception {
+        Product available = createProduct(100);
+        Product soldOut = createProduct(0);
+        List<Callable<Order>> submits = new ArrayList<>();
+        for (int i = 0; i < SUBMITS; i++) {
+            Product product = i == SUBMITS / 2 ? soldOut : available;
+            List<SalePosition> salePositions = Collections.singletonList(new SalePosition(product, 1));
+            submits.add(() -> checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name()));
+        }
+
+        checkoutServiceImpl.setGroupCommit(true);
+        ExecutorService executor = Executors.newFixedThreadPool(SUBMITS);
+        int placed = 0;
+        int failed = 0;
+        try {
+            for (Future<Order> future : executor.invokeAll(submits)) {
+                try {
+                    assertTrue(future.get().getOrderId() > 0);
+                    placed++;
+                } catch (ExecutionException ex) {
+                    assertTrue(ex.getCause() instanceof OutOfStockException);
+                    failed++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+            checkoutServiceImpl.setGroupCommit(false);
+        }
+
+        assertEquals(SUBMITS - 1, placed);
+        assertEquals(1, failed);
+        assertEquals(100 - (SUBMITS - 1), stockService.getAvailable(available.getProductId()));
+        assertEquals(0, stockService.getAvailable(soldOut.getProductId()));
+    }
+
+    private Product createProduct(int quantity) {
+        Product product = new Product("Product " + UUID.randomUUID(), "Смартфоны", "Brand",
+                Money.ofHryvnias(1_000), Money.ofHryvnias(900));
+        product.setQuantity(quantity);
+        return productService.addProduct(product);
+    }
+
+    private Customer createCustomer() {
+        Customer customer = new Customer();
+        customer.setName("Buyer");
+        customer.setEmail("buyer@mangostore.com.ua");
+        customer.setPhone("0509876543");
+        return customer;
+    }
+}
@@ -0,0 +1,100 @@
+package ua.com.mangostore.test.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Employee;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.EmployeePosition;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.service.CheckoutService;
+import ua.com.mangostore.service.CounterService;
+import ua.com.mangostore.service.EmployeeService;
+import ua.com.mangostore.service.OrderService;
+import ua.com.mangostore.service.ProductService;
+import ua.com.mangostore.test.config.TestDataBaseConfig;
+
+import javax.annotation.Resource;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestDataBaseConfig.class)
+@WebAppConfiguration
+public class CounterServiceTest {
+
+    @Resource
+    private EntityManagerFactory emf;
+
+    @Resource
+    private CounterService counterService;
+
+    @Resource
+    private CheckoutService checkoutService;
+
+    @Resource
+    private OrderService orderService;
+
+    @Resource
+    private ProductService productService;
+
+    @Resource
+    private EmployeeService employeeService;
+
+    @Test
+    public void testOrderCountersFollowWrites() throws Exception {
+        long total = counterService.getOrderCount();
+        long newOrders = counterService.getOrderCount(Status.NEW);
+        long workOrders = counterService.getOrderCount(Status.WORK);
+
+        Product product = new Product("Product", "Смартфоны", "Brand", Money.ofHryvnias(1_000), Money.ofHryvnias(900));
+        product.setQuantity(10);
+        product = productService.addProduct(product);
+        List<SalePosition> salePositions = Collections.singletonList(new SalePosition(product, 1));
+        Order first = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.PICKUP.name());
+        checkoutService.checkout(createCustomer(), salePositions, DeliveryType.PICKUP.name());
+        first.setStatus(Status.WORK);
+        orderService.editOrder(first);
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(total + 2, counterService.getOrderCount());
+        assertEquals(newOrders + 1, counterService.getOrderCount(Status.NEW));
+        assertEquals(workOrders + 1, counterService.getOrderCount(Status.WORK));
+        assertEquals(total + 2, orderService.getSize());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testEmployeeCountersFollowWrites() throws Exception {
+        long couriers = counterService.getEmployeeCount(EmployeePosition.COURIER);
+        long suffix = System.nanoTime();
+        Employee courier = employeeService.addEmployee(new Employee("Courier " + suffix, EmployeePosition.COURIER,
+                "0671234567", "courier" + suffix + "@mangostore.com.ua", "password"));
+        assertEquals(couriers + 1, counterService.getEmployeeCount(EmployeePosition.COURIER));
+
+        employeeService.delete(courier.getEmployeeId());
+        assertEquals(couriers, counterService.getEmployeeCount(EmployeePosition.COURIER));
+    }
+
+    private Customer createCustomer() {
+        Customer customer = new Customer();
+        customer.setName("Buyer");
+        customer.setPhone("0501112233");
+        return customer;
+    }
+}
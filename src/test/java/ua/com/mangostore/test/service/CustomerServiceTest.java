@@ -0,0 +1,48 @@
+package ua.com.mangostore.test.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.service.CustomerService;
+import ua.com.mangostore.test.config.TestDataBaseConfig;
+
+import javax.annotation.Resource;
+
+import static org.junit.Assert.assertEquals;
+
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestDataBaseConfig.class)
+@WebAppConfiguration
+public class CustomerServiceTest {
+
+    @Resource
+    private CustomerService customerService;
+
+    @Test
+    public void testRepeatCustomerIsNeitherDuplicatedNorRewritten() throws Exception {
+        int before = customerService.getAll().size();
+
+        Customer first = customerService.addCustomer(createCustomer("0501234567", "Киев"));
+        Customer second = customerService.addCustomer(createCustomer("+38 050 123 45 67", "Львов"));
+
+        assertEquals(first.getCustomerId(), second.getCustomerId());
+        assertEquals("Киев", second.getCity());
+        assertEquals(before + 1, customerService.getAll().size());
+        assertEquals(first.getCustomerId(), customerService.getByEmail(" Buyer@MangoStore.com.ua").getCustomerId());
+    }
+
+    private Customer createCustomer(String phone, String city) {
+        Customer customer = new Customer();
+        customer.setName("Buyer");
+        customer.setSurname("Mango");
+        customer.setCity(city);
+        customer.setPhone(phone);
+        customer.setEmail("buyer@mangostore.com.ua");
+        return customer;
+    }
+}
@@ -0,0 +1,231 @@
+package ua.com.mangostore.test.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Delivery;
+import ua.com.mangostore.entity.Employee;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.EmployeePosition;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.OrderFilter;
+import ua.com.mangostore.model.OrderPage;
+import ua.com.mangostore.model.OrderRow;
+import ua.com.mangostore.model.OrderSort;
+import ua.com.mangostore.service.CheckoutService;
+import ua.com.mangostore.service.CounterService;
+import ua.com.mangostore.service.DeliveryService;
+import ua.com.mangostore.service.EmployeeService;
+import ua.com.mangostore.service.OrderService;
+import ua.com.mangostore.service.ProductService;
+import ua.com.mangostore.test.config.TestDataBaseConfig;
+
+import javax.annotation.Resource;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestDataBaseConfig.class)
+@WebAppConfiguration
+public class OrderServiceTest {
+
+    @Resource
+    private EntityManagerFactory emf;
+
+    @Resource
+    private OrderService orderService;
+
+    @Resource
+    private CheckoutService checkoutService;
+
+    @Resource
+    private ProductService productService;
+
+    @Resource
+    private DeliveryService deliveryService;
+
+    @Resource
+    private EmployeeService employeeService;
+
+    @Resource
+    private CounterService counterService;
+
+    @Test
+    public void testCourierOrdersAreLoadedInOneQuery() throws Exception {
+        Product product = new Product("Product", "Смартфоны", "Brand", Money.ofHryvnias(1_000), Money.ofHryvnias(900));
+        product.setQuantity(100);
+        product = productService.addProduct(product);
+        List<SalePosition> salePositions = Collections.singletonList(new SalePosition(product, 1));
+        for (DeliveryType deliveryType : DeliveryType.values()) {
+            for (int i = 0; i < 3; i++) {
+                Order order = checkoutService.checkout(createCustomer(), salePositions, deliveryType.name());
+                order.setStatus(Status.WORK);
+                orderService.editOrder(order);
+            }
+        }
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Order> orders = orderService.getByStatusAndDeliveryTypes(Status.WORK,
+                EnumSet.complementOf(EnumSet.of(DeliveryType.PICKUP)));
+
+        assertEquals(3 * (DeliveryType.values().length - 1), orders.size());
+        for (Order order : orders) {
+            assertEquals(Status.WORK, order.getStatus());
+            assertTrue(order.getDelivery().getDeliveryType() != DeliveryType.PICKUP);
+            assertEquals(1, order.getSalePositions().size());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testConsolePagesCoverEveryOrderOnce() throws Exception {
+        Product product = new Product("Product", "Смартфоны", "Brand", Money.ofHryvnias(1_000), Money.ofHryvnias(900));
+        product.setQuantity(100);
+        product = productService.addProduct(product);
+        Set<String> numbers = new HashSet<>();
+        for (int i = 1; i <= 25; i++) {
+            List<SalePosition> salePositions = Collections.singletonList(new SalePosition(product, i % 4 + 1));
+            numbers.add(checkoutService.checkout(createCustomer(), salePositions, DeliveryType.PICKUP.name()).getNumber());
+        }
+
+        for (OrderSort sort : OrderSort.values()) {
+            OrderFilter filter = new OrderFilter();
+            filter.setDeliveryType(DeliveryType.PICKUP);
+            filter.setCustomer("050 765 43 21");
+            filter.setSort(sort);
+            Set<String> seen = new HashSet<>();
+            OrderPage page;
+            do {
+                page = orderService.getPage(filter, 7);
+                for (OrderRow row : page.getRows()) {
+                    assertTrue(seen.add(row.getNumber()));
+                }
+                filter.setCursor(page.getNextCursor());
+            } while (!page.isLast());
+            assertTrue(seen.containsAll(numbers));
+        }
+    }
+
+    @Test
+    public void testOrderViewsAreLoadedInOneQueryEach() throws Exception {
+        Product phone = new Product("Phone", "Смартфоны", "Brand", Money.ofHryvnias(1_000), Money.ofHryvnias(900));
+        phone.setQuantity(100);
+        phone = productService.addProduct(phone);
+        Product cover = new Product("Cover", "Аксессуары", "Brand", Money.ofHryvnias(100), Money.ofHryvnias(90));
+        cover.setQuantity(100);
+        cover = productService.addProduct(cover);
+        Employee courier = employeeService.addEmployee(new Employee("Courier", EmployeePosition.COURIER,
+                "050 111 22 33", "courier@mango.com.ua", "password"));
+        List<SalePosition> salePositions = Arrays.asList(new SalePosition(phone, 1), new SalePosition(cover, 2));
+        long orderId = 0;
+        for (int i = 0; i < 5; i++) {
+            Order order = checkoutService.checkout(createCustomer(), salePositions, DeliveryType.COURIER.name());
+            Delivery delivery = orderService.getById(order.getOrderId()).getDelivery();
+            delivery.setEmployee(courier);
+            delivery.setDeliveryAt(LocalDateTime.of(2017, 3, 1, 10 + i, 0));
+            deliveryService.editDelivery(delivery);
+            orderId = order.getOrderId();
+        }
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        // карточка заказа
+        statistics.clear();
+        Order order = orderService.getById(orderId);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("Buyer", order.getCustomer().getName());
+        assertEquals("Courier", order.getDelivery().getEmployee().getFullName());
+        assertEquals(2, order.getSalePositions().size());
+        for (SalePosition salePosition : order.getSalePositions()) {
+            assertTrue(salePosition.getProduct().getProductTitle().length() > 0);
+        }
+
+        // доставки курьера
+        statistics.clear();
+        List<Delivery> deliveries = deliveryService.getByEmployeeIdAndDate(courier.getEmployeeId(),
+                LocalDate.of(2017, 3, 1));
+        assertEquals(5, deliveries.size());
+        for (Delivery delivery : deliveries) {
+            assertEquals(Status.NEW, delivery.getOrder().getStatus());
+            assertTrue(delivery.getOrder().getNumber().length() > 0);
+        }
+        assertEquals(5, deliveryService.getByEmployeeId(courier.getEmployeeId()).size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        // консоль менеджера
+        statistics.clear();
+        OrderPage page = orderService.getPage(new OrderFilter(), 10);
+        assertTrue(page.getRows().size() >= 5);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testStatusesAreChangedForAGroupOfOrders() throws Exception {
+        Product product = new Product("Product", "Смартфоны", "Brand", Money.ofHryvnias(1_000), Money.ofHryvnias(900));
+        product.setQuantity(100);
+        product = productService.addProduct(product);
+        List<SalePosition> salePositions = Collections.singletonList(new SalePosition(product, 1));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(checkoutService.checkout(createCustomer(), salePositions, DeliveryType.PICKUP.name()).getOrderId());
+        }
+        Order closed = orderService.getById(ids.get(3));
+        closed.setStatus(Status.CLOSED);
+        orderService.editOrder(closed);
+        long newCount = counterService.getOrderCount(Status.NEW);
+        long workCount = counterService.getOrderCount(Status.WORK);
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(3, orderService.editStatuses(ids, Status.WORK));
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Status.WORK, orderService.getById(ids.get(i)).getStatus());
+        }
+        assertEquals(Status.CLOSED, orderService.getById(ids.get(3)).getStatus());
+        assertEquals(newCount - 3, counterService.getOrderCount(Status.NEW));
+        assertEquals(workCount + 3, counterService.getOrderCount(Status.WORK));
+        OrderFilter filter = new OrderFilter();
+        filter.setStatus(Status.WORK);
+        Set<Long> rows = new HashSet<>();
+        for (OrderRow row : orderService.getPage(filter, 1000).getRows()) {
+            rows.add(row.getOrderId());
+        }
+        assertTrue(rows.containsAll(ids.subList(0, 3)));
+
+        assertEquals(0, orderService.editStatuses(ids.subList(0, 3), Status.NEW));
+        assertEquals(3, orderService.editStatuses(ids, Status.DELETED));
+        assertEquals(Status.DELETED, orderService.getById(ids.get(0)).getStatus());
+    }
+
+    private Customer createCustomer() {
+        Customer customer = new Customer();
+        customer.setName("Buyer");
+        customer.setCity("Kyiv");
+        customer.setPhone("0507654321");
+        return customer;
+    }
+}
@@ -0,0 +1,130 @@
+package ua.com.mangostore.test.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Delivery;
+import ua.com.mangostore.entity.Employee;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.EmployeePosition;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.OrderFilter;
+import ua.com.mangostore.model.OrderRow;
+import ua.com.mangostore.service.CheckoutService;
+import ua.com.mangostore.service.DeliveryService;
+import ua.com.mangostore.service.EmployeeService;
+import ua.com.mangostore.service.OrderService;
+import ua.com.mangostore.service.ProductService;
+import ua.com.mangostore.test.config.TestDataBaseConfig;
+
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestDataBaseConfig.class)
+@WebAppConfiguration
+public class OrderSummaryServiceTest {
+
+    @Resource
+    private OrderService orderService;
+
+    @Resource
+    private CheckoutService checkoutService;
+
+    @Resource
+    private ProductService productService;
+
+    @Resource
+    private DeliveryService deliveryService;
+
+    @Resource
+    private EmployeeService employeeService;
+
+    @Test
+    public void testSummaryFollowsOrderCustomerAndCourier() throws Exception {
+        Product phone = new Product("Phone", "Смартфоны", "Brand", Money.ofHryvnias(1_000), Money.ofHryvnias(900));
+        phone.setQuantity(100);
+        phone = productService.addProduct(phone);
+        Product cover = new Product("Cover", "Аксессуары", "Brand", Money.ofHryvnias(100), Money.ofHryvnias(90));
+        cover.setQuantity(100);
+        cover = productService.addProduct(cover);
+        List<SalePosition> salePositions = Arrays.asList(new SalePosition(phone, 1), new SalePosition(cover, 2));
+
+        Order order = checkoutService.checkout(createCustomer("Summary"), salePositions, DeliveryType.COURIER.name());
+        OrderRow row = findRow(orderService.getRowsByStatusAndDeliveryTypes(Status.NEW,
+                EnumSet.of(DeliveryType.COURIER)), order.getOrderId());
+        assertNotNull(row);
+        assertEquals(order.getNumber(), row.getNumber());
+        assertEquals("Kharkiv", row.getCity());
+        assertEquals(3, row.getItemCount());
+        assertEquals(order.getOrderPrice(), row.getOrderPrice());
+        assertNull(row.getCourierName());
+
+        Employee courier = employeeService.addEmployee(new Employee("Summary Courier", EmployeePosition.COURIER,
+                "050 222 33 44", "summary.courier@mango.com.ua", "password"));
+        Delivery delivery = orderService.getById(order.getOrderId()).getDelivery();
+        delivery.setEmployee(courier);
+        delivery.setDeliveryAt(LocalDateTime.of(2017, 4, 1, 15, 0));
+        deliveryService.editDelivery(delivery);
+        row = findRow(orderService.getRowsByCourier(courier.getEmployeeId(), LocalDate.of(2017, 4, 1)),
+                order.getOrderId());
+        assertNotNull(row);
+        assertEquals("Summary Courier", row.getCourierName());
+        assertEquals(LocalDateTime.of(2017, 4, 1, 15, 0), row.getDeliveryAt());
+
+        Order changed = orderService.getById(order.getOrderId());
+        changed.setStatus(Status.WORK);
+        orderService.editOrder(changed);
+        Order renamed = checkoutService.checkout(createCustomer("Renamed"), salePositions, DeliveryType.PICKUP.name());
+        assertEquals(order.getCustomer().getCustomerId(), renamed.getCustomer().getCustomerId());
+        assertEquals("Summary", orderService.getById(order.getOrderId()).getRecipient().getSurname());
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomer("Renamed");
+        assertNull(findRow(orderService.getPage(filter, 50).getRows(), order.getOrderId()));
+        assertNotNull(findRow(orderService.getPage(filter, 50).getRows(), renamed.getOrderId()));
+        filter.setCustomer("Summary");
+        row = findRow(orderService.getPage(filter, 50).getRows(), order.getOrderId());
+        assertNotNull(row);
+        assertEquals(Status.WORK, row.getStatus());
+        assertEquals("Summary", row.getCustomerSurname());
+
+        orderService.delete(order.getOrderId());
+        assertNull(findRow(orderService.getRowsByCourier(courier.getEmployeeId(), LocalDate.of(2017, 4, 1)),
+                order.getOrderId()));
+    }
+
+    private static OrderRow findRow(List<OrderRow> rows, long orderId) {
+        for (OrderRow row : rows) {
+            if (row.getOrderId() == orderId) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    private static Customer createCustomer(String surname) {
+        Customer customer = new Customer();
+        customer.setName("Buyer");
+        customer.setSurname(surname);
+        customer.setCity("Kharkiv");
+        customer.setPhone("0509998877");
+        return customer;
+    }
+}
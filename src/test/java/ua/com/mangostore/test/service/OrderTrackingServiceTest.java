@@ -0,0 +1,106 @@
+package ua.com.mangostore.test.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.OrderTracking;
+import ua.com.mangostore.service.CheckoutService;
+import ua.com.mangostore.service.OrderTrackingService;
+import ua.com.mangostore.service.ProductService;
+import ua.com.mangostore.test.config.TestDataBaseConfig;
+
+import javax.annotation.Resource;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestDataBaseConfig.class)
+@WebAppConfiguration
+public class OrderTrackingServiceTest {
+    @Resource
+    private EntityManagerFactory emf;
+
+    @Resource
+    private OrderTrackingService orderTrackingService;
+
+    @Resource
+    private CheckoutService checkoutService;
+
+    @Resource
+    private ProductService productService;
+
+    @Test
+    public void testOrderIsFoundByNumberAndPhone() {
+        Order order = placeOrder();
+
+        OrderTracking tracking = orderTrackingService.track(order.getNumber().toLowerCase(), "+38 (050) 765-43-21",
+                "10.0.0.1");
+        assertEquals(order.getNumber(), tracking.getNumber());
+        assertEquals(Status.NEW, tracking.getStatus());
+        assertEquals(DeliveryType.PICKUP, tracking.getDeliveryType());
+
+        assertNull(orderTrackingService.track(order.getNumber(), "0501112233", "10.0.0.1"));
+        assertNull(orderTrackingService.track("NOSUCHORDER", "0507654321", "10.0.0.1"));
+    }
+
+    @Test
+    public void testRepeatedLookupsAreServedFromCache() {
+        Order order = placeOrder();
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(order.getNumber(), orderTrackingService.track(order.getNumber(), "0507654321", "10.0.0.2")
+                    .getNumber());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+        // ни торговые позиции, ни покупатель не загружаются
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void testRepeatedMissesOfClientAreThrottled() {
+        Order order = placeOrder();
+
+        for (int i = 0; i < 5; i++) {
+            assertNull(orderTrackingService.track(order.getNumber(), "050111223" + i, "10.0.0.3"));
+            assertNull(orderTrackingService.track("NOSUCH" + i, "0507654321", "10.0.0.3"));
+        }
+        // после десяти неудачных попыток по любым номерам клиент не проверяется даже с верным телефоном
+        assertNull(orderTrackingService.track(order.getNumber(), "0507654321", "10.0.0.3"));
+        // покупатель с другого адреса заказ находит
+        assertEquals(order.getNumber(), orderTrackingService.track(order.getNumber(), "0507654321", "10.0.0.4")
+                .getNumber());
+    }
+
+    private Order placeOrder() {
+        Product product = new Product("Product " + UUID.randomUUID(), "Смартфоны", "Brand",
+                Money.ofHryvnias(1_000), Money.ofHryvnias(900));
+        product.setQuantity(10);
+        product = productService.addProduct(product);
+
+        Customer customer = new Customer();
+        customer.setName("Buyer");
+        customer.setEmail("buyer@mangostore.com.ua");
+        customer.setPhone("0507654321");
+        return checkoutService.checkout(customer, Collections.singletonList(new SalePosition(product, 1)),
+                DeliveryType.PICKUP.name());
+    }
+}
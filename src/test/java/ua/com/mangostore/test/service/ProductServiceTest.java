@@ -7,6 +7,8 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.model.Money;
 import ua.com.mangostore.service.ProductService;
 import ua.com.mangostore.test.config.TestDataBaseConfig;
 import ua.com.mangostore.test.util.ProductUtil;
@@ -15,6 +17,9 @@ import javax.annotation.Resource;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
 @DirtiesContext
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration(classes = TestDataBaseConfig.class)
@@ -37,5 +42,21 @@ public class ProductServiceTest {
     public void testSaveProduct() throws Exception {
         productService.addProduct(ProductUtil.createProduct());
     }
+
+    @Test
+    public void testEditDoesNotTouchCachedProductBeforeSave() throws Exception {
+        Product product = productService.addProduct(new Product("Cached", "Смартфоны", "Brand",
+                Money.ofHryvnias(1_000), Money.ofHryvnias(900)));
+        Product cached = productService.getById(product.getProductId());
+
+        Product edited = productService.getForUpdate(product.getProductId());
+        assertNotSame(cached, edited);
+        edited.setProductTitle("Edited");
+        assertEquals("Cached", productService.getById(product.getProductId()).getProductTitle());
+
+        productService.editProduct(edited);
+        assertEquals("Edited", productService.getById(product.getProductId()).getProductTitle());
+        assertEquals("Cached", cached.getProductTitle());
+    }
 }
 
@@ -0,0 +1,161 @@
+package ua.com.mangostore.test.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.model.SalesRebuildProgress;
+import ua.com.mangostore.model.SalesRow;
+import ua.com.mangostore.service.ArchiveService;
+import ua.com.mangostore.service.CheckoutService;
+import ua.com.mangostore.service.OrderService;
+import ua.com.mangostore.service.ProductService;
+import ua.com.mangostore.service.SalesRollupService;
+import ua.com.mangostore.test.config.TestDataBaseConfig;
+
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestDataBaseConfig.class)
+@WebAppConfiguration
+public class SalesRollupServiceTest {
+
+    @Resource
+    private SalesRollupService salesRollupService;
+
+    @Resource
+    private CheckoutService checkoutService;
+
+    @Resource
+    private OrderService orderService;
+
+    @Resource
+    private ArchiveService archiveService;
+
+    @Resource
+    private ProductService productService;
+
+    @Test
+    public void testRollupsFollowOrderChanges() throws Exception {
+        String brand = "Rollup" + System.nanoTime();
+        Product product = createProduct("Rollup product", brand);
+        Order order = checkoutService.checkout(createCustomer(), Arrays.asList(new SalePosition(product, 2)),
+                DeliveryType.PICKUP.name());
+
+        SalesRow row = getBrandRow(brand);
+        assertEquals(2, row.getUnits());
+        assertEquals(Money.ofHryvnias(1_800), row.getRevenue());
+
+        order.setStatus(Status.DELETED);
+        orderService.editOrder(order);
+        row = getBrandRow(brand);
+        assertEquals(0, row != null ? row.getUnits() : 0);
+    }
+
+    @Test
+    public void testRebuildMatchesIncrementalRollups() throws Exception {
+        String suffix = String.valueOf(System.nanoTime());
+        Product first = createProduct("Rebuild first " + suffix, "Rebuild" + suffix);
+        Product second = createProduct("Rebuild second " + suffix, "Rebuild" + suffix);
+        for (int i = 0; i < 5; i++) {
+            checkoutService.checkout(createCustomer(),
+                    Arrays.asList(new SalePosition(first, 1), new SalePosition(second, i + 1)),
+                    DeliveryType.PICKUP.name());
+        }
+        Order closed = checkoutService.checkout(createCustomer(), Arrays.asList(new SalePosition(first, 3)),
+                DeliveryType.PICKUP.name());
+        closed.setStatus(Status.CLOSED);
+        orderService.editOrder(closed);
+        archiveService.archiveBefore(LocalDateTime.now().plusMinutes(1));
+
+        Map<String, long[]> expected = getProductRows(suffix);
+        salesRollupService.rebuild();
+        Map<String, long[]> actual = getProductRows(suffix);
+
+        assertEquals(2, actual.size());
+        for (Map.Entry<String, long[]> row : expected.entrySet()) {
+            assertEquals(row.getKey(), row.getValue()[0], actual.get(row.getKey())[0]);
+            assertEquals(row.getKey(), row.getValue()[1], actual.get(row.getKey())[1]);
+        }
+        assertEquals(8, actual.get(first.getProductTitle())[0]);
+        assertEquals(15, actual.get(second.getProductTitle())[0]);
+
+        SalesRebuildProgress progress = salesRollupService.getRebuildProgress();
+        assertFalse(progress.isRunning());
+        assertNotNull(progress.getFinishedAt());
+        assertNull(progress.getError());
+        assertEquals(100, progress.getPercent());
+    }
+
+    @Test
+    public void testRollupsFollowOrderChangesAfterRebuild() throws Exception {
+        String brand = "Generation" + System.nanoTime();
+        Product product = createProduct("Generation product", brand);
+        checkoutService.checkout(createCustomer(), Arrays.asList(new SalePosition(product, 1)),
+                DeliveryType.PICKUP.name());
+        salesRollupService.rebuild();
+        salesRollupService.rebuild();
+
+        Order order = checkoutService.checkout(createCustomer(), Arrays.asList(new SalePosition(product, 2)),
+                DeliveryType.PICKUP.name());
+        assertEquals(3, getBrandRow(brand).getUnits());
+
+        order.setStatus(Status.DELETED);
+        orderService.editOrder(order);
+        assertEquals(1, getBrandRow(brand).getUnits());
+    }
+
+    private SalesRow getBrandRow(String brand) {
+        for (SalesRow row : salesRollupService.getByBrand(LocalDate.now(), LocalDate.now())) {
+            if (brand.equals(row.getBrand())) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    private Map<String, long[]> getProductRows(String suffix) {
+        Map<String, long[]> rows = new HashMap<>();
+        for (SalesRow row : salesRollupService.getByProduct(LocalDate.now(), LocalDate.now())) {
+            if (row.getTitle().endsWith(suffix)) {
+                long[] totals = rows.computeIfAbsent(row.getTitle(), title -> new long[2]);
+                totals[0] += row.getUnits();
+                totals[1] += row.getRevenue().getAmount();
+            }
+        }
+        return rows;
+    }
+
+    private Product createProduct(String title, String brand) {
+        Product product = new Product(title, "Смартфоны", brand, Money.ofHryvnias(1_000), Money.ofHryvnias(900));
+        product.setQuantity(100);
+        return productService.addProduct(product);
+    }
+
+    private Customer createCustomer() {
+        Customer customer = new Customer();
+        customer.setName("Buyer");
+        customer.setPhone("0504445566");
+        return customer;
+    }
+}
@@ -0,0 +1,199 @@
+package ua.com.mangostore.test.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.com.mangostore.entity.Customer;
+import ua.com.mangostore.entity.Order;
+import ua.com.mangostore.entity.Product;
+import ua.com.mangostore.entity.SalePosition;
+import ua.com.mangostore.entity.enums.DeliveryType;
+import ua.com.mangostore.entity.enums.Status;
+import ua.com.mangostore.exception.OutOfStockException;
+import ua.com.mangostore.model.Money;
+import ua.com.mangostore.repository.ProductRepository;
+import ua.com.mangostore.service.CheckoutService;
+import ua.com.mangostore.service.OrderService;
+import ua.com.mangostore.service.ProductService;
+import ua.com.mangostore.service.StockService;
+import ua.com.mangostore.test.config.TestDataBaseConfig;
+import ua.com.mangostore.test.util.ProductUtil;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestDataBaseConfig.class)
+@WebAppConfiguration
+public class StockServiceTest {
+    private static final int BUYERS = 500;
+    private static final int THREADS = 50;
+    private static final int STOCK = 100;
+
+    @Resource
+    private CheckoutService checkoutService;
+
+    @Resource
+    private ProductService productService;
+
+    @Resource
+    private StockService stockService;
+
+    @Resource
+    private OrderService orderService;
+
+    @Resource
+    private ProductRepository productRepository;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testParallelBuyersDoNotOversell() throws Exception {
+        Product product = ProductUtil.createProduct();
+        product.setQuantity(STOCK);
+        product = productService.addProduct(product);
+        assertEquals(STOCK, stockService.getAvailable(product.getProductId()));
+
+        List<SalePosition> salePositions = Collections.singletonList(new SalePosition(product, 1));
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    checkoutService.checkout(createCustomer(), salePositions, DeliveryType.PICKUP.name());
+                    sold.incrementAndGet();
+                } catch (OutOfStockException ex) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(STOCK, sold.get());
+        assertEquals(BUYERS - STOCK, rejected.get());
+        assertEquals(0, productRepository.findQuantityById(product.getProductId()).intValue());
+        assertEquals(0, stockService.getAvailable(product.getProductId()));
+    }
+
+    @Test
+    public void testRestock() throws Exception {
+        Product product = new Product("Meizu M3s", "Смартфоны", "Meizu", Money.ofHryvnias(5_000), Money.ofHryvnias(3_999));
+        product = productService.addProduct(product);
+        assertEquals(0, stockService.getAvailable(product.getProductId()));
+
+        stockService.restock(product.getProductId(), 5);
+        assertEquals(5, stockService.getAvailable(product.getProductId()));
+    }
+
+    @Test
+    public void testDeletedOrdersReturnStock() throws Exception {
+        Product product = new Product("Xiaomi Redmi 4", "Смартфоны", "Xiaomi", Money.ofHryvnias(4_000), Money.ofHryvnias(3_500));
+        product.setQuantity(10);
+        product = productService.addProduct(product);
+        long productId = product.getProductId();
+        assertEquals(10, stockService.getAvailable(productId));
+
+        Order removed = checkoutService.checkout(createCustomer(),
+                Collections.singletonList(new SalePosition(product, 3)), DeliveryType.PICKUP.name());
+        assertEquals(7, stockService.getAvailable(productId));
+
+        // удаление заказа со страницы заказа
+        Order order = orderService.getById(removed.getOrderId());
+        order.setStatus(Status.DELETED);
+        orderService.editOrder(order);
+        assertEquals(10, stockService.getAvailable(productId));
+        assertEquals(10, productRepository.findQuantityById(productId).intValue());
+
+        // групповое удаление
+        List<Long> ids = new ArrayList<>();
+        ids.add(checkoutService.checkout(createCustomer(),
+                Collections.singletonList(new SalePosition(product, 2)), DeliveryType.PICKUP.name()).getOrderId());
+        ids.add(checkoutService.checkout(createCustomer(),
+                Collections.singletonList(new SalePosition(product, 4)), DeliveryType.PICKUP.name()).getOrderId());
+        assertEquals(4, stockService.getAvailable(productId));
+        assertEquals(2, orderService.editStatuses(ids, Status.DELETED));
+        assertEquals(10, stockService.getAvailable(productId));
+        assertEquals(10, productRepository.findQuantityById(productId).intValue());
+
+        // повторное удаление и восстановление заказа
+        assertEquals(0, orderService.editStatuses(ids, Status.DELETED));
+        order = orderService.getById(removed.getOrderId());
+        order.setStatus(Status.NEW);
+        orderService.editOrder(order);
+        assertEquals(7, stockService.getAvailable(productId));
+        assertEquals(7, productRepository.findQuantityById(productId).intValue());
+    }
+
+    @Test
+    public void testFirstReadDuringCommittedReservationIsNotCached() throws Exception {
+        Product product = ProductUtil.createProduct();
+        product.setQuantity(10);
+        product = productService.addProduct(product);
+        long productId = product.getProductId();
+        List<SalePosition> salePositions = Collections.singletonList(new SalePosition(product, 1));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                // регистрируется раньше синхронизации склада, поэтому читает остаток, когда резерв
+                // уже зафиксирован в базе данных, а счетчик еще не получил изменение
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        try {
+                            assertEquals(9, (int) executor.submit(() -> stockService.getAvailable(productId)).get());
+                        } catch (Exception ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    }
+                });
+                stockService.reserve(salePositions);
+                return null;
+            });
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(9, stockService.getAvailable(productId));
+        stockService.reserve(salePositions);
+        assertEquals(8, stockService.getAvailable(productId));
+    }
+
+    private Customer createCustomer() {
+        Customer customer = new Customer();
+        customer.setName("Buyer");
+        customer.setEmail("buyer@mangostore.com.ua");
+        customer.setPhone("0501234567");
+        return customer;
+    }
+}
@@ -2,10 +2,11 @@ package ua.com.mangostore.test.util;
 
 import ua.com.mangostore.entity.Product;
 import ua.com.mangostore.entity.enums.OnMain;
+import ua.com.mangostore.model.Money;
 
 public class ProductUtil {
     public static Product createProduct() {
-        Product product1 = new Product("iPhone 7 Plus 32GB ", "Смартфоны", "Apple", 35_000, 17_999);
+        Product product1 = new Product("iPhone 7 Plus 32GB ", "Смартфоны", "Apple", Money.ofHryvnias(35_000), Money.ofHryvnias(17_999));
         product1.setImageURL("http://localhost:8080/resources/img/apple_iphone-7_400x480.jpg");
         product1.setOnMain(OnMain.ON_MAIN);
         product1.setDescription(
@@ -0,0 +1,92 @@
+package ua.com.mangostore.test.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Минимальный локальный SMTP-сервер для тестов: принимает письма и сохраняет их в памяти.
+ */
+public class SmtpServerStub implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final List<String> recipients = new CopyOnWriteArrayList<>();
+    private volatile int connections;
+
+    public SmtpServerStub() throws IOException {
+        serverSocket = new ServerSocket(0);
+        Thread thread = new Thread(this::accept, "smtp-stub");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    public List<String> getRecipients() {
+        return recipients;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                connections++;
+                serve(socket);
+            } catch (IOException ignored) {
+                // сервер закрыт или клиент оборвал соединение
+            }
+        }
+    }
+
+    private void serve(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+        out.print("220 localhost SMTP stub\r\n");
+        out.flush();
+        String line;
+        while ((line = in.readLine()) != null) {
+            String command = line.toUpperCase();
+            if (command.startsWith("DATA")) {
+                out.print("354 End data with <CR><LF>.<CR><LF>\r\n");
+                out.flush();
+                List<String> data = new ArrayList<>();
+                while ((line = in.readLine()) != null && !line.equals(".")) {
+                    data.add(line);
+                }
+                messages.add(String.join("\n", data));
+                out.print("250 OK\r\n");
+            } else if (command.startsWith("RCPT TO:")) {
+                recipients.add(line.substring("RCPT TO:".length()).trim());
+                out.print("250 OK\r\n");
+            } else if (command.startsWith("QUIT")) {
+                out.print("221 Bye\r\n");
+                out.flush();
+                return;
+            } else {
+                out.print("250 OK\r\n");
+            }
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}